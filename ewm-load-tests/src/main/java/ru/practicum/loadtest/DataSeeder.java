@@ -0,0 +1,78 @@
+package ru.practicum.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * DATA SEEDER
+ * fill the empty schema of the main service with the data set, generating rows in the database
+ * with INSERT ... SELECT FROM SYSTEM_RANGE (H2), so that rows are not sent one by one from the load test.
+ * Identity columns are restarted after the seeded IDs, so that rows created by the load get new IDs.
+ */
+@Slf4j
+public class DataSeeder {
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSet dataSet;
+
+    public DataSeeder(JdbcTemplate jdbcTemplate, DataSet dataSet) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSet = dataSet;
+    }
+
+    /**
+     * seed users, categories, locations, events, participation requests and their counters
+     */
+    public void seed() {
+        LoadTestOptions options = dataSet.getOptions();
+        long start = System.currentTimeMillis();
+
+        insert("users", options.getUsers(), "INSERT INTO users (user_id, user_name, email) "
+                + "SELECT X, CONCAT('user ', X), CONCAT('user', X, '@load.test') FROM SYSTEM_RANGE(1, ?)");
+        insert("categories", options.getCategories(), "INSERT INTO categories (category_id, category_name) "
+                + "SELECT X, CONCAT('category ', X) FROM SYSTEM_RANGE(1, ?)");
+        insert("locations", options.getEvents(), "INSERT INTO locations (location_id, latitude, longitude) "
+                + "SELECT X, 55.0 + MOD(X, 1000) / 1000.0, 37.0 + MOD(X, 997) / 1000.0 FROM SYSTEM_RANGE(1, ?)");
+        insert("events", options.getEvents(), "INSERT INTO events (event_id, annotation, category_id, "
+                + "confirmed_requests, created_on, description, event_date, initiator_id, location_id, paid, "
+                + "participant_limit, published_on, request_moderation, title, state, views, version) "
+                + "SELECT X, CONCAT('Annotation of the load test event number ', X), "
+                + "1 + MOD(X - 1, " + options.getCategories() + "), 0, DATEADD(DAY, -30, LOCALTIMESTAMP), "
+                + "CONCAT('Description of the load test event number ', X), "
+                + "DATEADD(DAY, 1 + MOD(X - 1, 365), LOCALTIMESTAMP), 1 + MOD(X - 1, " + options.getUsers() + "), "
+                + "X, MOD(X, 2) = 0, "
+                + "CASE WHEN MOD(X - 1, " + DataSet.UNLIMITED_EVENT_EVERY + ") = 0 THEN 0 "
+                + "ELSE " + DataSet.PARTICIPANT_LIMIT + " END, "
+                + "CASE WHEN MOD(X - 1, " + DataSet.PENDING_EVENT_EVERY + ") = 0 THEN NULL "
+                + "ELSE DATEADD(DAY, -29, LOCALTIMESTAMP) END, TRUE, CONCAT('Event ', X), "
+                + "CASE WHEN MOD(X - 1, " + DataSet.PENDING_EVENT_EVERY + ") = 0 THEN 'PENDING' "
+                + "ELSE 'PUBLISHED' END, 0, 0 FROM SYSTEM_RANGE(1, ?)");
+        // request r = X - 1 is made by user r % users to event (r % users + 1 + r / users * step) % events
+        insert("participation_requests", options.getRequests(), "INSERT INTO participation_requests "
+                + "(request_id, status, created, event_id, requester_id, version) "
+                + "SELECT X, 'PENDING', DATEADD(DAY, -1, LOCALTIMESTAMP), "
+                + "1 + MOD(MOD(X - 1, " + options.getUsers() + ") + 1 + (X - 1) / " + options.getUsers()
+                + " * " + dataSet.getStep() + ", " + options.getEvents() + "), "
+                + "1 + MOD(X - 1, " + options.getUsers() + "), 0 FROM SYSTEM_RANGE(1, ?)");
+        jdbcTemplate.update("INSERT INTO event_request_counters (event_id, pending, confirmed, rejected, canceled) "
+                + "SELECT e.event_id, COALESCE(r.pending, 0), 0, 0, 0 FROM events e LEFT JOIN "
+                + "(SELECT event_id, COUNT(*) pending FROM participation_requests GROUP BY event_id) r "
+                + "ON r.event_id = e.event_id");
+
+        restart("users", "user_id", options.getUsers());
+        restart("categories", "category_id", options.getCategories());
+        restart("locations", "location_id", options.getEvents());
+        restart("events", "event_id", options.getEvents());
+        restart("participation_requests", "request_id", options.getRequests());
+        log.info("Data set seeded in {} ms", System.currentTimeMillis() - start);
+    }
+
+    private void insert(String table, long rows, String sql) {
+        long start = System.currentTimeMillis();
+        jdbcTemplate.update(sql, rows);
+        log.info("{} rows inserted into {} in {} ms", rows, table, System.currentTimeMillis() - start);
+    }
+
+    private void restart(String table, String column, long rows) {
+        jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN " + column + " RESTART WITH " + (rows + 1));
+    }
+}
@@ -0,0 +1,96 @@
+package ru.practicum.loadtest;
+
+import java.util.Random;
+
+/**
+ * DATA SET
+ * layout of the seeded data, shared by the seeder and the traffic generator, so that generated requests
+ * refer to existing rows without reading them back. All IDs start with 1 and are derived from the index of the row:
+ * event i belongs to category i % categories and initiator i % users, every tenth event is pending, the others
+ * are published, every fourth event has no participant limit.
+ * Participation request r is made by user r % users, requests of a user go to distinct events, which are
+ * spread over the whole data set with a step of events / requests per user.
+ */
+public class DataSet {
+    static final int PENDING_EVENT_EVERY = 10;
+    static final int UNLIMITED_EVENT_EVERY = 4;
+    static final int PARTICIPANT_LIMIT = 100;
+
+    private final LoadTestOptions options;
+    private final int step;
+
+    public DataSet(LoadTestOptions options) {
+        this.options = options;
+        this.step = options.getEvents() / options.requestsPerUser();
+    }
+
+    public LoadTestOptions getOptions() {
+        return options;
+    }
+
+    /**
+     * @return step between events of the requests of a user
+     */
+    public int getStep() {
+        return step;
+    }
+
+    /**
+     * @param random random numbers of the generator
+     * @return ID of a random user
+     */
+    public long randomUserId(Random random) {
+        return 1 + random.nextInt(options.getUsers());
+    }
+
+    /**
+     * @param random random numbers of the generator
+     * @return ID of a random category
+     */
+    public long randomCategoryId(Random random) {
+        return 1 + random.nextInt(options.getCategories());
+    }
+
+    /**
+     * @param random random numbers of the generator
+     * @return ID of a random published event
+     */
+    public long randomPublishedEventId(Random random) {
+        int index;
+        do {
+            index = random.nextInt(options.getEvents());
+        } while (index % PENDING_EVENT_EVERY == 0);
+        return index + 1;
+    }
+
+    /**
+     * @param random random numbers of the generator
+     * @return index of a random seeded request to a published event with participant limit, which is moderated
+     */
+    public int randomModeratedRequest(Random random) {
+        int request;
+        do {
+            request = random.nextInt(options.getRequests());
+        } while (eventOfRequest(request) % PENDING_EVENT_EVERY == 0
+                || eventOfRequest(request) % UNLIMITED_EVENT_EVERY == 0);
+        return request;
+    }
+
+    /**
+     * @param request index of the request
+     * @return index of the event of the request
+     */
+    public int eventOfRequest(int request) {
+        int user = request % options.getUsers();
+        int number = request / options.getUsers();
+        return (int) ((user + 1 + (long) number * step) % options.getEvents());
+    }
+
+    /**
+     * @param event index of the event
+     * @return ID of the initiator of the event
+     */
+    public long initiatorIdOfEvent(int event) {
+        return 1 + event % options.getUsers();
+    }
+}
@@ -0,0 +1,174 @@
+package ru.practicum.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * LOAD GENERATOR
+ * open-loop traffic: requests are sent at the configured rate whatever the response times are,
+ * scenarios are picked at random by their weights in the mix.
+ * Requests are sent asynchronously, so that a slow response does not hold back the following requests,
+ * and latency is measured from the time the request was scheduled, not from the time it was actually sent.
+ * Requests scheduled during warmup are sent but not recorded, nor are responses, which come after the report.
+ * With connections > 0 the traffic is closed-loop instead: every connection sends the next request
+ * as soon as the response to the previous one comes, and latency is measured from the time the request was sent,
+ * which shows how many concurrent connections the service holds rather than its latency at a given rate.
+ */
+@Slf4j
+public class LoadGenerator {
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(10);
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(60);
+
+    private final URI baseUri;
+    private final DataSet dataSet;
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(CONNECT_TIMEOUT)
+            .build();
+
+    public LoadGenerator(URI baseUri, DataSet dataSet) {
+        this.baseUri = baseUri;
+        this.dataSet = dataSet;
+    }
+
+    /**
+     * generate traffic for warmup and measured duration, then wait for the responses
+     *
+     * @return report of the requests scheduled after warmup
+     */
+    public LoadReport run() {
+        LoadTestOptions options = dataSet.getOptions();
+        Scenario[] scenarios = toWheel(options.getMix());
+        LoadReport report = new LoadReport(options.getDuration());
+        AtomicLong inFlight = new AtomicLong();
+        AtomicBoolean reported = new AtomicBoolean();
+        if (options.getConnections() > 0) {
+            runClosedLoop(options, scenarios, report, inFlight, reported);
+        } else {
+            runOpenLoop(options, scenarios, report, inFlight, reported);
+        }
+        return report;
+    }
+
+    private void runOpenLoop(LoadTestOptions options, Scenario[] scenarios, LoadReport report, AtomicLong inFlight,
+                             AtomicBoolean reported) {
+        Random random = new Random(options.getSeed());
+
+        long interval = TimeUnit.SECONDS.toNanos(1) / options.getRate();
+        long start = System.nanoTime();
+        long measuredFrom = start + options.getWarmup().toNanos();
+        long end = measuredFrom + options.getDuration().toNanos();
+        log.info("Generating {} requests per second for {} s of warmup and {} s of measurement",
+                options.getRate(), options.getWarmup().toSeconds(), options.getDuration().toSeconds());
+
+        ResourceSampler sampler = null;
+        for (long scheduled = start; scheduled < end; scheduled += interval) {
+            if (sampler == null && scheduled >= measuredFrom) {
+                sampler = ResourceSampler.start();
+            }
+            long delay = scheduled - System.nanoTime();
+            if (delay > 0) {
+                LockSupport.parkNanos(delay);
+            }
+            Scenario scenario = scenarios[random.nextInt(scenarios.length)];
+            HttpRequest request = scenario.create(baseUri, dataSet, random);
+            long scheduledAt = scheduled;
+            boolean measured = scheduled >= measuredFrom;
+            inFlight.incrementAndGet();
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        if (measured && !reported.get()) {
+                            report.record(scenario, System.nanoTime() - scheduledAt,
+                                    response == null ? 0 : response.statusCode());
+                        }
+                        if (error != null) {
+                            log.debug("{} {} failed", request.method(), request.uri(), error);
+                        }
+                        inFlight.decrementAndGet();
+                    });
+        }
+        awaitResponses(inFlight);
+        reported.set(true);
+        if (sampler != null) {
+            sampler.close();
+            report.recordResources(sampler);
+        }
+    }
+
+    private void runClosedLoop(LoadTestOptions options, Scenario[] scenarios, LoadReport report,
+                               AtomicLong inFlight, AtomicBoolean reported) {
+        long start = System.nanoTime();
+        long measuredFrom = start + options.getWarmup().toNanos();
+        long end = measuredFrom + options.getDuration().toNanos();
+        log.info("Generating closed-loop traffic of {} connections for {} s of warmup and {} s of measurement",
+                options.getConnections(), options.getWarmup().toSeconds(), options.getDuration().toSeconds());
+
+        for (int connection = 0; connection < options.getConnections(); connection++) {
+            Random random = new Random(options.getSeed() + connection);
+            send(scenarios, random, report, inFlight, reported, measuredFrom, end);
+        }
+        LockSupport.parkNanos(measuredFrom - System.nanoTime());
+        ResourceSampler sampler = ResourceSampler.start();
+        LockSupport.parkNanos(end - System.nanoTime());
+        awaitResponses(inFlight);
+        reported.set(true);
+        sampler.close();
+        report.recordResources(sampler);
+    }
+
+    /**
+     * send request of the connection, and the next one when the response comes, until the end of the load
+     */
+    private void send(Scenario[] scenarios, Random random, LoadReport report, AtomicLong inFlight,
+                      AtomicBoolean reported, long measuredFrom, long end) {
+        Scenario scenario = scenarios[random.nextInt(scenarios.length)];
+        HttpRequest request = scenario.create(baseUri, dataSet, random);
+        long sentAt = System.nanoTime();
+        inFlight.incrementAndGet();
+        client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> {
+                    if (sentAt >= measuredFrom && !reported.get()) {
+                        report.record(scenario, System.nanoTime() - sentAt,
+                                response == null ? 0 : response.statusCode());
+                    }
+                    if (error != null) {
+                        log.debug("{} {} failed", request.method(), request.uri(), error);
+                    }
+                    if (System.nanoTime() < end) {
+                        send(scenarios, random, report, inFlight, reported, measuredFrom, end);
+                    }
+                    inFlight.decrementAndGet();
+                });
+    }
+
+    private void awaitResponses(AtomicLong inFlight) {
+        long deadline = System.nanoTime() + DRAIN_TIMEOUT.toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+        if (inFlight.get() > 0) {
+            log.warn("{} requests are still in flight after {} s", inFlight.get(), DRAIN_TIMEOUT.toSeconds());
+        }
+    }
+
+    /**
+     * spread scenarios over an array by their weights, so that a scenario is picked by one random index
+     */
+    private static Scenario[] toWheel(Map<Scenario, Integer> mix) {
+        return mix.entrySet().stream()
+                .flatMap(e -> Collections.nCopies(e.getValue(), e.getKey()).stream())
+                .toArray(Scenario[]::new);
+    }
+}
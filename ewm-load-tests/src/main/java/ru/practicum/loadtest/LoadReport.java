@@ -0,0 +1,156 @@
+package ru.practicum.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * LOAD REPORT
+ * latency histograms and response statuses of the measured requests by scenario.
+ * Latency is recorded in microseconds from the time the request was scheduled to be sent,
+ * so that requests delayed behind slow ones are not left out of the percentiles.
+ * Status 0 stands for requests, which failed without response.
+ * Peak threads and heap of the JVM during the measurement are reported with the latencies.
+ */
+public class LoadReport {
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(5);
+    private static final int SIGNIFICANT_DIGITS = 3;
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    private final Duration duration;
+    private final Map<Scenario, Histogram> latencies = new EnumMap<>(Scenario.class);
+    private final Map<Scenario, Map<Integer, LongAdder>> statuses = new EnumMap<>(Scenario.class);
+    private int peakThreads;
+    private long peakHeapBytes;
+
+    public LoadReport(Duration duration) {
+        this.duration = duration;
+        for (Scenario scenario : Scenario.values()) {
+            latencies.put(scenario, new ConcurrentHistogram(MAX_LATENCY_MICROS, SIGNIFICANT_DIGITS));
+            statuses.put(scenario, new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * record completed request
+     *
+     * @param scenario     scenario of the request
+     * @param latencyNanos time from scheduled start of the request to its completion
+     * @param status       response status, 0 if the request failed
+     */
+    public void record(Scenario scenario, long latencyNanos, int status) {
+        latencies.get(scenario).recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), MAX_LATENCY_MICROS));
+        statuses.get(scenario).computeIfAbsent(status, s -> new LongAdder()).increment();
+    }
+
+    /**
+     * record peak resources of the JVM during the measurement
+     *
+     * @param sampler stopped sampler
+     */
+    public void recordResources(ResourceSampler sampler) {
+        this.peakThreads = sampler.getPeakThreads();
+        this.peakHeapBytes = sampler.getPeakHeapBytes();
+    }
+
+    /**
+     * @return peak number of live platform threads during the measurement
+     */
+    public int getPeakThreads() {
+        return peakThreads;
+    }
+
+    /**
+     * @param scenario scenario of the requests
+     * @return number of measured requests
+     */
+    public long getCount(Scenario scenario) {
+        return latencies.get(scenario).getTotalCount();
+    }
+
+    /**
+     * @param scenario scenario of the requests
+     * @return number of measured requests by response status
+     */
+    public Map<Integer, Long> getStatuses(Scenario scenario) {
+        return statuses.get(scenario).entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().sum(), Long::sum, TreeMap::new));
+    }
+
+    /**
+     * @param scenario   scenario of the requests
+     * @param percentile percentile, like 99.9
+     * @return latency at the percentile in milliseconds
+     */
+    public double getLatencyMillis(Scenario scenario, double percentile) {
+        return latencies.get(scenario).getValueAtPercentile(percentile) / MICROS_PER_MILLI;
+    }
+
+    /**
+     * print summary: throughput, latency percentiles and statuses by scenario
+     *
+     * @param out stream to print to
+     */
+    public void print(PrintStream out) {
+        out.printf("%-8s %9s %9s %9s %9s %9s %9s  %s%n",
+                "scenario", "requests", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms", "statuses");
+        for (Scenario scenario : Scenario.values()) {
+            Histogram histogram = latencies.get(scenario);
+            if (histogram.getTotalCount() == 0) {
+                continue;
+            }
+            out.printf("%-8s %9d %9.1f %9.2f %9.2f %9.2f %9.2f  %s%n",
+                    scenario.name().toLowerCase(),
+                    histogram.getTotalCount(),
+                    histogram.getTotalCount() * 1000.0 / duration.toMillis(),
+                    getLatencyMillis(scenario, 50),
+                    getLatencyMillis(scenario, 99),
+                    getLatencyMillis(scenario, 99.9),
+                    histogram.getMaxValue() / MICROS_PER_MILLI,
+                    getStatuses(scenario));
+        }
+        if (peakThreads > 0) {
+            out.printf("peak threads %d, peak heap %d MB%n", peakThreads, peakHeapBytes / (1024 * 1024));
+        }
+    }
+
+    /**
+     * write summary into {prefix}.txt and full percentile distributions into {prefix}-{scenario}.hgrm,
+     * which can be plotted with the HdrHistogram plotter
+     *
+     * @param prefix path prefix of the report files
+     * @throws IOException if the files can not be written
+     */
+    public void write(Path prefix) throws IOException {
+        Path directory = prefix.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        String name = prefix.getFileName().toString();
+        try (PrintStream out = new PrintStream(Files.newOutputStream(directory.resolve(name + ".txt")),
+                false, StandardCharsets.UTF_8)) {
+            print(out);
+        }
+        for (Scenario scenario : Scenario.values()) {
+            Histogram histogram = latencies.get(scenario);
+            if (histogram.getTotalCount() == 0) {
+                continue;
+            }
+            Path file = directory.resolve(name + "-" + scenario.name().toLowerCase() + ".hgrm");
+            try (PrintStream out = new PrintStream(Files.newOutputStream(file), false, StandardCharsets.UTF_8)) {
+                histogram.outputPercentileDistribution(out, MICROS_PER_MILLI);
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package ru.practicum.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.MainServiceApp;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * LOAD TEST
+ * boot the main service on in-memory H2 next to a stand-in of the stats server, seed the data set,
+ * generate open-loop traffic to the hot endpoints and report throughput and latency percentiles.
+ * Arguments with a dot in the name, like --ewm.cache.public-events.ttl-seconds=0, are passed to the main service,
+ * the others are load test options, see {@link LoadTestOptions}.
+ */
+@Slf4j
+public class LoadTestApp {
+    private static final int TOMCAT_MAX_CONNECTIONS = 8192;
+
+    public static void main(String[] args) throws IOException {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        LoadReport report = run(options, args);
+        report.print(System.out);
+        report.write(Path.of(options.getReport()));
+    }
+
+    /**
+     * run the load test
+     *
+     * @param options     load test options
+     * @param serviceArgs arguments, whose properties are passed to the main service
+     * @return report of the measured requests
+     * @throws IOException if the stats server stand-in can not be started
+     */
+    public static LoadReport run(LoadTestOptions options, String... serviceArgs) throws IOException {
+        log.info("Load test with {}", options);
+        DataSet dataSet = new DataSet(options);
+        try (StatsStandIn stats = StatsStandIn.start(options);
+             ConfigurableApplicationContext service = new SpringApplicationBuilder(MainServiceApp.class)
+                     .run(toServiceArgs(stats.getUrl(), options, serviceArgs))) {
+            new DataSeeder(service.getBean(JdbcTemplate.class), dataSet).seed();
+            URI baseUri = URI.create("http://localhost:" + service.getEnvironment().getProperty("local.server.port"));
+            return new LoadGenerator(baseUri, dataSet).run();
+        }
+    }
+
+    private static String[] toServiceArgs(String statsUrl, LoadTestOptions options, String... args) {
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("server.port", "0");
+        properties.put("ewm-stats-server.url", statsUrl);
+        properties.put("spring.datasource.driverClassName", "org.h2.Driver");
+        properties.put("spring.datasource.url", "jdbc:h2:mem:load-test-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        properties.put("spring.datasource.username", "ewm");
+        properties.put("spring.datasource.password", "ewm");
+        properties.put("spring.jpa.properties.hibernate.show_sql", "false");
+        properties.put("spring.jpa.properties.hibernate.generate_statistics", "false");
+        properties.put("spring.h2.console.enabled", "false");
+        properties.put("logging.level.ru.practicum", "warn");
+        properties.put("logging.level.ru.practicum.loadtest", "info");
+        properties.put("logging.level.org.apache.http", "warn");
+        // every closed-loop connection stays open, Tomcat must accept all of them
+        properties.put("server.tomcat.max-connections",
+                String.valueOf(Math.max(TOMCAT_MAX_CONNECTIONS, options.getConnections() * 2)));
+        Arrays.stream(args)
+                .filter(arg -> arg.startsWith("--") && arg.indexOf('.') > 0 && arg.indexOf('.') < arg.indexOf('='))
+                .forEach(arg -> properties.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1)));
+        return properties.entrySet().stream()
+                .map(e -> "--" + e.getKey() + "=" + e.getValue())
+                .toArray(String[]::new);
+    }
+}
@@ -0,0 +1,129 @@
+package ru.practicum.loadtest;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * LOAD TEST OPTIONS
+ * size of the seeded data set and shape of the generated traffic, read from --name=value arguments
+ * defaults give the full-size data set: 100k events, 1M participation requests and 10M views
+ * and open-loop traffic at the fixed rate, with connections > 0 the traffic is closed-loop
+ */
+@Getter
+@Builder(toBuilder = true)
+public class LoadTestOptions {
+    @Builder.Default
+    private final int users = 10_000;
+    @Builder.Default
+    private final int categories = 100;
+    @Builder.Default
+    private final int events = 100_000;
+    @Builder.Default
+    private final int requests = 1_000_000;
+    @Builder.Default
+    private final long hits = 10_000_000L;
+    @Builder.Default
+    private final int rate = 100;
+    @Builder.Default
+    private final int connections = 0;
+    @Builder.Default
+    private final Duration warmup = Duration.ofSeconds(10);
+    @Builder.Default
+    private final Duration duration = Duration.ofSeconds(60);
+    @Builder.Default
+    private final Map<Scenario, Integer> mix = Scenario.defaultMix();
+    @Builder.Default
+    private final long seed = 42L;
+    @Builder.Default
+    private final String report = "target/load-test";
+
+    /**
+     * parse options from command line arguments, missing options keep their defaults
+     *
+     * @param args arguments like --rate=500 --duration=120 --mix=events:40,event:40,request:15,confirm:5
+     *             or --connections=10000
+     * @return load test options
+     */
+    public static LoadTestOptions parse(String... args) {
+        Map<String, String> values = Arrays.stream(args)
+                .filter(arg -> arg.startsWith("--") && arg.contains("="))
+                .collect(Collectors.toMap(arg -> arg.substring(2, arg.indexOf('=')),
+                        arg -> arg.substring(arg.indexOf('=') + 1), (first, last) -> last));
+        LoadTestOptions defaults = LoadTestOptions.builder().build();
+        return LoadTestOptions.builder()
+                .users(get(values, "users", Integer::parseInt, defaults.users))
+                .categories(get(values, "categories", Integer::parseInt, defaults.categories))
+                .events(get(values, "events", Integer::parseInt, defaults.events))
+                .requests(get(values, "requests", Integer::parseInt, defaults.requests))
+                .hits(get(values, "hits", Long::parseLong, defaults.hits))
+                .rate(get(values, "rate", Integer::parseInt, defaults.rate))
+                .connections(get(values, "connections", Integer::parseInt, defaults.connections))
+                .warmup(get(values, "warmup", LoadTestOptions::seconds, defaults.warmup))
+                .duration(get(values, "duration", LoadTestOptions::seconds, defaults.duration))
+                .mix(get(values, "mix", Scenario::parseMix, defaults.mix))
+                .seed(get(values, "seed", Long::parseLong, defaults.seed))
+                .report(values.getOrDefault("report", defaults.report))
+                .build()
+                .validate();
+    }
+
+    /**
+     * number of participation requests of each user, requests of a user go to distinct events
+     *
+     * @return requests per user
+     */
+    public int requestsPerUser() {
+        return (requests + users - 1) / users;
+    }
+
+    @Override
+    public String toString() {
+        Map<String, Object> options = new LinkedHashMap<>();
+        options.put("users", users);
+        options.put("categories", categories);
+        options.put("events", events);
+        options.put("requests", requests);
+        options.put("hits", hits);
+        if (connections > 0) {
+            options.put("connections", connections);
+        } else {
+            options.put("rate", rate + "/s");
+        }
+        options.put("warmup", warmup.toSeconds() + "s");
+        options.put("duration", duration.toSeconds() + "s");
+        options.put("mix", mix);
+        options.put("seed", seed);
+        return options.toString();
+    }
+
+    private LoadTestOptions validate() {
+        if (users <= 0 || categories <= 0 || requests <= 0 || hits < 0 || rate <= 0 || connections < 0) {
+            throw new IllegalArgumentException("Sizes of the data set, rate and connections must be positive: "
+                    + this);
+        }
+        if (events < DataSet.PENDING_EVENT_EVERY) {
+            throw new IllegalArgumentException("At least " + DataSet.PENDING_EVENT_EVERY + " events are required: "
+                    + this);
+        }
+        if (requestsPerUser() > events) {
+            throw new IllegalArgumentException("Requests of a user must go to distinct events: " + this);
+        }
+        return this;
+    }
+
+    private static Duration seconds(String value) {
+        return Duration.ofSeconds(Long.parseLong(value));
+    }
+
+    private static <T> T get(Map<String, String> values, String name, Function<String, T> parser, T defaultValue) {
+        String value = values.get(name);
+        return value == null ? defaultValue : parser.apply(value);
+    }
+}
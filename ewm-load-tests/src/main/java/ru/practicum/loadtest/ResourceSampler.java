@@ -0,0 +1,55 @@
+package ru.practicum.loadtest;
+
+import lombok.Getter;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RESOURCE SAMPLER
+ * peak number of live platform threads and peak used heap of the JVM during the measurement,
+ * sampled every 100 ms. The main service runs in the JVM of the load test, so the numbers include
+ * threads and heap of the load generator, which are the same whatever the thread mode of the service is.
+ * Virtual threads are not counted as live threads, their stacks are on the heap.
+ */
+@Getter
+public class ResourceSampler implements AutoCloseable {
+    private static final long INTERVAL_MILLIS = 100;
+
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "resource-sampler");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile int peakThreads;
+    private volatile long peakHeapBytes;
+
+    /**
+     * start sampling from now on
+     *
+     * @return started sampler
+     */
+    public static ResourceSampler start() {
+        ResourceSampler sampler = new ResourceSampler();
+        sampler.threads.resetPeakThreadCount();
+        sampler.executor.scheduleAtFixedRate(sampler::sample, 0, INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        return sampler;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        sample();
+    }
+
+    private void sample() {
+        peakThreads = Math.max(peakThreads, threads.getPeakThreadCount());
+        peakHeapBytes = Math.max(peakHeapBytes, memory.getHeapMemoryUsage().getUsed());
+    }
+}
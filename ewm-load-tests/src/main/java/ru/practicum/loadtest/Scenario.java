@@ -0,0 +1,111 @@
+package ru.practicum.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+/**
+ * SCENARIO
+ * hot endpoints of the main service, which are called by the load test
+ * EVENTS : GET /events, public search of events in a random category, by date or by views
+ * EVENT : GET /events/{eventId}, public details of a random published event
+ * REQUEST : POST /users/{userId}/requests, participation request of a random user to a random published event
+ * CONFIRM : PATCH /users/{userId}/events/{eventId}/requests, confirmation of a seeded request by the initiator
+ */
+public enum Scenario {
+    EVENTS {
+        @Override
+        HttpRequest.Builder builder(URI baseUri, DataSet dataSet, Random random) {
+            return get(baseUri, "/events?categories=" + dataSet.randomCategoryId(random)
+                    + "&sort=" + (random.nextBoolean() ? "EVENT_DATE" : "VIEWS")
+                    + "&from=" + random.nextInt(3) * PAGE_SIZE + "&size=" + PAGE_SIZE);
+        }
+    },
+    EVENT {
+        @Override
+        HttpRequest.Builder builder(URI baseUri, DataSet dataSet, Random random) {
+            return get(baseUri, "/events/" + dataSet.randomPublishedEventId(random));
+        }
+    },
+    REQUEST {
+        @Override
+        HttpRequest.Builder builder(URI baseUri, DataSet dataSet, Random random) {
+            return HttpRequest.newBuilder(baseUri.resolve("/users/" + dataSet.randomUserId(random)
+                            + "/requests?eventId=" + dataSet.randomPublishedEventId(random)))
+                    .POST(HttpRequest.BodyPublishers.noBody());
+        }
+    },
+    CONFIRM {
+        @Override
+        HttpRequest.Builder builder(URI baseUri, DataSet dataSet, Random random) {
+            int request = dataSet.randomModeratedRequest(random);
+            int event = dataSet.eventOfRequest(request);
+            return HttpRequest.newBuilder(baseUri.resolve("/users/" + dataSet.initiatorIdOfEvent(event)
+                            + "/events/" + (event + 1) + "/requests"))
+                    .header("Content-Type", "application/json")
+                    .method("PATCH", HttpRequest.BodyPublishers.ofString(
+                            "{\"requestIds\":[" + (request + 1) + "],\"status\":\"CONFIRMED\"}"));
+        }
+    };
+
+    private static final int PAGE_SIZE = 10;
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    /**
+     * create request of the scenario
+     *
+     * @param baseUri URI of the main service
+     * @param dataSet seeded data set
+     * @param random  random numbers of the generator
+     * @return request builder
+     */
+    abstract HttpRequest.Builder builder(URI baseUri, DataSet dataSet, Random random);
+
+    /**
+     * create request of the scenario to the main service
+     *
+     * @param baseUri URI of the main service
+     * @param dataSet seeded data set
+     * @param random  random numbers of the generator
+     * @return request
+     */
+    public HttpRequest create(URI baseUri, DataSet dataSet, Random random) {
+        return builder(baseUri, dataSet, random)
+                .timeout(TIMEOUT)
+                .build();
+    }
+
+    /**
+     * @return share of the scenarios in the generated traffic, in percents
+     */
+    public static Map<Scenario, Integer> defaultMix() {
+        Map<Scenario, Integer> mix = new EnumMap<>(Scenario.class);
+        mix.put(EVENTS, 40);
+        mix.put(EVENT, 40);
+        mix.put(REQUEST, 15);
+        mix.put(CONFIRM, 5);
+        return mix;
+    }
+
+    /**
+     * parse share of the scenarios in the generated traffic
+     *
+     * @param mix list of scenario:weight pairs, like events:40,event:40,request:15,confirm:5
+     * @return weights of the scenarios, scenarios not listed are not called
+     */
+    public static Map<Scenario, Integer> parseMix(String mix) {
+        return Arrays.stream(mix.split(","))
+                .map(pair -> pair.split(":"))
+                .collect(Collectors.toMap(pair -> Scenario.valueOf(pair[0].trim().toUpperCase()),
+                        pair -> Integer.parseInt(pair[1].trim()), Integer::sum, () -> new EnumMap<>(Scenario.class)));
+    }
+
+    private static HttpRequest.Builder get(URI baseUri, String uri) {
+        return HttpRequest.newBuilder(baseUri.resolve(uri)).GET();
+    }
+}
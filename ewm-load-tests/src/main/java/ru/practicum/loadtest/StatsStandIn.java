@@ -0,0 +1,130 @@
+package ru.practicum.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+import ru.practicum.dto.ViewStats;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Collectors;
+
+/**
+ * STATS SERVER STAND-IN
+ * local HTTP server with the API of the stats server used by the main service: POST /hit and GET /stats.
+ * Views of the events are kept in memory, seeded with the configured number of hits spread over the events,
+ * so that the main service gets realistic view counts without the cost of the stats server being measured.
+ * Views are counted per URI, unique and non-unique views are not told apart.
+ */
+@Slf4j
+public class StatsStandIn implements AutoCloseable {
+    private static final String APP = "ewm-main-service";
+    private static final String EVENTS_URI = "/events/";
+    private static final int THREADS = 8;
+    private static final int BACKLOG = 1024;
+
+    private final AtomicLongArray views;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    private final HttpServer server;
+
+    private StatsStandIn(LoadTestOptions options) throws IOException {
+        int events = options.getEvents();
+        views = new AtomicLongArray(events);
+        for (int i = 0; i < events; i++) {
+            views.set(i, options.getHits() / events + (i < options.getHits() % events ? 1 : 0));
+        }
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), BACKLOG);
+        server.createContext("/hit", this::hit);
+        server.createContext("/stats", this::stats);
+        server.setExecutor(executor);
+    }
+
+    /**
+     * start the stand-in on a free port
+     *
+     * @param options load test options with number of events and hits
+     * @return started stand-in
+     * @throws IOException if the server can not be started
+     */
+    public static StatsStandIn start(LoadTestOptions options) throws IOException {
+        StatsStandIn standIn = new StatsStandIn(options);
+        standIn.server.start();
+        log.info("Stats server stand-in started at {} with {} hits", standIn.getUrl(), options.getHits());
+        return standIn;
+    }
+
+    /**
+     * @return URL of the stand-in, to be used as ewm-stats-server.url
+     */
+    public String getUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void hit(HttpExchange exchange) throws IOException {
+        try (InputStream body = exchange.getRequestBody()) {
+            int event = toEventIndex(objectMapper.readTree(body.readAllBytes()).path("uri").asText(null));
+            if (event >= 0) {
+                views.incrementAndGet(event);
+            }
+        }
+        send(exchange, 201, new byte[0]);
+    }
+
+    private void stats(HttpExchange exchange) throws IOException {
+        String query = exchange.getRequestURI().getRawQuery();
+        List<ViewStats> stats = Arrays.stream(query == null ? new String[0] : query.split("&"))
+                .filter(parameter -> parameter.startsWith("uris="))
+                .map(parameter -> URLDecoder.decode(parameter.substring("uris=".length()), StandardCharsets.UTF_8))
+                .distinct()
+                .map(uri -> {
+                    int event = toEventIndex(uri);
+                    return event < 0 ? null : new ViewStats(APP, uri, views.get(event));
+                })
+                .filter(Objects::nonNull)
+                .sorted(Comparator.comparing(ViewStats::getHits).reversed())
+                .collect(Collectors.toList());
+        send(exchange, 200, objectMapper.writeValueAsBytes(stats));
+    }
+
+    private int toEventIndex(String uri) {
+        if (uri == null || !uri.startsWith(EVENTS_URI)) {
+            return -1;
+        }
+        try {
+            long index = Long.parseLong(uri.substring(EVENTS_URI.length())) - 1;
+            return index >= 0 && index < views.length() ? (int) index : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private void send(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        // the JDK server drops idle kept-alive connections, and hits posted over such a connection are reset
+        exchange.getResponseHeaders().set("Connection", "close");
+        exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package ru.practicum.loadtest;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * LOAD TEST SMOKE TEST
+ * a short run on a small data set must reach every hot endpoint without server errors
+ */
+public class LoadTestAppTest {
+
+    /**
+     * should call every scenario and get only successful or conflict responses
+     */
+    @Test
+    public void shouldRunAllScenariosWithoutServerErrors() throws IOException {
+        LoadTestOptions options = LoadTestOptions.builder()
+                .users(100)
+                .categories(5)
+                .events(1_000)
+                .requests(5_000)
+                .hits(100_000)
+                .rate(50)
+                .warmup(Duration.ofSeconds(2))
+                .duration(Duration.ofSeconds(5))
+                .build();
+
+        LoadReport report = LoadTestApp.run(options);
+
+        for (Scenario scenario : Scenario.values()) {
+            assertThat(report.getCount(scenario)).as(scenario.name()).isPositive();
+            assertThat(report.getStatuses(scenario).keySet()).as(scenario.name())
+                    .allMatch(status -> status >= 200 && status < 300 || status == 409);
+        }
+    }
+
+    /**
+     * should keep every connection busy in the closed loop and report peak resources
+     */
+    @Test
+    public void shouldRunClosedLoopOfConnections() throws IOException {
+        LoadTestOptions options = LoadTestOptions.builder()
+                .users(100)
+                .categories(5)
+                .events(1_000)
+                .requests(5_000)
+                .hits(100_000)
+                .connections(50)
+                .warmup(Duration.ofSeconds(2))
+                .duration(Duration.ofSeconds(3))
+                .build();
+
+        LoadReport report = LoadTestApp.run(options);
+
+        assertThat(Arrays.stream(Scenario.values()).mapToLong(report::getCount).sum())
+                .isGreaterThan(options.getConnections());
+        assertThat(report.getPeakThreads()).isPositive();
+    }
+}
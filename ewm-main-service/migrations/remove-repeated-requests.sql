@@ -0,0 +1,36 @@
+-- ONE-OFF MIGRATION: remove repeated participation requests
+-- run once, in one transaction, on a database created before the unique index uq_requests_requester_event,
+-- before the main service is started with it, e.g.
+-- psql -v ON_ERROR_STOP=1 --single-transaction -f remove-repeated-requests.sql ewm
+-- the oldest request of a user to an event is kept, counters of requests and numbers of confirmed requests
+-- are counted again from the requests left
+
+-- the same table as in schema.sql, the database may not have it yet
+CREATE TABLE IF NOT EXISTS event_request_counters
+(
+    event_id  BIGINT        NOT NULL
+        REFERENCES events (event_id) ON DELETE CASCADE,
+    pending   INT DEFAULT 0 NOT NULL,
+    confirmed INT DEFAULT 0 NOT NULL,
+    rejected  INT DEFAULT 0 NOT NULL,
+    canceled  INT DEFAULT 0 NOT NULL,
+    CONSTRAINT pk_event_request_counters PRIMARY KEY (event_id)
+);
+
+DELETE FROM participation_requests r WHERE EXISTS (SELECT 1 FROM participation_requests d
+    WHERE d.requester_id = r.requester_id AND d.event_id = r.event_id AND d.request_id < r.request_id);
+
+DELETE FROM event_request_counters;
+
+INSERT INTO event_request_counters (event_id, pending, confirmed, rejected, canceled)
+SELECT e.event_id,
+       SUM(CASE WHEN r.status = 'PENDING' THEN 1 ELSE 0 END),
+       SUM(CASE WHEN r.status = 'CONFIRMED' THEN 1 ELSE 0 END),
+       SUM(CASE WHEN r.status = 'REJECTED' THEN 1 ELSE 0 END),
+       SUM(CASE WHEN r.status = 'CANCELED' THEN 1 ELSE 0 END)
+FROM events e
+         LEFT JOIN participation_requests r ON r.event_id = e.event_id
+GROUP BY e.event_id;
+
+UPDATE events e
+SET confirmed_requests = (SELECT c.confirmed FROM event_request_counters c WHERE c.event_id = e.event_id);
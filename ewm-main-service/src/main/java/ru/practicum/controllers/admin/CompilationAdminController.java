@@ -9,6 +9,7 @@ import org.springframework.web.bind.annotation.*;
 import ru.practicum.dto.compilation.CompilationDto;
 import ru.practicum.dto.compilation.NewCompilationDto;
 import ru.practicum.dto.compilation.UpdateCompilationRequest;
+import ru.practicum.logging.PayloadLogger;
 import ru.practicum.service.compilation.CompilationService;
 
 import javax.validation.Valid;
@@ -42,7 +43,8 @@ public class CompilationAdminController {
     public CompilationDto addCompilation(@Valid @RequestBody NewCompilationDto compilation) {
         log.info("POST-request to the endpoint \"/admin/compilations\".\n"
                 + "COMPILATIONS. ADMIN ACCESS.\n"
-                + "Add new compilation of the events: {}", compilation);
+                + "Add new compilation: {}", compilation.getTitle());
+        PayloadLogger.logPayload(log, "New compilation", compilation);
         return compilationService.addCompilation(compilation);
     }
 
@@ -60,7 +62,8 @@ public class CompilationAdminController {
                                             @Valid @RequestBody UpdateCompilationRequest compilation) {
         log.info("PATCH-request to the endpoint \"/admin/compilations/{}\".\n"
                 + "COMPILATIONS. ADMIN ACCESS.\n"
-                + "Update compilation {} by id: {}", compId, compilation, compId);
+                + "Update compilation by id: {}", compId, compId);
+        PayloadLogger.logPayload(log, "Update of compilation", compilation);
         return compilationService.updateCompilation(compId, compilation);
     }
 
@@ -7,6 +7,7 @@ import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.dto.event.EventFullDto;
 import ru.practicum.dto.event.UpdateEventAdminRequest;
+import ru.practicum.logging.PayloadLogger;
 import ru.practicum.service.event.EventService;
 
 import javax.validation.Valid;
@@ -99,7 +100,8 @@ public class EventAdminController {
                                            @Valid @RequestBody(required = false) UpdateEventAdminRequest request) {
         log.info("PATCH-request to the endpoint \"/admin/events/{}\".\n"
                 + "EVENTS. ADMIN ACCESS.\n"
-                + "Update event by id: {}. New data: {}", eventId, eventId, request);
+                + "Update event by id: {}", eventId, eventId);
+        PayloadLogger.logPayload(log, "Update of event", request);
         return eventService.updateEventByAdmin(eventId, request);
     }
 }
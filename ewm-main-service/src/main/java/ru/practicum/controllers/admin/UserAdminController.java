@@ -8,6 +8,7 @@ import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.dto.user.NewUserRequest;
 import ru.practicum.dto.user.UserDto;
+import ru.practicum.logging.PayloadLogger;
 import ru.practicum.service.user.UserService;
 
 import javax.validation.Valid;
@@ -72,7 +73,8 @@ public class UserAdminController {
     public UserDto addUser(@Valid @RequestBody NewUserRequest user) {
         log.info("POST-request to the endpoint \"/admin/users\".\n"
                 + "USERS. ADMIN ACCESS.\n"
-                + "Add new user: {}", user);
+                + "Add new user: {}", user.getName());
+        PayloadLogger.logPayload(log, "New user", user);
         return userService.addUser(user);
     }
 
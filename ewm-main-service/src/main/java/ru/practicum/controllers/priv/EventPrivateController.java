@@ -1,10 +1,13 @@
 package ru.practicum.controllers.priv;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.dto.event.EventFullDto;
 import ru.practicum.dto.event.EventShortDto;
 import ru.practicum.dto.event.NewEventDto;
@@ -12,9 +15,13 @@ import ru.practicum.dto.event.UpdateEventUserRequest;
 import ru.practicum.dto.request.EventRequestStatusUpdateRequest;
 import ru.practicum.dto.request.EventRequestStatusUpdateResult;
 import ru.practicum.dto.request.ParticipationRequestDto;
+import ru.practicum.dto.request.ParticipationRequestPage;
+import ru.practicum.logging.PayloadLogger;
 import ru.practicum.service.event.EventService;
+import ru.practicum.utils.paging.NdjsonPages;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
 import java.util.List;
@@ -33,6 +40,7 @@ import static ru.practicum.utils.constants.Constants.*;
 @RequestMapping(USERS_PATH + USER_ID_PATH_VARIABLE + EVENTS_PATH)
 public class EventPrivateController {
     private final EventService eventService;
+    private final ObjectMapper objectMapper;
 
     /**
      * Processing GET-request to the endpoint "/users/{userId}/events"
@@ -118,7 +126,8 @@ public class EventPrivateController {
                                           @Valid @RequestBody UpdateEventUserRequest event) {
         log.info("PATCH-request to the endpoint \"users/{}/events/{}\".\n"
                 + "EVENTS. PRIVATE ACCESS.\n"
-                + "Update event {} by user {}. New data: {}", userId, eventId, eventId, userId, event);
+                + "Update event {} by user {}.", userId, eventId, eventId, userId);
+        PayloadLogger.logPayload(log, "Update of event", event);
         return eventService.updateEventByUser(userId, eventId, event);
 
     }
@@ -142,6 +151,52 @@ public class EventPrivateController {
 
     }
 
+    /**
+     * Processing GET-request to the endpoint "users/{userId}/events/{eventId}/requests/page"
+     * obtain page of requests to participate in a specific event added by the current user, ordered by ID
+     *
+     * @param userId  user id
+     * @param eventId event id
+     * @param after   ID of the last request of the previous page, 0 for the first page
+     * @param size    number of requests per page
+     * @return page of requests and ID to get the next page after, null if it is the last page
+     */
+    @GetMapping(EVENT_ID_PATH_VARIABLE + REQUESTS_PATH + PAGE_PATH)
+    public ParticipationRequestPage getParticipationRequestsPage(
+            @Positive @PathVariable Long userId,
+            @Positive @PathVariable Long eventId,
+            @PositiveOrZero @RequestParam(name = AFTER_PARAMETER_NAME, defaultValue = ZERO_DEFAULT_VALUE) Long after,
+            @Positive @Max(MAX_PAGE_SIZE) @RequestParam(
+                    name = SIZE_PARAMETER_NAME, defaultValue = HUNDRED_DEFAULT_VALUE) Integer size) {
+        log.info("GET-request to the endpoint \"users/{}/events/{}/requests/page\".\n"
+                        + "EVENTS. PARTICIPATION REQUESTS. PRIVATE ACCESS.\n"
+                        + "Get {} requests to participate in the event with id: {} made by the user with id:{} "
+                        + "after {}",
+                userId, eventId, size, eventId, userId, after);
+        return eventService.getParticipationRequests(userId, eventId, after, size);
+    }
+
+    /**
+     * Processing GET-request to the endpoint "users/{userId}/events/{eventId}/requests/stream"
+     * stream all requests to participate in a specific event added by the current user
+     * as newline delimited JSON, ordered by ID
+     *
+     * @param userId  user id
+     * @param eventId event id
+     * @return requests, one JSON object per line
+     */
+    @GetMapping(EVENT_ID_PATH_VARIABLE + REQUESTS_PATH + STREAM_PATH)
+    public ResponseEntity<StreamingResponseBody> streamParticipationRequests(@Positive @PathVariable Long userId,
+                                                                             @Positive @PathVariable Long eventId) {
+        log.info("GET-request to the endpoint \"users/{}/events/{}/requests/stream\".\n"
+                        + "EVENTS. PARTICIPATION REQUESTS. PRIVATE ACCESS.\n"
+                        + "Stream requests to participate in the event with id: {} made by the user with id:{}",
+                userId, eventId, eventId, userId);
+        return NdjsonPages.stream(objectMapper,
+                eventService.getParticipationRequests(userId, eventId, 0L, MAX_PAGE_SIZE),
+                after -> eventService.getParticipationRequests(userId, eventId, after, MAX_PAGE_SIZE));
+    }
+
     /**
      * Processing PATCH-request to the endpoint "users/{userId}/events/{eventId}/requests"
      * update the status of requests (confirm, reject) for participation in an event added by the current user
@@ -168,7 +223,7 @@ public class EventPrivateController {
         log.info("PRIVATE ACCESS. USER UPDATE OWN REQUEST STATUS. \n"
                         + "PATCH-request to the endpoint \"users/{}/events/{}/requests\".\n"
                         + "User: {} {} event {} participation requests: {}",
-                userId, eventId, userId, request.getStatus(), eventId, request);
+                userId, eventId, userId, request.getStatus(), eventId, request.getRequestIds());
         return eventService.updateRequestsStatus(userId, eventId, request);
     }
 }
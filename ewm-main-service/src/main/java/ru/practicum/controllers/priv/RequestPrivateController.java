@@ -1,15 +1,22 @@
 package ru.practicum.controllers.priv;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.dto.request.ParticipationRequestDto;
+import ru.practicum.dto.request.ParticipationRequestPage;
 import ru.practicum.service.request.RequestService;
+import ru.practicum.utils.paging.NdjsonPages;
 
+import javax.validation.constraints.Max;
 import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
 import java.util.List;
 
 import static ru.practicum.utils.constants.Constants.*;
@@ -27,6 +34,7 @@ import static ru.practicum.utils.constants.Constants.*;
 @Validated
 public class RequestPrivateController {
     private final RequestService requestService;
+    private final ObjectMapper objectMapper;
 
     /**
      * Processing GET-request to the endpoint "/users/{userId}/requests"
@@ -43,6 +51,44 @@ public class RequestPrivateController {
         return requestService.getParticipationRequests(userId);
     }
 
+    /**
+     * Processing GET-request to the endpoint "/users/{userId}/requests/page"
+     * Get page of user requests to participate in other people's events, ordered by ID
+     *
+     * @param userId user id
+     * @param after  ID of the last request of the previous page, 0 for the first page
+     * @param size   number of requests per page
+     * @return page of requests and ID to get the next page after, null if it is the last page
+     */
+    @GetMapping(PAGE_PATH)
+    public ParticipationRequestPage getUserParticipationRequestsPage(
+            @Positive @PathVariable Long userId,
+            @PositiveOrZero @RequestParam(name = AFTER_PARAMETER_NAME, defaultValue = ZERO_DEFAULT_VALUE) Long after,
+            @Positive @Max(MAX_PAGE_SIZE) @RequestParam(
+                    name = SIZE_PARAMETER_NAME, defaultValue = HUNDRED_DEFAULT_VALUE) Integer size) {
+        log.info("GET-request to the endpoint \"/users/{}/requests/page\".\n"
+                + "PARTICIPATION REQUESTS. PRIVATE ACCESS.\n"
+                + "Get {} participation requests for user {} after {}", userId, size, userId, after);
+        return requestService.getParticipationRequests(userId, after, size);
+    }
+
+    /**
+     * Processing GET-request to the endpoint "/users/{userId}/requests/stream"
+     * Stream all user requests to participate in other people's events as newline delimited JSON, ordered by ID
+     *
+     * @param userId user id
+     * @return requests, one JSON object per line
+     */
+    @GetMapping(STREAM_PATH)
+    public ResponseEntity<StreamingResponseBody> streamUserParticipationRequests(
+            @Positive @PathVariable Long userId) {
+        log.info("GET-request to the endpoint \"/users/{}/requests/stream\".\n"
+                + "PARTICIPATION REQUESTS. PRIVATE ACCESS.\n"
+                + "Stream participation requests for user {}", userId, userId);
+        return NdjsonPages.stream(objectMapper, requestService.getParticipationRequests(userId, 0L, MAX_PAGE_SIZE),
+                after -> requestService.getParticipationRequests(userId, after, MAX_PAGE_SIZE));
+    }
+
 
     /**
      * Processing POST-request to the endpoint "/users/{userId}/requests"
@@ -4,8 +4,11 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.dto.category.CategoryDto;
 import ru.practicum.service.category.CategoryService;
+import ru.practicum.utils.conditional.ConditionalRequests;
+import ru.practicum.utils.conditional.ContentVersion;
 
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
@@ -32,9 +35,11 @@ public class CategoryPublicController {
      * get categories of events
      * with paging option: the size and the number of the page is defined by from/size parameters of request
      *
-     * @param from number of elements that need to be skipped to form the current page, default value = 10
-     * @param size number of elements per page, default value = 10
-     * @return categories of events
+     * @param from       number of elements that need to be skipped to form the current page, default value = 10
+     * @param size       number of elements per page, default value = 10
+     * @param webRequest request headers for conditional GET (If-None-Match, If-Modified-Since)
+     * @return categories of events,
+     * if categories have not changed since the client received them, status code 304 is returned without a body
      */
 
     @GetMapping
@@ -44,10 +49,14 @@ public class CategoryPublicController {
                     defaultValue = ZERO_DEFAULT_VALUE) Integer from,
             @Positive @RequestParam(
                     name = SIZE_PARAMETER_NAME,
-                    defaultValue = TEN_DEFAULT_VALUE) Integer size) {
+                    defaultValue = TEN_DEFAULT_VALUE) Integer size,
+            WebRequest webRequest) {
         log.info("GET-request to the endpoint \"/categories\".\n"
                 + "CATEGORIES. PUBLIC ACCESS.\n"
                 + "Get categories, starting from: {}, number of categories: {}", from, size);
+        if (ConditionalRequests.isNotModified(webRequest, categoryService.getCategoriesVersion(), from, size)) {
+            return null;
+        }
         return categoryService.getCategories(from, size);
     }
 
@@ -55,14 +64,20 @@ public class CategoryPublicController {
      * Processing a GET-request to the endpoint "/categories/{catId}"
      * get a category by id
      *
-     * @param catId category id
-     * @return category
+     * @param catId      category id
+     * @param webRequest request headers for conditional GET (If-None-Match, If-Modified-Since)
+     * @return category,
+     * if the category has not changed since the client received it, status code 304 is returned without a body
      */
     @GetMapping(CATEGORY_ID_PATH_VARIABLE)
-    public CategoryDto getCategoryById(@PathVariable Long catId) {
+    public CategoryDto getCategoryById(@PathVariable Long catId, WebRequest webRequest) {
         log.info("GET-request to the endpoint \"categories/{}\".\n"
                 + "CATEGORIES. PUBLIC ACCESS.\n"
                 + "Get category by id {}", catId, catId);
+        ContentVersion version = categoryService.getCategoryVersion(catId);
+        if (version.exists() && ConditionalRequests.isNotModified(webRequest, version, catId)) {
+            return null;
+        }
         return categoryService.getCategoryById(catId);
     }
 }
@@ -4,8 +4,11 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.dto.compilation.CompilationDto;
 import ru.practicum.service.compilation.CompilationService;
+import ru.practicum.utils.conditional.ConditionalRequests;
+import ru.practicum.utils.conditional.ContentVersion;
 
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
@@ -32,11 +35,13 @@ public class CompilationPublicController {
      * Get compilations of events
      * no required parameters
      *
-     * @param pinned search only pinned/unpinned collections
-     * @param from   number of elements that need to be skipped to form the current page, default value = 10
-     * @param size   number of elements per page, default value = 10
+     * @param pinned     search only pinned/unpinned collections
+     * @param from       number of elements that need to be skipped to form the current page, default value = 10
+     * @param size       number of elements per page, default value = 10
+     * @param webRequest request headers for conditional GET (If-None-Match, If-Modified-Since)
      * @return List of compilations of events,
-     * if no compilations are found based on the specified filters, it returns an empty list
+     * if no compilations are found based on the specified filters, it returns an empty list.
+     * If compilations have not changed since the client received them, status code 304 is returned without a body
      */
 
     @GetMapping
@@ -48,10 +53,15 @@ public class CompilationPublicController {
                     defaultValue = ZERO_DEFAULT_VALUE) Integer from,
             @Positive @RequestParam(
                     name = SIZE_PARAMETER_NAME,
-                    defaultValue = TEN_DEFAULT_VALUE) Integer size) {
+                    defaultValue = TEN_DEFAULT_VALUE) Integer size,
+            WebRequest webRequest) {
         log.info("GET-request to the endpoint \"/compilations\".\n"
                 + "COMPILATIONS. PUBLIC ACCESS.\n"
                 + "Get compilations, starting from: {}, number of compilations: {}, pinned: {}", from, size, pinned);
+        ContentVersion version = compilationService.getCompilationsVersion(pinned);
+        if (ConditionalRequests.isNotModified(webRequest, version, pinned, from, size)) {
+            return null;
+        }
         return compilationService.getCompilations(from, size, pinned);
     }
 
@@ -59,14 +69,20 @@ public class CompilationPublicController {
      * processing a GET-request to the endpoint "/compilations/{compId}"
      * to get a compilation by id
      *
-     * @param compId compilation id
-     * @return compilation
+     * @param compId     compilation id
+     * @param webRequest request headers for conditional GET (If-None-Match, If-Modified-Since)
+     * @return compilation,
+     * if the compilation has not changed since the client received it, status code 304 is returned without a body
      */
     @GetMapping(COMPILATION_ID_PATH_VARIABLE)
-    public CompilationDto getCompilationById(@PathVariable Integer compId) {
+    public CompilationDto getCompilationById(@PathVariable Integer compId, WebRequest webRequest) {
         log.info("GET-request to the endpoint \"/compilations/{}\".\n"
                 + "COMPILATIONS. PUBLIC ACCESS.\n"
                 + "Get compilation by id {}", compId, compId);
+        ContentVersion version = compilationService.getCompilationVersion(compId);
+        if (version.exists() && ConditionalRequests.isNotModified(webRequest, version, compId)) {
+            return null;
+        }
         return compilationService.getCompilationById(compId);
     }
 
@@ -5,9 +5,11 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.dto.event.EventFullDto;
 import ru.practicum.dto.event.EventShortDto;
 import ru.practicum.service.event.EventService;
+import ru.practicum.utils.conditional.ConditionalRequests;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.validation.constraints.Positive;
@@ -51,8 +53,10 @@ public class EventPublicController {
      * @param sort          sorting option: by event date or by number of views (EVENT_DATE, VIEWS)
      * @param from          number of elements that need to be skipped to form the current page, default value = 10
      * @param size          number of elements per page, default value = 10
+     * @param webRequest    request headers for conditional GET (If-None-Match)
      * @return List of events met filtering criteria.
-     * If no events are found by the specified filters, returns an empty list
+     * If no events are found by the specified filters, returns an empty list.
+     * If the list has not changed since the client received it, status code 304 is returned without a body
      */
 
     @GetMapping
@@ -86,16 +90,17 @@ public class EventPublicController {
             @RequestParam(
                     name = SIZE_PARAMETER_NAME,
                     defaultValue = TEN_DEFAULT_VALUE) @Positive Integer size,
-            HttpServletRequest request) {
+            HttpServletRequest request, WebRequest webRequest) {
         log.info("GET-request to the endpoint \"events\".\n"
                         + "EVENTS. PUBLIC ACCESS.\n"
                         + "Get events by text: {} from categories: {}, paid: {}, start: {}, end: {},\n"
                         + " only available: {}, sort by: {}, starting from: {}, number of events: {}, request by {}",
                 text, categories, paid, rangeStart, rangeEnd, onlyAvailable, sort, from, size, request.getRemoteAddr());
 
-        return eventService
+        List<EventShortDto> events = eventService
                 .getPublicEvents(text, categories, paid, rangeStart, rangeEnd,
                         onlyAvailable, sort, from, size, request);
+        return ConditionalRequests.isContentNotModified(webRequest, events) ? null : events;
     }
 
     /**
@@ -105,14 +110,17 @@ public class EventPublicController {
      * Event information should include the number of views and the number of confirmed requests
      * information that a request was made and processed for this endpoint must be saved in the statistics service
      *
-     * @param eventId event ID
-     * @return detailed event information
+     * @param eventId    event ID
+     * @param webRequest request headers for conditional GET (If-None-Match, If-Modified-Since)
+     * @return detailed event information,
+     * if the event has not changed since the client received it, status code 304 is returned without a body
      */
     @GetMapping(EVENT_ID_PATH_VARIABLE)
-    public EventFullDto getPublicEventById(@PathVariable Long eventId, HttpServletRequest request) {
+    public EventFullDto getPublicEventById(@PathVariable Long eventId, HttpServletRequest request,
+                                           WebRequest webRequest) {
         log.info("GET-request to the endpoint \"/events/{}.\n"
                 + "EVENTS. PUBLIC ACCESS.\n"
                 + "Get event by id {}", eventId, eventId);
-        return eventService.getPublicEventById(eventId, request);
+        return eventService.getPublicEventById(eventId, request, webRequest);
     }
 }
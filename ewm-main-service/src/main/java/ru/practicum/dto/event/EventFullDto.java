@@ -1,11 +1,13 @@
 package ru.practicum.dto.event;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import ru.practicum.dto.category.CategoryDto;
+import ru.practicum.dto.request.RequestCountsDto;
 import ru.practicum.dto.user.UserShortDto;
 import ru.practicum.entity.Location;
 import ru.practicum.enums.EventState;
@@ -32,6 +34,7 @@ import static ru.practicum.utils.constants.Constants.DATE_TIME_FORMAT;
  * String actionState. Enumeration of event lifecycle states. [ PENDING, PUBLISHED, CANCELED ]
  * String title. Event title.
  * Long views. Number of event views
+ * RequestCountsDto requestCounts. Number of participation requests by status, only for initiator and admin
  */
 @Data
 @Builder(toBuilder = true)
@@ -57,4 +60,6 @@ public class EventFullDto {
     private EventState state;
     private String title;
     private Long views;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private RequestCountsDto requestCounts;
 }
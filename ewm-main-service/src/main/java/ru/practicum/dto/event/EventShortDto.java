@@ -1,6 +1,7 @@
 package ru.practicum.dto.event;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.*;
 import ru.practicum.dto.category.CategoryDto;
 import ru.practicum.dto.user.UserShortDto;
@@ -20,6 +21,7 @@ import static ru.practicum.utils.constants.Constants.DATE_TIME_FORMAT;
  * Boolean paid. Equals true if participation is paid
  * String title. Event title.
  * Long views. Number of event views
+ * LocalDateTime publishedOn. Date and time the event was published, used to request statistics, not serialized
  */
 @Data
 @Builder(toBuilder = true)
@@ -36,4 +38,6 @@ public class EventShortDto {
     Boolean paid;
     String title;
     Long views;
+    @JsonIgnore
+    LocalDateTime publishedOn;
 }
@@ -0,0 +1,23 @@
+package ru.practicum.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * PARTICIPATION REQUEST PAGE
+ * Page of participation requests ordered by ID
+ * List<ParticipationRequestDto> requests. Requests of the page
+ * Long next. ID to pass as "after" to get the next page, null if it is the last page
+ */
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class ParticipationRequestPage {
+    private List<ParticipationRequestDto> requests;
+    private Long next;
+}
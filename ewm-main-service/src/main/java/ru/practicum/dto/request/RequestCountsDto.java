@@ -0,0 +1,25 @@
+package ru.practicum.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * REQUEST COUNTS DTO
+ * Number of participation requests to the event by status
+ * Integer pending. Number of requests waiting for confirmation
+ * Integer confirmed. Number of confirmed requests
+ * Integer rejected. Number of rejected requests
+ * Integer canceled. Number of requests canceled by requesters
+ */
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class RequestCountsDto {
+    private Integer pending;
+    private Integer confirmed;
+    private Integer rejected;
+    private Integer canceled;
+}
@@ -4,13 +4,19 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import javax.persistence.*;
+import java.time.LocalDateTime;
 
 /**
  * CATEGORY entity
  * id : Long
  * name: String, must be unique,
+ * updatedOn: LocalDateTime, date and time of the last modification
+ * Cached in the second-level cache region "categories", read-write
  */
 @Entity
 @Table(name = "categories")
@@ -18,6 +24,7 @@ import javax.persistence.*;
 @Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "categories")
 public class Category {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -25,5 +32,8 @@ public class Category {
     private Long id;
     @Column(name = "category_name", nullable = false, unique = true)
     private String name;
+    @UpdateTimestamp
+    @Column(name = "updated_on")
+    private LocalDateTime updatedOn;
 
 }
@@ -4,8 +4,12 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import javax.persistence.*;
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -14,6 +18,8 @@ import java.util.List;
  * events: List<Event> events. List of event identifiers included in the collection
  * title: String, nullable = false, max length = 50
  * pinned: Boolean flag. Equals true if the collection pinned to the main page of the site
+ * updatedOn: LocalDateTime, date and time of the last modification
+ * Cached in the second-level cache region "compilations", ids of its events in "compilation-events", read-write
  */
 @Entity
 @Table(name = "compilations")
@@ -21,12 +27,14 @@ import java.util.List;
 @Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "compilations")
 public class Compilation {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "compilation_id", nullable = false)
     Integer compilationId;
     @ManyToMany(cascade = {CascadeType.ALL})
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "compilation-events")
     @JoinTable(
             name = "compilations_events",
             joinColumns = {@JoinColumn(name = "compilation_id")},
@@ -39,4 +47,8 @@ public class Compilation {
 
     @Column(name = "pinned")
     private Boolean pinned;
+
+    @UpdateTimestamp
+    @Column(name = "updated_on")
+    private LocalDateTime updatedOn;
 }
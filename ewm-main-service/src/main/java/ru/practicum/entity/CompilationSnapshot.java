@@ -0,0 +1,51 @@
+package ru.practicum.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.time.LocalDateTime;
+
+/**
+ * COMPILATION SNAPSHOT entity
+ * Read model of the compilation, rebuilt when the compilation or any of its events changes
+ * Integer compilationId. Compilation ID
+ * String title. Title of the compilation
+ * Boolean pinned. Equals true if the collection pinned to the main page of the site
+ * String events. Events of the compilation in short details, serialized as JSON array
+ * LocalDateTime updatedOn. Date and time of the last rebuild, which changed the snapshot
+ * Cached in the second-level cache region "compilation-snapshots", read-write
+ */
+@Entity
+@Table(name = "compilation_snapshots")
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "compilation-snapshots")
+public class CompilationSnapshot {
+    @Id
+    @Column(name = "compilation_id", nullable = false)
+    private Integer compilationId;
+
+    @Column(name = "title", nullable = false, length = 50)
+    private String title;
+
+    @Column(name = "pinned")
+    private Boolean pinned;
+
+    @Column(name = "events", nullable = false)
+    private String events;
+
+    @UpdateTimestamp
+    @Column(name = "updated_on")
+    private LocalDateTime updatedOn;
+}
@@ -5,6 +5,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import javax.persistence.*;
 import javax.validation.constraints.Size;
@@ -28,6 +29,10 @@ import java.time.LocalDateTime;
  * String actionState. Enumeration of event lifecycle states. [ PENDING, PUBLISHED, CANCELED ]
  * String title. Event title, nullable = false, min length = 3, max length = 120
  * Long views. Number of event views
+ * LocalDateTime updatedOn. Date and time of the last modification of the event
+ * Long version. Version of the event, concurrent modifications of the same version are rejected
+ * Not cached in the second-level cache, published events included: every admission changes confirmed requests
+ * by a bulk update, which would clear the region of events, so published events are not read-mostly
  */
 @Entity
 @Table(name = "events")
@@ -92,4 +97,12 @@ public class Event {
     @Column(name = "views")
     private Long views;
 
+    @UpdateTimestamp
+    @Column(name = "updated_on")
+    private LocalDateTime updatedOn;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
 }
@@ -0,0 +1,44 @@
+package ru.practicum.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+/**
+ * EVENT REQUEST COUNTERS entity
+ * Number of participation requests to the event by status, changed together with the requests
+ * Long eventId. Event ID
+ * Integer pending. Number of requests waiting for confirmation
+ * Integer confirmed. Number of confirmed requests
+ * Integer rejected. Number of rejected requests
+ * Integer canceled. Number of requests canceled by requesters
+ */
+@Entity
+@Table(name = "event_request_counters")
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventRequestCounters {
+    @Id
+    @Column(name = "event_id", nullable = false)
+    private Long eventId;
+
+    @Column(name = "pending", nullable = false)
+    private Integer pending;
+
+    @Column(name = "confirmed", nullable = false)
+    private Integer confirmed;
+
+    @Column(name = "rejected", nullable = false)
+    private Integer rejected;
+
+    @Column(name = "canceled", nullable = false)
+    private Integer canceled;
+}
@@ -18,6 +18,7 @@ import java.time.LocalDateTime;
  * Event event.
  * User requester. User who submitted the request
  * status : RequestStatus enumeration [ PENDING, CONFIRMED, REJECTED, CANCELED ]
+ * Long version. Version of the request, concurrent modifications of the same version are rejected
  */
 @Entity
 @Table(name = "participation_requests")
@@ -44,4 +45,8 @@ public class Request {
 
     @Enumerated(EnumType.STRING)
     private RequestStatus status;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
 }
@@ -2,7 +2,9 @@ package ru.practicum.repository;
 
 import ru.practicum.entity.Category;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import ru.practicum.utils.conditional.ContentVersion;
 
 /**
  * CATEGORY REPOSITORY
@@ -18,4 +20,21 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
      */
     boolean existsByNameAndIdNot(String name, Long catId);
 
+    /**
+     * get version of all categories
+     *
+     * @return number of categories and the latest modification time
+     */
+    @Query("select new ru.practicum.utils.conditional.ContentVersion(count(c), max(c.updatedOn)) from Category c")
+    ContentVersion findVersion();
+
+    /**
+     * get version of the category
+     *
+     * @param catId category id
+     * @return number of found categories (0 or 1) and modification time
+     */
+    @Query("select new ru.practicum.utils.conditional.ContentVersion(count(c), max(c.updatedOn)) "
+            + "from Category c where c.id = :catId")
+    ContentVersion findVersionById(Long catId);
 }
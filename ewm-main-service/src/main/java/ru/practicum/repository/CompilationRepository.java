@@ -1,6 +1,7 @@
 package ru.practicum.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.entity.Compilation;
 
@@ -11,11 +12,31 @@ import java.util.List;
  */
 @Repository
 public interface CompilationRepository extends JpaRepository<Compilation, Integer> {
+
+    /**
+     * find ids of compilations, which contain the event
+     *
+     * @param eventId event id
+     * @return list of compilation ids
+     */
+    @Query("select c.compilationId from Compilation c join c.events e where e.id = :eventId")
+    List<Integer> findIdsByEventId(Long eventId);
+
+    /**
+     * find ids of compilations, which contain events of the category
+     *
+     * @param categoryId category id
+     * @return list of compilation ids
+     */
+    @Query("select distinct c.compilationId from Compilation c join c.events e where e.category.id = :categoryId")
+    List<Integer> findIdsByCategoryId(Long categoryId);
+
     /**
-     * find events by pinned flag
+     * find ids of compilations, which have no snapshot yet
      *
-     * @param pinned boolean pinned
-     * @return list of compilations
+     * @return list of compilation ids
      */
-    List<Compilation> findAllByPinned(Boolean pinned);
+    @Query("select c.compilationId from Compilation c where not exists "
+            + "(select s from CompilationSnapshot s where s.compilationId = c.compilationId)")
+    List<Integer> findIdsWithoutSnapshot();
 }
@@ -0,0 +1,83 @@
+package ru.practicum.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+import ru.practicum.entity.CompilationSnapshot;
+import ru.practicum.utils.conditional.ContentVersion;
+
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.util.List;
+import java.util.Optional;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+
+/**
+ * COMPILATION SNAPSHOT REPOSITORY
+ */
+@Repository
+public interface CompilationSnapshotRepository extends JpaRepository<CompilationSnapshot, Integer> {
+    String VERSION_QUERY = "select new ru.practicum.utils.conditional.ContentVersion(count(s), max(s.updatedOn)) "
+            + "from CompilationSnapshot s";
+
+    /**
+     * get page of compilation snapshots ordered by compilation id
+     * the page is cached in the query cache until snapshots are changed
+     *
+     * @param pageable page
+     * @return list of compilation snapshots
+     */
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    List<CompilationSnapshot> findAllByOrderByCompilationId(Pageable pageable);
+
+    /**
+     * get page of compilation snapshots by pinned flag ordered by compilation id
+     * the page is cached in the query cache until snapshots are changed
+     *
+     * @param pinned   boolean pinned
+     * @param pageable page
+     * @return list of compilation snapshots
+     */
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    List<CompilationSnapshot> findAllByPinnedOrderByCompilationId(Boolean pinned, Pageable pageable);
+
+    /**
+     * get snapshot of the compilation and lock it until the end of the transaction
+     *
+     * @param compId compilation id
+     * @return compilation snapshot
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from CompilationSnapshot s where s.compilationId = :compId")
+    Optional<CompilationSnapshot> findForUpdateByCompilationId(Integer compId);
+
+    /**
+     * get version of all compilations
+     *
+     * @return number of compilations and the latest modification time of their snapshots
+     */
+    @Query(VERSION_QUERY)
+    ContentVersion findVersion();
+
+    /**
+     * get version of compilations by pinned flag
+     *
+     * @param pinned boolean pinned
+     * @return number of compilations and the latest modification time of their snapshots
+     */
+    @Query(VERSION_QUERY + " where s.pinned = :pinned")
+    ContentVersion findVersionByPinned(Boolean pinned);
+
+    /**
+     * get version of the compilation
+     *
+     * @param compId compilation id
+     * @return number of found compilations (0 or 1) and the latest modification time of the snapshot
+     */
+    @Query(VERSION_QUERY + " where s.compilationId = :compId")
+    ContentVersion findVersionById(Integer compId);
+}
@@ -1,96 +1,38 @@
 package ru.practicum.repository;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.practicum.entity.Event;
 
-import java.time.LocalDateTime;
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
 import java.util.List;
 import java.util.Optional;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+
 /**
  * EVENT REPOSITORY
  */
 @Repository
-public interface EventRepository extends JpaRepository<Event, Long> {
-
-
-    /**
-     * Get events for admin
-     *
-     * @param users      list of user ids whose events need to be found
-     * @param states     list of states in which the desired events are located
-     * @param categories list of id categories in which the search will be conducted
-     * @param pageable   paging parameters
-     * @param start      start of time interval to search
-     * @param end        end of time interval to search
-     * @return complete information about all events that match the passed conditions,
-     * if no events are found by the specified filters, returns an empty list
-     */
-    @Query("SELECT e FROM Event AS e " +
-            "WHERE ((:users) IS NULL OR e.initiator.id IN :users) " +
-            "AND ((:states) IS NULL OR e.state IN :states) " +
-            "AND ((:categories) IS NULL OR e.category.id IN :categories) " +
-            "AND ((cast(:start as timestamp) IS NULL OR e.eventDate >= :start) " +
-            "AND ((cast(:end as timestamp) IS NULL OR e.eventDate <= :end)))")
-    List<Event> findForAdmin(List<Long> users, List<String> states, List<Long> categories,
-                             LocalDateTime start, LocalDateTime end, Pageable pageable);
-
-    /**
-     * Get events with filtering options for public access.
-     * ONLY PUBLISHED events should appear in the results
-     * ONLY AVAILABLE to participate events should appear in the results
-     *
-     * @param text       text to search in the content of the annotation and detailed description of the event
-     * @param categories list of category identifiers in which the search will be conducted
-     * @param paid       search only for paid/free events
-     * @param start      date and time no earlier than which the event should occur
-     * @param end        date and time no later than which the event must occur
-     * @param pageable   paging parameters
-     * @return List of events met filtering criteria.
-     * If no events are found by the specified filters, returns an empty list
-     */
-
-    @Query("SELECT e FROM Event AS e " +
-            "WHERE ((:text) IS NULL " +
-            "OR UPPER(e.annotation) LIKE UPPER(CONCAT('%', :text, '%')) " +
-            "OR UPPER(e.description) LIKE UPPER(CONCAT('%', :text, '%'))) " +
-            "AND ((:categories) IS NULL OR e.category.id IN :categories) " +
-            "AND ((:paid) IS NULL OR e.paid = :paid) " +
-            "AND ( e.eventDate >= :start) " +
-            "AND ( e.eventDate <= :end) " +
-            "AND ( e.state = :published) " +
-            "AND ( e.confirmedRequests < e.participantLimit OR e.participantLimit = 0) ")
-    List<Event> findAvailableForPublic(String text, List<Long> categories, Boolean paid,
-                                       LocalDateTime start, LocalDateTime end, String published, Pageable pageable);
+public interface EventRepository extends JpaRepository<Event, Long>, EventRepositoryCustom {
 
     /**
-     * Get events with filtering options for public access.
-     * ONLY PUBLISHED  events should appear in the results
+     * Get event information by ID with category, initiator and location
      *
-     * @param text       text to search in the content of the annotation and detailed description of the event
-     * @param categories list of category identifiers in which the search will be conducted
-     * @param paid       search only for paid/free events
-     * @param start      date and time no earlier than which the event should occur
-     * @param end        date and time no later than which the event must occur
-     * @param pageable   paging parameters
-     * @return List of events met filtering criteria.
-     * If no events are found by the specified filters, returns an empty list
+     * @param eventId event ID
+     * @return detailed event information or empty Optional object
      */
-    @Query("SELECT e FROM Event AS e " +
-            "WHERE ((:text) IS NULL " +
-            "OR UPPER(e.annotation) LIKE UPPER(CONCAT('%', :text, '%')) " +
-            "OR UPPER(e.description) LIKE UPPER(CONCAT('%', :text, '%'))) " +
-            "AND ((:categories) IS NULL OR e.category.id IN :categories) " +
-            "AND ((:paid) IS NULL OR e.paid = :paid) " +
-            "AND ( e.eventDate >= :start) " +
-            "AND ( e.eventDate <= :end) " +
-            "AND ( e.state = :published) ")
-    List<Event> findAllForPublic(String text, List<Long> categories, Boolean paid, LocalDateTime start,
-                                 LocalDateTime end,
-                                 String published, Pageable pageable);
+    @Override
+    @EntityGraph(attributePaths = {"category", "initiator", "location"})
+    Optional<Event> findById(Long eventId);
 
     /**
      * Get event information by ID and state if exists
@@ -98,24 +40,30 @@ public interface EventRepository extends JpaRepository<Event, Long> {
      * @param eventId event ID
      * @return detailed event information or empty Optional object
      */
+    @EntityGraph(attributePaths = {"category", "initiator", "location"})
     Optional<Event> findByIdAndState(Long eventId, String state);
 
     /**
-     * Get events by userId and paging parameters
+     * Get publication and modification time of the event and modification time of its category
+     * by ID and state if exists
      *
-     * @param userId   user id
-     * @param pageable paging parameters
-     * @return list of events, if no events are found by the specified filters, returns an empty list
+     * @param eventId event ID
+     * @param state   event state
+     * @return event timestamps or empty Optional object
      */
-    List<Event> findAllByInitiator_Id(Long userId, Pageable pageable);
-
+    @Query("select e.publishedOn as publishedOn, e.updatedOn as updatedOn, c.updatedOn as categoryUpdatedOn " +
+            "from Event e join e.category c where e.id = :eventId and e.state = :state")
+    Optional<EventTimestamps> findTimestampsByIdAndState(@Param("eventId") Long eventId,
+                                                         @Param("state") String state);
 
     /**
      * check if events exist by category id
+     * the result is cached in the query cache until events are changed
      *
      * @param catId category ID
      * @return true if there are events associated with category
      */
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     boolean existsByCategory_Id(Long catId);
 
     /**
@@ -124,7 +72,81 @@ public interface EventRepository extends JpaRepository<Event, Long> {
      * @param ids list events ids
      * @return list of events
      */
+    @EntityGraph(attributePaths = {"category", "initiator"})
     List<Event> findAllByIdIn(List<Long> ids);
 
+    /**
+     * atomically increase number of confirmed requests of the event,
+     * only if participation limit is not set or will not be exceeded
+     * the version of the event is increased, so that saving a concurrently loaded copy of the event fails
+     *
+     * @param eventId event ID
+     * @param number  number of newly confirmed requests
+     * @return number of updated events: 1 if requests are admitted, 0 if the limit would be exceeded
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Event e SET e.confirmedRequests = e.confirmedRequests + :number, "
+            + "e.updatedOn = CURRENT_TIMESTAMP, e.version = e.version + 1 "
+            + "WHERE e.id = :eventId "
+            + "AND (e.participantLimit = 0 OR e.confirmedRequests + :number <= e.participantLimit)")
+    int increaseConfirmedRequests(Long eventId, int number);
 
+    /**
+     * atomically decrease number of confirmed requests of the event, when confirmed requests are canceled
+     * the version of the event is increased, so that saving a concurrently loaded copy of the event fails
+     *
+     * @param eventId event ID
+     * @param number  number of canceled confirmed requests
+     * @return number of updated events
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Event e SET e.confirmedRequests = e.confirmedRequests - :number, "
+            + "e.updatedOn = CURRENT_TIMESTAMP, e.version = e.version + 1 "
+            + "WHERE e.id = :eventId AND e.confirmedRequests >= :number")
+    int decreaseConfirmedRequests(Long eventId, int number);
+
+    /**
+     * set number of confirmed requests of the event counted from the requests, if it differs
+     *
+     * @param eventId   event ID
+     * @param confirmed number of confirmed requests
+     * @return number of repaired events
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Event e SET e.confirmedRequests = :confirmed, "
+            + "e.updatedOn = CURRENT_TIMESTAMP, e.version = e.version + 1 "
+            + "WHERE e.id = :eventId AND (e.confirmedRequests IS NULL OR e.confirmedRequests <> :confirmed)")
+    int repairConfirmedRequests(Long eventId, int confirmed);
+
+    /**
+     * get page of event IDs greater than the given one, ordered by ID
+     *
+     * @param after    ID of the last event of the previous page, 0 for the first page
+     * @param pageable number of IDs to read
+     * @return list of event IDs
+     */
+    @Query("SELECT e.id FROM Event e WHERE e.id > :after ORDER BY e.id")
+    List<Long> findIdsAfter(Long after, Pageable pageable);
+
+    /**
+     * get event by id and lock it until the end of the transaction,
+     * so that the number of confirmed requests cannot be changed concurrently
+     *
+     * @param eventId event ID
+     * @return event
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM Event e WHERE e.id = :eventId")
+    Optional<Event> findForUpdateById(Long eventId);
+
+    /**
+     * lock event by id until the end of the transaction without loading it,
+     * so that the event already read by the transaction is not checked against its current version
+     *
+     * @param eventId event ID
+     * @return event ID, empty if the event is not found
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e.id FROM Event e WHERE e.id = :eventId")
+    Optional<Long> lockById(Long eventId);
 }
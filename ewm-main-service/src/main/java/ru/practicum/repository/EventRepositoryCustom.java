@@ -0,0 +1,42 @@
+package ru.practicum.repository;
+
+import com.querydsl.core.types.Predicate;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.dto.event.EventShortDto;
+import ru.practicum.entity.Event;
+
+import java.util.List;
+
+/**
+ * EVENT REPOSITORY custom queries
+ */
+public interface EventRepositoryCustom {
+
+    /**
+     * Get events by dynamic predicate without additional count query
+     *
+     * @param predicate search conditions, see {@link ru.practicum.utils.predicate.EventPredicateBuilder}
+     * @param pageable  paging and sorting parameters
+     * @return list of events met the predicate, if no events are found returns an empty list
+     */
+    List<Event> findEvents(Predicate predicate, Pageable pageable);
+
+    /**
+     * Get events with their request counters by dynamic predicate without additional count query
+     *
+     * @param predicate search conditions, see {@link ru.practicum.utils.predicate.EventPredicateBuilder}
+     * @param pageable  paging and sorting parameters
+     * @return list of events met the predicate with their counters, if no events are found returns an empty list
+     */
+    List<EventWithRequestCounters> findEventsWithRequestCounters(Predicate predicate, Pageable pageable);
+
+    /**
+     * Get short events information by dynamic predicate
+     * rows are read straight into EventShortDto, no entities are loaded into the persistence context
+     *
+     * @param predicate search conditions, see {@link ru.practicum.utils.predicate.EventPredicateBuilder}
+     * @param pageable  paging and sorting parameters
+     * @return list of short events information, if no events are found returns an empty list
+     */
+    List<EventShortDto> findEventShortDtos(Predicate predicate, Pageable pageable);
+}
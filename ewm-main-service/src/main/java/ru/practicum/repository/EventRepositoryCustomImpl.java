@@ -0,0 +1,114 @@
+package ru.practicum.repository;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.Projections;
+import com.querydsl.core.types.dsl.PathBuilder;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.support.Querydsl;
+import ru.practicum.dto.category.CategoryDto;
+import ru.practicum.dto.event.EventShortDto;
+import ru.practicum.dto.user.UserShortDto;
+import ru.practicum.entity.Event;
+import ru.practicum.entity.QCategory;
+import ru.practicum.entity.QEvent;
+import ru.practicum.entity.QEventRequestCounters;
+import ru.practicum.entity.QUser;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * EVENT REPOSITORY custom queries implementation
+ */
+public class EventRepositoryCustomImpl implements EventRepositoryCustom {
+
+    private final JPAQueryFactory queryFactory;
+    private final Querydsl querydsl;
+
+    public EventRepositoryCustomImpl(EntityManager entityManager) {
+        this.queryFactory = new JPAQueryFactory(entityManager);
+        this.querydsl = new Querydsl(entityManager,
+                new PathBuilder<>(Event.class, QEvent.event.getMetadata()));
+    }
+
+    /**
+     * Get events by dynamic predicate without additional count query
+     * category, initiator and location are fetched in the same query
+     *
+     * @param predicate search conditions
+     * @param pageable  paging and sorting parameters
+     * @return list of events met the predicate
+     */
+    @Override
+    public List<Event> findEvents(Predicate predicate, Pageable pageable) {
+        QEvent event = QEvent.event;
+        JPAQuery<Event> query = queryFactory
+                .selectFrom(event)
+                .leftJoin(event.category).fetchJoin()
+                .leftJoin(event.initiator).fetchJoin()
+                .leftJoin(event.location).fetchJoin()
+                .where(predicate);
+        return querydsl.applyPagination(pageable, query).fetch();
+    }
+
+    /**
+     * Get events with their request counters by dynamic predicate without additional count query
+     * category, initiator, location and counters are read in the same query
+     *
+     * @param predicate search conditions
+     * @param pageable  paging and sorting parameters
+     * @return list of events met the predicate with their counters
+     */
+    @Override
+    public List<EventWithRequestCounters> findEventsWithRequestCounters(Predicate predicate, Pageable pageable) {
+        QEvent event = QEvent.event;
+        QEventRequestCounters counters = QEventRequestCounters.eventRequestCounters;
+        JPAQuery<Tuple> query = queryFactory
+                .select(event, counters)
+                .from(event)
+                .leftJoin(event.category).fetchJoin()
+                .leftJoin(event.initiator).fetchJoin()
+                .leftJoin(event.location).fetchJoin()
+                .leftJoin(counters).on(counters.eventId.eq(event.id))
+                .where(predicate);
+        return querydsl.applyPagination(pageable, query).fetch().stream()
+                .map(row -> new EventWithRequestCounters(row.get(event), row.get(counters)))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Get short events information by dynamic predicate
+     * only the columns of EventShortDto are selected, category and initiator are joined in the same query
+     *
+     * @param predicate search conditions
+     * @param pageable  paging and sorting parameters
+     * @return list of short events information
+     */
+    @Override
+    public List<EventShortDto> findEventShortDtos(Predicate predicate, Pageable pageable) {
+        QEvent event = QEvent.event;
+        QCategory category = QCategory.category;
+        QUser initiator = QUser.user;
+        JPAQuery<EventShortDto> query = queryFactory
+                .select(Projections.constructor(EventShortDto.class,
+                        event.id,
+                        event.annotation,
+                        Projections.constructor(CategoryDto.class, category.id, category.name),
+                        event.confirmedRequests,
+                        event.eventDate,
+                        Projections.constructor(UserShortDto.class, initiator.id, initiator.name),
+                        event.paid,
+                        event.title,
+                        event.views,
+                        event.publishedOn))
+                .from(event)
+                .join(event.category, category)
+                .join(event.initiator, initiator)
+                .where(predicate);
+        return querydsl.applyPagination(pageable, query).fetch();
+    }
+}
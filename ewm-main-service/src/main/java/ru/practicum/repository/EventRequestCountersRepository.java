@@ -0,0 +1,68 @@
+package ru.practicum.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import ru.practicum.entity.EventRequestCounters;
+
+import javax.persistence.LockModeType;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface EventRequestCountersRepository extends JpaRepository<EventRequestCounters, Long> {
+
+    /**
+     * atomically add numbers to request counters of the event
+     *
+     * @param eventId   event ID
+     * @param pending   change of the number of pending requests
+     * @param confirmed change of the number of confirmed requests
+     * @param rejected  change of the number of rejected requests
+     * @param canceled  change of the number of canceled requests
+     * @return number of updated counters: 0 if counters of the event have not been created yet
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE EventRequestCounters c SET c.pending = c.pending + :pending, "
+            + "c.confirmed = c.confirmed + :confirmed, c.rejected = c.rejected + :rejected, "
+            + "c.canceled = c.canceled + :canceled "
+            + "WHERE c.eventId = :eventId")
+    int addToCounters(Long eventId, int pending, int confirmed, int rejected, int canceled);
+
+    /**
+     * get IDs of events in the range, whose request counters or number of confirmed requests differ
+     * from the numbers of their requests by status, events without request counters are returned too
+     * requests are counted by a single aggregate query restricted to the range
+     *
+     * @param after ID of the event before the range
+     * @param until ID of the last event of the range
+     * @return list of event IDs
+     */
+    @Query(value = "SELECT e.event_id FROM events e "
+            + "LEFT JOIN event_request_counters c ON c.event_id = e.event_id "
+            + "LEFT JOIN (SELECT event_id, "
+            + "SUM(CASE WHEN status = 'PENDING' THEN 1 ELSE 0 END) AS pending, "
+            + "SUM(CASE WHEN status = 'CONFIRMED' THEN 1 ELSE 0 END) AS confirmed, "
+            + "SUM(CASE WHEN status = 'REJECTED' THEN 1 ELSE 0 END) AS rejected, "
+            + "SUM(CASE WHEN status = 'CANCELED' THEN 1 ELSE 0 END) AS canceled "
+            + "FROM participation_requests WHERE event_id > :after AND event_id <= :until GROUP BY event_id) r "
+            + "ON r.event_id = e.event_id "
+            + "WHERE e.event_id > :after AND e.event_id <= :until AND (c.event_id IS NULL "
+            + "OR c.pending <> COALESCE(r.pending, 0) OR c.confirmed <> COALESCE(r.confirmed, 0) "
+            + "OR c.rejected <> COALESCE(r.rejected, 0) OR c.canceled <> COALESCE(r.canceled, 0) "
+            + "OR e.confirmed_requests IS NULL OR e.confirmed_requests <> COALESCE(r.confirmed, 0)) "
+            + "ORDER BY e.event_id", nativeQuery = true)
+    List<Long> findSuspectedEventIds(Long after, Long until);
+
+    /**
+     * get request counters of the event and lock them until the end of the transaction
+     *
+     * @param eventId event ID
+     * @return request counters
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM EventRequestCounters c WHERE c.eventId = :eventId")
+    Optional<EventRequestCounters> findForUpdateByEventId(Long eventId);
+}
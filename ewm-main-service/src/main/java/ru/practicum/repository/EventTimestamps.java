@@ -0,0 +1,17 @@
+package ru.practicum.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * EVENT TIMESTAMPS PROJECTION
+ * LocalDateTime publishedOn. Date and time the event was published
+ * LocalDateTime updatedOn. Date and time of the last modification of the event
+ * LocalDateTime categoryUpdatedOn. Date and time of the last modification of the category of the event
+ */
+public interface EventTimestamps {
+    LocalDateTime getPublishedOn();
+
+    LocalDateTime getUpdatedOn();
+
+    LocalDateTime getCategoryUpdatedOn();
+}
@@ -0,0 +1,18 @@
+package ru.practicum.repository;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.entity.Event;
+import ru.practicum.entity.EventRequestCounters;
+
+/**
+ * Event with its request counters, read by a single query
+ * Event event. Event
+ * EventRequestCounters counters. Request counters of the event, null if they have not been created yet
+ */
+@Getter
+@AllArgsConstructor
+public class EventWithRequestCounters {
+    private final Event event;
+    private final EventRequestCounters counters;
+}
@@ -1,10 +1,17 @@
 package ru.practicum.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import ru.practicum.dto.request.ParticipationRequestDto;
 import ru.practicum.entity.Request;
 import ru.practicum.enums.RequestStatus;
 
+import javax.persistence.LockModeType;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -28,20 +35,85 @@ public interface RequestRepository extends JpaRepository<Request, Long> {
     List<Request> findAllByRequester_Id(Long userId);
 
     /**
-     * get requests by requester id and event id
+     * get page of requests to the event with ID greater than the given one, ordered by ID
+     * rows are read straight into ParticipationRequestDto, no entities are loaded into the persistence context
      *
-     * @param userId  requester ID
-     * @param eventId event ID
+     * @param eventId  event ID
+     * @param after    ID of the last request of the previous page, 0 for the first page
+     * @param pageable number of requests to read
      * @return list of requests
      */
-    List<Request> findAllByRequester_IdAndEvent_Id(Long userId, Long eventId);
+    @Query("SELECT new ru.practicum.dto.request.ParticipationRequestDto("
+            + "r.id, r.created, r.event.id, r.requester.id, r.status) FROM Request r "
+            + "WHERE r.event.id = :eventId AND r.id > :after ORDER BY r.id")
+    List<ParticipationRequestDto> findPageByEventId(Long eventId, Long after, Pageable pageable);
 
     /**
-     * get requests by status and event id
+     * get page of requests by requester with ID greater than the given one, ordered by ID
+     * rows are read straight into ParticipationRequestDto, no entities are loaded into the persistence context
      *
-     * @param status  requestStatus
-     * @param eventId event ID
+     * @param userId   requester ID
+     * @param after    ID of the last request of the previous page, 0 for the first page
+     * @param pageable number of requests to read
      * @return list of requests
      */
-    List<Request> findALlByStatusAndEventId(RequestStatus status, Long eventId);
+    @Query("SELECT new ru.practicum.dto.request.ParticipationRequestDto("
+            + "r.id, r.created, r.event.id, r.requester.id, r.status) FROM Request r "
+            + "WHERE r.requester.id = :userId AND r.id > :after ORDER BY r.id")
+    List<ParticipationRequestDto> findPageByRequesterId(Long userId, Long after, Pageable pageable);
+
+    /**
+     * get IDs of the oldest pending requests to the event, in the order they were made
+     *
+     * @param eventId  event ID
+     * @param pageable number of requests to read
+     * @return list of request IDs
+     */
+    @Query("SELECT r.id FROM Request r "
+            + "WHERE r.event.id = :eventId AND r.status = ru.practicum.enums.RequestStatus.PENDING ORDER BY r.id")
+    List<Long> findWaitingIds(Long eventId, Pageable pageable);
+
+    /**
+     * get requests to the event by several requesters
+     *
+     * @param eventId      event ID
+     * @param requesterIds requester IDs
+     * @return list of requests
+     */
+    List<Request> findAllByEvent_IdAndRequester_IdIn(Long eventId, Collection<Long> requesterIds);
+
+    /**
+     * set new status to pending requests of the event with a single statement, increasing their versions
+     *
+     * @param eventId    event ID
+     * @param requestIds IDs of the requests
+     * @param status     new status
+     * @return number of updated requests, requests which are not pending or belong to another event are not updated
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Request r SET r.status = :status, r.version = r.version + 1 "
+            + "WHERE r.id IN :requestIds AND r.event.id = :eventId "
+            + "AND r.status = ru.practicum.enums.RequestStatus.PENDING")
+    int updatePendingStatus(Long eventId, Collection<Long> requestIds, RequestStatus status);
+
+    /**
+     * get pending requests to the event, locking them until the end of the transaction
+     *
+     * @param eventId event ID
+     * @return list of pending requests
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Request r "
+            + "WHERE r.event.id = :eventId AND r.status = ru.practicum.enums.RequestStatus.PENDING ORDER BY r.id")
+    List<Request> findPendingForUpdate(Long eventId);
+
+    /**
+     * count requests to the event by status
+     *
+     * @param eventId event ID
+     * @return number of requests for each status the event has requests with
+     */
+    @Query("SELECT r.event.id AS eventId, r.status AS status, COUNT(r) AS count FROM Request r "
+            + "WHERE r.event.id = :eventId GROUP BY r.event.id, r.status")
+    List<RequestStatusCount> countByStatus(Long eventId);
 }
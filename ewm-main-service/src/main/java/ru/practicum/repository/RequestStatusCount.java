@@ -0,0 +1,17 @@
+package ru.practicum.repository;
+
+import ru.practicum.enums.RequestStatus;
+
+/**
+ * REQUEST STATUS COUNT PROJECTION
+ * Long eventId. Event ID
+ * RequestStatus status. Status of the requests
+ * Long count. Number of requests to the event with the status
+ */
+public interface RequestStatusCount {
+    Long getEventId();
+
+    RequestStatus getStatus();
+
+    Long getCount();
+}
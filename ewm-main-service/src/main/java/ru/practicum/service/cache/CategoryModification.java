@@ -0,0 +1,13 @@
+package ru.practicum.service.cache;
+
+import lombok.Value;
+
+/**
+ * CATEGORY MODIFICATION
+ * published when a category changes
+ * Long categoryId. Category ID
+ */
+@Value
+public class CategoryModification {
+    Long categoryId;
+}
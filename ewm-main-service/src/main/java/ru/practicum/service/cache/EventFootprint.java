@@ -0,0 +1,43 @@
+package ru.practicum.service.cache;
+
+import lombok.Builder;
+import lombok.Value;
+import ru.practicum.entity.Event;
+import ru.practicum.enums.EventState;
+
+import java.time.LocalDateTime;
+
+/**
+ * EVENT FOOTPRINT
+ * event fields that decide whether the event can appear in a public events listing
+ * Long id. Event ID
+ * Long categoryId. Event category ID
+ * Boolean paid. Equals true if participation is paid
+ * LocalDateTime eventDate. Date and time for which the event is scheduled
+ * boolean published. Equals true if the event is published
+ */
+@Value
+@Builder
+public class EventFootprint {
+    Long id;
+    Long categoryId;
+    Boolean paid;
+    LocalDateTime eventDate;
+    boolean published;
+
+    /**
+     * take footprint of the event
+     *
+     * @param event event
+     * @return event footprint
+     */
+    public static EventFootprint of(Event event) {
+        return EventFootprint.builder()
+                .id(event.getId())
+                .categoryId(event.getCategory() == null ? null : event.getCategory().getId())
+                .paid(event.getPaid())
+                .eventDate(event.getEventDate())
+                .published(EventState.PUBLISHED.name().equals(event.getState()))
+                .build();
+    }
+}
@@ -0,0 +1,38 @@
+package ru.practicum.service.cache;
+
+import lombok.Value;
+import ru.practicum.entity.Event;
+
+/**
+ * EVENT MODIFICATION
+ * published when an event changes, carries footprints of the event before and after the change
+ * boolean requestsOnly. Equals true if only participation requests of the event changed, not its details
+ */
+@Value
+public class EventModification {
+    EventFootprint before;
+    EventFootprint after;
+    boolean requestsOnly;
+
+    /**
+     * create modification of the event
+     *
+     * @param before footprint of the event taken before the change, since saving changes the loaded event
+     * @param after  event after the change
+     * @return event modification
+     */
+    public static EventModification of(EventFootprint before, Event after) {
+        return new EventModification(before, EventFootprint.of(after), false);
+    }
+
+    /**
+     * create modification of the event, which does not change its footprint (e.g. confirmed requests)
+     *
+     * @param event changed event
+     * @return event modification
+     */
+    public static EventModification of(Event event) {
+        EventFootprint footprint = EventFootprint.of(event);
+        return new EventModification(footprint, footprint, true);
+    }
+}
@@ -0,0 +1,85 @@
+package ru.practicum.service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.dto.event.EventShortDto;
+import ru.practicum.service.statistics.StatisticsService;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static ru.practicum.utils.constants.Constants.SLASH_PATH;
+
+/**
+ * EVENT VIEWS CACHE
+ * short-lived cache of event views, only views of missing or expired events are requested from statistics service
+ * the cache holds views of at most ewm.cache.event-views.max-size events, the least recently used are evicted first
+ */
+@Component
+@Slf4j
+public class EventViewsCache {
+    private final StatisticsService statisticsService;
+    private final Cache<Long, Entry> entries;
+
+    public EventViewsCache(StatisticsService statisticsService,
+                           @Value("${ewm.cache.event-views.ttl-seconds:5}") long ttlSeconds,
+                           @Value("${ewm.cache.event-views.max-size:10000}") long maxSize) {
+        this.statisticsService = statisticsService;
+        this.entries = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    /**
+     * get views of events
+     *
+     * @param events list of events
+     * @param uri    uri of events listing, event uri is constructed as uri/{eventId}
+     * @return map of event id to number of views
+     */
+    public Map<Long, Long> getViews(List<EventShortDto> events, String uri) {
+        Map<Long, Long> result = new HashMap<>();
+        List<EventShortDto> missing = new ArrayList<>();
+        for (EventShortDto event : events) {
+            Entry entry = entries.getIfPresent(event.getId());
+            if (entry == null) {
+                missing.add(event);
+            } else {
+                result.put(event.getId(), entry.views);
+            }
+        }
+        if (!missing.isEmpty()) {
+            LocalDateTime oldestEventPublishedOn = missing.stream()
+                    .map(EventShortDto::getPublishedOn)
+                    .min(Comparator.naturalOrder())
+                    .orElseThrow();
+            List<String> uris = missing.stream().map(e -> uri + SLASH_PATH + e.getId())
+                    .collect(Collectors.toList());
+            Map<Long, Long> views = statisticsService.getStats(oldestEventPublishedOn, LocalDateTime.now(), uris);
+            log.debug("Views of {} events requested from statistics service", missing.size());
+            for (EventShortDto event : missing) {
+                Long eventViews = views.get(event.getId());
+                entries.put(event.getId(), new Entry(eventViews));
+                result.put(event.getId(), eventViews);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * cached number of views, null if the event has not been viewed
+     */
+    private static class Entry {
+        private final Long views;
+
+        private Entry(Long views) {
+            this.views = views;
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package ru.practicum.service.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.dto.event.EventShortDto;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * PUBLIC EVENTS CACHE
+ * caches public events listings (without views) by normalized filter parameters and page
+ * entries are evicted after ttl or when an event or category they could contain is changed,
+ * a listing loaded while listings were evicted is not cached, since it could be read before the change.
+ * Changes of participation requests of an event evict only listings of only available events, which the event
+ * could enter or leave, so that steady admissions do not keep the other listings out of the cache:
+ * numbers of confirmed requests in those listings may be stale within ttl.
+ */
+@Component
+@Slf4j
+public class PublicEventsCache {
+    private final Map<PublicEventsKey, Entry> entries = new ConcurrentHashMap<>();
+    private final long ttlMillis;
+    private final int maxSize;
+    /**
+     * number of evictions, changed under the lock of the cache together with the entries
+     */
+    private volatile long generation;
+    /**
+     * number of evictions of listings of only available events by changes of participation requests,
+     * changed under the lock of the cache together with the entries
+     */
+    private volatile long availableGeneration;
+
+    public PublicEventsCache(@Value("${ewm.cache.public-events.ttl-seconds:60}") long ttlSeconds,
+                             @Value("${ewm.cache.public-events.max-size:1000}") int maxSize) {
+        this.ttlMillis = ttlSeconds * 1000;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * get cached listing or load and cache it
+     *
+     * @param key    listing key
+     * @param loader listing loader
+     * @return copy of the listing
+     */
+    public List<EventShortDto> get(PublicEventsKey key, Supplier<List<EventShortDto>> loader) {
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(key);
+        if (entry == null || entry.expiresAt < now) {
+            long loadedGeneration = generation;
+            long loadedAvailableGeneration = availableGeneration;
+            entry = new Entry(copy(loader.get()), now + ttlMillis);
+            install(key, entry, loadedGeneration, loadedAvailableGeneration);
+        }
+        return copy(entry.events);
+    }
+
+    /**
+     * evict listings that could contain the event before or after the change,
+     * or only listings of only available events, if only participation requests of the event changed
+     *
+     * @param modification event modification
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onEventModification(EventModification modification) {
+        Long eventId = modification.getAfter().getId();
+        if (modification.isRequestsOnly()) {
+            availableGeneration++;
+            entries.entrySet().removeIf(e -> e.getKey().isOnlyAvailable()
+                    && (e.getValue().eventIds.contains(eventId) || e.getKey().couldContain(modification.getAfter())));
+            log.debug("Public listings of available events with event {} evicted from cache", eventId);
+            return;
+        }
+        generation++;
+        entries.entrySet().removeIf(e -> e.getValue().eventIds.contains(eventId)
+                || e.getKey().couldContain(modification.getBefore())
+                || e.getKey().couldContain(modification.getAfter()));
+        log.debug("Public events listings with event {} evicted from cache", eventId);
+    }
+
+    /**
+     * evict listings that contain or filter on the category
+     *
+     * @param modification category modification
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onCategoryModification(CategoryModification modification) {
+        Long categoryId = modification.getCategoryId();
+        generation++;
+        entries.entrySet().removeIf(e -> e.getValue().categoryIds.contains(categoryId)
+                || (e.getKey().getCategories() != null && e.getKey().getCategories().contains(categoryId)));
+        log.debug("Public events listings with category {} evicted from cache", categoryId);
+    }
+
+    /**
+     * get number of cached listings
+     *
+     * @return number of cached listings
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * cache the loaded listing, unless listings it belongs to were evicted while it was loaded:
+     * the listing could have been read before a change was committed, and cached after its eviction
+     *
+     * @param key                       listing key
+     * @param entry                     loaded listing
+     * @param loadedGeneration          generation of evictions, when the listing started loading
+     * @param loadedAvailableGeneration generation of evictions of listings of only available events,
+     *                                  when the listing started loading
+     */
+    private synchronized void install(PublicEventsKey key, Entry entry, long loadedGeneration,
+                                      long loadedAvailableGeneration) {
+        if (generation != loadedGeneration
+                || key.isOnlyAvailable() && availableGeneration != loadedAvailableGeneration) {
+            log.debug("Public events listing {} is not cached, listings were evicted while it was loaded", key);
+            return;
+        }
+        evictIfFull();
+        entries.put(key, entry);
+        log.debug("Public events listing {} loaded into cache", key);
+    }
+
+    /**
+     * remove expired entries, and if cache is still full, the entry that expires first
+     */
+    private void evictIfFull() {
+        if (entries.size() < maxSize) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(e -> e.expiresAt < now);
+        if (entries.size() >= maxSize) {
+            entries.entrySet().stream()
+                    .min(Comparator.comparingLong(e -> e.getValue().expiresAt))
+                    .ifPresent(e -> entries.remove(e.getKey()));
+        }
+    }
+
+    /**
+     * copy listing, so that cached events are not changed by callers
+     *
+     * @param events list of events
+     * @return list of copies
+     */
+    private static List<EventShortDto> copy(List<EventShortDto> events) {
+        return events.stream().map(e -> e.toBuilder().build()).collect(Collectors.toList());
+    }
+
+    /**
+     * cached listing with ids of events and categories it contains
+     */
+    private static class Entry {
+        private final List<EventShortDto> events;
+        private final Set<Long> eventIds;
+        private final Set<Long> categoryIds;
+        private final long expiresAt;
+
+        private Entry(List<EventShortDto> events, long expiresAt) {
+            this.events = events;
+            this.eventIds = events.stream().map(EventShortDto::getId).collect(Collectors.toSet());
+            this.categoryIds = events.stream().map(e -> e.getCategory().getId()).collect(Collectors.toSet());
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package ru.practicum.service.cache;
+
+import lombok.Value;
+import ru.practicum.enums.SortType;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * PUBLIC EVENTS LISTING KEY
+ * normalized filter parameters and page of the public events listing
+ * String text. Lower-cased trimmed text, null if not supplied
+ * List<Long> categories. Sorted distinct category ids, null if not supplied
+ * Boolean paid. Paid flag, null if not supplied
+ * LocalDateTime rangeStart. Start of the range, null means "from now"
+ * LocalDateTime rangeEnd. End of the range, null if not supplied
+ * boolean onlyAvailable. Only events that have not reached the limit of participation requests
+ * SortType sort. Sort type, null if not supplied
+ * int from, int size. Page
+ */
+@Value
+public class PublicEventsKey {
+    String text;
+    List<Long> categories;
+    Boolean paid;
+    LocalDateTime rangeStart;
+    LocalDateTime rangeEnd;
+    boolean onlyAvailable;
+    SortType sort;
+    int from;
+    int size;
+
+    /**
+     * create normalized key
+     */
+    public static PublicEventsKey of(String text, List<Long> categories, Boolean paid,
+                                     LocalDateTime rangeStart, LocalDateTime rangeEnd, Boolean onlyAvailable,
+                                     SortType sort, Integer from, Integer size) {
+        return new PublicEventsKey(
+                text == null || text.isBlank() ? null : text.trim().toLowerCase(),
+                categories == null || categories.isEmpty() ? null :
+                        categories.stream().distinct().sorted().collect(Collectors.toList()),
+                paid,
+                rangeStart,
+                rangeEnd,
+                Boolean.TRUE.equals(onlyAvailable),
+                sort,
+                from,
+                size);
+    }
+
+    /**
+     * check if the listing could contain the event
+     * text is not checked, so the answer may be a false positive but never a false negative
+     *
+     * @param event event footprint
+     * @return true if the event matches the listing filters
+     */
+    public boolean couldContain(EventFootprint event) {
+        if (!event.isPublished()) {
+            return false;
+        }
+        if (categories != null && !categories.contains(event.getCategoryId())) {
+            return false;
+        }
+        if (paid != null && !paid.equals(event.getPaid())) {
+            return false;
+        }
+        if (rangeStart != null && event.getEventDate().isBefore(rangeStart)) {
+            return false;
+        }
+        return rangeEnd == null || !event.getEventDate().isAfter(rangeEnd);
+    }
+}
@@ -0,0 +1,152 @@
+package ru.practicum.service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.dto.category.CategoryDto;
+import ru.practicum.dto.user.UserShortDto;
+import ru.practicum.entity.Category;
+import ru.practicum.entity.User;
+import ru.practicum.repository.CategoryRepository;
+import ru.practicum.repository.UserRepository;
+import ru.practicum.utils.mapper.CategoryMapper;
+import ru.practicum.utils.mapper.UserMapper;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * REFERENCE DATA CACHE
+ * read-through cache of categories and short details of users, which are referenced by events and requests
+ * entries are evicted after ttl, when the cache is full (least recently used first), or when the category or user
+ * is changed or deleted
+ * Metrics (Caffeine statistics by cache, reference-categories and reference-users):
+ * cache.gets{cache, result=hit|miss}, cache.puts{cache}, cache.evictions{cache}, cache.size{cache}
+ */
+@Component
+@Slf4j
+public class ReferenceDataCache {
+    private final Store<CategoryDto> categories;
+    private final Store<UserShortDto> users;
+
+    public ReferenceDataCache(CategoryRepository categoryRepository,
+                              UserRepository userRepository,
+                              MeterRegistry meterRegistry,
+                              @Value("${ewm.cache.reference.ttl-seconds:300}") long ttlSeconds,
+                              @Value("${ewm.cache.reference.max-size:10000}") int maxSize) {
+        this.categories = new Store<>("reference-categories", id -> categoryRepository.findById(id)
+                .map(CategoryMapper::toCategoryDto), meterRegistry, ttlSeconds, maxSize);
+        this.users = new Store<>("reference-users", id -> userRepository.findById(id)
+                .map(UserMapper::toUserShortDto), meterRegistry, ttlSeconds, maxSize);
+    }
+
+    /**
+     * find category, loading it from repository if it is not cached
+     *
+     * @param categoryId category ID
+     * @return detached category, which can be referenced by new events
+     */
+    public Optional<Category> findCategory(Long categoryId) {
+        return categories.get(categoryId).map(CategoryMapper::toCategoryEntity);
+    }
+
+    /**
+     * find user with short details, loading it from repository if it is not cached
+     *
+     * @param userId user ID
+     * @return detached user with id and name, which can be referenced by new events and requests
+     */
+    public Optional<User> findUser(Long userId) {
+        return users.get(userId).map(UserMapper::toUserEntity);
+    }
+
+    /**
+     * evict the changed category at once, so that the changing transaction does not read it from cache
+     *
+     * @param modification category modification
+     */
+    @EventListener
+    public void evictCategory(CategoryModification modification) {
+        categories.evict(modification.getCategoryId());
+    }
+
+    /**
+     * evict the changed category again after commit or rollback, in case it was cached meanwhile
+     * by a concurrent transaction, or by the changing transaction itself
+     *
+     * @param modification category modification
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+    public void onCategoryModification(CategoryModification modification) {
+        categories.evict(modification.getCategoryId());
+    }
+
+    /**
+     * evict the changed user at once, so that the changing transaction does not read it from cache
+     *
+     * @param modification user modification
+     */
+    @EventListener
+    public void evictUser(UserModification modification) {
+        users.evict(modification.getUserId());
+    }
+
+    /**
+     * evict the changed user again after commit or rollback, in case it was cached meanwhile
+     * by a concurrent transaction, or by the changing transaction itself
+     *
+     * @param modification user modification
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+    public void onUserModification(UserModification modification) {
+        users.evict(modification.getUserId());
+    }
+
+    /**
+     * cached values by id with ttl and bounded size, bound to the meter registry
+     * absent values are not cached, so that new rows are found at once.
+     * Values are loaded inside the computation of their key, so that eviction of the key waits for a running load:
+     * a value read before the change is committed cannot be put into the cache after the eviction on commit.
+     */
+    private static class Store<V> {
+        private final String name;
+        private final Function<Long, Optional<V>> loader;
+        private final Cache<Long, V> entries;
+
+        private Store(String name, Function<Long, Optional<V>> loader, MeterRegistry meterRegistry,
+                      long ttlSeconds, int maxSize) {
+            this.name = name;
+            this.loader = loader;
+            this.entries = Caffeine.newBuilder()
+                    .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                    .maximumSize(maxSize)
+                    .recordStats()
+                    .build();
+            CaffeineCacheMetrics.monitor(meterRegistry, entries, name);
+        }
+
+        private Optional<V> get(Long id) {
+            return Optional.ofNullable(entries.get(id, this::load));
+        }
+
+        private V load(Long id) {
+            V value = loader.apply(id).orElse(null);
+            if (value != null) {
+                log.debug("{} {} loaded into reference data cache", name, id);
+            }
+            return value;
+        }
+
+        private void evict(Long id) {
+            entries.invalidate(id);
+        }
+    }
+}
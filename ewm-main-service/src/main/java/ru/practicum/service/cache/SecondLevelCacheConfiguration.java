@@ -0,0 +1,108 @@
+package ru.practicum.service.cache;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.hibernate.cache.internal.NoCachingRegionFactory;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SECOND-LEVEL CACHE CONFIGURATION
+ * categories, compilations with their events collections and compilation snapshots are cached by Hibernate
+ * in Caffeine caches in the heap of the service through JCache, and so are results of queries marked as cacheable,
+ * unless ewm.cache.second-level.enabled=false, which turns both caches off.
+ * Published events are not cached, since they are not read-mostly: every admission of a participant changes
+ * the number of confirmed requests of the event by a bulk update, which would clear the region of events.
+ * Reads of published events are served by the public events cache and conditional requests instead.
+ * Entries live for ewm.cache.second-level.ttl-seconds, a region holds at most ewm.cache.second-level.max-size entries.
+ * Entries of the update timestamps region are never evicted, since cached query results are checked against them.
+ * Every region must be created here, Hibernate fails to start on a region missing in the cache manager.
+ * Metrics:
+ * cache.gets{cache, result=hit|miss}, cache.puts{cache}, cache.removals{cache}, cache.evictions{cache} by region
+ */
+@Configuration
+public class SecondLevelCacheConfiguration {
+    private static final String ENABLED = "ewm.cache.second-level.enabled";
+    private static final List<String> REGIONS = List.of("categories", "compilations", "compilation-events",
+            "compilation-snapshots", RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME);
+
+    /**
+     * cache manager of the second-level cache, with its own URI,
+     * so that application contexts running in the same JVM do not share regions
+     *
+     * @param meterRegistry meter registry
+     * @param ttlSeconds    time to live of entries
+     * @param maxSize       maximum number of entries of a region
+     * @return cache manager
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = ENABLED, havingValue = "true", matchIfMissing = true)
+    public CacheManager secondLevelCacheManager(
+            MeterRegistry meterRegistry,
+            @Value("${ewm.cache.second-level.ttl-seconds:600}") long ttlSeconds,
+            @Value("${ewm.cache.second-level.max-size:10000}") int maxSize) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("ewm-second-level-cache-" + UUID.randomUUID()),
+                        getClass().getClassLoader());
+        for (String region : REGIONS) {
+            CaffeineConfiguration<Object, Object> configuration = newConfiguration();
+            configuration.setExpireAfterWrite(OptionalLong.of(TimeUnit.SECONDS.toNanos(ttlSeconds)));
+            configuration.setMaximumSize(OptionalLong.of(maxSize));
+            cacheManager.createCache(region, configuration);
+        }
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, newConfiguration());
+        cacheManager.getCacheNames().forEach(region ->
+                JCacheMetrics.monitor(meterRegistry, cacheManager.getCache(region)));
+        return cacheManager;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = ENABLED, havingValue = "true", matchIfMissing = true)
+    public HibernatePropertiesCustomizer secondLevelCache(CacheManager secondLevelCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    /**
+     * turn both caches off explicitly, since otherwise Hibernate finds hibernate-jcache on the classpath
+     * and caches entities marked as cacheable in unbounded regions created on the fly
+     *
+     * @return customizer of Hibernate properties
+     */
+    @Bean
+    @ConditionalOnProperty(name = ENABLED, havingValue = "false")
+    public HibernatePropertiesCustomizer noSecondLevelCache() {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, false);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, false);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, NoCachingRegionFactory.class.getName());
+        };
+    }
+
+    private static CaffeineConfiguration<Object, Object> newConfiguration() {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setStatisticsEnabled(true);
+        return configuration;
+    }
+}
@@ -0,0 +1,13 @@
+package ru.practicum.service.cache;
+
+import lombok.Value;
+
+/**
+ * USER MODIFICATION
+ * published when a user changes or is deleted
+ * Long userId. User ID
+ */
+@Value
+public class UserModification {
+    Long userId;
+}
@@ -4,6 +4,7 @@ package ru.practicum.service.category;
 import org.springframework.stereotype.Component;
 import ru.practicum.dto.category.CategoryDto;
 import ru.practicum.dto.category.NewCategoryDto;
+import ru.practicum.utils.conditional.ContentVersion;
 
 import java.util.List;
 
@@ -16,6 +17,21 @@ public interface CategoryService {
 
     CategoryDto getCategoryById(Long catId);
 
+    /**
+     * Get version of categories list, without loading categories
+     *
+     * @return number of categories and the latest modification time
+     */
+    ContentVersion getCategoriesVersion();
+
+    /**
+     * Get version of the category, without loading the category
+     *
+     * @param catId category id
+     * @return number of found categories (0 or 1) and modification time
+     */
+    ContentVersion getCategoryVersion(Long catId);
+
     /**
      * Add new category
      * category name must be unique
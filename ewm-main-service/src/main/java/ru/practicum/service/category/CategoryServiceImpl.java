@@ -2,18 +2,21 @@ package ru.practicum.service.category;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import ru.practicum.dto.category.CategoryDto;
 import ru.practicum.dto.category.NewCategoryDto;
 import ru.practicum.entity.Category;
+import ru.practicum.logging.PayloadLogger;
 import ru.practicum.repository.CategoryRepository;
 import ru.practicum.repository.EventRepository;
+import ru.practicum.service.cache.CategoryModification;
+import ru.practicum.utils.conditional.ContentVersion;
 import ru.practicum.utils.errors.ErrorConstants;
 import ru.practicum.utils.errors.exceptions.ConflictConstraintUniqueException;
 import ru.practicum.utils.errors.exceptions.NotAllowedException;
 import ru.practicum.utils.errors.exceptions.NotFoundException;
-import ru.practicum.utils.logger.ListLogger;
 import ru.practicum.utils.mapper.CategoryMapper;
 import ru.practicum.utils.paging.Paging;
 
@@ -33,6 +36,7 @@ import static ru.practicum.utils.errors.ErrorConstants.CATEGORY_NAME_UNIQUE_VIOL
 public class CategoryServiceImpl implements CategoryService {
     private final CategoryRepository categoryRepository;
     private final EventRepository eventRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * get Categories list
@@ -45,7 +49,7 @@ public class CategoryServiceImpl implements CategoryService {
     @Transactional(readOnly = true)
     public List<CategoryDto> getCategories(Integer from, Integer size) {
         List<Category> categories = categoryRepository.findAll(Paging.getPageable(from, size)).getContent();
-        ListLogger.logResultList(categories);
+        PayloadLogger.logResults(log, categories, Category::getId);
         return CategoryMapper.toCategoryDtoList(categories);
     }
 
@@ -64,6 +68,29 @@ public class CategoryServiceImpl implements CategoryService {
         return CategoryMapper.toCategoryDto(category);
     }
 
+    /**
+     * get version of categories list
+     *
+     * @return number of categories and the latest modification time
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public ContentVersion getCategoriesVersion() {
+        return categoryRepository.findVersion();
+    }
+
+    /**
+     * get version of the category
+     *
+     * @param catId category id
+     * @return number of found categories (0 or 1) and modification time
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public ContentVersion getCategoryVersion(Long catId) {
+        return categoryRepository.findVersionById(catId);
+    }
+
     /**
      * Add new category
      * category name must be unique
@@ -96,6 +123,7 @@ public class CategoryServiceImpl implements CategoryService {
         CategoryDto deleted = CategoryMapper.toCategoryDto(getCategoryOrThrowException(catId));
         checkIfEventsExistByCategory(catId);
         categoryRepository.deleteById(catId);
+        eventPublisher.publishEvent(new CategoryModification(catId));
         log.info("Delete category with id: {}, category: {}", catId, deleted);
         return deleted;
     }
@@ -118,6 +146,7 @@ public class CategoryServiceImpl implements CategoryService {
                 .name(dto.getName())
                 .build();
         Category updatedCategory = categoryRepository.save(updated);
+        eventPublisher.publishEvent(new CategoryModification(catId));
         CategoryDto updatedCategoryDto = CategoryMapper.toCategoryDto(updatedCategory);
         log.info("Category {} updated", updatedCategoryDto);
         return updatedCategoryDto;
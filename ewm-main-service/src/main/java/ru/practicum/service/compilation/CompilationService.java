@@ -3,6 +3,7 @@ package ru.practicum.service.compilation;
 import ru.practicum.dto.compilation.CompilationDto;
 import ru.practicum.dto.compilation.NewCompilationDto;
 import ru.practicum.dto.compilation.UpdateCompilationRequest;
+import ru.practicum.utils.conditional.ContentVersion;
 
 import java.util.List;
 
@@ -54,4 +55,21 @@ public interface CompilationService {
      * @return compilation
      */
     CompilationDto getCompilationById(Integer compId);
+
+    /**
+     * Get version of compilations list, without loading compilations
+     *
+     * @param pinned search only pinned/unpinned collections
+     * @return number of compilations and the latest modification time of their snapshots
+     */
+    ContentVersion getCompilationsVersion(Boolean pinned);
+
+    /**
+     * Get version of the compilation, without loading the compilation
+     *
+     * @param compId compilation id
+     * @return number of found compilations (0 or 1)
+     * and the latest modification time of the compilation snapshot
+     */
+    ContentVersion getCompilationVersion(Integer compId);
 }
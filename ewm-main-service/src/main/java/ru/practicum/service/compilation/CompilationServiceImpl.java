@@ -9,18 +9,23 @@ import ru.practicum.dto.compilation.CompilationDto;
 import ru.practicum.dto.compilation.NewCompilationDto;
 import ru.practicum.dto.compilation.UpdateCompilationRequest;
 import ru.practicum.entity.Compilation;
+import ru.practicum.entity.CompilationSnapshot;
 import ru.practicum.entity.Event;
+import ru.practicum.logging.PayloadLogger;
 import ru.practicum.repository.CompilationRepository;
+import ru.practicum.repository.CompilationSnapshotRepository;
 import ru.practicum.repository.EventRepository;
+import ru.practicum.utils.conditional.ContentVersion;
 import ru.practicum.utils.errors.ErrorConstants;
 import ru.practicum.utils.errors.exceptions.ConflictConstraintUniqueException;
 import ru.practicum.utils.errors.exceptions.NotFoundException;
-import ru.practicum.utils.logger.ListLogger;
 import ru.practicum.utils.mapper.CompilationMapper;
 import ru.practicum.utils.paging.Paging;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static ru.practicum.utils.errors.ErrorConstants.COMPILATION_TITLE_UNIQUE_VIOLATION;
 
@@ -34,6 +39,8 @@ public class CompilationServiceImpl implements CompilationService {
 
     private final CompilationRepository compilationRepository;
     private final EventRepository eventRepository;
+    private final CompilationSnapshotRepository snapshotRepository;
+    private final CompilationSnapshots compilationSnapshots;
 
     /**
      * Add a new collection of events (the collection may not contain events)
@@ -50,6 +57,7 @@ public class CompilationServiceImpl implements CompilationService {
         try {
             Compilation newCompilation = compilationRepository
                     .save(CompilationMapper.toCompilationEntity(compilation, events));
+            compilationSnapshots.save(newCompilation);
             log.info("New compilation: {} added", newCompilation);
             return CompilationMapper.toCompilationDto(newCompilation);
         } catch (DataIntegrityViolationException e) {
@@ -68,6 +76,7 @@ public class CompilationServiceImpl implements CompilationService {
     @Transactional
     public CompilationDto updateCompilation(Integer compId, UpdateCompilationRequest request) {
 
+        compilationSnapshots.lock(compId);
         Compilation compilation = compilationRepository.getReferenceById(compId);
         List<Event> events;
 
@@ -79,9 +88,11 @@ public class CompilationServiceImpl implements CompilationService {
         }
         if (request.getEvents() != null && !request.getEvents().isEmpty()) {
             events = getEvents(request.getEvents());
-            compilation = compilation.toBuilder().events(events).build();
+            // changing only the list of events does not update the compilation row, so bump its version explicitly
+            compilation = compilation.toBuilder().events(events).updatedOn(LocalDateTime.now()).build();
         }
         Compilation updatedCompilation = compilationRepository.save(compilation);
+        compilationSnapshots.save(updatedCompilation);
         log.info("Compilation: {} updated", updatedCompilation);
 
         return CompilationMapper.toCompilationDto(updatedCompilation);
@@ -97,13 +108,14 @@ public class CompilationServiceImpl implements CompilationService {
     @Transactional
     public CompilationDto deleteCompilation(Integer compId) {
         CompilationDto deleted = CompilationMapper.toCompilationDto(getCompilationOrThrowException(compId));
+        snapshotRepository.findById(compId).ifPresent(snapshotRepository::delete);
         compilationRepository.deleteById(compId);
         log.info("Delete compilation with id: {}, compilation: {}", compId, deleted);
         return deleted;
     }
 
     /**
-     * Get List of compilations of the events
+     * Get List of compilations of the events from their snapshots, ordered by compilation id
      *
      * @param from number of elements that need to be skipped to form the current page, default value = 10
      * @param size number of elements per page, default value = 10
@@ -113,18 +125,21 @@ public class CompilationServiceImpl implements CompilationService {
     @Override
     @Transactional(readOnly = true)
     public List<CompilationDto> getCompilations(Integer from, Integer size, Boolean pinned) {
-        List<Compilation> compilations;
+        List<CompilationSnapshot> snapshots;
         if (pinned == null) {
-            compilations = compilationRepository.findAll(Paging.getPageable(from, size)).getContent();
+            snapshots = snapshotRepository.findAllByOrderByCompilationId(Paging.getPageable(from, size));
         } else {
-            compilations = compilationRepository.findAllByPinned(pinned);
+            snapshots = snapshotRepository.findAllByPinnedOrderByCompilationId(pinned, Paging.getPageable(from, size));
         }
-        ListLogger.logResultList(compilations);
-        return CompilationMapper.toCompilationDtoList(compilations);
+        List<CompilationDto> resultList = snapshots.stream()
+                .map(compilationSnapshots::toCompilationDto)
+                .collect(Collectors.toList());
+        PayloadLogger.logResults(log, resultList, CompilationDto::getId);
+        return resultList;
     }
 
     /**
-     * get Compilation by id
+     * get Compilation by id from its snapshot
      *
      * @param compId compilation id
      * @return compilation
@@ -132,9 +147,36 @@ public class CompilationServiceImpl implements CompilationService {
     @Override
     @Transactional(readOnly = true)
     public CompilationDto getCompilationById(Integer compId) {
-        Compilation compilation = getCompilationOrThrowException(compId);
+        CompilationDto compilation = snapshotRepository.findById(compId)
+                .map(compilationSnapshots::toCompilationDto)
+                .orElseThrow(() -> new NotFoundException(ErrorConstants.getNotFoundMessage("Compilation", compId)));
         log.info("Compilation {} was found by id {}", compilation, compId);
-        return CompilationMapper.toCompilationDto(compilation);
+        return compilation;
+    }
+
+    /**
+     * get version of compilations list
+     *
+     * @param pinned search only pinned/unpinned collections
+     * @return number of compilations and the latest modification time of their snapshots
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public ContentVersion getCompilationsVersion(Boolean pinned) {
+        return pinned == null ? snapshotRepository.findVersion() : snapshotRepository.findVersionByPinned(pinned);
+    }
+
+    /**
+     * get version of the compilation
+     *
+     * @param compId compilation id
+     * @return number of found compilations (0 or 1)
+     * and the latest modification time of the compilation snapshot
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public ContentVersion getCompilationVersion(Integer compId) {
+        return snapshotRepository.findVersionById(compId);
     }
 
     /**
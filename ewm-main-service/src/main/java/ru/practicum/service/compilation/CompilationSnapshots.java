@@ -0,0 +1,165 @@
+package ru.practicum.service.compilation;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.dto.compilation.CompilationDto;
+import ru.practicum.dto.event.EventShortDto;
+import ru.practicum.entity.Compilation;
+import ru.practicum.entity.CompilationSnapshot;
+import ru.practicum.repository.CompilationRepository;
+import ru.practicum.repository.CompilationSnapshotRepository;
+import ru.practicum.service.cache.CategoryModification;
+import ru.practicum.service.cache.EventModification;
+import ru.practicum.utils.mapper.EventMapper;
+
+import java.util.List;
+
+/**
+ * COMPILATION SNAPSHOTS
+ * keep the read model of compilations: title, pinned flag and events in short details serialized as JSON,
+ * so that public compilation endpoints read one row per compilation without joining events
+ * a snapshot is saved together with its compilation and rebuilt after any event of the compilation
+ * or category of such event has been changed
+ */
+@Component
+@Slf4j
+public class CompilationSnapshots {
+    private static final TypeReference<List<EventShortDto>> EVENTS_TYPE = new TypeReference<>() {
+    };
+
+    private final CompilationRepository compilationRepository;
+    private final CompilationSnapshotRepository snapshotRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate newTransaction;
+
+    public CompilationSnapshots(CompilationRepository compilationRepository,
+                                CompilationSnapshotRepository snapshotRepository,
+                                ObjectMapper objectMapper,
+                                PlatformTransactionManager transactionManager) {
+        this.compilationRepository = compilationRepository;
+        this.snapshotRepository = snapshotRepository;
+        this.objectMapper = objectMapper;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        // rebuilds run after the changing transaction has been committed, so they need a transaction of their own
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * lock snapshot of the compilation until the end of the transaction,
+     * so that concurrent rebuilds read events of the compilation only after the current one has been committed
+     *
+     * @param compId compilation id
+     */
+    public void lock(Integer compId) {
+        snapshotRepository.findForUpdateByCompilationId(compId);
+    }
+
+    /**
+     * save snapshot of the compilation in the current transaction
+     * an unchanged snapshot is not updated, so that its modification time stays the same
+     *
+     * @param compilation compilation with its events
+     * @return compilation snapshot
+     */
+    public CompilationSnapshot save(Compilation compilation) {
+        Integer compId = compilation.getCompilationId();
+        CompilationSnapshot snapshot = snapshotRepository.findById(compId)
+                .orElseGet(() -> CompilationSnapshot.builder().compilationId(compId).build());
+        snapshot.setTitle(compilation.getTitle());
+        snapshot.setPinned(compilation.getPinned());
+        snapshot.setEvents(writeEvents(EventMapper.toEventShortDtoList(compilation.getEvents())));
+        return snapshotRepository.save(snapshot);
+    }
+
+    /**
+     * rebuild snapshot of the compilation in a new transaction
+     *
+     * @param compId compilation id
+     */
+    public void rebuild(Integer compId) {
+        newTransaction.executeWithoutResult(status -> {
+            lock(compId);
+            compilationRepository.findById(compId).ifPresent(this::save);
+        });
+        log.debug("Snapshot of the compilation {} rebuilt", compId);
+    }
+
+    /**
+     * rebuild snapshots of compilations containing the changed event
+     * changes of participation requests are skipped, since compilations do not show them
+     *
+     * @param modification event modification
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventModification(EventModification modification) {
+        if (modification.isRequestsOnly()) {
+            return;
+        }
+        compilationRepository.findIdsByEventId(modification.getAfter().getId()).forEach(this::rebuild);
+    }
+
+    /**
+     * rebuild snapshots of compilations containing events of the changed category
+     *
+     * @param modification category modification
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryModification(CategoryModification modification) {
+        compilationRepository.findIdsByCategoryId(modification.getCategoryId()).forEach(this::rebuild);
+    }
+
+    /**
+     * build snapshots of compilations, which were created before snapshots were introduced
+     *
+     * @return number of built snapshots
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public int buildMissing() {
+        List<Integer> compIds = compilationRepository.findIdsWithoutSnapshot();
+        compIds.forEach(this::rebuild);
+        if (!compIds.isEmpty()) {
+            log.info("Snapshots of {} compilations built", compIds.size());
+        }
+        return compIds.size();
+    }
+
+    /**
+     * map compilation snapshot into CompilationDto
+     *
+     * @param snapshot compilation snapshot
+     * @return compilation
+     */
+    public CompilationDto toCompilationDto(CompilationSnapshot snapshot) {
+        return CompilationDto.builder()
+                .id(snapshot.getCompilationId())
+                .events(readEvents(snapshot.getEvents()))
+                .pinned(snapshot.getPinned())
+                .title(snapshot.getTitle())
+                .build();
+    }
+
+    private String writeEvents(List<EventShortDto> events) {
+        try {
+            return objectMapper.writeValueAsString(events);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Events of the compilation can not be serialized", e);
+        }
+    }
+
+    private List<EventShortDto> readEvents(String events) {
+        try {
+            return objectMapper.readValue(events, EVENTS_TYPE);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Events of the compilation snapshot can not be read", e);
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package ru.practicum.service.concurrent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.service.metrics.ProfilingDataSource;
+import ru.practicum.service.metrics.SqlProfile;
+import ru.practicum.threads.Threads;
+import ru.practicum.tracing.Span;
+import ru.practicum.tracing.SpanKind;
+import ru.practicum.tracing.TraceContext;
+import ru.practicum.tracing.Tracer;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * FAN-OUT
+ * run independent lookups of a request at the same time in a bounded pool of threads.
+ * Tasks are forked in a scope, which is joined by the calling thread: join waits for all tasks,
+ * or fails with the first failure, cancelling the other tasks. Closing the scope cancels unfinished tasks,
+ * so that no task outlives the scope. When the pool and its queue are full, the task runs in the calling thread.
+ * Tasks run in the trace of the caller and count their statements into its SQL profile, but neither in its transaction nor in its persistence context,
+ * so that a task, which needs a connection, must be joined before the caller gets one:
+ * otherwise callers holding all connections of the pool would wait for their tasks forever.
+ * Metrics:
+ * ewm.fan-out.inline - tasks run in the calling thread, since the pool was full
+ */
+@Component
+@Slf4j
+public class FanOut {
+    private final Tracer tracer;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMillis;
+    private final Counter inline;
+
+    public FanOut(Tracer tracer,
+                  Threads threads,
+                  MeterRegistry meterRegistry,
+                  @Value("${ewm.fan-out.threads:8}") int poolSize,
+                  @Value("${ewm.fan-out.queue-capacity:100}") int queueCapacity,
+                  @Value("${ewm.fan-out.timeout-millis:10000}") long timeoutMillis) {
+        this.tracer = tracer;
+        this.timeoutMillis = timeoutMillis;
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                queueCapacity > 0 ? new LinkedBlockingQueue<>(queueCapacity) : new SynchronousQueue<>(),
+                threads.newThreadFactory("fan-out-"));
+        this.executor.allowCoreThreadTimeOut(true);
+        this.inline = Counter.builder("ewm.fan-out.inline").description("fan-out tasks run in the calling thread")
+                .register(meterRegistry);
+    }
+
+    /**
+     * open a scope to fork tasks in, the scope must be closed by the thread, which opened it
+     *
+     * @return new scope
+     */
+    public Scope open() {
+        return new Scope();
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * tasks forked by the calling thread
+     */
+    public class Scope implements AutoCloseable {
+        private final List<Task<?>> tasks = new ArrayList<>();
+        private final CompletableFuture<Void> failure = new CompletableFuture<>();
+        private boolean joined;
+
+        private Scope() {
+        }
+
+        /**
+         * start the task in the pool, or in the calling thread if the pool is full
+         *
+         * @param name name of the span of the task
+         * @param task task
+         * @return forked task, whose result is available after join
+         */
+        public <T> Task<T> fork(String name, Callable<T> task) {
+            TraceContext parent = tracer.current().map(Span::getContext).orElse(null);
+            SqlProfile profile = ProfilingDataSource.current();
+            Task<T> forked = new Task<>();
+            tasks.add(forked);
+            Runnable run = () -> {
+                SqlProfile previous = ProfilingDataSource.attach(profile);
+                try (Span span = tracer.start(name, SpanKind.INTERNAL, parent)) {
+                    try {
+                        forked.result.complete(task.call());
+                    } catch (Exception | Error e) {
+                        span.error(e);
+                        forked.result.completeExceptionally(e);
+                        failure.completeExceptionally(e);
+                    }
+                } finally {
+                    ProfilingDataSource.attach(previous);
+                }
+            };
+            try {
+                forked.future = executor.submit(run);
+            } catch (RejectedExecutionException e) {
+                inline.increment();
+                run.run();
+            }
+            return forked;
+        }
+
+        /**
+         * wait for all tasks, or for the first failure, then cancel the other tasks
+         *
+         * @throws RuntimeException failure of the task, unchecked exceptions are rethrown as they are
+         * @throws IllegalStateException if tasks are not finished in time or the calling thread is interrupted
+         */
+        public void join() {
+            joined = true;
+            CompletableFuture<?> all = CompletableFuture.allOf(tasks.stream()
+                    .map(task -> task.result)
+                    .toArray(CompletableFuture[]::new));
+            try {
+                CompletableFuture.anyOf(all, failure).get(timeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (ExecutionException e) {
+                cancel();
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw new IllegalStateException("Fan-out task failed", cause);
+            } catch (TimeoutException e) {
+                cancel();
+                throw new IllegalStateException("Fan-out tasks are not finished in " + timeoutMillis + " ms");
+            } catch (InterruptedException e) {
+                cancel();
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for fan-out tasks", e);
+            }
+        }
+
+        /**
+         * cancel unfinished tasks
+         */
+        @Override
+        public void close() {
+            if (!joined) {
+                log.debug("Fan-out scope is closed without join, {} tasks are cancelled", tasks.size());
+            }
+            cancel();
+        }
+
+        private void cancel() {
+            for (Task<?> task : tasks) {
+                if (!task.result.isDone()) {
+                    task.result.cancel(false);
+                    if (task.future != null) {
+                        task.future.cancel(true);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * task forked in a scope
+     */
+    public static class Task<T> {
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private volatile Future<?> future;
+
+        private Task() {
+        }
+
+        /**
+         * @return result of the task, available after the scope is joined
+         * @throws IllegalStateException if the task is not finished
+         */
+        public T get() {
+            if (!result.isDone() || result.isCompletedExceptionally()) {
+                throw new IllegalStateException("Fan-out task is not finished, the scope must be joined");
+            }
+            return result.join();
+        }
+    }
+}
@@ -2,10 +2,12 @@ package ru.practicum.service.event;
 
 
 import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.dto.event.*;
 import ru.practicum.dto.request.EventRequestStatusUpdateRequest;
 import ru.practicum.dto.request.EventRequestStatusUpdateResult;
 import ru.practicum.dto.request.ParticipationRequestDto;
+import ru.practicum.dto.request.ParticipationRequestPage;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.validation.Valid;
@@ -26,8 +28,6 @@ public interface EventService {
      * then you need to upload events that will occur later than the current date and time
      * Information about each event must include the number of views
      * and the number of applications already approved for participation
-     * information that a request was made and processed for this endpoint
-     * must be saved in the statistics service
      *
      * @param text          text to search in the content of the annotation and detailed description of the event
      * @param categories    list of category identifiers in which the search will be conducted
@@ -49,13 +49,15 @@ public interface EventService {
      * Get full event information by ID for public access
      * The event must be published
      * Event information should include the number of views and the number of confirmed requests
-     * information that a request was made and processed for this endpoint must be saved in the statistics service
      *
-     * @param id      event ID
-     * @param request http request information
-     * @return detailed event information
+     * If the event has not changed since the client received it, the event is not loaded
+     *
+     * @param id         event ID
+     * @param request    http request information
+     * @param webRequest request headers for conditional GET (If-None-Match, If-Modified-Since)
+     * @return detailed event information or null if the event has not been modified (status code 304 is set)
      */
-    EventFullDto getPublicEventById(Long id, HttpServletRequest request);
+    EventFullDto getPublicEventById(Long id, HttpServletRequest request, WebRequest webRequest);
 
     /**
      * Get events added by user
@@ -107,6 +109,17 @@ public interface EventService {
      */
     List<ParticipationRequestDto> getParticipationRequests(Long userId, Long eventId);
 
+    /**
+     * Get page of requests to participate in a specific event added by the current user, ordered by ID
+     *
+     * @param userId  user id
+     * @param eventId event id
+     * @param after   ID of the last request of the previous page, 0 for the first page
+     * @param size    number of requests per page
+     * @return page of requests and ID to get the next page after
+     */
+    ParticipationRequestPage getParticipationRequests(Long userId, Long eventId, Long after, Integer size);
+
     /**
      * Get events details by admin using specified criteria
      *
@@ -1,29 +1,49 @@
 package ru.practicum.service.event;
 
 
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.dto.event.*;
 import ru.practicum.dto.request.EventRequestStatusUpdateRequest;
 import ru.practicum.dto.request.EventRequestStatusUpdateResult;
 import ru.practicum.dto.request.ParticipationRequestDto;
+import ru.practicum.dto.request.ParticipationRequestPage;
 import ru.practicum.entity.*;
 import ru.practicum.enums.EventState;
 import ru.practicum.enums.RequestStatus;
 import ru.practicum.enums.SortType;
 import ru.practicum.enums.StateAction;
+import ru.practicum.logging.PayloadLogger;
 import ru.practicum.repository.*;
+import ru.practicum.service.cache.EventFootprint;
+import ru.practicum.service.cache.EventModification;
+import ru.practicum.service.cache.EventViewsCache;
+import ru.practicum.service.cache.PublicEventsCache;
+import ru.practicum.service.cache.PublicEventsKey;
+import ru.practicum.service.cache.ReferenceDataCache;
+import ru.practicum.service.concurrent.FanOut;
+import ru.practicum.service.request.RequestCounters;
+import ru.practicum.service.request.Waitlist;
+import ru.practicum.service.retry.ConflictRetryExecutor;
 import ru.practicum.service.statistics.StatisticsService;
+import ru.practicum.tracing.Tracer;
+import ru.practicum.utils.conditional.ConditionalRequests;
+import ru.practicum.utils.conditional.ContentVersion;
 import ru.practicum.utils.errors.ErrorConstants;
 import ru.practicum.utils.errors.exceptions.NotAllowedException;
 import ru.practicum.utils.errors.exceptions.NotFoundException;
-import ru.practicum.utils.logger.ListLogger;
 import ru.practicum.utils.mapper.EnumMapper;
 import ru.practicum.utils.mapper.EventMapper;
 import ru.practicum.utils.mapper.RequestMapper;
 import ru.practicum.utils.paging.Paging;
+import ru.practicum.utils.predicate.EventPredicateBuilder;
 import ru.practicum.utils.validation.EnumTypeValidation;
 import ru.practicum.utils.validation.EventTimeValidator;
 import ru.practicum.utils.validation.TwoHoursLater;
@@ -33,46 +53,71 @@ import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
 
-import static ru.practicum.utils.constants.Constants.SLASH_PATH;
 import static ru.practicum.utils.errors.ErrorConstants.*;
 
 /**
  * EVENT SERVICE IMPLEMENTATION
+ * Metrics:
+ * ewm.service{class, method, exception}. Time of the calls of the service
+ * ewm.events.moderated{action}. Number of events published (publish_event) and rejected (reject_event) by admin
+ * ewm.requests.resolved{status}. Number of participation requests confirmed and rejected by initiators
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@Timed(value = "ewm.service", description = "Time of the calls of the service")
 public class EventServiceImpl implements EventService {
+    // hits of an event are recorded only after it is published, so its views may be counted from any earlier time
+    private static final LocalDateTime VIEWS_SINCE = LocalDateTime.of(1970, 1, 1, 0, 0);
+
     private final EventRepository eventRepository;
-    private final UserRepository userRepository;
-    private final CategoryRepository categoryRepository;
     private final RequestRepository requestRepository;
 
     private final LocationRepository locationRepository;
     private final StatisticsService statisticsService;
+    private final PublicEventsCache publicEventsCache;
+    private final EventViewsCache eventViewsCache;
+    private final ReferenceDataCache referenceDataCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ConflictRetryExecutor conflictRetryExecutor;
+    private final RequestCounters requestCounters;
+    private final Waitlist waitlist;
+    private final EventRequestCountersRepository countersRepository;
+    private final MeterRegistry meterRegistry;
+    private final Tracer tracer;
+    private final FanOut fanOut;
+    private final TransactionTemplate transactionTemplate;
 
 
     /**
      * Add new event
      * the date and time for which the event is scheduled cannot be earlier than two hours from the current moment
      * (Error code 409 is expected)
+     * initiator and category are looked up at the same time, before the transaction gets a connection
      *
      * @param userId user id
      * @param dto    event details
      * @return new event
      */
     @Override
-    @Transactional
     public EventFullDto addEvent(Long userId, NewEventDto dto) {
+        User initiator;
+        Category category;
+        try (FanOut.Scope scope = fanOut.open()) {
+            FanOut.Task<User> user = scope.fork("FanOut.initiator", () -> getUserOrThrowException(userId));
+            category = getCategoryOrThrowException(dto.getCategory());
+            scope.join();
+            initiator = user.get();
+        }
 
-        User initiator = getUserOrThrowException(userId);
-        Category category = getCategoryOrThrowException(dto.getCategory());
-        Location location = locationRepository.save(dto.getLocation());
-
-        Event event = EventMapper.toEventEntity(dto, location, initiator, category);
-        Event newEvent = eventRepository.save(event);
-        log.info("Event with id {} added: {}", newEvent.getId(), newEvent);
-        return EventMapper.toEventFullDto(newEvent);
+        return transactionTemplate.execute(status -> {
+            Location location = locationRepository.save(dto.getLocation());
+            Event event = EventMapper.toEventEntity(dto, location, initiator, category);
+            Event newEvent = eventRepository.save(event);
+            requestCounters.create(newEvent.getId());
+            log.info("Event with id {} added: {}", newEvent.getId(), newEvent);
+            return EventMapper.toEventFullDto(newEvent);
+        });
     }
 
 
@@ -80,28 +125,42 @@ public class EventServiceImpl implements EventService {
      * Get full event information by ID for public access
      * The event must be published
      * Event information should include the number of views and the number of confirmed requests
-     * information that a request was made and processed for this endpoint must be saved in the statistics service
+     * If request is conditional, only timestamps of the event are loaded first,
+     * and neither the event nor its views are loaded if it has not been modified since the client received it,
+     * otherwise views are requested from statistics service while the event is loaded.
+     * Views are not part of the ETag: every view is recorded as a hit, so they would change the ETag on each request.
+     * A client revalidating its copy keeps the views it has received until the event or its category changes.
      *
-     * @param eventId event ID
-     * @param request HttpServletRequest details
-     * @return detailed event information
+     * @param eventId    event ID
+     * @param request    HttpServletRequest details
+     * @param webRequest request headers for conditional GET (If-None-Match, If-Modified-Since)
+     * @return detailed event information or null if the event has not been modified (status code 304 is set)
      */
     @Override
     @Transactional(readOnly = true)
-    public EventFullDto getPublicEventById(Long eventId, HttpServletRequest request) {
-        Event event = eventRepository
-                .findByIdAndState(eventId, EventState.PUBLISHED.name())
-                .orElseThrow(() -> new NotFoundException(
-                        ErrorConstants.getNotFoundMessage("Event", eventId)));
-        statisticsService.saveStats(request);
-        Long views = statisticsService.getStats(
-                event.getPublishedOn(), LocalDateTime.now(), List.of(request.getRequestURI())).get(eventId);
-
-        Event eventWithStat = EventMapper.toEventWithStat(event, views);
-        Event savedEvent = eventRepository.save(eventWithStat);
-        EventFullDto result = EventMapper.toEventFullDto(savedEvent);
-        log.info("Event with id {} was found: {}", eventId, result);
-        return result;
+    public EventFullDto getPublicEventById(Long eventId, HttpServletRequest request, WebRequest webRequest) {
+        boolean conditional = ConditionalRequests.hasPreconditions(webRequest);
+        if (conditional) {
+            EventTimestamps timestamps = eventRepository
+                    .findTimestampsByIdAndState(eventId, EventState.PUBLISHED.name())
+                    .orElseThrow(() -> new NotFoundException(
+                            ErrorConstants.getNotFoundMessage("Event", eventId)));
+            if (isNotModified(webRequest, eventId, timestamps.getUpdatedOn(), timestamps.getCategoryUpdatedOn())) {
+                log.info("Event with id {} was not modified", eventId);
+                return null;
+            }
+        }
+        String uri = request.getRequestURI();
+        try (FanOut.Scope scope = fanOut.open()) {
+            FanOut.Task<Long> views = scope.fork("FanOut.views", () -> getViews(eventId, VIEWS_SINCE, uri));
+            Event event = getPublishedEventOrThrowException(eventId);
+            scope.join();
+            if (!conditional) {
+                // the check only sets ETag and Last-Modified headers of the response
+                isNotModified(webRequest, eventId, event.getUpdatedOn(), event.getCategory().getUpdatedOn());
+            }
+            return toEventFullDtoWithViews(event, views.get());
+        }
     }
 
 
@@ -113,8 +172,6 @@ public class EventServiceImpl implements EventService {
      * then you need to upload events that will occur later than the current date and time
      * Information about each event must include the number of views
      * and the number of applications already approved for participation
-     * information that a request was made and processed for this endpoint
-     * must be saved in the statistics service
      *
      * @param text          text to search in the content of the annotation and detailed description of the event
      * @param categories    list of category identifiers in which the search will be conducted
@@ -141,37 +198,18 @@ public class EventServiceImpl implements EventService {
 
         EventTimeValidator.checkStartTimeIsAfterEnd(start, end);
 
-        List<Event> events;
-        if (onlyAvailable) {
-            events = eventRepository.findAvailableForPublic(
-                    text, categories, paid, start, end,
-                    String.valueOf(EventState.PUBLISHED), Paging.getPageable(from, size, sortType));
+        PublicEventsKey key = PublicEventsKey.of(text, categories, paid, rangeStart, rangeEnd, onlyAvailable,
+                sortType, from, size);
+        List<EventShortDto> events = publicEventsCache.get(key, () -> eventRepository.findEventShortDtos(
+                EventPredicateBuilder.forPublic(text, categories, paid, start, end, onlyAvailable),
+                Paging.getPageable(from, size, sortType)));
 
-        } else {
-            events = eventRepository.findAllForPublic(
-                    text, categories, paid, start, end,
-                    String.valueOf(EventState.PUBLISHED), Paging.getPageable(from, size, sortType));
-        }
-
-        statisticsService.saveStats(request);
-
-        List<Event> eventsWithViews = Collections.emptyList();
         if (!events.isEmpty()) {
-            LocalDateTime oldestEventPublishedOn = events.stream()
-                    .min(Comparator.comparing(Event::getPublishedOn)).map(Event::getPublishedOn).stream()
-                    .findFirst().orElseThrow();
-            List<String> uris = getListOfUri(events, request.getRequestURI());
-
-            Map<Long, Long> views = statisticsService.getStats(oldestEventPublishedOn, LocalDateTime.now(), uris);
-            eventsWithViews = events
-                    .stream()
-                    .map(event -> EventMapper.toEventWithStat(event, views.get(event.getId())))
-                    .collect(Collectors.toList());
+            Map<Long, Long> views = eventViewsCache.getViews(events, request.getRequestURI());
+            events.forEach(event -> event.setViews(views.get(event.getId())));
         }
-        List<Event> savedEvents = eventRepository.saveAll(eventsWithViews);
-        List<EventShortDto> resultList = EventMapper.toEventShortDtoList(savedEvents);
-        ListLogger.logResultList(resultList);
-        return resultList;
+        PayloadLogger.logResults(log, events, EventShortDto::getId);
+        return events;
     }
 
 
@@ -186,9 +224,9 @@ public class EventServiceImpl implements EventService {
     @Override
     @Transactional(readOnly = true)
     public List<EventShortDto> getEventsByUser(Long userId, Integer from, Integer size) {
-        List<Event> events = eventRepository.findAllByInitiator_Id(userId, Paging.getPageable(from, size));
-        List<EventShortDto> resultList = EventMapper.toEventShortDtoList(events);
-        ListLogger.logResultList(resultList);
+        List<EventShortDto> resultList = eventRepository.findEventShortDtos(
+                EventPredicateBuilder.forInitiator(userId), Paging.getPageable(from, size));
+        PayloadLogger.logResults(log, resultList, EventShortDto::getId);
         return resultList;
     }
 
@@ -205,7 +243,9 @@ public class EventServiceImpl implements EventService {
     @Transactional(readOnly = true)
     public EventFullDto getEventByUser(Long userId, Long eventId) {
         Event event = getEventOrThrowException(eventId);
-        EventFullDto result = EventMapper.toEventFullDto(event);
+        EventFullDto result = EventMapper.toEventFullDto(event).toBuilder()
+                .requestCounts(RequestMapper.toRequestCountsDto(countersRepository.findById(eventId).orElse(null)))
+                .build();
         log.info("Event with id {} was found: {}", eventId, result);
         return result;
     }
@@ -228,8 +268,20 @@ public class EventServiceImpl implements EventService {
      * @return full event information, if no event with the given id is found, status code 404 is returned.
      */
     @Override
-    @Transactional
     public EventFullDto updateEventByUser(Long userId, Long eventId, UpdateEventUserRequest request) {
+        return conflictRetryExecutor.executeInTransaction("updateEventByUser",
+                () -> updateEventByUserInTransaction(userId, eventId, request));
+    }
+
+    /**
+     * Update information about event added by user in the current transaction
+     *
+     * @param userId  user id
+     * @param eventId event id
+     * @param request Data for changing event information
+     * @return full event information
+     */
+    private EventFullDto updateEventByUserInTransaction(Long userId, Long eventId, UpdateEventUserRequest request) {
 
         StateAction action = (request.getStateAction() == null) ? null :
                 EnumTypeValidation.getValidUserAction(request.getStateAction());
@@ -238,7 +290,9 @@ public class EventServiceImpl implements EventService {
         checkEventStateIsCanceledOrPending(event.getState());
         checkIsInitiator(userId, event.getInitiator().getId());
 
+        EventFootprint before = EventFootprint.of(event);
         Event updatedEvent = eventRepository.save(updateNonNullFields(event, request, action));
+        eventPublisher.publishEvent(EventModification.of(before, updatedEvent));
         EventFullDto result = EventMapper.toEventFullDto(updatedEvent);
         log.info("Event with id {} was updated: {}", eventId, result);
         return result;
@@ -260,10 +314,32 @@ public class EventServiceImpl implements EventService {
 
         List<Request> requests = requestRepository.findAllByEvent_Id(eventId);
         List<ParticipationRequestDto> resultList = RequestMapper.toParticipationRequestDtoList(requests);
-        ListLogger.logResultList(resultList);
+        PayloadLogger.logResults(log, resultList, ParticipationRequestDto::getId);
         return resultList;
     }
 
+    /**
+     * Get page of requests to participate in a specific event added by the current user, ordered by ID
+     *
+     * @param userId  user id
+     * @param eventId event id
+     * @param after   ID of the last request of the previous page, 0 for the first page
+     * @param size    number of requests per page
+     * @return page of requests and ID to get the next page after
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public ParticipationRequestPage getParticipationRequests(Long userId, Long eventId, Long after, Integer size) {
+        Event event = getEventOrThrowException(eventId);
+        checkIsInitiator(userId, event.getInitiator().getId());
+
+        ParticipationRequestPage page = RequestMapper.toParticipationRequestPage(
+                requestRepository.findPageByEventId(eventId, after, Paging.getKeysetPageable(size)), size);
+        log.info("{} requests to the event {} after {} found, next page after {}",
+                page.getRequests().size(), eventId, after, page.getNext());
+        return page;
+    }
+
     /**
      * Search events
      *
@@ -285,10 +361,15 @@ public class EventServiceImpl implements EventService {
         if (states != null) {
             EnumTypeValidation.checkValidEventStates(states);
         }
-        List<Event> events = eventRepository.findForAdmin(
-                users, states, categories, rangeStart, rangeEnd, Paging.getPageable(from, size));
-        List<EventFullDto> resultList = EventMapper.toEventFullDtoList(events);
-        ListLogger.logResultList(resultList);
+        List<EventWithRequestCounters> rows = eventRepository.findEventsWithRequestCounters(
+                EventPredicateBuilder.forAdmin(users, states, categories, rangeStart, rangeEnd),
+                Paging.getPageable(from, size));
+        List<EventFullDto> resultList = tracer.inSpan("EventMapper.toEventFullDto", () -> rows.stream()
+                .map(row -> EventMapper.toEventFullDto(row.getEvent()).toBuilder()
+                        .requestCounts(RequestMapper.toRequestCountsDto(row.getCounters()))
+                        .build())
+                .collect(Collectors.toList()));
+        PayloadLogger.logResults(log, resultList, EventFullDto::getId);
         return resultList;
     }
 
@@ -309,8 +390,24 @@ public class EventServiceImpl implements EventService {
      */
 
     @Override
-    @Transactional
     public EventFullDto updateEventByAdmin(Long eventId, UpdateEventAdminRequest request) {
+        EventFullDto result = conflictRetryExecutor.executeInTransaction("updateEventByAdmin",
+                () -> updateEventByAdminInTransaction(eventId, request));
+        if (request.getStateAction() != null) {
+            meterRegistry.counter("ewm.events.moderated", "action", request.getStateAction().name().toLowerCase())
+                    .increment();
+        }
+        return result;
+    }
+
+    /**
+     * Update event data and its status by admin in the current transaction
+     *
+     * @param eventId event id
+     * @param request data for changing event information
+     * @return full event information
+     */
+    private EventFullDto updateEventByAdminInTransaction(Long eventId, UpdateEventAdminRequest request) {
 
         StateAction action = (request.getStateAction() == null) ? null :
                 EnumTypeValidation.getValidAdminAction(request.getStateAction());
@@ -318,10 +415,12 @@ public class EventServiceImpl implements EventService {
         Event event = getEventOrThrowException(eventId);
         checkIsEventTimeIsNotTooLateToUpdateByAdmin(event.getEventDate());
         checkEventStateIsPending(event.getState());
+        EventFootprint before = EventFootprint.of(event);
         if (StateAction.PUBLISH_EVENT.equals(action)) {
             event = event.toBuilder().publishedOn(LocalDateTime.now()).build();
         }
         Event updatedEvent = eventRepository.save(updateNonNullFields(event, request, action));
+        eventPublisher.publishEvent(EventModification.of(before, updatedEvent));
         EventFullDto result = EventMapper.toEventFullDto(updatedEvent);
         log.info("Event with id {} was updated, {}", eventId, result);
         return result;
@@ -346,9 +445,27 @@ public class EventServiceImpl implements EventService {
      * (set of confirmed requests, set of rejected requests)
      */
     @Override
-    @Transactional
     public EventRequestStatusUpdateResult updateRequestsStatus(Long userId, Long eventId,
                                                                EventRequestStatusUpdateRequest request) {
+        EventRequestStatusUpdateResult result = conflictRetryExecutor.executeInTransaction("updateRequestsStatus",
+                () -> updateRequestsStatusInTransaction(userId, eventId, request));
+        meterRegistry.counter("ewm.requests.resolved", "status", "confirmed")
+                .increment(result.getConfirmedRequests().size());
+        meterRegistry.counter("ewm.requests.resolved", "status", "rejected")
+                .increment(result.getRejectedRequests().size());
+        return result;
+    }
+
+    /**
+     * update Status of requests for participation in an event added by the current user in the current transaction
+     *
+     * @param userId  user id
+     * @param eventId event id
+     * @param request IDs of requests and their new status
+     * @return result of confirmation/rejection of applications for participation in the event
+     */
+    private EventRequestStatusUpdateResult updateRequestsStatusInTransaction(Long userId, Long eventId,
+                                                                             EventRequestStatusUpdateRequest request) {
 
         Event event = eventRepository.getReferenceById(eventId);
         checkIsInitiator(userId, event.getInitiator().getId());
@@ -360,17 +477,74 @@ public class EventServiceImpl implements EventService {
         int limit = event.getParticipantLimit();
 
         if (status.equals(RequestStatus.REJECTED)) {
-            return rejectAllRequests(requests);
+            return rejectAllRequests(eventId, requests);
         }
         if (checkHasNoLimitAndModeration(limit, event.getRequestModeration())) {
             saveEventWithUpdatedNumberOfConfirmedRequests(event, requests.size());
-            return confirmAllRequests(requests);
+            return confirmAllRequests(eventId, requests);
         }
 
         return resolveStatus(event, requests);
 
     }
 
+    /**
+     * get published Event from repository by id or throw NotFoundException
+     *
+     * @param eventId event ID
+     * @return Event
+     */
+    private Event getPublishedEventOrThrowException(Long eventId) {
+        return eventRepository
+                .findByIdAndState(eventId, EventState.PUBLISHED.name())
+                .orElseThrow(() -> new NotFoundException(
+                        ErrorConstants.getNotFoundMessage("Event", eventId)));
+    }
+
+    /**
+     * get number of views of the event from statistics service
+     *
+     * @param eventId event ID
+     * @param since   date and time the views are counted from, not later than the event was published
+     * @param uri     URI of the event
+     * @return number of views
+     */
+    private Long getViews(Long eventId, LocalDateTime since, String uri) {
+        return statisticsService.getStats(since, LocalDateTime.now(), List.of(uri)).get(eventId);
+    }
+
+    /**
+     * check if the event has not been modified since the client received it, set ETag and Last-Modified headers
+     * the event is rendered with the name of its category, so renaming the category changes the version too
+     * views are left out, since each response records one more view
+     *
+     * @param webRequest        request headers
+     * @param eventId           event ID
+     * @param updatedOn         date and time of the last modification of the event
+     * @param categoryUpdatedOn date and time of the last modification of the category of the event
+     * @return true if the event has not been modified
+     */
+    private boolean isNotModified(WebRequest webRequest, Long eventId, LocalDateTime updatedOn,
+                                  LocalDateTime categoryUpdatedOn) {
+        return ConditionalRequests.isNotModified(webRequest,
+                new ContentVersion(1L, updatedOn, categoryUpdatedOn, null), eventId);
+    }
+
+    /**
+     * map event with number of views to EventFullDto
+     * the number of views comes from statistics service and is not saved, so reads never overwrite the event
+     *
+     * @param event event
+     * @param views number of views
+     * @return detailed event information
+     */
+    private EventFullDto toEventFullDtoWithViews(Event event, Long views) {
+        EventFullDto result = tracer.inSpan("EventMapper.toEventFullDto",
+                () -> EventMapper.toEventFullDto(EventMapper.toEventWithStat(event, views)));
+        log.info("Event with id {} was found: {}", event.getId(), result);
+        return result;
+    }
+
     /**
      * get Event from repository by id or throw NotFoundException
      *
@@ -383,25 +557,25 @@ public class EventServiceImpl implements EventService {
     }
 
     /**
-     * get Category from repository by id or throw NotFoundException
+     * get Category from reference data cache by id or throw NotFoundException
      *
      * @param categoryId category ID
      * @return Category
      */
     private Category getCategoryOrThrowException(Long categoryId) {
-        return categoryRepository.findById(categoryId)
+        return referenceDataCache.findCategory(categoryId)
                 .orElseThrow(() -> new NotFoundException(
                         ErrorConstants.getNotFoundMessage("Category", categoryId)));
     }
 
     /**
-     * get User from repository by id or throw NotFoundException
+     * get User with short details from reference data cache by id or throw NotFoundException
      *
      * @param userId user ID
      * @return User
      */
     private User getUserOrThrowException(Long userId) {
-        return userRepository.findById(userId)
+        return referenceDataCache.findUser(userId)
                 .orElseThrow(() -> new NotFoundException(ErrorConstants.getNotFoundMessage("User", userId)));
     }
 
@@ -431,31 +605,30 @@ public class EventServiceImpl implements EventService {
         if (numberOfRequests < breakPoint) {
             saveEventWithUpdatedNumberOfConfirmedRequests(event, numberOfRequests);
             log.info("We can confirm all {} requests", numberOfRequests);
-            return confirmAllRequests(requests);
+            return confirmAllRequests(event.getId(), requests);
         } else if (numberOfRequests == breakPoint) {
-            availableToConfirm = requests;
-            confirmAllRequests(availableToConfirm);
-            mustBeRejected = getRestOfPendingRequests(event.getId());
-            rejectAllRequests(mustBeRejected);
+            availableToConfirm = saveRequestsWithNewStatus(event.getId(), requests, RequestStatus.CONFIRMED);
+            pendingRest = rejectRestOfPendingRequests(event.getId());
             saveEventWithUpdatedNumberOfConfirmedRequests(event, availableToConfirm.size());
+            requestCounters.resolve(event.getId(), availableToConfirm.size(), pendingRest.size());
             log.info("We can confirm all {} requests but have to reject all pending out of current session: {}." +
                             " Event {} is not more available",
-                    availableToConfirm.size(), mustBeRejected.size(), event.getId());
-            return constructResult(availableToConfirm, mustBeRejected);
+                    availableToConfirm.size(), pendingRest.size(), event.getId());
+            return constructResult(availableToConfirm, pendingRest);
         } else {
-            availableToConfirm = requests.subList(0, breakPoint);
-            confirmAllRequests(availableToConfirm);
+            availableToConfirm = saveRequestsWithNewStatus(event.getId(), requests.subList(0, breakPoint),
+                    RequestStatus.CONFIRMED);
             saveEventWithUpdatedNumberOfConfirmedRequests(event, availableToConfirm.size());
-            mustBeRejected = requests.subList(breakPoint, numberOfRequests);
-            rejectAllRequests(mustBeRejected);
-            pendingRest = getRestOfPendingRequests(event.getId());
-            rejectAllRequests(pendingRest);
+            mustBeRejected = saveRequestsWithNewStatus(event.getId(), requests.subList(breakPoint, numberOfRequests),
+                    RequestStatus.REJECTED);
+            pendingRest = rejectRestOfPendingRequests(event.getId());
+            requestCounters.resolve(event.getId(), availableToConfirm.size(),
+                    mustBeRejected.size() + pendingRest.size());
             log.info("We can confirm only {} requests,  "
                             + "have to reject {} from current session "
                             + "and all pending out of current session: {}."
                             + " Event {} is not more available",
-                    availableToConfirm.size(), requests.size() - availableToConfirm.size(),
-                    pendingRest.size(), event.getId());
+                    availableToConfirm.size(), mustBeRejected.size(), pendingRest.size(), event.getId());
             return constructResult(availableToConfirm, mustBeRejected);
         }
     }
@@ -463,51 +636,69 @@ public class EventServiceImpl implements EventService {
     /**
      * set Rejected status for all requests
      *
+     * @param eventId  event ID
      * @param requests list of requests
      * @return list of requests with rejected status
      */
 
-    private EventRequestStatusUpdateResult rejectAllRequests(List<Request> requests) {
-        List<Request> savedRequests = saveRequestsWithNewStatus(requests, RequestStatus.REJECTED);
+    private EventRequestStatusUpdateResult rejectAllRequests(Long eventId, List<Request> requests) {
+        List<Request> savedRequests = saveRequestsWithNewStatus(eventId, requests, RequestStatus.REJECTED);
+        requestCounters.resolve(eventId, 0, savedRequests.size());
         return constructResult(Collections.emptyList(), savedRequests);
     }
 
     /**
-     * set Rejected status for all requests
+     * set Confirmed status for all requests
      *
+     * @param eventId  event ID
      * @param requests list of requests
      * @return list of requests with confirmed status
      */
 
-    private EventRequestStatusUpdateResult confirmAllRequests(List<Request> requests) {
-        List<Request> savedRequests = saveRequestsWithNewStatus(requests, RequestStatus.CONFIRMED);
+    private EventRequestStatusUpdateResult confirmAllRequests(Long eventId, List<Request> requests) {
+        List<Request> savedRequests = saveRequestsWithNewStatus(eventId, requests, RequestStatus.CONFIRMED);
+        requestCounters.resolve(eventId, savedRequests.size(), 0);
         return constructResult(savedRequests, Collections.emptyList());
     }
 
     /**
      * save Event with updated number of confirmedRequests
+     * the number is increased by conditional update, so concurrent confirmations cannot exceed the limit
+     * throw exception if the limit would be exceeded
      *
      * @param event  event
-     * @param number new number of confirmed requests for the event
+     * @param number number of newly confirmed requests for the event
      */
 
     private void saveEventWithUpdatedNumberOfConfirmedRequests(Event event, int number) {
-        eventRepository.save(updateNumberOfConfirmedRequests(event, number));
+        if (eventRepository.increaseConfirmedRequests(event.getId(), number) == 0) {
+            throw new NotAllowedException(LIMIT);
+        }
+        eventPublisher.publishEvent(EventModification.of(event));
         log.info("Number of confirmed requests to participate in the event: {} increased by {}:",
                 event.getId(), number);
     }
 
     /**
-     * save Requests with new status
+     * save Requests with new status by a single update of pending requests
+     * throw exception if some of the requests are no longer pending
      *
+     * @param eventId  event ID
      * @param requests list of the requests
      * @param status   new request status
      * @return list of requests with new status, saved in repository
      */
-    private List<Request> saveRequestsWithNewStatus(List<Request> requests, RequestStatus status) {
-        List<Request> savedRequests = requestRepository.saveAll(updateStatusInList(requests, status));
-        log.info("We set {} status for requests:", status);
-        ListLogger.logResultList(savedRequests);
+    private List<Request> saveRequestsWithNewStatus(Long eventId, List<Request> requests, RequestStatus status) {
+        if (requests.isEmpty()) {
+            return requests;
+        }
+        List<Long> requestIds = requests.stream().map(Request::getId).collect(Collectors.toList());
+        if (requestRepository.updatePendingStatus(eventId, requestIds, status) != requestIds.size()) {
+            throw new NotAllowedException(NOT_PENDING);
+        }
+        List<Request> savedRequests = updateStatusInList(requests, status);
+        log.info("We set {} status for {} requests", status, savedRequests.size());
+        PayloadLogger.logResults(log, savedRequests, Request::getId);
         return savedRequests;
     }
 
@@ -635,19 +826,6 @@ public class EventServiceImpl implements EventService {
         return request.toBuilder().status(status).build();
     }
 
-    /**
-     * update number of confirmed requests in the event
-     *
-     * @param event event
-     * @param delta new confirmed requests quantity
-     * @return updated event
-     */
-    private Event updateNumberOfConfirmedRequests(Event event, Integer delta) {
-        return event.toBuilder()
-                .confirmedRequests(event.getConfirmedRequests() + delta)
-                .build();
-    }
-
     /**
      * construct EventRequestStatusUpdateResultObject
      *
@@ -677,7 +855,7 @@ public class EventServiceImpl implements EventService {
                     .build();
         }
         if (request.getCategory() != null) {
-            Category category = categoryRepository.getReferenceById(request.getCategory());
+            Category category = getCategoryOrThrowException(request.getCategory());
             event = event.toBuilder()
                     .category(category)
                     .build();
@@ -729,37 +907,19 @@ public class EventServiceImpl implements EventService {
     }
 
     /**
-     * get list of uri
-     *
-     * @param events list of events
-     * @param uri    string uri
-     * @return list of uri
-     */
-    private List<String> getListOfUri(List<Event> events, String uri) {
-        return events.stream().map(Event::getId).map(id -> getUriForEvent(uri, id))
-                .collect(Collectors.toList());
-    }
-
-    /**
-     * construct uri string for specified event
+     * reject all pending requests of the event by a single update, when the participation limit has been reached
+     * pending requests are locked while they are read, so that all of them are rejected and returned
+     * if the waitlist is enabled, pending requests are kept waiting for free places instead
      *
-     * @param uri     uri string
      * @param eventId event ID
-     * @return uri string with eventId
+     * @return list of rejected requests
      */
-    private String getUriForEvent(String uri, Long eventId) {
-        return uri + SLASH_PATH + eventId;
-    }
-
-    /**
-     * get all pending requests from repository by event ID
-     *
-     * @param eventId event ID
-     * @return list of pending requests
-     */
-    private List<Request> getRestOfPendingRequests(Long eventId) {
-        return requestRepository
-                .findALlByStatusAndEventId(RequestStatus.PENDING, eventId);
+    private List<Request> rejectRestOfPendingRequests(Long eventId) {
+        if (waitlist.isEnabled()) {
+            return Collections.emptyList();
+        }
+        return saveRequestsWithNewStatus(eventId, requestRepository.findPendingForUpdate(eventId),
+                RequestStatus.REJECTED);
     }
 }
 
@@ -0,0 +1,59 @@
+package ru.practicum.service.metrics;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * METRICS CONFIGURATION
+ * timers of methods of services annotated with @Timed, and SLO buckets of histograms of HTTP endpoints,
+ * configured per endpoint by its URI pattern:
+ * ewm.metrics.slo.[/events/{eventId}]=25ms,50ms,100ms
+ * and profiling of SQL statements per HTTP request
+ */
+@Configuration
+@EnableConfigurationProperties(MetricsProperties.class)
+public class MetricsConfiguration {
+    static final String HTTP_SERVER_REQUESTS = "http.server.requests";
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    @Bean
+    public MeterFilter endpointSloFilter(MetricsProperties properties) {
+        return new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                if (!HTTP_SERVER_REQUESTS.equals(id.getName())) {
+                    return config;
+                }
+                List<Duration> slo = properties.getSlo().get(id.getTag("uri"));
+                if (slo == null || slo.isEmpty()) {
+                    return config;
+                }
+                return DistributionStatisticConfig.builder()
+                        .serviceLevelObjectives(slo.stream().mapToDouble(Duration::toNanos).toArray())
+                        .build()
+                        .merge(config);
+            }
+        };
+    }
+
+    @Bean
+    public SqlProfilingFilter sqlProfilingFilter(MeterRegistry meterRegistry,
+                                                 @Value("${ewm.sql.profiling.enabled:true}") boolean enabled,
+                                                 @Value("${ewm.sql.n-plus-one.threshold:10}") int nPlusOneThreshold) {
+        return new SqlProfilingFilter(meterRegistry, enabled, nPlusOneThreshold);
+    }
+}
@@ -0,0 +1,19 @@
+package ru.practicum.service.metrics;
+
+import lombok.Getter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * METRICS PROPERTIES
+ * Map<String, List<Duration>> slo. SLO buckets of the latency histogram by URI pattern of the endpoint
+ */
+@Getter
+@ConfigurationProperties(prefix = "ewm.metrics")
+public class MetricsProperties {
+    private final Map<String, List<Duration>> slo = new HashMap<>();
+}
@@ -0,0 +1,234 @@
+package ru.practicum.service.metrics;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PROFILING DATA SOURCE
+ * data source, whose connections count statements and rows into the SQL profile of the current request
+ * and log statements slower than the threshold with their bind parameters.
+ * Statements executed outside of a profiled request are only checked for slowness.
+ * The target data source is closed with this one, so that its connection pool is shut down with the context.
+ */
+@Slf4j
+public class ProfilingDataSource extends DelegatingDataSource implements AutoCloseable {
+    private static final ThreadLocal<SqlProfile> PROFILE = new ThreadLocal<>();
+    private static final Set<String> EXECUTE_METHODS =
+            Set.of("execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "executeBatch",
+                    "executeLargeBatch");
+    private static final int MAX_PARAMETER_LENGTH = 100;
+
+    private final long slowStatementNanos;
+
+    /**
+     * @param dataSource          data source to profile
+     * @param slowStatementMillis statements executed longer are logged, negative value turns logging off
+     */
+    public ProfilingDataSource(DataSource dataSource, long slowStatementMillis) {
+        super(dataSource);
+        this.slowStatementNanos = slowStatementMillis < 0 ? Long.MAX_VALUE
+                : TimeUnit.MILLISECONDS.toNanos(slowStatementMillis);
+    }
+
+    /**
+     * start profiling statements of the current thread
+     *
+     * @return new profile
+     */
+    public static SqlProfile start() {
+        SqlProfile profile = new SqlProfile();
+        PROFILE.set(profile);
+        return profile;
+    }
+
+    /**
+     * stop profiling statements of the current thread
+     */
+    public static void stop() {
+        PROFILE.remove();
+    }
+
+    /**
+     * @return profile of the current thread, null if its statements are not profiled
+     */
+    public static SqlProfile current() {
+        return PROFILE.get();
+    }
+
+    /**
+     * profile statements of the current thread into the given profile, e.g. into the profile of the request,
+     * whose task the thread runs
+     *
+     * @param profile profile to add statements to, null stops profiling
+     * @return previous profile of the thread, to be attached again when the task is done
+     */
+    public static SqlProfile attach(SqlProfile profile) {
+        SqlProfile previous = PROFILE.get();
+        if (profile == null) {
+            PROFILE.remove();
+        } else {
+            PROFILE.set(profile);
+        }
+        return previous;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return proxy(Connection.class, new ConnectionHandler(super.getConnection()));
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return proxy(Connection.class, new ConnectionHandler(super.getConnection(username, password)));
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (getTargetDataSource() instanceof AutoCloseable) {
+            ((AutoCloseable) getTargetDataSource()).close();
+        }
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(ProfilingDataSource.class.getClassLoader(),
+                new Class<?>[]{type}, handler));
+    }
+
+    /**
+     * call the target of the proxy, proxies are equal only to themselves
+     */
+    private static Object invoke(Object proxy, Object target, Method method, Object[] args) throws Throwable {
+        if (method.getName().equals("equals") && args != null && args.length == 1) {
+            return proxy == args[0];
+        }
+        if (method.getName().equals("hashCode") && args == null) {
+            return System.identityHashCode(proxy);
+        }
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * wrap statements created by the connection
+     */
+    private class ConnectionHandler implements InvocationHandler {
+        private final Connection connection;
+
+        private ConnectionHandler(Connection connection) {
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = ProfilingDataSource.invoke(proxy, connection, method, args);
+            switch (method.getName()) {
+                case "createStatement":
+                    return proxy(Statement.class, new StatementHandler((Statement) result, null));
+                case "prepareStatement":
+                    return proxy(PreparedStatement.class, new StatementHandler((Statement) result, (String) args[0]));
+                case "prepareCall":
+                    return proxy(CallableStatement.class, new StatementHandler((Statement) result, (String) args[0]));
+                default:
+                    return result;
+            }
+        }
+    }
+
+    /**
+     * time executions of the statement, keep its bind parameters and count returned or updated rows
+     */
+    private class StatementHandler implements InvocationHandler {
+        private final Statement statement;
+        private final String sql;
+        private final Map<Integer, Object> parameters = new TreeMap<>();
+
+        private StatementHandler(Statement statement, String sql) {
+            this.statement = statement;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                parameters.put((Integer) args[0], name.equals("setNull") ? null : args[1]);
+            } else if (name.equals("clearParameters")) {
+                parameters.clear();
+            }
+            if (!EXECUTE_METHODS.contains(name)) {
+                Object result = ProfilingDataSource.invoke(proxy, statement, method, args);
+                return name.equals("getResultSet") && result != null ? countRows((ResultSet) result) : result;
+            }
+
+            String executed = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : sql;
+            long start = System.nanoTime();
+            Object result = ProfilingDataSource.invoke(proxy, statement, method, args);
+            long nanos = System.nanoTime() - start;
+            boolean slow = nanos >= slowStatementNanos;
+            if (slow) {
+                log.warn("Slow statement, {} ms: {}, parameters: {}",
+                        TimeUnit.NANOSECONDS.toMillis(nanos), executed, formatParameters());
+            }
+            SqlProfile profile = PROFILE.get();
+            if (profile != null) {
+                profile.addStatement(executed, nanos, slow);
+                if (result instanceof Integer || result instanceof Long) {
+                    profile.addRows(((Number) result).longValue());
+                } else if (result instanceof int[]) {
+                    profile.addRows(Arrays.stream((int[]) result).filter(rows -> rows > 0).sum());
+                } else if (result instanceof long[]) {
+                    profile.addRows(Arrays.stream((long[]) result).filter(rows -> rows > 0).sum());
+                }
+            }
+            return result instanceof ResultSet ? countRows((ResultSet) result) : result;
+        }
+
+        private ResultSet countRows(ResultSet resultSet) {
+            SqlProfile profile = PROFILE.get();
+            if (profile == null) {
+                return resultSet;
+            }
+            return proxy(ResultSet.class, (proxy, method, args) -> {
+                Object result = ProfilingDataSource.invoke(proxy, resultSet, method, args);
+                if (method.getName().equals("next") && Boolean.TRUE.equals(result)) {
+                    profile.addRows(1);
+                }
+                return result;
+            });
+        }
+
+        private String formatParameters() {
+            StringBuilder formatted = new StringBuilder("[");
+            parameters.forEach((index, value) -> {
+                String text = String.valueOf(value);
+                if (formatted.length() > 1) {
+                    formatted.append(", ");
+                }
+                formatted.append(index).append('=')
+                        .append(text.length() > MAX_PARAMETER_LENGTH ? text.substring(0, MAX_PARAMETER_LENGTH) + "..."
+                                : text);
+            });
+            return formatted.append(']').toString();
+        }
+    }
+}
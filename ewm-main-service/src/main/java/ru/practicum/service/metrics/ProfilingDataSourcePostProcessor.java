@@ -0,0 +1,32 @@
+package ru.practicum.service.metrics;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * PROFILING DATA SOURCE POST PROCESSOR
+ * wrap data sources of the context into the profiling data source, unless profiling is turned off:
+ * ewm.sql.profiling.enabled=false
+ */
+@Component
+public class ProfilingDataSourcePostProcessor implements BeanPostProcessor {
+    private final boolean enabled;
+    private final long slowStatementMillis;
+
+    public ProfilingDataSourcePostProcessor(@Value("${ewm.sql.profiling.enabled:true}") boolean enabled,
+                                            @Value("${ewm.sql.slow-statement-millis:500}") long slowStatementMillis) {
+        this.enabled = enabled;
+        this.slowStatementMillis = slowStatementMillis;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!enabled || !(bean instanceof DataSource) || bean instanceof ProfilingDataSource) {
+            return bean;
+        }
+        return new ProfilingDataSource((DataSource) bean, slowStatementMillis);
+    }
+}
@@ -0,0 +1,38 @@
+package ru.practicum.service.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+
+/**
+ * RESULT SIZE ASPECT
+ * record number of elements returned as a list by methods of services annotated with @Timed
+ * Metrics:
+ * ewm.service.results{class, method}. Distribution of the number of returned elements
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class ResultSizeAspect {
+    private final MeterRegistry meterRegistry;
+
+    @Around("@within(io.micrometer.core.annotation.Timed)")
+    public Object recordResultSize(ProceedingJoinPoint joinPoint) throws Throwable {
+        Object result = joinPoint.proceed();
+        if (result instanceof Collection<?>) {
+            DistributionSummary.builder("ewm.service.results")
+                    .baseUnit("elements")
+                    .tag("class", joinPoint.getStaticPart().getSignature().getDeclaringTypeName())
+                    .tag("method", joinPoint.getStaticPart().getSignature().getName())
+                    .register(meterRegistry)
+                    .record(((Collection<?>) result).size());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,45 @@
+package ru.practicum.service.metrics;
+
+import lombok.Getter;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * SQL PROFILE
+ * statements executed while an HTTP request is processed, by the thread of the request and by its fan-out tasks:
+ * number of statements, rows read or updated, time of execution, number of slow statements
+ * and number of executions of each statement, which shows N+1 selects.
+ * Tasks of the request add to the profile at the same time, so that totals are updated under the lock of the profile.
+ */
+@Getter
+public class SqlProfile {
+    private volatile int statements;
+    private volatile long rows;
+    private volatile long nanos;
+    private volatile int slowStatements;
+    private final Map<String, Integer> executions = new ConcurrentHashMap<>();
+
+    synchronized void addStatement(String sql, long nanos, boolean slow) {
+        this.statements++;
+        this.nanos += nanos;
+        if (slow) {
+            this.slowStatements++;
+        }
+        if (sql != null) {
+            executions.merge(sql, 1, Integer::sum);
+        }
+    }
+
+    synchronized void addRows(long rows) {
+        this.rows += rows;
+    }
+
+    /**
+     * @return statement executed most times with the number of its executions
+     */
+    public Optional<Map.Entry<String, Integer>> getMostExecuted() {
+        return executions.entrySet().stream().max(Map.Entry.comparingByValue());
+    }
+}
@@ -0,0 +1,109 @@
+package ru.practicum.service.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SQL PROFILING FILTER
+ * profile SQL statements executed while an HTTP request is processed, put the totals into MDC of the summary log
+ * and record them per endpoint. A request, which executes one statement more times than the threshold,
+ * is logged with the statement as N+1 selects.
+ * Metrics:
+ * ewm.sql.statements{method, uri} - statements per request,
+ * ewm.sql.rows{method, uri} - rows read or updated per request,
+ * ewm.sql.time{method, uri} - time of statements per request,
+ * ewm.sql.slow-statements{method, uri} - statements slower than ewm.sql.slow-statement-millis,
+ * ewm.sql.n-plus-one{method, uri} - requests over ewm.sql.n-plus-one.threshold
+ *
+ * @see MetricsConfiguration#sqlProfilingFilter
+ */
+@Slf4j
+public class SqlProfilingFilter extends OncePerRequestFilter {
+    static final String MDC_STATEMENTS = "sqlStatements";
+    static final String MDC_ROWS = "sqlRows";
+    static final String MDC_MILLIS = "sqlMillis";
+
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int nPlusOneThreshold;
+
+    public SqlProfilingFilter(MeterRegistry meterRegistry, boolean enabled, int nPlusOneThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.nPlusOneThreshold = nPlusOneThreshold;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        SqlProfile profile = ProfilingDataSource.start();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ProfilingDataSource.stop();
+            record(request, profile);
+        }
+    }
+
+    private void record(HttpServletRequest request, SqlProfile profile) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+        Tags tags = Tags.of("method", request.getMethod(), "uri", uri);
+
+        DistributionSummary.builder("ewm.sql.statements").description("SQL statements per HTTP request")
+                .tags(tags).register(meterRegistry).record(profile.getStatements());
+        DistributionSummary.builder("ewm.sql.rows").description("rows read or updated per HTTP request")
+                .tags(tags).register(meterRegistry).record(profile.getRows());
+        Timer.builder("ewm.sql.time").description("time of SQL statements per HTTP request")
+                .tags(tags).register(meterRegistry).record(profile.getNanos(), TimeUnit.NANOSECONDS);
+        if (profile.getSlowStatements() > 0) {
+            Counter.builder("ewm.sql.slow-statements").description("slow SQL statements")
+                    .tags(tags).register(meterRegistry).increment(profile.getSlowStatements());
+        }
+        Map.Entry<String, Integer> mostExecuted = profile.getMostExecuted().orElse(null);
+        boolean nPlusOne = mostExecuted != null && mostExecuted.getValue() > nPlusOneThreshold;
+        if (nPlusOne) {
+            Counter.builder("ewm.sql.n-plus-one").description("HTTP requests repeating a SQL statement")
+                    .tags(tags).register(meterRegistry).increment();
+        }
+
+        MDC.put(MDC_STATEMENTS, String.valueOf(profile.getStatements()));
+        MDC.put(MDC_ROWS, String.valueOf(profile.getRows()));
+        MDC.put(MDC_MILLIS, String.valueOf(TimeUnit.NANOSECONDS.toMillis(profile.getNanos())));
+        try {
+            if (nPlusOne) {
+                log.warn("{} {}: {} statements, {} rows, {} ms, statement executed {} times: {}",
+                        request.getMethod(), uri, profile.getStatements(), profile.getRows(),
+                        TimeUnit.NANOSECONDS.toMillis(profile.getNanos()), mostExecuted.getValue(),
+                        mostExecuted.getKey());
+            } else {
+                log.debug("{} {}: {} statements, {} rows, {} ms", request.getMethod(), uri,
+                        profile.getStatements(), profile.getRows(), TimeUnit.NANOSECONDS.toMillis(profile.getNanos()));
+            }
+        } finally {
+            MDC.remove(MDC_STATEMENTS);
+            MDC.remove(MDC_ROWS);
+            MDC.remove(MDC_MILLIS);
+        }
+    }
+}
@@ -0,0 +1,462 @@
+package ru.practicum.service.request;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.dto.request.ParticipationRequestDto;
+import ru.practicum.entity.Event;
+import ru.practicum.entity.Request;
+import ru.practicum.entity.User;
+import ru.practicum.enums.EventState;
+import ru.practicum.enums.RequestStatus;
+import ru.practicum.repository.EventRepository;
+import ru.practicum.repository.RequestRepository;
+import ru.practicum.repository.UserRepository;
+import ru.practicum.service.cache.EventModification;
+import ru.practicum.threads.Threads;
+import ru.practicum.utils.errors.ErrorConstants;
+import ru.practicum.utils.errors.exceptions.NotAllowedException;
+import ru.practicum.utils.errors.exceptions.NotFoundException;
+import ru.practicum.utils.mapper.RequestMapper;
+
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static ru.practicum.utils.errors.ErrorConstants.*;
+
+/**
+ * ADMISSION QUEUE
+ * flash sale mode of participation request admission.
+ * An event becomes hot when many requests to it are processed at the same time.
+ * While the event is hot, its requests are put into the queue of the worker chosen by event ID,
+ * and the worker admits them in batches: one transaction, one locked read of the event,
+ * one read of requesters and of their previous requests, grouped insert of new requests
+ * and one update of the number of confirmed requests per batch.
+ * Requests to other events are processed directly by the calling thread.
+ * Places confirmed by a batch are taken from participant permits as well, so that both paths share one view
+ * of free places. If the batch fails, its requests are handed back to the callers, which admit them the direct way,
+ * so that a single failing request does not fail the others and the worker is not held by their transactions.
+ * The caller waits for the worker not longer than the timeout, a request not taken by the worker by then is dropped.
+ * A request taken by the worker is not dropped anymore, the caller waits for its outcome, which is sent after commit.
+ */
+@Component
+@Slf4j
+public class AdmissionQueue {
+    private final EventRepository eventRepository;
+    private final UserRepository userRepository;
+    private final RequestRepository requestRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final RequestCounters requestCounters;
+    private final Waitlist waitlist;
+    private final ParticipantPermits participantPermits;
+    private final boolean enabled;
+    private final int batchSize;
+    private final int hotThreshold;
+    private final long hotMillis;
+    private final long timeoutSeconds;
+    private final Map<Long, Traffic> traffic = new ConcurrentHashMap<>();
+    private final List<BlockingQueue<Admission>> shards = new ArrayList<>();
+    private final ExecutorService workers;
+    private volatile boolean stopped;
+
+    public AdmissionQueue(EventRepository eventRepository,
+                          UserRepository userRepository,
+                          RequestRepository requestRepository,
+                          ApplicationEventPublisher eventPublisher,
+                          TransactionTemplate transactionTemplate,
+                          RequestCounters requestCounters,
+                          Waitlist waitlist,
+                          ParticipantPermits participantPermits,
+                          Threads threads,
+                          @Value("${ewm.admission.queue.enabled:true}") boolean enabled,
+                          @Value("${ewm.admission.queue.workers:4}") int workers,
+                          @Value("${ewm.admission.queue.capacity:10000}") int capacity,
+                          @Value("${ewm.admission.queue.batch-size:100}") int batchSize,
+                          @Value("${ewm.admission.queue.hot-threshold:8}") int hotThreshold,
+                          @Value("${ewm.admission.queue.hot-seconds:30}") long hotSeconds,
+                          @Value("${ewm.admission.queue.timeout-seconds:30}") long timeoutSeconds) {
+        this.eventRepository = eventRepository;
+        this.userRepository = userRepository;
+        this.requestRepository = requestRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.requestCounters = requestCounters;
+        this.waitlist = waitlist;
+        this.participantPermits = participantPermits;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.hotThreshold = hotThreshold;
+        this.hotMillis = hotSeconds * 1000;
+        this.timeoutSeconds = timeoutSeconds;
+        if (!enabled) {
+            this.workers = null;
+            return;
+        }
+        this.workers = Executors.newFixedThreadPool(workers, threads.newThreadFactory("admission-queue-"));
+        for (int i = 0; i < workers; i++) {
+            BlockingQueue<Admission> shard = new LinkedBlockingQueue<>(capacity);
+            shards.add(shard);
+            this.workers.execute(() -> work(shard));
+        }
+    }
+
+    /**
+     * admit participation request,
+     * through the queue if the event is hot, otherwise directly
+     * the calling thread must not hold a transaction, since it waits for the worker
+     *
+     * @param userId  requester ID
+     * @param eventId event ID
+     * @param direct  direct admission of the request
+     * @return new participation request
+     */
+    public ParticipationRequestDto admit(Long userId, Long eventId, Supplier<ParticipationRequestDto> direct) {
+        if (!enabled || stopped) {
+            return direct.get();
+        }
+        Traffic eventTraffic = enter(eventId);
+        try {
+            if (!eventTraffic.isHot()) {
+                return direct.get();
+            }
+            Admission admission = new Admission(userId, eventId);
+            if (!shards.get(getShard(eventId)).offer(admission)) {
+                log.warn("Admission queue is full, request of user {} to the event {} is admitted directly",
+                        userId, eventId);
+                return direct.get();
+            }
+            return await(admission, direct);
+        } finally {
+            exit(eventId);
+        }
+    }
+
+    /**
+     * stop workers and reject requests left in the queues
+     */
+    @PreDestroy
+    public void stop() {
+        if (workers == null) {
+            return;
+        }
+        stopped = true;
+        workers.shutdownNow();
+        List<Admission> left = new ArrayList<>();
+        shards.forEach(shard -> shard.drainTo(left));
+        left.forEach(admission -> admission.getResult()
+                .completeExceptionally(new IllegalStateException("Admission queue is stopped")));
+    }
+
+    /**
+     * register request to the event being processed, mark the event as hot if there are too many of them
+     *
+     * @param eventId event ID
+     * @return traffic of the event
+     */
+    private Traffic enter(Long eventId) {
+        return traffic.compute(eventId, (id, current) -> {
+            Traffic eventTraffic = current == null ? new Traffic() : current;
+            eventTraffic.inFlight++;
+            if (eventTraffic.inFlight >= hotThreshold) {
+                if (!eventTraffic.isHot()) {
+                    log.info("Event {} is hot: {} requests are processed at the same time",
+                            id, eventTraffic.inFlight);
+                }
+                eventTraffic.hotUntil = System.currentTimeMillis() + hotMillis;
+            }
+            return eventTraffic;
+        });
+    }
+
+    /**
+     * unregister processed request to the event, forget the event if it's neither requested nor hot
+     *
+     * @param eventId event ID
+     */
+    private void exit(Long eventId) {
+        traffic.computeIfPresent(eventId, (id, eventTraffic) -> {
+            eventTraffic.inFlight--;
+            return eventTraffic.inFlight == 0 && !eventTraffic.isHot() ? null : eventTraffic;
+        });
+    }
+
+    private int getShard(Long eventId) {
+        return (int) Math.floorMod(eventId, (long) shards.size());
+    }
+
+    /**
+     * wait for the result of admission,
+     * the admission is dropped if the worker has not taken it in time,
+     * otherwise the caller waits until the transaction of the batch is committed or rolled back
+     *
+     * @param admission request waiting in the queue
+     * @param direct    direct admission of the request, used if the batch fails
+     * @return new participation request
+     * @throws IllegalStateException if the request is not taken by the worker in time
+     *                               or the calling thread is interrupted before that
+     */
+    private ParticipationRequestDto await(Admission admission, Supplier<ParticipationRequestDto> direct) {
+        CompletableFuture<ParticipationRequestDto> result = admission.getResult();
+        try {
+            result.get(timeoutSeconds, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            // outcome is taken below
+        } catch (TimeoutException e) {
+            if (admission.drop()) {
+                throw new IllegalStateException("Participation request is not admitted in " + timeoutSeconds + " s");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (admission.drop()) {
+                throw new IllegalStateException("Interrupted while waiting for admission of participation request", e);
+            }
+        }
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof BatchFailedException) {
+                return direct.get();
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Admission of participation request failed", e.getCause());
+        }
+    }
+
+    /**
+     * take requests from the queue and admit them in batches grouped by event until the worker is stopped
+     *
+     * @param shard queue of the worker
+     */
+    private void work(BlockingQueue<Admission> shard) {
+        List<Admission> batch = new ArrayList<>(batchSize);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                batch.add(shard.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            shard.drainTo(batch, batchSize - 1);
+            // requests, whose callers are not waiting anymore, are dropped
+            batch.removeIf(admission -> !admission.claim());
+            batch.stream()
+                    .collect(Collectors.groupingBy(Admission::getEventId, LinkedHashMap::new, Collectors.toList()))
+                    .forEach(this::admitBatch);
+            batch.clear();
+        }
+    }
+
+    /**
+     * admit batch of requests to the event, answer the callers after the transaction is committed,
+     * hand the requests back to the callers if the batch fails
+     *
+     * @param eventId    event ID
+     * @param admissions requests to the event
+     */
+    private void admitBatch(Long eventId, List<Admission> admissions) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> admitInTransaction(eventId, admissions));
+            log.info("Batch of {} requests to the event {} is admitted", admissions.size(), eventId);
+            admissions.forEach(Admission::complete);
+        } catch (RuntimeException e) {
+            log.warn("Batch of {} requests to the event {} failed, requests are admitted one by one",
+                    admissions.size(), eventId, e);
+            admissions.forEach(Admission::handBack);
+        }
+    }
+
+    /**
+     * admit batch of requests to the event applying the same rules as direct admission
+     *
+     * @param eventId    event ID
+     * @param admissions requests to the event
+     */
+    private void admitInTransaction(Long eventId, List<Admission> admissions) {
+        Event event = eventRepository.findForUpdateById(eventId).orElse(null);
+        if (event == null) {
+            admissions.forEach(admission -> admission.reject(
+                    new NotFoundException(ErrorConstants.getNotFoundMessage("Event", eventId))));
+            return;
+        }
+        if (!String.valueOf(EventState.PUBLISHED).equalsIgnoreCase(event.getState())) {
+            admissions.forEach(admission -> admission.reject(new NotAllowedException(EVENT_IS_NOT_PUBLISHED_YET)));
+            return;
+        }
+        Set<Long> requesterIds = admissions.stream().map(Admission::getUserId).collect(Collectors.toSet());
+        Map<Long, User> requesters = userRepository.findAllById(requesterIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        // repeated requests are found beforehand, since a single violation of the unique constraint
+        // would fail the insert of the whole batch
+        Set<Long> requested = requestRepository.findAllByEvent_IdAndRequester_IdIn(eventId, requesterIds).stream()
+                .map(request -> request.getRequester().getId())
+                .collect(Collectors.toCollection(HashSet::new));
+
+        Integer limit = event.getParticipantLimit();
+        boolean confirm = limit == 0 || Boolean.FALSE.equals(event.getRequestModeration());
+        int confirmed = event.getConfirmedRequests();
+        List<Admission> accepted = new ArrayList<>();
+        List<Request> requests = new ArrayList<>();
+        for (Admission admission : admissions) {
+            Long userId = admission.getUserId();
+            User requester = requesters.get(userId);
+            if (requested.contains(userId)) {
+                admission.reject(new NotAllowedException(REPEATED_REQUEST));
+            } else if (requester == null) {
+                admission.reject(new NotFoundException(ErrorConstants.getNotFoundMessage("User", userId)));
+            } else if (userId.equals(event.getInitiator().getId())) {
+                admission.reject(new NotAllowedException(NOT_FOR_INITIATOR));
+            } else if (limit != 0 && confirmed >= limit && !waitlist.isEnabled()) {
+                admission.reject(new NotAllowedException(LIMIT));
+            } else {
+                boolean confirmRequest = confirm
+                        && (limit == 0 || confirmed < limit && participantPermits.tryAcquire(event));
+                if (confirm && !confirmRequest && !waitlist.isEnabled()) {
+                    // the last places are taken by direct admissions, which are not committed yet
+                    admission.reject(new NotAllowedException(LIMIT));
+                    continue;
+                }
+                requested.add(userId);
+                if (confirmRequest) {
+                    confirmed++;
+                }
+                accepted.add(admission);
+                requests.add(Request.builder()
+                        .requester(requester)
+                        .event(event)
+                        .status(confirmRequest ? RequestStatus.CONFIRMED : RequestStatus.PENDING)
+                        .created(LocalDateTime.now())
+                        .build());
+            }
+        }
+
+        List<Request> newRequests = requestRepository.saveAll(requests);
+        for (int i = 0; i < accepted.size(); i++) {
+            accepted.get(i).accept(RequestMapper.toParticipationRequestDto(newRequests.get(i)));
+        }
+        int admitted = confirmed - event.getConfirmedRequests();
+        if (admitted > 0) {
+            if (eventRepository.increaseConfirmedRequests(eventId, admitted) == 0) {
+                throw new IllegalStateException(String.format(
+                        "Number of confirmed requests of the locked event %s has been changed", eventId));
+            }
+            eventPublisher.publishEvent(EventModification.of(event));
+        }
+        requestCounters.add(eventId, RequestStatus.CONFIRMED, admitted);
+        requestCounters.add(eventId, RequestStatus.PENDING, requests.size() - admitted);
+        log.debug("{} of {} requests to the event {} accepted, {} confirmed",
+                accepted.size(), admissions.size(), eventId, admitted);
+    }
+
+    /**
+     * request to the event waiting in the queue
+     * Long userId. Requester ID
+     * Long eventId. Event ID
+     * AtomicReference stage. Whether the request is waiting, taken by the worker or dropped by the caller
+     * CompletableFuture result. Result the caller waits for
+     * ParticipationRequestDto request, RuntimeException error. Outcome of the admission, sent after commit
+     */
+    @Getter
+    @RequiredArgsConstructor
+    private static class Admission {
+        private final Long userId;
+        private final Long eventId;
+        private final AtomicReference<Stage> stage = new AtomicReference<>(Stage.QUEUED);
+        private final CompletableFuture<ParticipationRequestDto> result = new CompletableFuture<>();
+        private ParticipationRequestDto request;
+        private RuntimeException error;
+
+        /**
+         * take the request into a batch, unless the caller has stopped waiting for it
+         *
+         * @return true if the request is taken
+         */
+        private boolean claim() {
+            return stage.compareAndSet(Stage.QUEUED, Stage.CLAIMED);
+        }
+
+        /**
+         * drop the request, unless the worker has taken it already
+         *
+         * @return true if the request is dropped
+         */
+        private boolean drop() {
+            return stage.compareAndSet(Stage.QUEUED, Stage.DROPPED);
+        }
+
+        private void accept(ParticipationRequestDto request) {
+            this.request = request;
+        }
+
+        private void reject(RuntimeException error) {
+            this.error = error;
+        }
+
+        private void complete() {
+            if (error != null) {
+                result.completeExceptionally(error);
+            } else {
+                result.complete(request);
+            }
+        }
+
+        private void handBack() {
+            result.completeExceptionally(new BatchFailedException());
+        }
+    }
+
+    private enum Stage {
+        QUEUED,
+        CLAIMED,
+        DROPPED
+    }
+
+    /**
+     * signal to the caller, that the batch of its request has failed and the request is to be admitted directly
+     */
+    private static class BatchFailedException extends RuntimeException {
+        private BatchFailedException() {
+            super(null, null, false, false);
+        }
+    }
+
+    /**
+     * requests to the event being processed
+     * int inFlight. Number of requests being processed, changed only inside map computations
+     * long hotUntil. Time until the event is hot
+     */
+    private static class Traffic {
+        private int inFlight;
+        private volatile long hotUntil;
+
+        private boolean isHot() {
+            return hotUntil > System.currentTimeMillis();
+        }
+    }
+}
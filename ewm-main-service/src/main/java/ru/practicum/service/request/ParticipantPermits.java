@@ -0,0 +1,146 @@
+package ru.practicum.service.request;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.entity.Event;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * PARTICIPANT PERMITS
+ * in-memory striped counter of free places per event, placed in front of the database admission.
+ * Requests for a sold out event are rejected without touching the event row,
+ * the atomic conditional update of the event remains the source of truth, so permits may only over-admit.
+ * Permits are refilled from the event loaded by the request,
+ * if its limit has changed or places have been freed since the permits were filled.
+ * Permits of the event are evicted when its places are released, because acquires may have used up every permit
+ * after the filling, and a canceled request lowers the number of confirmed requests below the filled value unnoticed.
+ */
+@Component
+@Slf4j
+public class ParticipantPermits {
+    private final Map<Long, Permits> permits = new ConcurrentHashMap<>();
+    private final boolean enabled;
+    private final int stripes;
+
+    public ParticipantPermits(@Value("${ewm.admission.permits.enabled:true}") boolean enabled,
+                              @Value("${ewm.admission.permits.stripes:8}") int stripes) {
+        this.enabled = enabled;
+        this.stripes = stripes;
+    }
+
+    /**
+     * try to take a place in the event,
+     * the place is returned if current transaction is rolled back
+     *
+     * @param event event loaded by the request
+     * @return false if the event is sold out
+     */
+    public boolean tryAcquire(Event event) {
+        if (!enabled || event.getParticipantLimit() == 0) {
+            return true;
+        }
+        Permits eventPermits = permits.compute(event.getId(),
+                (id, current) -> current == null || current.isStale(event) ? new Permits(event, stripes) : current);
+        int stripe = eventPermits.acquire();
+        if (stripe < 0) {
+            log.info("No free places left for the event {}", event.getId());
+            return false;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        eventPermits.release(stripe);
+                    }
+                }
+            });
+        }
+        return true;
+    }
+
+    /**
+     * take all places in the event, when database has rejected the admission
+     *
+     * @param eventId event ID
+     */
+    public void drain(Long eventId) {
+        Permits eventPermits = permits.get(eventId);
+        if (eventPermits != null) {
+            eventPermits.drain();
+        }
+    }
+
+    /**
+     * forget permits of the event after the transaction releasing its places has been committed,
+     * the next request fills them from the event again
+     *
+     * @param release released places
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPlacesReleased(PlacesReleased release) {
+        if (permits.remove(release.getEventId()) != null) {
+            log.debug("Permits of the event {} are evicted, places have been released", release.getEventId());
+        }
+    }
+
+    /**
+     * free places of the event split into stripes, so that concurrent requests do not contend on one counter
+     * Integer limit, Integer confirmed. Participation limit and number of confirmed requests at the moment of filling,
+     * when the database rejects admission the event is known to be full, so confirmed becomes equal to the limit
+     */
+    private static class Permits {
+        private final int limit;
+        private volatile int confirmed;
+        private final AtomicIntegerArray free;
+
+        private Permits(Event event, int stripes) {
+            this.limit = event.getParticipantLimit();
+            this.confirmed = event.getConfirmedRequests();
+            int available = Math.max(0, limit - confirmed);
+            this.free = new AtomicIntegerArray(stripes);
+            for (int i = 0; i < stripes; i++) {
+                free.set(i, available / stripes + (i < available % stripes ? 1 : 0));
+            }
+        }
+
+        private boolean isStale(Event event) {
+            return event.getParticipantLimit() != limit || event.getConfirmedRequests() < confirmed;
+        }
+
+        private int acquire() {
+            int stripes = free.length();
+            int start = ThreadLocalRandom.current().nextInt(stripes);
+            for (int i = 0; i < stripes; i++) {
+                int stripe = (start + i) % stripes;
+                int value = free.get(stripe);
+                while (value > 0) {
+                    if (free.compareAndSet(stripe, value, value - 1)) {
+                        return stripe;
+                    }
+                    value = free.get(stripe);
+                }
+            }
+            return -1;
+        }
+
+        private void release(int stripe) {
+            free.incrementAndGet(stripe);
+        }
+
+        private void drain() {
+            confirmed = limit;
+            for (int i = 0; i < free.length(); i++) {
+                free.set(i, 0);
+            }
+        }
+    }
+}
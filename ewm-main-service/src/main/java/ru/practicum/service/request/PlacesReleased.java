@@ -0,0 +1,12 @@
+package ru.practicum.service.request;
+
+import lombok.Value;
+
+/**
+ * PLACES RELEASED
+ * published when a place in the event may have become free, because a confirmed request is canceled
+ */
+@Value(staticConstructor = "of")
+public class PlacesReleased {
+    Long eventId;
+}
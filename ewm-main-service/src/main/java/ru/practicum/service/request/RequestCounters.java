@@ -0,0 +1,139 @@
+package ru.practicum.service.request;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import ru.practicum.entity.EventRequestCounters;
+import ru.practicum.enums.RequestStatus;
+import ru.practicum.repository.EventRepository;
+import ru.practicum.repository.EventRequestCountersRepository;
+import ru.practicum.repository.RequestRepository;
+import ru.practicum.repository.RequestStatusCount;
+
+import java.util.List;
+
+/**
+ * REQUEST COUNTERS
+ * number of participation requests to the event by status, changed in the same transaction as the requests.
+ * Counters are created with the event, counters of events created otherwise are counted from the requests
+ * at the first change, while the event is locked, so that concurrent changes do not create them twice.
+ * Must be called after the requests have been changed.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class RequestCounters {
+    private final EventRequestCountersRepository countersRepository;
+    private final RequestRepository requestRepository;
+    private final EventRepository eventRepository;
+
+    /**
+     * create zero counters of the new event
+     *
+     * @param eventId event ID
+     */
+    public void create(Long eventId) {
+        countersRepository.save(count(eventId, List.of()));
+    }
+
+    /**
+     * count new requests to the event
+     *
+     * @param eventId event ID
+     * @param status  status of the new requests
+     * @param number  number of the new requests
+     */
+    public void add(Long eventId, RequestStatus status, int number) {
+        change(eventId, getChange(RequestStatus.PENDING, null, status, number),
+                getChange(RequestStatus.CONFIRMED, null, status, number),
+                getChange(RequestStatus.REJECTED, null, status, number),
+                getChange(RequestStatus.CANCELED, null, status, number));
+    }
+
+    /**
+     * count requests to the event, whose status has changed
+     *
+     * @param eventId event ID
+     * @param from    previous status of the requests
+     * @param to      new status of the requests
+     * @param number  number of the changed requests
+     */
+    public void move(Long eventId, RequestStatus from, RequestStatus to, int number) {
+        if (from != to) {
+            change(eventId, getChange(RequestStatus.PENDING, from, to, number),
+                    getChange(RequestStatus.CONFIRMED, from, to, number),
+                    getChange(RequestStatus.REJECTED, from, to, number),
+                    getChange(RequestStatus.CANCELED, from, to, number));
+        }
+    }
+
+    /**
+     * count pending requests to the event, which have been confirmed or rejected by the initiator
+     *
+     * @param eventId   event ID
+     * @param confirmed number of confirmed requests
+     * @param rejected  number of rejected requests
+     */
+    public void resolve(Long eventId, int confirmed, int rejected) {
+        change(eventId, -confirmed - rejected, confirmed, rejected, 0);
+    }
+
+    /**
+     * count requests to the event by status from the requests
+     *
+     * @param eventId event ID
+     * @return counters of the event
+     */
+    public EventRequestCounters countFromRequests(Long eventId) {
+        return count(eventId, requestRepository.countByStatus(eventId));
+    }
+
+    /**
+     * create counters of the event from numbers of requests by status
+     *
+     * @param eventId event ID
+     * @param counts  numbers of requests to the event by status
+     * @return counters of the event
+     */
+    private static EventRequestCounters count(Long eventId, List<RequestStatusCount> counts) {
+        EventRequestCounters counters = EventRequestCounters.builder()
+                .eventId(eventId).pending(0).confirmed(0).rejected(0).canceled(0)
+                .build();
+        for (RequestStatusCount count : counts) {
+            int number = count.getCount().intValue();
+            switch (count.getStatus()) {
+                case PENDING:
+                    counters.setPending(number);
+                    break;
+                case CONFIRMED:
+                    counters.setConfirmed(number);
+                    break;
+                case REJECTED:
+                    counters.setRejected(number);
+                    break;
+                case CANCELED:
+                    counters.setCanceled(number);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown RequestStatus value: " + count.getStatus());
+            }
+        }
+        return counters;
+    }
+
+    private void change(Long eventId, int pending, int confirmed, int rejected, int canceled) {
+        if (pending == 0 && confirmed == 0 && rejected == 0 && canceled == 0
+                || countersRepository.addToCounters(eventId, pending, confirmed, rejected, canceled) > 0) {
+            return;
+        }
+        eventRepository.lockById(eventId);
+        if (countersRepository.addToCounters(eventId, pending, confirmed, rejected, canceled) == 0) {
+            EventRequestCounters counters = countersRepository.save(countFromRequests(eventId));
+            log.info("Request counters of the event {} are counted from the requests: {}", eventId, counters);
+        }
+    }
+
+    private int getChange(RequestStatus counted, RequestStatus from, RequestStatus to, int number) {
+        return (counted == to ? number : 0) - (counted == from ? number : 0);
+    }
+}
@@ -0,0 +1,125 @@
+package ru.practicum.service.request;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.entity.Event;
+import ru.practicum.entity.EventRequestCounters;
+import ru.practicum.repository.EventRepository;
+import ru.practicum.repository.EventRequestCountersRepository;
+import ru.practicum.service.cache.EventModification;
+
+import java.util.List;
+
+/**
+ * REQUEST COUNTERS RECONCILER
+ * periodically verifies request counters and numbers of confirmed requests of events against the requests
+ * and repairs them. Events are walked in pages by ID, events of a page that differ are found by one query
+ * comparing them with the requests in the database, so neither events nor counters are loaded into memory.
+ * Then each of them is recounted and repaired in its own transaction, while the event and its counters are locked.
+ * Metrics:
+ * ewm.counters.repaired. Number of repaired events
+ */
+@Component
+@Slf4j
+public class RequestCountersReconciler {
+    private final EventRepository eventRepository;
+    private final EventRequestCountersRepository countersRepository;
+    private final RequestCounters requestCounters;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int pageSize;
+
+    public RequestCountersReconciler(EventRepository eventRepository,
+                                     EventRequestCountersRepository countersRepository,
+                                     RequestCounters requestCounters,
+                                     TransactionTemplate transactionTemplate,
+                                     ApplicationEventPublisher eventPublisher,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${ewm.counters.reconciliation.enabled:true}") boolean enabled,
+                                     @Value("${ewm.counters.reconciliation.page-size:1000}") int pageSize) {
+        this.eventRepository = eventRepository;
+        this.countersRepository = countersRepository;
+        this.requestCounters = requestCounters;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * verify and repair request counters of all events on schedule, if reconciliation is enabled
+     */
+    @Scheduled(initialDelayString = "${ewm.counters.reconciliation.initial-delay-millis:60000}",
+            fixedDelayString = "${ewm.counters.reconciliation.interval-millis:3600000}")
+    public void reconcileOnSchedule() {
+        if (enabled) {
+            reconcile();
+        }
+    }
+
+    /**
+     * verify and repair request counters of all events
+     *
+     * @return number of repaired events
+     */
+    public int reconcile() {
+        int suspected = 0;
+        int repaired = 0;
+        long after = 0;
+        List<Long> eventIds;
+        do {
+            eventIds = eventRepository.findIdsAfter(after, PageRequest.of(0, pageSize));
+            if (eventIds.isEmpty()) {
+                break;
+            }
+            Long until = eventIds.get(eventIds.size() - 1);
+            for (Long eventId : countersRepository.findSuspectedEventIds(after, until)) {
+                suspected++;
+                if (Boolean.TRUE.equals(transactionTemplate.execute(status -> repair(eventId)))) {
+                    repaired++;
+                }
+            }
+            after = until;
+        } while (eventIds.size() == pageSize);
+        meterRegistry.counter("ewm.counters.repaired").increment(repaired);
+        log.info("Request counters reconciled: {} events suspected, {} repaired", suspected, repaired);
+        return repaired;
+    }
+
+    /**
+     * recount requests to the locked event and repair its counters and number of confirmed requests
+     *
+     * @param eventId event ID
+     * @return true if anything has been repaired
+     */
+    private boolean repair(Long eventId) {
+        Event event = eventRepository.findForUpdateById(eventId).orElse(null);
+        if (event == null) {
+            return false;
+        }
+        EventRequestCounters stored = countersRepository.findForUpdateByEventId(eventId).orElse(null);
+        EventRequestCounters counted = requestCounters.countFromRequests(eventId);
+        boolean repaired = false;
+        if (eventRepository.repairConfirmedRequests(eventId, counted.getConfirmed()) > 0) {
+            log.warn("Number of confirmed requests of the event {} repaired: {} -> {}",
+                    eventId, event.getConfirmedRequests(), counted.getConfirmed());
+            eventPublisher.publishEvent(EventModification.of(event));
+            repaired = true;
+        }
+        if (!counted.equals(stored)) {
+            log.warn("Request counters of the event {} repaired: {} -> {}", eventId, stored, counted);
+            countersRepository.save(counted);
+            repaired = true;
+        }
+        return repaired;
+    }
+}
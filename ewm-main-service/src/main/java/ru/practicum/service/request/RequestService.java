@@ -3,6 +3,7 @@ package ru.practicum.service.request;
 
 import org.springframework.stereotype.Component;
 import ru.practicum.dto.request.ParticipationRequestDto;
+import ru.practicum.dto.request.ParticipationRequestPage;
 
 import java.util.List;
 
@@ -44,4 +45,14 @@ public interface RequestService {
      * @return list of requests, if no request is found based on the specified filters, it returns an empty list
      */
     List<ParticipationRequestDto> getParticipationRequests(Long userId);
+
+    /**
+     * Obtain page of user requests to participate in other people's events, ordered by ID
+     *
+     * @param userId user id
+     * @param after  ID of the last request of the previous page, 0 for the first page
+     * @param size   number of requests per page
+     * @return page of requests and ID to get the next page after
+     */
+    ParticipationRequestPage getParticipationRequests(Long userId, Long after, Integer size);
 }
@@ -1,24 +1,32 @@
 package ru.practicum.service.request;
 
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.dto.request.ParticipationRequestDto;
+import ru.practicum.dto.request.ParticipationRequestPage;
 import ru.practicum.entity.Event;
 import ru.practicum.entity.Request;
 import ru.practicum.entity.User;
 import ru.practicum.enums.EventState;
 import ru.practicum.enums.RequestStatus;
+import ru.practicum.logging.PayloadLogger;
 import ru.practicum.repository.EventRepository;
 import ru.practicum.repository.RequestRepository;
-import ru.practicum.repository.UserRepository;
+import ru.practicum.service.cache.EventModification;
+import ru.practicum.service.cache.ReferenceDataCache;
+import ru.practicum.service.retry.ConflictRetryExecutor;
 import ru.practicum.utils.errors.ErrorConstants;
 import ru.practicum.utils.errors.exceptions.NotAllowedException;
 import ru.practicum.utils.errors.exceptions.NotFoundException;
-import ru.practicum.utils.logger.ListLogger;
 import ru.practicum.utils.mapper.RequestMapper;
+import ru.practicum.utils.paging.Paging;
 
 import javax.persistence.EntityNotFoundException;
 import java.time.LocalDateTime;
@@ -28,15 +36,25 @@ import static ru.practicum.utils.errors.ErrorConstants.*;
 
 /**
  * EVENT SERVICE IMPLEMENTATION
+ * Metrics:
+ * ewm.service{class, method, exception}. Time of the calls of the service
  */
 @Service
 @Slf4j
 @RequiredArgsConstructor
+@Timed(value = "ewm.service", description = "Time of the calls of the service")
 public class RequestServiceImpl implements RequestService {
+    private static final String REQUESTER_EVENT_CONSTRAINT = "uq_requests_requester_event";
 
     private final RequestRepository requestRepository;
-    private final UserRepository userRepository;
+    private final ReferenceDataCache referenceDataCache;
     private final EventRepository eventRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ParticipantPermits participantPermits;
+    private final RequestCounters requestCounters;
+    private final AdmissionQueue admissionQueue;
+    private final ConflictRetryExecutor conflictRetryExecutor;
+    private final Waitlist waitlist;
 
     /**
      * Add a request from a user to participate in an event
@@ -47,33 +65,54 @@ public class RequestServiceImpl implements RequestService {
      * (Error code 409 is expected)
      * if pre-moderation of participation requests is disabled for an event,
      * then the request should automatically switch to the confirmed state
+     * requests to hot events are admitted in batches by the admission queue
+     * the requester is looked up once before the transaction, not on every retry of the transaction
      *
      * @param userId  user id
      * @param eventId event id
      * @return new participation request
      */
     @Override
-    @Transactional
     public ParticipationRequestDto addParticipationRequest(Long userId, Long eventId) {
+        return admissionQueue.admit(userId, eventId,
+                () -> {
+                    User requester = getUserOrThrowException(userId);
+                    return conflictRetryExecutor.executeInTransaction("addParticipationRequest",
+                            () -> addParticipationRequestDirectly(requester, eventId));
+                });
+    }
 
-        checkRequestNotExists(userId, eventId);
-        User requester = getUserOrThrowException(userId);
+    /**
+     * Add a request from a user to participate in an event in the current transaction
+     *
+     * @param requester requester
+     * @param eventId   event id
+     * @return new participation request
+     */
+    private ParticipationRequestDto addParticipationRequestDirectly(User requester, Long eventId) {
+        Long userId = requester.getId();
         Event event = getEventOrThrowException(eventId);
         checkEventIsPublished(event.getState());
         checkUserIsNotInitiator(userId, event.getInitiator().getId());
         Integer limit = event.getParticipantLimit();
         Integer confirmed = event.getConfirmedRequests();
         log.info("We have request to event with limit: {}, confirmed: {}", limit, confirmed);
-        checkParticipationLimitHasNotReached(limit, confirmed);
 
         Request request = buildRequest(requester, event);
-        request = confirmRequestIfEventHasNoLimits(request, limit, event.getRequestModeration());
-        Request newRequest = requestRepository.save(request);
+        if (waitlist.mustWait(event)) {
+            log.info("Event {} is full, request of user {} waits for a free place", eventId, userId);
+        } else {
+            checkParticipationLimitHasNotReached(limit, confirmed);
+            request = confirmRequestIfEventHasNoLimits(request, limit, event.getRequestModeration());
+        }
+        Request newRequest = insertRequest(request);
         if (newRequest.getStatus().equals(RequestStatus.CONFIRMED)) {
-            eventRepository.save(event.toBuilder().confirmedRequests(++confirmed).build());
+            admitParticipant(event);
+            eventPublisher.publishEvent(EventModification.of(event));
         }
-        log.info("Request {} by requester {} added, status is {},  event: {},  number of confirmed requests is {}",
-                request.getId(), userId, newRequest.getStatus(), eventId, confirmed);
+        requestCounters.add(eventId, newRequest.getStatus(), 1);
+        log.info("Request {} by requester {} added, status is {},  event: {}",
+                newRequest.getId(), userId, newRequest.getStatus(), eventId);
         return RequestMapper.toParticipationRequestDto(newRequest);
 
     }
@@ -87,12 +126,29 @@ public class RequestServiceImpl implements RequestService {
      * @return canceled participation request
      */
     @Override
-    @Transactional
     public ParticipationRequestDto cancelParticipationRequest(Long userId, Long requestId) {
+        return conflictRetryExecutor.executeInTransaction("cancelParticipationRequest",
+                () -> cancelParticipationRequestInTransaction(userId, requestId));
+    }
+
+    /**
+     * Cancel own request to participate in an event in the current transaction
+     *
+     * @param userId    user id
+     * @param requestId request id
+     * @return canceled participation request
+     */
+    private ParticipationRequestDto cancelParticipationRequestInTransaction(Long userId, Long requestId) {
 
         Request request = requestRepository.getReferenceById(requestId);
         checkUserIsRequester(userId, request.getRequester().getId());
+        RequestStatus status = request.getStatus();
         Request canceledRequest = requestRepository.save(request.toBuilder().status(RequestStatus.CANCELED).build());
+        Event event = canceledRequest.getEvent();
+        if (RequestStatus.CONFIRMED.equals(status)) {
+            releaseParticipant(event);
+        }
+        requestCounters.move(event.getId(), status, RequestStatus.CANCELED, 1);
         log.info("Request {} canceled", canceledRequest);
         return RequestMapper.toParticipationRequestDto(canceledRequest);
     }
@@ -109,8 +165,28 @@ public class RequestServiceImpl implements RequestService {
         checkUserExists(userId);
         log.info("A request is being made to obtain a list of users' requests");
         List<Request> requests = requestRepository.findAllByRequester_Id(userId);
-        ListLogger.logResultList(requests);
-        return RequestMapper.toParticipationRequestDtoList(requests);
+        List<ParticipationRequestDto> resultList = RequestMapper.toParticipationRequestDtoList(requests);
+        PayloadLogger.logResults(log, resultList, ParticipationRequestDto::getId);
+        return resultList;
+    }
+
+    /**
+     * get page of user requests to participate in other people's events, ordered by ID
+     *
+     * @param userId user id
+     * @param after  ID of the last request of the previous page, 0 for the first page
+     * @param size   number of requests per page
+     * @return page of requests and ID to get the next page after
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public ParticipationRequestPage getParticipationRequests(Long userId, Long after, Integer size) {
+        checkUserExists(userId);
+        ParticipationRequestPage page = RequestMapper.toParticipationRequestPage(
+                requestRepository.findPageByRequesterId(userId, after, Paging.getKeysetPageable(size)), size);
+        log.info("{} requests of user {} after {} found, next page after {}",
+                page.getRequests().size(), userId, after, page.getNext());
+        return page;
     }
 
     /**
@@ -121,7 +197,7 @@ public class RequestServiceImpl implements RequestService {
      */
 
     private void checkUserExists(Long userId) {
-        if (!userRepository.existsById(userId)) {
+        if (referenceDataCache.findUser(userId).isEmpty()) {
             throw new EntityNotFoundException(String.format("User %s not found", userId));
         }
     }
@@ -139,20 +215,72 @@ public class RequestServiceImpl implements RequestService {
     }
 
     /**
-     * check Request does not exist
+     * insert new Request
+     * repeated request is rejected by the unique constraint of requester and event, so no query precedes the insert
+     * throw exception if the user has already requested to participate in the event,
+     * violations of other constraints are rethrown as they are
      *
-     * @param userId  user ID
-     * @param eventId event ID
+     * @param request new request
+     * @return saved request
+     */
+    private Request insertRequest(Request request) {
+        try {
+            return requestRepository.save(request);
+        } catch (DataIntegrityViolationException e) {
+            if (isViolationOf(e, REQUESTER_EVENT_CONSTRAINT)) {
+                throw new NotAllowedException(REPEATED_REQUEST);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * check the exception is caused by violation of the constraint
+     * databases report the name of the constraint, or of its index, in various case and with schema prefix
+     *
+     * @param e          exception
+     * @param constraint constraint name
+     * @return true if the constraint has been violated
      */
+    private static boolean isViolationOf(DataIntegrityViolationException e, String constraint) {
+        if (!(e.getCause() instanceof ConstraintViolationException)) {
+            return false;
+        }
+        String violated = ((ConstraintViolationException) e.getCause()).getConstraintName();
+        return violated != null && violated.toLowerCase().contains(constraint);
+    }
 
-    private void checkRequestNotExists(Long userId, Long eventId) {
-        if (requestRepository
-                .findAllByRequester_IdAndEvent_Id(userId, eventId)
-                .stream()
-                .findAny()
-                .isPresent()) {
-            throw new NotAllowedException(REPEATED_REQUEST);
+    /**
+     * take a place in the event for the confirmed request
+     * the number of confirmed requests is increased by conditional update, so concurrent requests cannot exceed the limit
+     * throw exception if the limit has been reached
+     *
+     * @param event event
+     */
+    private void admitParticipant(Event event) {
+        if (!participantPermits.tryAcquire(event)) {
+            throw new NotAllowedException(LIMIT);
+        }
+        if (eventRepository.increaseConfirmedRequests(event.getId(), 1) == 0) {
+            participantPermits.drain(event.getId());
+            throw new NotAllowedException(LIMIT);
+        }
+        log.info("Number of confirmed requests to participate in the event {} increased by 1", event.getId());
+    }
+
+    /**
+     * free the place in the event taken by the canceled confirmed request
+     *
+     * @param event event
+     */
+    private void releaseParticipant(Event event) {
+        if (eventRepository.decreaseConfirmedRequests(event.getId(), 1) == 0) {
+            log.warn("Number of confirmed requests to participate in the event {} is already 0", event.getId());
+            return;
         }
+        eventPublisher.publishEvent(EventModification.of(event));
+        eventPublisher.publishEvent(PlacesReleased.of(event.getId()));
+        log.info("Number of confirmed requests to participate in the event {} decreased by 1", event.getId());
     }
 
     /**
@@ -244,13 +372,13 @@ public class RequestServiceImpl implements RequestService {
     }
 
     /**
-     * get User from repository by id or throw NotFoundException
+     * get User with short details from reference data cache by id or throw NotFoundException
      *
      * @param userId user ID
      * @return User
      */
     private User getUserOrThrowException(Long userId) {
-        return userRepository.findById(userId)
+        return referenceDataCache.findUser(userId)
                 .orElseThrow(() -> new NotFoundException(ErrorConstants.getNotFoundMessage("User", userId)));
     }
 
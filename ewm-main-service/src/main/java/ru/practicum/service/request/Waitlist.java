@@ -0,0 +1,185 @@
+package ru.practicum.service.request;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.entity.Event;
+import ru.practicum.enums.EventState;
+import ru.practicum.enums.RequestStatus;
+import ru.practicum.repository.EventRepository;
+import ru.practicum.repository.RequestRepository;
+import ru.practicum.service.cache.EventModification;
+import ru.practicum.threads.Threads;
+
+import javax.annotation.PreDestroy;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * WAITLIST
+ * pending requests to the event with participant limit wait for free places in the order they were made.
+ * The order is kept by the index of requests by event, status and ID, so the next waiting requests
+ * are found by a single index lookup however long the waitlist is.
+ * When places are released, the event is promoted asynchronously after the commit: a single worker
+ * locks the event, confirms the oldest waiting requests in batches while there are free places,
+ * and releases of the same event coming during the promotion are merged into one more pass.
+ * While the waitlist is enabled, requests to a full event wait instead of being rejected,
+ * and pending requests are not rejected when the initiator's confirmations reach the limit.
+ * Events with request moderation are never promoted: their pending requests wait for the initiator,
+ * who confirms them while there are free places, so that no request is confirmed without approval.
+ * Metrics:
+ * ewm.waitlist.promoted. Number of promoted requests
+ */
+@Component
+@Slf4j
+public class Waitlist {
+    private final EventRepository eventRepository;
+    private final RequestRepository requestRepository;
+    private final RequestCounters requestCounters;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Set<Long> scheduled = ConcurrentHashMap.newKeySet();
+    private final ExecutorService worker;
+
+    public Waitlist(EventRepository eventRepository,
+                    RequestRepository requestRepository,
+                    RequestCounters requestCounters,
+                    TransactionTemplate transactionTemplate,
+                    ApplicationEventPublisher eventPublisher,
+                    MeterRegistry meterRegistry,
+                    Threads threads,
+                    @Value("${ewm.waitlist.enabled:false}") boolean enabled,
+                    @Value("${ewm.waitlist.batch-size:100}") int batchSize) {
+        this.eventRepository = eventRepository;
+        this.requestRepository = requestRepository;
+        this.requestCounters = requestCounters;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        if (!enabled) {
+            this.worker = null;
+            return;
+        }
+        this.worker = Executors.newSingleThreadExecutor(threads.newThreadFactory("waitlist-"));
+    }
+
+    /**
+     * check whether the request to the event must wait for a free place
+     *
+     * @param event event loaded by the request
+     * @return true if the waitlist is enabled and the event is full
+     */
+    public boolean mustWait(Event event) {
+        return enabled && isFull(event.getParticipantLimit(), event.getConfirmedRequests());
+    }
+
+    /**
+     * check whether pending requests are kept waiting when the event becomes full
+     *
+     * @return true if the waitlist is enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * schedule promotion of the event after the transaction releasing the places has been committed
+     *
+     * @param release released places
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPlacesReleased(PlacesReleased release) {
+        if (!enabled) {
+            return;
+        }
+        Long eventId = release.getEventId();
+        if (!scheduled.add(eventId)) {
+            log.debug("Promotion of the event {} is already scheduled", eventId);
+            return;
+        }
+        worker.execute(() -> {
+            scheduled.remove(eventId);
+            try {
+                promote(eventId);
+            } catch (RuntimeException e) {
+                log.error("Promotion of the waitlist of the event {} failed", eventId, e);
+            }
+        });
+    }
+
+    /**
+     * confirm the oldest waiting requests to the event while there are free places,
+     * unless requests to the event are moderated
+     *
+     * @param eventId event ID
+     * @return number of promoted requests
+     */
+    public int promote(Long eventId) {
+        int promoted = 0;
+        int batch;
+        do {
+            batch = transactionTemplate.execute(status -> promoteBatch(eventId));
+            promoted += batch;
+        } while (batch == batchSize);
+        if (promoted > 0) {
+            log.info("{} waiting requests to the event {} promoted", promoted, eventId);
+        }
+        return promoted;
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (worker != null) {
+            worker.shutdownNow();
+        }
+    }
+
+    /**
+     * confirm next batch of the oldest waiting requests to the locked event
+     *
+     * @param eventId event ID
+     * @return number of promoted requests
+     */
+    private int promoteBatch(Long eventId) {
+        Event event = eventRepository.findForUpdateById(eventId).orElse(null);
+        if (event == null || !EventState.PUBLISHED.name().equals(event.getState())
+                || event.getParticipantLimit() == 0 || Boolean.TRUE.equals(event.getRequestModeration())) {
+            return 0;
+        }
+        int free = event.getParticipantLimit() - event.getConfirmedRequests();
+        if (free <= 0) {
+            return 0;
+        }
+        List<Long> requestIds = requestRepository.findWaitingIds(eventId,
+                PageRequest.of(0, Math.min(free, batchSize)));
+        if (requestIds.isEmpty()) {
+            return 0;
+        }
+        int promoted = requestRepository.updatePendingStatus(eventId, requestIds, RequestStatus.CONFIRMED);
+        if (eventRepository.increaseConfirmedRequests(eventId, promoted) == 0) {
+            throw new IllegalStateException(String.format(
+                    "Number of confirmed requests of the locked event %s has been changed", eventId));
+        }
+        requestCounters.resolve(eventId, promoted, 0);
+        eventPublisher.publishEvent(EventModification.of(event));
+        meterRegistry.counter("ewm.waitlist.promoted").increment(promoted);
+        return promoted;
+    }
+
+    private boolean isFull(Integer limit, Integer confirmed) {
+        return limit != 0 && confirmed >= limit;
+    }
+}
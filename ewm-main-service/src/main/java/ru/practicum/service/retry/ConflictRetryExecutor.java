@@ -0,0 +1,98 @@
+package ru.practicum.service.retry;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.utils.errors.exceptions.NotAllowedException;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+import static ru.practicum.utils.errors.ErrorConstants.CONCURRENT_MODIFICATION;
+
+/**
+ * CONFLICT RETRY EXECUTOR
+ * executes service operation in a new transaction and repeats it with exponential backoff,
+ * if the transaction fails because a versioned entity has been modified concurrently.
+ * Metrics:
+ * ewm.operations{operation}. Number of executed operations
+ * ewm.operations.conflicts{operation, outcome}. Number of conflicts: retried, recovered (the operation succeeded
+ * after retries) and exhausted (the operation failed with 409 after the last attempt)
+ */
+@Component
+@Slf4j
+public class ConflictRetryExecutor {
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final int maxAttempts;
+    private final long backoffMillis;
+    private final long maxBackoffMillis;
+
+    public ConflictRetryExecutor(TransactionTemplate transactionTemplate,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${ewm.retry.max-attempts:3}") int maxAttempts,
+                                 @Value("${ewm.retry.backoff-millis:10}") long backoffMillis,
+                                 @Value("${ewm.retry.max-backoff-millis:200}") long maxBackoffMillis) {
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = maxAttempts;
+        this.backoffMillis = backoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+    }
+
+    /**
+     * execute operation in a new transaction, repeat it on conflicting concurrent modification
+     * throw exception if the conflict persists after the last attempt
+     *
+     * @param operation name of the operation for logs and metrics
+     * @param action    operation, must not have side effects outside the transaction
+     * @param <T>       type of the result
+     * @return result of the operation
+     */
+    public <T> T executeInTransaction(String operation, Supplier<T> action) {
+        meterRegistry.counter("ewm.operations", "operation", operation).increment();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                T result = transactionTemplate.execute(status -> action.get());
+                if (attempt > 1) {
+                    getConflicts(operation, "recovered").increment();
+                    log.info("Operation {} succeeded after {} attempts", operation, attempt);
+                }
+                return result;
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    getConflicts(operation, "exhausted").increment();
+                    log.warn("Operation {} failed after {} attempts: {}", operation, attempt, e.getMessage());
+                    throw new NotAllowedException(CONCURRENT_MODIFICATION);
+                }
+                getConflicts(operation, "retried").increment();
+                log.info("Operation {} conflicted with concurrent modification, attempt {}: {}",
+                        operation, attempt, e.getMessage());
+                backOff(attempt);
+            }
+        }
+    }
+
+    /**
+     * sleep for random time up to exponentially growing limit, so that conflicting operations do not collide again
+     *
+     * @param attempt number of the failed attempt
+     */
+    private void backOff(int attempt) {
+        long limit = Math.min(maxBackoffMillis, backoffMillis << Math.min(attempt - 1, 20));
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(limit + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to retry the operation", e);
+        }
+    }
+
+    private Counter getConflicts(String operation, String outcome) {
+        return meterRegistry.counter("ewm.operations.conflicts", "operation", operation, "outcome", outcome);
+    }
+}
@@ -0,0 +1,150 @@
+package ru.practicum.service.statistics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.dto.EndpointHit;
+import ru.practicum.threads.Threads;
+import ru.practicum.tracing.Span;
+import ru.practicum.tracing.SpanKind;
+import ru.practicum.tracing.TraceContext;
+import ru.practicum.tracing.Tracer;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HIT DISPATCHER
+ * send hits to stats-server from worker threads, so that requests of clients never wait for stats-server.
+ * Hits are put into the bounded queue, and dropped if the queue is full.
+ * A hit is sent in the trace of the request, which made it.
+ * Metrics:
+ * ewm.stats.hits{outcome=sent|failed|dropped} - hits by outcome,
+ * ewm.stats.hits.queued - hits waiting in the queue
+ */
+@Component
+@Slf4j
+public class HitDispatcher {
+    private static final long STOP_TIMEOUT_SECONDS = 5;
+
+    private final StatisticsService statisticsService;
+    private final Tracer tracer;
+    private final BlockingQueue<PendingHit> queue;
+    private final ExecutorService workers;
+    private final Counter sent;
+    private final Counter failed;
+    private final Counter dropped;
+    private volatile boolean stopped;
+
+    public HitDispatcher(StatisticsService statisticsService,
+                         Tracer tracer,
+                         MeterRegistry meterRegistry,
+                         Threads threads,
+                         @Value("${ewm.stats.dispatcher.threads:2}") int workers,
+                         @Value("${ewm.stats.dispatcher.capacity:10000}") int capacity) {
+        this.statisticsService = statisticsService;
+        this.tracer = tracer;
+        this.queue = new LinkedBlockingQueue<>(capacity);
+        this.sent = hits(meterRegistry, "sent");
+        this.failed = hits(meterRegistry, "failed");
+        this.dropped = hits(meterRegistry, "dropped");
+        Gauge.builder("ewm.stats.hits.queued", queue, BlockingQueue::size)
+                .description("hits waiting to be sent to stats-server")
+                .register(meterRegistry);
+        this.workers = Executors.newFixedThreadPool(workers, threads.newThreadFactory("stats-dispatcher-"));
+        for (int i = 0; i < workers; i++) {
+            this.workers.execute(this::work);
+        }
+    }
+
+    /**
+     * put the hit into the queue, the calling thread never waits
+     *
+     * @param hit hit to send
+     * @return false if the hit is dropped
+     */
+    public boolean dispatch(EndpointHit hit) {
+        TraceContext context = tracer.current().map(Span::getContext).orElse(null);
+        if (stopped || !queue.offer(new PendingHit(hit, context))) {
+            dropped.increment();
+            log.warn("Hit to {} is dropped, queue of hits is full", hit.getUri());
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * stop taking new hits, send hits left in the queue and stop workers
+     */
+    @PreDestroy
+    public void stop() {
+        stopped = true;
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(STOP_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                log.warn("{} hits are not sent to stats-server", queue.size());
+                workers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * take hits from the queue and send them until the dispatcher is stopped and the queue is empty
+     */
+    private void work() {
+        while (!stopped || !queue.isEmpty()) {
+            PendingHit pending;
+            try {
+                pending = queue.poll(100, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (pending != null) {
+                send(pending);
+            }
+        }
+    }
+
+    private void send(PendingHit pending) {
+        try (Span span = tracer.start("HitDispatcher.send", SpanKind.INTERNAL, pending.context)) {
+            span.tag("uri", pending.hit.getUri());
+            try {
+                statisticsService.saveStats(pending.hit);
+                sent.increment();
+            } catch (RuntimeException e) {
+                span.error(e);
+                failed.increment();
+                log.warn("Hit to {} is not sent to stats-server: {}", pending.hit.getUri(), e.getMessage());
+            }
+        }
+    }
+
+    private static Counter hits(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("ewm.stats.hits").description("hits sent to stats-server")
+                .tag("outcome", outcome).register(meterRegistry);
+    }
+
+    /**
+     * hit with the trace of the request, which made it
+     */
+    private static class PendingHit {
+        private final EndpointHit hit;
+        private final TraceContext context;
+
+        private PendingHit(EndpointHit hit, TraceContext context) {
+            this.hit = hit;
+            this.context = context;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package ru.practicum.service.statistics;
+
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import ru.practicum.dto.EndpointHit;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static ru.practicum.utils.formatter.DateTimeFormatter.DATE_TIME_FORMATTER;
+
+/**
+ * HIT RECORDING FILTER
+ * record hits of GET requests to endpoints tracked by URI pattern (ewm.stats.tracking.uris),
+ * after the response is committed, and hand them to the dispatcher, which sends them to stats-server.
+ * Only successful and not modified responses are hits; the time of a hit is the time the request was received.
+ *
+ * @see StatisticsConfiguration#hitRecordingFilter
+ */
+public class HitRecordingFilter extends OncePerRequestFilter {
+    private final HitDispatcher dispatcher;
+    private final String appName;
+    private final List<String> uris;
+    private final PathMatcher pathMatcher = new AntPathMatcher();
+
+    public HitRecordingFilter(HitDispatcher dispatcher, String appName, List<String> uris) {
+        this.dispatcher = dispatcher;
+        this.appName = appName;
+        this.uris = uris;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!"GET".equals(request.getMethod())) {
+            return true;
+        }
+        String uri = request.getRequestURI();
+        return uris.stream().noneMatch(pattern -> pathMatcher.match(pattern, uri));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        EndpointHit hit = EndpointHit.builder()
+                .app(appName)
+                .ip(request.getRemoteAddr())
+                .uri(request.getRequestURI())
+                .timestamp(LocalDateTime.now().format(DATE_TIME_FORMATTER))
+                .build();
+        chain.doFilter(request, response);
+
+        if (request.isAsyncStarted()) {
+            request.getAsyncContext().addListener(new AsyncListener() {
+                @Override
+                public void onComplete(AsyncEvent event) {
+                    record(hit, response);
+                }
+
+                @Override
+                public void onTimeout(AsyncEvent event) {
+                }
+
+                @Override
+                public void onError(AsyncEvent event) {
+                }
+
+                @Override
+                public void onStartAsync(AsyncEvent event) {
+                }
+            });
+            return;
+        }
+        if (response.getStatus() < HttpServletResponse.SC_BAD_REQUEST) {
+            response.flushBuffer();
+        }
+        record(hit, response);
+    }
+
+    private void record(EndpointHit hit, HttpServletResponse response) {
+        if (response.getStatus() < HttpServletResponse.SC_BAD_REQUEST) {
+            dispatcher.dispatch(hit);
+        }
+    }
+}
@@ -3,15 +3,14 @@ package ru.practicum.service.statistics;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpServerErrorException;
 import ru.practicum.client.StatsClient;
 import ru.practicum.dto.EndpointHit;
 import ru.practicum.dto.ViewStats;
+import ru.practicum.tracing.Tracer;
 
-import javax.servlet.http.HttpServletRequest;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
@@ -29,23 +28,16 @@ import static ru.practicum.utils.formatter.DateTimeFormatter.DATE_TIME_FORMATTER
 @Slf4j
 public class StatisticServiceImpl implements StatisticsService {
     private final StatsClient statsClient;
-    @Value(value = "${app.name}")
-    private String appName;
+    private final Tracer tracer;
 
     /**
-     * save request for statistics
+     * save hit for statistics
      *
-     * @param request request data
+     * @param hit request data
      */
     @Override
-    public void saveStats(HttpServletRequest request) {
-        statsClient.saveRequestData(EndpointHit.builder()
-                .app(appName)
-                .ip(request.getRemoteAddr())
-                .uri(request.getRequestURI())
-                .timestamp(LocalDateTime.now().format(DATE_TIME_FORMATTER))
-                .build());
-
+    public void saveStats(EndpointHit hit) {
+        tracer.inSpan("StatisticsService.saveStats", () -> statsClient.saveRequestData(hit));
     }
 
     /**
@@ -58,7 +50,18 @@ public class StatisticServiceImpl implements StatisticsService {
      */
     @Override
     public Map<Long, Long> getStats(LocalDateTime start, LocalDateTime end, List<String> uris) {
+        return tracer.inSpan("StatisticsService.getStats", () -> findStats(start, end, uris));
+    }
 
+    /**
+     * get statistics from stats-server
+     *
+     * @param start start of required time period
+     * @param end   end of required time period
+     * @param uris  list of uris to get data
+     * @return map with number of unique views for event
+     */
+    private Map<Long, Long> findStats(LocalDateTime start, LocalDateTime end, List<String> uris) {
         ObjectMapper mapper = new ObjectMapper();
         List<ViewStats> stats;
         List<?> list;
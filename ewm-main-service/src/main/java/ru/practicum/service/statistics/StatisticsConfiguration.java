@@ -0,0 +1,28 @@
+package ru.practicum.service.statistics;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * STATISTICS CONFIGURATION
+ * hits of endpoints are recorded by the filter, unless ewm.stats.tracking.enabled=false.
+ * Tracked endpoints are configured by URI patterns:
+ * ewm.stats.tracking.uris=/events,/events/{eventId}
+ */
+@Configuration
+public class StatisticsConfiguration {
+
+    @Bean
+    @ConditionalOnProperty(name = "ewm.stats.tracking.enabled", havingValue = "true", matchIfMissing = true)
+    public FilterRegistrationBean<HitRecordingFilter> hitRecordingFilter(
+            HitDispatcher dispatcher,
+            @Value("${app.name}") String appName,
+            @Value("${ewm.stats.tracking.uris:/events,/events/{eventId}}") List<String> uris) {
+        return new FilterRegistrationBean<>(new HitRecordingFilter(dispatcher, appName, uris));
+    }
+}
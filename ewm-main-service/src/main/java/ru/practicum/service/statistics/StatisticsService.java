@@ -2,7 +2,8 @@ package ru.practicum.service.statistics;
 
 import org.springframework.stereotype.Component;
 
-import javax.servlet.http.HttpServletRequest;
+import ru.practicum.dto.EndpointHit;
+
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
@@ -11,11 +12,11 @@ import java.util.Map;
 public interface StatisticsService {
 
     /**
-     * save request for statistics
+     * save hit for statistics
      *
-     * @param request request data
+     * @param hit request data
      */
-    void saveStats(HttpServletRequest request);
+    void saveStats(EndpointHit hit);
 
     /**
      * get statistics
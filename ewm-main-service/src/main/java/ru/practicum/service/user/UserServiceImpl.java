@@ -2,17 +2,19 @@ package ru.practicum.service.user;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.dto.user.NewUserRequest;
 import ru.practicum.dto.user.UserDto;
 import ru.practicum.entity.User;
+import ru.practicum.logging.PayloadLogger;
 import ru.practicum.repository.UserRepository;
+import ru.practicum.service.cache.UserModification;
 import ru.practicum.utils.errors.ErrorConstants;
 import ru.practicum.utils.errors.exceptions.ConflictConstraintUniqueException;
 import ru.practicum.utils.errors.exceptions.NotFoundException;
-import ru.practicum.utils.logger.ListLogger;
 import ru.practicum.utils.mapper.UserMapper;
 import ru.practicum.utils.paging.Paging;
 
@@ -29,6 +31,7 @@ import static ru.practicum.utils.errors.ErrorConstants.USER_NAME_UNIQUE_VIOLATIO
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Add new user
@@ -70,7 +73,7 @@ public class UserServiceImpl implements UserService {
         } else {
             users = userRepository.findAllByIdIn(ids, Paging.getPageable(from, size));
         }
-        ListLogger.logResultList(users);
+        PayloadLogger.logResults(log, users, User::getId);
         return UserMapper.toUserDtoList(users);
     }
 
@@ -85,6 +88,7 @@ public class UserServiceImpl implements UserService {
     public UserDto deleteUser(Long userId) {
         UserDto deletedUser = UserMapper.toUserDto(getUserOrThrowException(userId));
         userRepository.deleteById(userId);
+        eventPublisher.publishEvent(new UserModification(userId));
         log.info("Delete user with id: {}, user: {}", userId, deletedUser);
         return deletedUser;
     }
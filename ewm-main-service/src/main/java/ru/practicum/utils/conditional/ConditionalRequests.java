@@ -0,0 +1,72 @@
+package ru.practicum.utils.conditional;
+
+import lombok.experimental.UtilityClass;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.WebRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneId;
+import java.util.Arrays;
+
+/**
+ * CONDITIONAL REQUESTS
+ * check If-None-Match / If-Modified-Since headers and set ETag / Last-Modified headers of the response
+ */
+@UtilityClass
+@Slf4j
+public class ConditionalRequests {
+
+    /**
+     * check if request has conditional headers, so that the content may not have to be sent
+     *
+     * @param webRequest current request
+     * @return true if If-None-Match or If-Modified-Since header is present
+     */
+    public boolean hasPreconditions(WebRequest webRequest) {
+        return webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                || webRequest.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null;
+    }
+
+    /**
+     * check if content of the given version has not been modified since the client received it
+     * if so, response status is set to 304
+     *
+     * @param webRequest current request
+     * @param version    content version
+     * @param parameters request parameters the content depends on
+     * @return true if the content has not been modified and the body must not be sent
+     */
+    public boolean isNotModified(WebRequest webRequest, ContentVersion version, Object... parameters) {
+        String etag = getETag(version.getCount(), version.getLastModified(), Arrays.deepToString(parameters));
+        boolean notModified = version.getLastModified() == null
+                ? webRequest.checkNotModified(etag)
+                : webRequest.checkNotModified(etag, version.getLastModified()
+                .atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        log.debug("Content {} with parameters {} is {}", version, parameters, notModified ? "not modified" : "modified");
+        return notModified;
+    }
+
+    /**
+     * check if content has not been modified since the client received it
+     * if so, response status is set to 304
+     *
+     * @param webRequest current request
+     * @param content    content, its string representation is used to create ETag
+     * @return true if the content has not been modified and the body must not be sent
+     */
+    public boolean isContentNotModified(WebRequest webRequest, Object content) {
+        return webRequest.checkNotModified(getETag(content));
+    }
+
+    /**
+     * create strong ETag
+     *
+     * @param parts values the content depends on
+     * @return ETag
+     */
+    private String getETag(Object... parts) {
+        return DigestUtils.md5DigestAsHex(Arrays.deepToString(parts).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,51 @@
+package ru.practicum.utils.conditional;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * CONTENT VERSION
+ * version of the content, which is read from repository instead of the content itself
+ * Long count. Number of rows the content consists of
+ * LocalDateTime lastModified. Date and time of the latest modification of these rows
+ */
+@Getter
+@ToString
+public class ContentVersion {
+    private final Long count;
+    private final LocalDateTime lastModified;
+
+    public ContentVersion(Long count, LocalDateTime lastModified) {
+        this.count = count;
+        this.lastModified = lastModified;
+    }
+
+    /**
+     * create version of the content consisting of rows of several tables
+     *
+     * @param count         number of rows
+     * @param lastModified  latest modification time in the first table
+     * @param lastModified2 latest modification time in the second table
+     * @param lastModified3 latest modification time in the third table
+     */
+    public ContentVersion(Long count, LocalDateTime lastModified, LocalDateTime lastModified2,
+                          LocalDateTime lastModified3) {
+        this(count, Stream.of(lastModified, lastModified2, lastModified3)
+                .filter(Objects::nonNull)
+                .max(LocalDateTime::compareTo)
+                .orElse(null));
+    }
+
+    /**
+     * check if content exists
+     *
+     * @return true if content consists of at least one row
+     */
+    public boolean exists() {
+        return count != null && count > 0;
+    }
+}
@@ -13,7 +13,9 @@ public class Constants {
     public static final String CATEGORIES_PATH = "/categories";
     public static final String COMPILATIONS_PATH = "/compilations";
     public static final String EVENTS_PATH = "/events";
+    public static final String PAGE_PATH = "/page";
     public static final String REQUESTS_PATH = "/requests";
+    public static final String STREAM_PATH = "/stream";
     public static final String USERS_PATH = "/users";
 
     /**
@@ -30,6 +32,7 @@ public class Constants {
      * Parameters' names and default values constants
      */
 
+    public static final String AFTER_PARAMETER_NAME = "after";
     public static final String CATEGORIES_PARAMETER_NAME = "categories";
     public static final String FROM_PARAMETER_NAME = "from";
     public static final String EVENT_ID_PARAMETER_NAME = "eventId";
@@ -48,6 +51,12 @@ public class Constants {
     public static final String TEN_DEFAULT_VALUE = "10";
     public static final String FALSE_DEFAULT_VALUE = "false";
 
+    /**
+     * Keyset paging constants
+     */
+    public static final String HUNDRED_DEFAULT_VALUE = "100";
+    public static final int MAX_PAGE_SIZE = 1000;
+
     /**
      * Time format constants
      */
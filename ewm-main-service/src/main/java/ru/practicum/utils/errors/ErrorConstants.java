@@ -31,6 +31,7 @@ public class ErrorConstants {
 
     public static final String REPEATED_REQUEST = "Only one request from the user is allowed";
     public static final String NOT_PENDING = "List of requests to update contains not pending requests";
+    public static final String CONCURRENT_MODIFICATION = "The object has been modified concurrently, try again";
 
 
     /**
@@ -22,6 +22,16 @@ public class CategoryMapper {
                 .build();
     }
 
+    /**
+     * map CategoryDto into Category entity, used as reference to the existing category
+     */
+    public static Category toCategoryEntity(CategoryDto dto) {
+        return Category.builder()
+                .id(dto.getId())
+                .name(dto.getName())
+                .build();
+    }
+
     /**
      * map Category entity into CategoryDto
      */
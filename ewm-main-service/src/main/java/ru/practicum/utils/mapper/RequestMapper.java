@@ -2,6 +2,9 @@ package ru.practicum.utils.mapper;
 
 import lombok.experimental.UtilityClass;
 import ru.practicum.dto.request.ParticipationRequestDto;
+import ru.practicum.dto.request.ParticipationRequestPage;
+import ru.practicum.dto.request.RequestCountsDto;
+import ru.practicum.entity.EventRequestCounters;
 import ru.practicum.entity.Request;
 
 import java.util.List;
@@ -37,4 +40,32 @@ public class RequestMapper {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * map requests read by keyset query into ParticipationRequestPage,
+     * the element read after the page only tells that there is a next page
+     */
+    public static ParticipationRequestPage toParticipationRequestPage(List<ParticipationRequestDto> requests,
+                                                                      Integer size) {
+        if (requests.size() <= size) {
+            return new ParticipationRequestPage(requests, null);
+        }
+        List<ParticipationRequestDto> page = requests.subList(0, size);
+        return new ParticipationRequestPage(page, page.get(size - 1).getId());
+    }
+
+    /**
+     * map EventRequestCounters entity to RequestCountsDto, null if the counters have not been created
+     */
+    public static RequestCountsDto toRequestCountsDto(EventRequestCounters counters) {
+        if (counters == null) {
+            return null;
+        }
+        return new RequestCountsDto(
+                counters.getPending(),
+                counters.getConfirmed(),
+                counters.getRejected(),
+                counters.getCanceled()
+        );
+    }
+
 }
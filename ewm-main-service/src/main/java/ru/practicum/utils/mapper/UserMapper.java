@@ -25,6 +25,16 @@ public class UserMapper {
                 .build();
     }
 
+    /**
+     * map UserShortDto into User entity, used as reference to the existing user
+     */
+    public static User toUserEntity(UserShortDto user) {
+        return User.builder()
+                .id(user.getId())
+                .name(user.getName())
+                .build();
+    }
+
     /**
      * map User entity into UserDto
      */
@@ -0,0 +1,50 @@
+package ru.practicum.utils.paging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.experimental.UtilityClass;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.dto.request.ParticipationRequestDto;
+import ru.practicum.dto.request.ParticipationRequestPage;
+
+import java.util.function.Function;
+
+/**
+ * stream pages of participation requests as newline delimited JSON
+ */
+@UtilityClass
+public class NdjsonPages {
+
+    /**
+     * construct response, which writes requests page by page, one JSON object per line
+     * the first page is read before the response is started, so that errors are answered with their status codes,
+     * next pages are read while the response is written, each by its own query, only one page is held in memory
+     *
+     * @param objectMapper JSON mapper
+     * @param first        first page of requests
+     * @param nextPage     function to get the page after the given request ID
+     * @return streaming response
+     */
+    public static ResponseEntity<StreamingResponseBody> stream(ObjectMapper objectMapper,
+                                                               ParticipationRequestPage first,
+                                                               Function<Long, ParticipationRequestPage> nextPage) {
+        ObjectWriter writer = objectMapper.writerFor(ParticipationRequestDto.class);
+        StreamingResponseBody body = outputStream -> {
+            ParticipationRequestPage page = first;
+            while (true) {
+                for (ParticipationRequestDto request : page.getRequests()) {
+                    outputStream.write(writer.writeValueAsBytes(request));
+                    outputStream.write('\n');
+                }
+                outputStream.flush();
+                if (page.getNext() == null) {
+                    return;
+                }
+                page = nextPage.apply(page.getNext());
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+}
@@ -18,6 +18,13 @@ public class Paging {
         return PageRequest.of(page, size);
     }
 
+    /**
+     * construct Pageable for keyset query, which reads one element more to find out whether there is a next page
+     */
+    public static Pageable getKeysetPageable(Integer size) {
+        return PageRequest.of(0, size + 1);
+    }
+
     /**
      * construct Pageable with sort
      */
@@ -0,0 +1,116 @@
+package ru.practicum.utils.predicate;
+
+import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.types.Predicate;
+import lombok.experimental.UtilityClass;
+import ru.practicum.entity.QEvent;
+import ru.practicum.enums.EventState;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Build EVENT search predicates
+ * only the filters actually supplied are added to the WHERE clause,
+ * so every filter combination gets its own query shape and can use a matching index
+ */
+@UtilityClass
+public class EventPredicateBuilder {
+
+    private static final QEvent EVENT = QEvent.event;
+
+    /**
+     * build predicate to search events for admin
+     *
+     * @param users      list of user ids whose events need to be found
+     * @param states     list of states in which the desired events are located
+     * @param categories list of id categories in which the search will be conducted
+     * @param start      start of time interval to search
+     * @param end        end of time interval to search
+     * @return predicate with supplied filters only
+     */
+    public static Predicate forAdmin(List<Long> users, List<String> states, List<Long> categories,
+                                     LocalDateTime start, LocalDateTime end) {
+        BooleanBuilder where = new BooleanBuilder();
+        if (isSupplied(users)) {
+            where.and(EVENT.initiator.id.in(users));
+        }
+        if (isSupplied(states)) {
+            where.and(EVENT.state.in(states));
+        }
+        if (isSupplied(categories)) {
+            where.and(EVENT.category.id.in(categories));
+        }
+        return where.and(inRange(start, end));
+    }
+
+    /**
+     * build predicate to search events added by user
+     *
+     * @param userId initiator id
+     * @return predicate
+     */
+    public static Predicate forInitiator(Long userId) {
+        return EVENT.initiator.id.eq(userId);
+    }
+
+    /**
+     * build predicate to search published events for public access
+     *
+     * @param text          text to search in the content of the annotation and detailed description of the event
+     * @param categories    list of category identifiers in which the search will be conducted
+     * @param paid          search only for paid/free events
+     * @param start         date and time no earlier than which the event should occur
+     * @param end           date and time no later than which the event must occur
+     * @param onlyAvailable only events that have not reached the limit of participation requests
+     * @return predicate with supplied filters only
+     */
+    public static Predicate forPublic(String text, List<Long> categories, Boolean paid,
+                                      LocalDateTime start, LocalDateTime end, Boolean onlyAvailable) {
+        BooleanBuilder where = new BooleanBuilder(EVENT.state.eq(EventState.PUBLISHED.name()));
+        where.and(inRange(start, end));
+        if (isSupplied(categories)) {
+            where.and(EVENT.category.id.in(categories));
+        }
+        if (paid != null) {
+            where.and(EVENT.paid.eq(paid));
+        }
+        if (text != null && !text.isBlank()) {
+            where.and(EVENT.annotation.containsIgnoreCase(text)
+                    .or(EVENT.description.containsIgnoreCase(text)));
+        }
+        if (Boolean.TRUE.equals(onlyAvailable)) {
+            where.and(EVENT.participantLimit.eq(0)
+                    .or(EVENT.confirmedRequests.lt(EVENT.participantLimit)));
+        }
+        return where;
+    }
+
+    /**
+     * build event date range predicate, open bounds are skipped
+     *
+     * @param start start of time interval
+     * @param end   end of time interval
+     * @return range predicate
+     */
+    private static Predicate inRange(LocalDateTime start, LocalDateTime end) {
+        BooleanBuilder range = new BooleanBuilder();
+        if (start != null) {
+            range.and(EVENT.eventDate.goe(start));
+        }
+        if (end != null) {
+            range.and(EVENT.eventDate.loe(end));
+        }
+        return range;
+    }
+
+    /**
+     * check if list filter is supplied
+     *
+     * @param values list of values
+     * @return true if list is not null and not empty
+     */
+    private static boolean isSupplied(List<?> values) {
+        return values != null && !values.isEmpty();
+    }
+}
@@ -12,10 +12,14 @@ CREATE TABLE IF NOT EXISTS users (
 CREATE TABLE IF NOT EXISTS categories (
     category_id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
     category_name VARCHAR(255)                       NOT NULL,
+    updated_on TIMESTAMP,
     CONSTRAINT uq_name UNIQUE (category_name),
     CONSTRAINT pk_categories PRIMARY KEY (category_id)
 );
 
+-- columns added to the existing table
+ALTER TABLE categories ADD COLUMN IF NOT EXISTS updated_on TIMESTAMP;
+
 --creation locations table
 CREATE TABLE IF NOT EXISTS locations
 (
@@ -47,9 +51,20 @@ CREATE TABLE IF NOT EXISTS events
     title              VARCHAR(120)                            NOT NULL,
     state              VARCHAR(30),
     views              INT,
+    updated_on         TIMESTAMP,
+    version            BIGINT DEFAULT 0                        NOT NULL,
     CONSTRAINT pk_events PRIMARY KEY (event_id)
 );
 
+-- columns added to the existing table
+ALTER TABLE events ADD COLUMN IF NOT EXISTS updated_on TIMESTAMP;
+ALTER TABLE events ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
+
+-- indexes for events search
+CREATE INDEX IF NOT EXISTS idx_events_state_event_date ON events (state, event_date);
+CREATE INDEX IF NOT EXISTS idx_events_category_event_date ON events (category_id, event_date);
+CREATE INDEX IF NOT EXISTS idx_events_initiator ON events (initiator_id);
+
 CREATE TABLE IF NOT EXISTS participation_requests
 (
     request_id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
@@ -59,8 +74,34 @@ CREATE TABLE IF NOT EXISTS participation_requests
         REFERENCES events (event_id) ON DELETE CASCADE,
     requester_id BIGINT                                  NOT NULL
         REFERENCES users (user_id) ON DELETE CASCADE,
+    version    BIGINT DEFAULT 0                        NOT NULL,
     CONSTRAINT pk_requests PRIMARY KEY (request_id)
+);
+
+-- columns added to the existing table
+ALTER TABLE participation_requests ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
 
+-- a user requests to participate in an event only once
+-- an existing table with repeated requests is migrated once by migrations/remove-repeated-requests.sql beforehand
+CREATE UNIQUE INDEX IF NOT EXISTS uq_requests_requester_event ON participation_requests (requester_id, event_id);
+
+-- indexes for requests lookups
+-- requests by requester are found by the index of uq_requests_requester_event, which starts with requester_id
+-- pending requests of the event are also found in the order of ID, which is the order of the waitlist
+CREATE INDEX IF NOT EXISTS idx_requests_event_status ON participation_requests (event_id, status, request_id);
+-- pages of requests to the event are read in the order of ID
+CREATE INDEX IF NOT EXISTS idx_requests_event_id ON participation_requests (event_id, request_id);
+
+
+CREATE TABLE IF NOT EXISTS event_request_counters
+(
+    event_id  BIGINT        NOT NULL
+        REFERENCES events (event_id) ON DELETE CASCADE,
+    pending   INT DEFAULT 0 NOT NULL,
+    confirmed INT DEFAULT 0 NOT NULL,
+    rejected  INT DEFAULT 0 NOT NULL,
+    canceled  INT DEFAULT 0 NOT NULL,
+    CONSTRAINT pk_event_request_counters PRIMARY KEY (event_id)
 );
 
 
@@ -68,9 +109,13 @@ CREATE TABLE IF NOT EXISTS compilations (
     compilation_id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
     title          VARCHAR(50)                            NOT NULL,
     pinned         BOOLEAN,
+    updated_on     TIMESTAMP,
     CONSTRAINT pk_compilations PRIMARY KEY (compilation_id)
 );
 
+-- columns added to the existing table
+ALTER TABLE compilations ADD COLUMN IF NOT EXISTS updated_on TIMESTAMP;
+
 CREATE TABLE IF NOT EXISTS compilations_events (
     event_id        BIGINT                                  NOT NULL
         REFERENCES events (event_id) ON DELETE CASCADE,
@@ -78,3 +123,17 @@ CREATE TABLE IF NOT EXISTS compilations_events (
         REFERENCES compilations (compilation_id) ON DELETE CASCADE,
     CONSTRAINT pk_compilations_events PRIMARY KEY (compilation_id, event_id)
 );
+
+CREATE INDEX IF NOT EXISTS idx_compilations_events_event ON compilations_events (event_id);
+
+CREATE TABLE IF NOT EXISTS compilation_snapshots (
+    compilation_id INT                                    NOT NULL
+        REFERENCES compilations (compilation_id) ON DELETE CASCADE,
+    title          VARCHAR(50)                            NOT NULL,
+    pinned         BOOLEAN,
+    events         TEXT                                   NOT NULL,
+    updated_on     TIMESTAMP,
+    CONSTRAINT pk_compilation_snapshots PRIMARY KEY (compilation_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_compilation_snapshots_pinned ON compilation_snapshots (pinned, compilation_id);
@@ -0,0 +1,149 @@
+package ru.practicum.controllers;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.controllers.priv.RequestPrivateController;
+import ru.practicum.entity.Category;
+import ru.practicum.entity.Location;
+import ru.practicum.entity.Request;
+import ru.practicum.entity.User;
+import ru.practicum.enums.RequestStatus;
+import ru.practicum.repository.CategoryRepository;
+import ru.practicum.repository.EventRepository;
+import ru.practicum.repository.LocationRepository;
+import ru.practicum.repository.RequestRepository;
+import ru.practicum.repository.UserRepository;
+import ru.practicum.service.statistics.StatisticsService;
+import ru.practicum.utils.errors.exceptions.NotAllowedException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * PARTICIPATION REQUEST ADMISSION STRESS TEST
+ * concurrent requests to an event without request moderation must never exceed its participant limit
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:admission",
+        "spring.jpa.properties.hibernate.show_sql=false",
+        "logging.level.ru.practicum=warn",
+        "logging.level.ru.practicum.controllers.AdmissionStressTest=info",
+        "ewm.admission.queue.enabled=false"})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+@Slf4j
+public class AdmissionStressTest {
+    private static final int NUMBER_OF_REQUESTERS = 1000;
+    private static final int NUMBER_OF_THREADS = 32;
+    private static final int PARTICIPANT_LIMIT = 100;
+
+    @Autowired
+    RequestPrivateController requestPrivateController;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    CategoryRepository categoryRepository;
+    @Autowired
+    LocationRepository locationRepository;
+    @Autowired
+    EventRepository eventRepository;
+    @Autowired
+    RequestRepository requestRepository;
+    @MockBean
+    StatisticsService statisticsService;
+
+    Long eventId;
+    List<Long> requesterIds;
+
+    @BeforeEach
+    public void create() {
+        User initiator = userRepository.save(User.builder().name("initiator").email("initiator@yandex.ru").build());
+        requesterIds = userRepository.saveAll(IntStream.range(0, NUMBER_OF_REQUESTERS)
+                        .mapToObj(i -> User.builder().name("user " + i).email("user" + i + "@yandex.ru").build())
+                        .collect(Collectors.toList()))
+                .stream().map(User::getId).collect(Collectors.toList());
+        Category category = categoryRepository.save(Category.builder().name("concert").build());
+        Location location = locationRepository.save(Location.builder().lat(55.5f).lon(37.5f).build());
+        eventId = eventRepository.save(EventFixtures.publishedEvent(initiator, category, location)
+                .participantLimit(PARTICIPANT_LIMIT)
+                .requestModeration(false)
+                .build()).getId();
+    }
+
+    /**
+     * should confirm exactly as many requests as the participant limit allows and reject the rest with 409
+     */
+    @Test
+    public void shouldNotExceedParticipantLimitUnderConcurrentRequests() throws Exception {
+        AtomicInteger admitted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(NUMBER_OF_THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (Long requesterId : requesterIds) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    requestPrivateController.addParticipationRequest(requesterId, eventId);
+                    admitted.incrementAndGet();
+                } catch (NotAllowedException e) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        long startedAt = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(1, TimeUnit.MINUTES);
+        }
+        long elapsedMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+        executor.shutdown();
+        log.info("{} participation requests processed in {} ms ({} requests per second)",
+                NUMBER_OF_REQUESTERS, elapsedMillis, NUMBER_OF_REQUESTERS * 1000L / elapsedMillis);
+
+        List<Request> requests = requestRepository.findAllByEvent_Id(eventId);
+        assertThat(admitted.get()).isEqualTo(PARTICIPANT_LIMIT);
+        assertThat(rejected.get()).isEqualTo(NUMBER_OF_REQUESTERS - PARTICIPANT_LIMIT);
+        assertThat(requests).hasSize(PARTICIPANT_LIMIT)
+                .allMatch(request -> request.getStatus().equals(RequestStatus.CONFIRMED));
+        assertThat(eventRepository.findById(eventId).orElseThrow().getConfirmedRequests())
+                .isEqualTo(PARTICIPANT_LIMIT);
+    }
+
+    /**
+     * should admit a new request to the full event after a confirmed request has been canceled
+     */
+    @Test
+    public void shouldAdmitAfterConfirmedRequestIsCanceled() {
+        List<Long> requestIds = new ArrayList<>();
+        for (Long requesterId : requesterIds.subList(0, PARTICIPANT_LIMIT)) {
+            requestIds.add(requestPrivateController.addParticipationRequest(requesterId, eventId).getId());
+        }
+        Long nextRequesterId = requesterIds.get(PARTICIPANT_LIMIT);
+        assertThatThrownBy(() -> requestPrivateController.addParticipationRequest(nextRequesterId, eventId))
+                .isInstanceOf(NotAllowedException.class);
+
+        requestPrivateController.cancelParticipationRequest(requesterIds.get(0), requestIds.get(0));
+
+        assertThat(requestPrivateController.addParticipationRequest(nextRequesterId, eventId).getStatus())
+                .isEqualTo(RequestStatus.CONFIRMED);
+        assertThat(eventRepository.findById(eventId).orElseThrow().getConfirmedRequests())
+                .isEqualTo(PARTICIPANT_LIMIT);
+    }
+}
@@ -0,0 +1,17 @@
+package ru.practicum.controllers;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * PARTICIPATION REQUEST ADMISSION STRESS TEST WITHOUT IN-MEMORY PERMITS
+ * the conditional update of the event alone must not exceed its participant limit
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:admission-without-permits",
+        "spring.jpa.properties.hibernate.show_sql=false",
+        "logging.level.ru.practicum=warn",
+        "logging.level.ru.practicum.controllers.AdmissionStressTest=info",
+        "ewm.admission.permits.enabled=false",
+        "ewm.admission.queue.enabled=false"})
+public class AdmissionWithoutPermitsStressTest extends AdmissionStressTest {
+}
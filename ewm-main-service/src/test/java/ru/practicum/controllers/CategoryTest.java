@@ -6,6 +6,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.controllers.admin.CategoryAdminController;
 import ru.practicum.controllers.admin.UserAdminController;
 import ru.practicum.controllers.priv.EventPrivateController;
@@ -47,6 +50,8 @@ public class CategoryTest {
     @Autowired
     UserAdminController userAdminController;
 
+    WebRequest webRequest = new ServletWebRequest(new MockHttpServletRequest());
+
     NewCategoryDto newConcertDto;
     NewCategoryDto newExhibitionDto;
     NewCategoryDto noNameCategoryDto;
@@ -79,7 +84,7 @@ public class CategoryTest {
         Long catId = category.getId();
 
         //get object by id and check properties
-        CategoryDto categoryDto = categoryPublicController.getCategoryById(catId);
+        CategoryDto categoryDto = categoryPublicController.getCategoryById(catId, webRequest);
         assertThat(categoryDto).hasFieldOrPropertyWithValue("id", catId)
                 .hasFieldOrPropertyWithValue("name", nameConcert);
     }
@@ -121,7 +126,7 @@ public class CategoryTest {
         Long catId = category.getId();
 
         //get object by id and check properties
-        CategoryDto categoryDto = categoryPublicController.getCategoryById(catId);
+        CategoryDto categoryDto = categoryPublicController.getCategoryById(catId, webRequest);
         assertThat(categoryDto).hasFieldOrPropertyWithValue("id", catId)
                 .hasFieldOrPropertyWithValue("name", nameConcert);
 
@@ -183,14 +188,14 @@ public class CategoryTest {
         Long catId = category.getId();
 
         //get object by id and check properties
-        CategoryDto categoryDto = categoryPublicController.getCategoryById(catId);
+        CategoryDto categoryDto = categoryPublicController.getCategoryById(catId, webRequest);
         assertThat(categoryDto).hasFieldOrPropertyWithValue("id", catId)
                 .hasFieldOrPropertyWithValue("name", nameConcert);
 
         //delete object and check object does not exist
         categoryAdminController.deleteCategory(catId);
         assertThrows(NotFoundException.class,
-                () -> categoryPublicController.getCategoryById(catId),
+                () -> categoryPublicController.getCategoryById(catId, webRequest),
                 "NotFoundException was not thrown");
     }
 
@@ -260,7 +265,7 @@ public class CategoryTest {
         //get all objects and check properties
 
         List<CategoryDto> list = categoryPublicController
-                .getCategories(Integer.valueOf(ZERO_DEFAULT_VALUE), Integer.valueOf(TEN_DEFAULT_VALUE));
+                .getCategories(Integer.valueOf(ZERO_DEFAULT_VALUE), Integer.valueOf(TEN_DEFAULT_VALUE), webRequest);
         assertThat(list).asList().hasSize(2)
                 .hasOnlyElementsOfType(CategoryDto.class)
                 .startsWith(categoryConcert)
@@ -289,7 +294,7 @@ public class CategoryTest {
         Integer from = 1;
         Integer size = 1;
 
-        List<CategoryDto> list = categoryPublicController.getCategories(from, size);
+        List<CategoryDto> list = categoryPublicController.getCategories(from, size, webRequest);
         assertThat(list).asList().hasSize(1)
                 .hasOnlyElementsOfType(CategoryDto.class)
                 .doesNotContain(categoryConcert)
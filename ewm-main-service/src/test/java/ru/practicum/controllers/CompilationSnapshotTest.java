@@ -0,0 +1,160 @@
+package ru.practicum.controllers;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.dto.compilation.CompilationDto;
+import ru.practicum.dto.compilation.NewCompilationDto;
+import ru.practicum.dto.compilation.UpdateCompilationRequest;
+import ru.practicum.dto.event.EventShortDto;
+import ru.practicum.dto.event.UpdateEventUserRequest;
+import ru.practicum.entity.Category;
+import ru.practicum.entity.Event;
+import ru.practicum.entity.Location;
+import ru.practicum.entity.User;
+import ru.practicum.enums.EventState;
+import ru.practicum.repository.CategoryRepository;
+import ru.practicum.repository.CompilationSnapshotRepository;
+import ru.practicum.repository.EventRepository;
+import ru.practicum.repository.LocationRepository;
+import ru.practicum.repository.UserRepository;
+import ru.practicum.service.compilation.CompilationService;
+import ru.practicum.service.compilation.CompilationSnapshots;
+import ru.practicum.service.event.EventService;
+import ru.practicum.service.statistics.StatisticsService;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * COMPILATION SNAPSHOT TESTS
+ * public compilations must be served from snapshots, which follow changes of compilations and their events
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:compilation-snapshots",
+        "spring.jpa.properties.hibernate.show_sql=false",
+        "logging.level.ru.practicum=warn"})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class CompilationSnapshotTest {
+    private static final int NUMBER_OF_EVENTS = 3;
+
+    @Autowired
+    CompilationService compilationService;
+    @Autowired
+    CompilationSnapshots compilationSnapshots;
+    @Autowired
+    EventService eventService;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    CategoryRepository categoryRepository;
+    @Autowired
+    LocationRepository locationRepository;
+    @Autowired
+    EventRepository eventRepository;
+    @Autowired
+    CompilationSnapshotRepository snapshotRepository;
+    @MockBean
+    StatisticsService statisticsService;
+
+    Long initiatorId;
+    List<Long> eventIds;
+
+    @BeforeEach
+    public void create() {
+        User initiator = userRepository.save(User.builder().name("initiator").email("initiator@yandex.ru").build());
+        initiatorId = initiator.getId();
+        Category category = categoryRepository.save(Category.builder().name("concert").build());
+        eventIds = IntStream.range(0, NUMBER_OF_EVENTS)
+                .mapToObj(i -> eventRepository.save(Event.builder()
+                        .annotation("This is valid annotation " + i)
+                        .description("This is valid description " + i)
+                        .title("title " + i)
+                        .category(category)
+                        .initiator(initiator)
+                        .location(locationRepository.save(Location.builder().lat(55.5f + i).lon(37.5f + i).build()))
+                        .confirmedRequests(0)
+                        .participantLimit(0)
+                        .paid(false)
+                        .requestModeration(true)
+                        .createdOn(LocalDateTime.now())
+                        .eventDate(LocalDateTime.now().plusMonths(1).truncatedTo(ChronoUnit.SECONDS))
+                        .state(EventState.PENDING.name())
+                        .views(0L)
+                        .build()).getId())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * should page pinned compilations ordered by id
+     */
+    @Test
+    public void shouldPagePinnedCompilations() {
+        List<Integer> pinnedIds = IntStream.range(0, 5)
+                .mapToObj(i -> addCompilation("compilation " + i, i % 2 == 0).getId())
+                .filter(id -> compilationService.getCompilationById(id).getPinned())
+                .collect(Collectors.toList());
+
+        assertThat(compilationService.getCompilations(0, 2, true))
+                .extracting(CompilationDto::getId)
+                .containsExactlyElementsOf(pinnedIds.subList(0, 2));
+        assertThat(compilationService.getCompilations(2, 2, true))
+                .extracting(CompilationDto::getId)
+                .containsExactly(pinnedIds.get(2));
+        assertThat(compilationService.getCompilations(0, 10, false)).hasSize(2);
+        assertThat(compilationService.getCompilations(0, 10, null)).hasSize(5);
+    }
+
+    /**
+     * should rebuild snapshot when an event of the compilation or the compilation itself changes
+     */
+    @Test
+    public void shouldRebuildSnapshotWhenEventOrCompilationChanges() {
+        CompilationDto compilation = addCompilation("compilation", false);
+
+        eventService.updateEventByUser(initiatorId, eventIds.get(1),
+                UpdateEventUserRequest.builder().title("new title").build());
+
+        assertThat(compilationService.getCompilationById(compilation.getId()).getEvents())
+                .extracting(EventShortDto::getTitle)
+                .containsExactlyInAnyOrder("title 0", "new title", "title 2");
+
+        compilationService.updateCompilation(compilation.getId(), UpdateCompilationRequest.builder()
+                .title("renamed").pinned(true).events(List.of(eventIds.get(0))).build());
+
+        CompilationDto updated = compilationService.getCompilations(0, 10, true).get(0);
+        assertThat(updated.getTitle()).isEqualTo("renamed");
+        assertThat(updated.getEvents()).extracting(EventShortDto::getId).containsExactly(eventIds.get(0));
+    }
+
+    /**
+     * should build snapshots of compilations without them and remove snapshot with its compilation
+     */
+    @Test
+    public void shouldBuildMissingSnapshotsAndRemoveThemWithCompilations() {
+        CompilationDto first = addCompilation("first", false);
+        CompilationDto second = addCompilation("second", true);
+        snapshotRepository.deleteAll();
+        assertThat(compilationService.getCompilations(0, 10, null)).isEmpty();
+
+        assertThat(compilationSnapshots.buildMissing()).isEqualTo(2);
+        assertThat(compilationService.getCompilations(0, 10, null)).containsExactly(first, second);
+        assertThat(compilationSnapshots.buildMissing()).isZero();
+
+        compilationService.deleteCompilation(first.getId());
+        assertThat(compilationService.getCompilations(0, 10, null)).containsExactly(second);
+    }
+
+    private CompilationDto addCompilation(String title, boolean pinned) {
+        return compilationService.addCompilation(NewCompilationDto.builder()
+                .title(title).pinned(pinned).events(eventIds).build());
+    }
+}
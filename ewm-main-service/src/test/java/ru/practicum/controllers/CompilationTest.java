@@ -6,6 +6,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.controllers.admin.CategoryAdminController;
 import ru.practicum.controllers.admin.CompilationAdminController;
 import ru.practicum.controllers.admin.UserAdminController;
@@ -48,6 +51,8 @@ public class CompilationTest {
     @Autowired
     CompilationPublicController compilationPublicController;
 
+    WebRequest webRequest = new ServletWebRequest(new MockHttpServletRequest());
+
     NewUserRequest requestUserAlex;
     NewUserRequest requestUserAnna;
     NewCategoryDto newConcertDto;
@@ -164,7 +169,7 @@ public class CompilationTest {
         Integer compilationId = compilationDto.getId();
 
         // get compilation
-        CompilationDto compilation = compilationPublicController.getCompilationById(compilationId);
+        CompilationDto compilation = compilationPublicController.getCompilationById(compilationId, webRequest);
 
         // check compilation
         assertThat(compilation).hasFieldOrPropertyWithValue("id", compilationId)
@@ -210,7 +215,7 @@ public class CompilationTest {
 
         // get compilation
         List<CompilationDto> compilations = compilationPublicController
-                .getCompilations(false, 0, 5);
+                .getCompilations(false, 0, 5, webRequest);
 
         // check compilation
         assertThat(compilations).asList().hasSize(2)
@@ -232,7 +237,7 @@ public class CompilationTest {
 
         // check throws and exception message
         Exception e = assertThrows(NotFoundException.class,
-                () -> compilationPublicController.getCompilationById(compilationId),
+                () -> compilationPublicController.getCompilationById(compilationId, webRequest),
                 "NotFoundException was not thrown");
 
         assertEquals(e.getMessage(), "Compilation with id=" + compilationId + " was not found");
@@ -272,7 +277,7 @@ public class CompilationTest {
         Integer compilationId = compilationDto.getId();
 
         // get compilation
-        CompilationDto compilation = compilationPublicController.getCompilationById(compilationId);
+        CompilationDto compilation = compilationPublicController.getCompilationById(compilationId, webRequest);
 
         // check compilation
         assertThat(compilation).hasFieldOrPropertyWithValue("id", compilationId)
@@ -312,7 +317,7 @@ public class CompilationTest {
         Integer compilationId = compilationDto.getId();
 
         // get compilation
-        CompilationDto compilation = compilationPublicController.getCompilationById(compilationId);
+        CompilationDto compilation = compilationPublicController.getCompilationById(compilationId, webRequest);
 
         // check compilation
         assertThat(compilation).hasFieldOrPropertyWithValue("id", compilationId)
@@ -325,7 +330,7 @@ public class CompilationTest {
 
         // check throws
         Exception e = assertThrows(NotFoundException.class,
-                () -> compilationPublicController.getCompilationById(compilationId),
+                () -> compilationPublicController.getCompilationById(compilationId, webRequest),
                 "NotFoundException was not thrown");
 
         assertEquals(e.getMessage(), "Compilation with id=" + compilationId + " was not found");
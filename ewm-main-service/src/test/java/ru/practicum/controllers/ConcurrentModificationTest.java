@@ -0,0 +1,191 @@
+package ru.practicum.controllers;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.dto.event.UpdateEventAdminRequest;
+import ru.practicum.dto.event.UpdateEventUserRequest;
+import ru.practicum.entity.Category;
+import ru.practicum.entity.Event;
+import ru.practicum.entity.Location;
+import ru.practicum.entity.User;
+import ru.practicum.enums.EventState;
+import ru.practicum.repository.CategoryRepository;
+import ru.practicum.repository.EventRepository;
+import ru.practicum.repository.LocationRepository;
+import ru.practicum.repository.UserRepository;
+import ru.practicum.service.event.EventService;
+import ru.practicum.service.retry.ConflictRetryExecutor;
+import ru.practicum.service.statistics.StatisticsService;
+import ru.practicum.utils.errors.exceptions.NotAllowedException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static ru.practicum.utils.errors.ErrorConstants.CONCURRENT_MODIFICATION;
+
+/**
+ * CONCURRENT MODIFICATION TESTS
+ * versioned events must not lose concurrent updates, conflicting operations are retried
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:concurrent-modification",
+        "spring.jpa.properties.hibernate.show_sql=false",
+        "logging.level.ru.practicum=warn",
+        "ewm.retry.max-attempts=50"})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class ConcurrentModificationTest {
+    private static final int NUMBER_OF_UPDATES = 25;
+
+    @Autowired
+    EventService eventService;
+    @Autowired
+    ConflictRetryExecutor conflictRetryExecutor;
+    @Autowired
+    MeterRegistry meterRegistry;
+    @Autowired
+    TransactionTemplate transactionTemplate;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    CategoryRepository categoryRepository;
+    @Autowired
+    LocationRepository locationRepository;
+    @Autowired
+    EventRepository eventRepository;
+    @MockBean
+    StatisticsService statisticsService;
+
+    Long initiatorId;
+    Long eventId;
+
+    @BeforeEach
+    public void create() {
+        User initiator = userRepository.save(User.builder().name("initiator").email("initiator@yandex.ru").build());
+        initiatorId = initiator.getId();
+        Category category = categoryRepository.save(Category.builder().name("concert").build());
+        Location location = locationRepository.save(Location.builder().lat(55.5f).lon(37.5f).build());
+        eventId = eventRepository.save(Event.builder()
+                .annotation("This is valid annotation")
+                .description("This is valid description")
+                .title("title")
+                .category(category)
+                .initiator(initiator)
+                .location(location)
+                .confirmedRequests(0)
+                .participantLimit(0)
+                .paid(false)
+                .requestModeration(true)
+                .createdOn(LocalDateTime.now())
+                .eventDate(LocalDateTime.now().plusMonths(1))
+                .state(EventState.PENDING.name())
+                .views(0L)
+                .build()).getId();
+    }
+
+    /**
+     * should reject saving a copy of the event loaded before the number of confirmed requests was increased
+     */
+    @Test
+    public void shouldRejectSavingStaleEvent() {
+        Event stale = eventRepository.findById(eventId).orElseThrow();
+        transactionTemplate.executeWithoutResult(status -> eventRepository.increaseConfirmedRequests(eventId, 1));
+
+        assertThatThrownBy(() -> eventRepository.save(stale.toBuilder().title("stale title").build()))
+                .isInstanceOf(ObjectOptimisticLockingFailureException.class);
+        assertThat(eventRepository.findById(eventId).orElseThrow())
+                .hasFieldOrPropertyWithValue("confirmedRequests", 1)
+                .hasFieldOrPropertyWithValue("title", "title");
+    }
+
+    /**
+     * should keep all concurrent updates of different fields of the event by user and admin
+     */
+    @Test
+    public void shouldNotLoseConcurrentUpdatesOfEvent() {
+        CountDownLatch start = new CountDownLatch(1);
+        List<CompletableFuture<Void>> updates = Stream.<IntConsumer>of(
+                        i -> eventService.updateEventByUser(initiatorId, eventId, UpdateEventUserRequest.builder()
+                                .annotation("Annotation updated by user " + i).build()),
+                        i -> eventService.updateEventByUser(initiatorId, eventId, UpdateEventUserRequest.builder()
+                                .title("Title updated by user " + i).build()),
+                        i -> eventService.updateEventByAdmin(eventId, UpdateEventAdminRequest.builder()
+                                .description("Description updated by admin " + i).build()))
+                .map(update -> CompletableFuture.runAsync(() -> {
+                    awaitQuietly(start);
+                    for (int i = 0; i < NUMBER_OF_UPDATES; i++) {
+                        update.accept(i);
+                    }
+                }))
+                .collect(Collectors.toList());
+        start.countDown();
+        CompletableFuture.allOf(updates.toArray(CompletableFuture[]::new)).orTimeout(1, TimeUnit.MINUTES).join();
+
+        int last = NUMBER_OF_UPDATES - 1;
+        assertThat(eventRepository.findById(eventId).orElseThrow())
+                .hasFieldOrPropertyWithValue("annotation", "Annotation updated by user " + last)
+                .hasFieldOrPropertyWithValue("title", "Title updated by user " + last)
+                .hasFieldOrPropertyWithValue("description", "Description updated by admin " + last);
+        assertThat(meterRegistry.find("ewm.operations.conflicts").tag("outcome", "exhausted").counter())
+                .isNull();
+    }
+
+    /**
+     * should repeat conflicting operation and count the conflict
+     */
+    @Test
+    public void shouldRetryConflictingOperation() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = conflictRetryExecutor.executeInTransaction("test", () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new ObjectOptimisticLockingFailureException(Event.class, eventId);
+            }
+            return "done";
+        });
+
+        assertThat(result).isEqualTo("done");
+        assertThat(meterRegistry.counter("ewm.operations", "operation", "test").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("ewm.operations.conflicts", "operation", "test", "outcome", "retried")
+                .count()).isEqualTo(2);
+        assertThat(meterRegistry.counter("ewm.operations.conflicts", "operation", "test", "outcome", "recovered")
+                .count()).isEqualTo(1);
+    }
+
+    /**
+     * should answer 409 when the conflict persists after the last attempt
+     */
+    @Test
+    public void shouldRejectOperationWhenConflictPersists() {
+        assertThatThrownBy(() -> conflictRetryExecutor.executeInTransaction("test", () -> {
+            throw new ObjectOptimisticLockingFailureException(Event.class, eventId);
+        }))
+                .isInstanceOf(NotAllowedException.class)
+                .hasMessage(CONCURRENT_MODIFICATION);
+        assertThat(meterRegistry.counter("ewm.operations.conflicts", "operation", "test", "outcome", "exhausted")
+                .count()).isEqualTo(1);
+    }
+
+    private void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
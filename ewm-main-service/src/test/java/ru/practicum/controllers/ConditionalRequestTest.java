@@ -0,0 +1,242 @@
+package ru.practicum.controllers;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.web.context.request.ServletWebRequest;
+import ru.practicum.controllers.admin.CategoryAdminController;
+import ru.practicum.controllers.admin.CompilationAdminController;
+import ru.practicum.controllers.pub.CategoryPublicController;
+import ru.practicum.controllers.pub.CompilationPublicController;
+import ru.practicum.controllers.pub.EventPublicController;
+import ru.practicum.dto.category.CategoryDto;
+import ru.practicum.dto.compilation.NewCompilationDto;
+import ru.practicum.entity.Category;
+import ru.practicum.entity.Event;
+import ru.practicum.entity.Location;
+import ru.practicum.entity.User;
+import ru.practicum.enums.EventState;
+import ru.practicum.repository.CategoryRepository;
+import ru.practicum.repository.EventRepository;
+import ru.practicum.repository.LocationRepository;
+import ru.practicum.repository.UserRepository;
+import ru.practicum.service.statistics.StatisticsService;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static ru.practicum.utils.constants.Constants.*;
+
+/**
+ * CONDITIONAL REQUESTS TESTS
+ * public resources should answer 304 to conditional requests without loading entities
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:conditional")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class ConditionalRequestTest {
+
+    @Autowired
+    CategoryPublicController categoryPublicController;
+    @Autowired
+    CategoryAdminController categoryAdminController;
+    @Autowired
+    CompilationPublicController compilationPublicController;
+    @Autowired
+    CompilationAdminController compilationAdminController;
+    @Autowired
+    EventPublicController eventPublicController;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    CategoryRepository categoryRepository;
+    @Autowired
+    LocationRepository locationRepository;
+    @Autowired
+    EventRepository eventRepository;
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+    @MockBean
+    StatisticsService statisticsService;
+
+    Statistics statistics;
+    Long categoryId;
+    Long eventId;
+    Integer compilationId;
+
+    @BeforeEach
+    public void create() {
+        User initiator = userRepository.save(User.builder().name("initiator").email("initiator@yandex.ru").build());
+        Category category = categoryRepository.save(Category.builder().name("concert").build());
+        categoryId = category.getId();
+        Location location = locationRepository.save(Location.builder().lat(55.5f).lon(37.5f).build());
+        eventId = eventRepository.save(Event.builder()
+                .annotation("This is valid annotation")
+                .description("This is valid description")
+                .title("title")
+                .category(category)
+                .initiator(initiator)
+                .location(location)
+                .confirmedRequests(0)
+                .participantLimit(0)
+                .paid(false)
+                .requestModeration(true)
+                .createdOn(LocalDateTime.now())
+                .publishedOn(LocalDateTime.now())
+                .eventDate(LocalDateTime.now().plusMonths(1))
+                .state(EventState.PUBLISHED.name())
+                .views(0L)
+                .build()).getId();
+        compilationId = compilationAdminController.addCompilation(NewCompilationDto.builder()
+                .title("compilation").events(List.of(eventId)).build()).getId();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    /**
+     * should answer 304 to a category request with matching ETag, reading only category version
+     */
+    @Test
+    public void shouldNotLoadCategoryWhenETagMatches() {
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        assertThat(categoryPublicController.getCategoryById(categoryId, webRequest(null, first))).isNotNull();
+        String etag = first.getHeader(HttpHeaders.ETAG);
+        assertThat(etag).isNotNull();
+        assertThat(first.getHeader(HttpHeaders.LAST_MODIFIED)).isNotNull();
+        statistics.clear();
+
+        MockHttpServletResponse second = new MockHttpServletResponse();
+        CategoryDto result = categoryPublicController.getCategoryById(categoryId, webRequest(etag, second));
+
+        assertThat(result).isNull();
+        assertThat(second.getStatus()).isEqualTo(HttpStatus.NOT_MODIFIED.value());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isEqualTo(0);
+    }
+
+    /**
+     * should change ETag of compilations when category of their event is renamed
+     */
+    @Test
+    public void shouldChangeCompilationETagWhenCategoryOfEventChanges() {
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        compilationPublicController.getCompilationById(compilationId, webRequest(null, first));
+        String etag = first.getHeader(HttpHeaders.ETAG);
+
+        MockHttpServletResponse notModified = new MockHttpServletResponse();
+        assertThat(compilationPublicController.getCompilationById(compilationId, webRequest(etag, notModified)))
+                .isNull();
+        assertThat(notModified.getStatus()).isEqualTo(HttpStatus.NOT_MODIFIED.value());
+
+        categoryAdminController.updateCategory(categoryId, CategoryDto.builder().id(categoryId).name("exhibition").build());
+
+        MockHttpServletResponse modified = new MockHttpServletResponse();
+        assertThat(compilationPublicController.getCompilationById(compilationId, webRequest(etag, modified))
+                .getEvents().get(0).getCategory().getName()).isEqualTo("exhibition");
+        assertThat(modified.getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(modified.getHeader(HttpHeaders.ETAG)).isNotEqualTo(etag);
+    }
+
+    /**
+     * should answer 304 to an event request with matching ETag without loading the event or its views
+     */
+    @Test
+    public void shouldNotLoadEventWhenETagMatches() {
+        when(statisticsService.getStats(any(), any(), anyList())).thenReturn(Map.of(eventId, 3L));
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        assertThat(eventPublicController.getPublicEventById(eventId, eventRequest(), webRequest(null, first))
+                .getViews()).isEqualTo(3L);
+        String etag = first.getHeader(HttpHeaders.ETAG);
+        statistics.clear();
+
+        MockHttpServletResponse second = new MockHttpServletResponse();
+        assertThat(eventPublicController.getPublicEventById(eventId, eventRequest(), webRequest(etag, second)))
+                .isNull();
+
+        assertThat(second.getStatus()).isEqualTo(HttpStatus.NOT_MODIFIED.value());
+        assertThat(statistics.getEntityLoadCount()).isEqualTo(0);
+        verify(statisticsService, times(1)).getStats(any(), any(), anyList());
+    }
+
+    /**
+     * should answer 304 to an event request, although views changed, since every response records a view
+     */
+    @Test
+    public void shouldNotChangeEventETagWhenViewsChange() {
+        when(statisticsService.getStats(any(), any(), anyList())).thenReturn(Map.of(eventId, 3L));
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        eventPublicController.getPublicEventById(eventId, eventRequest(), webRequest(null, first));
+        String etag = first.getHeader(HttpHeaders.ETAG);
+
+        when(statisticsService.getStats(any(), any(), anyList())).thenReturn(Map.of(eventId, 4L));
+        MockHttpServletResponse second = new MockHttpServletResponse();
+
+        assertThat(eventPublicController.getPublicEventById(eventId, eventRequest(), webRequest(etag, second)))
+                .isNull();
+        assertThat(second.getStatus()).isEqualTo(HttpStatus.NOT_MODIFIED.value());
+    }
+
+    /**
+     * should count views of the event from the same time, whether the request is conditional or not
+     */
+    @Test
+    public void shouldCountViewsOfEventFromSameTime() {
+        when(statisticsService.getStats(any(), any(), anyList())).thenReturn(Map.of(eventId, 3L));
+        eventPublicController.getPublicEventById(eventId, eventRequest(),
+                webRequest(null, new MockHttpServletResponse()));
+        eventPublicController.getPublicEventById(eventId, eventRequest(),
+                webRequest("\"outdated\"", new MockHttpServletResponse()));
+
+        ArgumentCaptor<LocalDateTime> since = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(statisticsService, times(2)).getStats(since.capture(), any(), anyList());
+        assertThat(since.getAllValues().get(1)).isEqualTo(since.getAllValues().get(0));
+    }
+
+    /**
+     * should answer 200 to an event request when category of the event is renamed
+     */
+    @Test
+    public void shouldChangeEventETagWhenCategoryChanges() {
+        when(statisticsService.getStats(any(), any(), anyList())).thenReturn(Map.of(eventId, 3L));
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        eventPublicController.getPublicEventById(eventId, eventRequest(), webRequest(null, first));
+        String etag = first.getHeader(HttpHeaders.ETAG);
+
+        categoryAdminController.updateCategory(categoryId, CategoryDto.builder().id(categoryId).name("exhibition").build());
+
+        MockHttpServletResponse second = new MockHttpServletResponse();
+        assertThat(eventPublicController.getPublicEventById(eventId, eventRequest(), webRequest(etag, second))
+                .getCategory().getName()).isEqualTo("exhibition");
+        assertThat(second.getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(second.getHeader(HttpHeaders.ETAG)).isNotEqualTo(etag);
+    }
+
+    private MockHttpServletRequest eventRequest() {
+        return new MockHttpServletRequest("GET", EVENTS_PATH + SLASH_PATH + eventId);
+    }
+
+    private ServletWebRequest webRequest(String etag, MockHttpServletResponse response) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        if (etag != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+        }
+        return new ServletWebRequest(request, response);
+    }
+}
@@ -0,0 +1,79 @@
+package ru.practicum.controllers;
+
+import ru.practicum.dto.event.NewEventDto;
+import ru.practicum.dto.event.UpdateEventAdminRequest;
+import ru.practicum.entity.Category;
+import ru.practicum.entity.Event;
+import ru.practicum.entity.Location;
+import ru.practicum.entity.User;
+import ru.practicum.enums.EventState;
+import ru.practicum.enums.StateAction;
+import ru.practicum.repository.CategoryRepository;
+import ru.practicum.repository.UserRepository;
+import ru.practicum.service.event.EventService;
+
+import java.time.LocalDateTime;
+
+/**
+ * EVENT FIXTURES
+ * published events of the integration tests, either saved directly into the repository
+ * or added and published through the event service
+ */
+final class EventFixtures {
+
+    private EventFixtures() {
+    }
+
+    /**
+     * published event without participant limit and request moderation, the test sets its own
+     *
+     * @param initiator saved initiator
+     * @param category  saved category
+     * @param location  saved location
+     * @return builder of the event, to be saved into the event repository
+     */
+    static Event.EventBuilder publishedEvent(User initiator, Category category, Location location) {
+        return Event.builder()
+                .annotation("This is valid annotation")
+                .description("This is valid description")
+                .title("title")
+                .category(category)
+                .initiator(initiator)
+                .location(location)
+                .confirmedRequests(0)
+                .participantLimit(0)
+                .paid(false)
+                .requestModeration(false)
+                .createdOn(LocalDateTime.now())
+                .publishedOn(LocalDateTime.now())
+                .eventDate(LocalDateTime.now().plusMonths(1))
+                .state(EventState.PUBLISHED.name())
+                .views(0L);
+    }
+
+    /**
+     * add an event of a new initiator in a new category through the event service and publish it by admin
+     *
+     * @return id of the published event
+     */
+    static Long addPublishedEvent(UserRepository userRepository, CategoryRepository categoryRepository,
+                                  EventService eventService) {
+        Long initiatorId = userRepository.save(User.builder().name("initiator").email("initiator@yandex.ru").build())
+                .getId();
+        Long categoryId = categoryRepository.save(Category.builder().name("concert").build()).getId();
+        Long eventId = eventService.addEvent(initiatorId, NewEventDto.builder()
+                .annotation("This is valid annotation")
+                .description("This is valid description")
+                .title("title")
+                .category(categoryId)
+                .location(Location.builder().lat(55.5f).lon(37.5f).build())
+                .eventDate(LocalDateTime.now().plusMonths(1))
+                .paid(false)
+                .participantLimit(10)
+                .requestModeration(true)
+                .build()).getId();
+        eventService.updateEventByAdmin(eventId, UpdateEventAdminRequest.builder()
+                .stateAction(StateAction.PUBLISH_EVENT).build());
+        return eventId;
+    }
+}
@@ -0,0 +1,65 @@
+package ru.practicum.controllers;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.dto.request.ParticipationRequestDto;
+import ru.practicum.enums.RequestStatus;
+import ru.practicum.utils.errors.exceptions.NotAllowedException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static ru.practicum.utils.errors.ErrorConstants.NOT_FOR_INITIATOR;
+import static ru.practicum.utils.errors.ErrorConstants.REPEATED_REQUEST;
+
+/**
+ * PARTICIPATION REQUEST ADMISSION STRESS TEST IN FLASH SALE MODE
+ * every event is hot, so all requests are admitted in batches by the admission queue
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:flash-sale-admission",
+        "spring.jpa.properties.hibernate.show_sql=false",
+        "logging.level.ru.practicum=warn",
+        "logging.level.ru.practicum.controllers.AdmissionStressTest=info",
+        "ewm.admission.queue.hot-threshold=1"})
+public class FlashSaleAdmissionStressTest extends AdmissionStressTest {
+
+    /**
+     * should reject repeated requests of the same user and requests of the initiator within a batch
+     */
+    @Test
+    public void shouldApplyAdmissionRulesWithinBatch() {
+        Long requesterId = requesterIds.get(0);
+        Long initiatorId = eventRepository.findById(eventId).orElseThrow().getInitiator().getId();
+        List<CompletableFuture<ParticipationRequestDto>> repeated = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            repeated.add(CompletableFuture.supplyAsync(
+                    () -> requestPrivateController.addParticipationRequest(requesterId, eventId)));
+        }
+        CompletableFuture<ParticipationRequestDto> byInitiator = CompletableFuture.supplyAsync(
+                () -> requestPrivateController.addParticipationRequest(initiatorId, eventId));
+
+        List<ParticipationRequestDto> admitted = new ArrayList<>();
+        List<String> rejections = new ArrayList<>();
+        for (CompletableFuture<ParticipationRequestDto> future : repeated) {
+            try {
+                admitted.add(future.orTimeout(1, TimeUnit.MINUTES).join());
+            } catch (CompletionException e) {
+                assertThat(e.getCause()).isInstanceOf(NotAllowedException.class);
+                rejections.add(e.getCause().getMessage());
+            }
+        }
+
+        assertThat(admitted).hasSize(1)
+                .allMatch(request -> request.getStatus().equals(RequestStatus.CONFIRMED));
+        assertThat(rejections).hasSize(4).containsOnly(REPEATED_REQUEST);
+        assertThat(byInitiator.handle((request, e) -> e.getCause().getMessage()).join())
+                .isEqualTo(NOT_FOR_INITIATOR);
+        assertThat(requestRepository.findAllByEvent_Id(eventId)).hasSize(1);
+        assertThat(eventRepository.findById(eventId).orElseThrow().getConfirmedRequests()).isEqualTo(1);
+    }
+}
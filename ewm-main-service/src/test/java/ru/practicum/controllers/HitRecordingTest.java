@@ -0,0 +1,83 @@
+package ru.practicum.controllers;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.repository.CategoryRepository;
+import ru.practicum.repository.UserRepository;
+import ru.practicum.service.event.EventService;
+import ru.practicum.service.statistics.StatisticsService;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * HIT RECORDING TESTS
+ * hits of successful requests to tracked endpoints must be sent to stats-server after the response,
+ * failed requests and requests to other endpoints must not be recorded
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:hits",
+        "spring.jpa.properties.hibernate.show_sql=false",
+        "logging.level.ru.practicum=warn",
+        "ewm.stats.dispatcher.threads=1",
+        "ewm.stats.tracking.uris=/events,/events/{eventId},/compilations/**"})
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class HitRecordingTest {
+    private static final long TIMEOUT_MILLIS = 5_000;
+
+    @Autowired
+    MockMvc mockMvc;
+    @Autowired
+    EventService eventService;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    CategoryRepository categoryRepository;
+    @MockBean
+    StatisticsService statisticsService;
+
+    /**
+     * should send the hit of the event request with the URI and the IP of the client
+     */
+    @Test
+    public void shouldRecordHitOfTrackedEndpoint() throws Exception {
+        Long eventId = EventFixtures.addPublishedEvent(userRepository, categoryRepository, eventService);
+
+        mockMvc.perform(get("/events/{eventId}", eventId).with(request -> {
+                    request.setRemoteAddr("10.0.0.1");
+                    return request;
+                }))
+                .andExpect(status().isOk());
+
+        verify(statisticsService, timeout(TIMEOUT_MILLIS)).saveStats(argThat(hit ->
+                hit.getUri().equals("/events/" + eventId)
+                        && hit.getIp().equals("10.0.0.1")
+                        && hit.getApp().equals("ewm-main-service")));
+    }
+
+    /**
+     * should record only successful requests to endpoints matching configured patterns
+     */
+    @Test
+    public void shouldNotRecordFailedOrUntrackedRequests() throws Exception {
+        mockMvc.perform(get("/events/{eventId}", 999)).andExpect(status().isNotFound());
+        mockMvc.perform(get("/categories")).andExpect(status().isOk());
+        mockMvc.perform(get("/compilations")).andExpect(status().isOk());
+
+        // hits are sent in order by the only worker, so earlier hits would have been sent before this one
+        verify(statisticsService, timeout(TIMEOUT_MILLIS)).saveStats(argThat(hit ->
+                hit.getUri().equals("/compilations")));
+        verify(statisticsService, times(1)).saveStats(any());
+    }
+}
@@ -0,0 +1,155 @@
+package ru.practicum.controllers;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.CountAtBucket;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.client.StatsClient;
+import ru.practicum.dto.EndpointHit;
+import ru.practicum.dto.event.NewEventDto;
+import ru.practicum.dto.event.UpdateEventAdminRequest;
+import ru.practicum.dto.request.EventRequestStatusUpdateRequest;
+import ru.practicum.entity.Category;
+import ru.practicum.entity.Location;
+import ru.practicum.entity.User;
+import ru.practicum.enums.RequestStatus;
+import ru.practicum.enums.StateAction;
+import ru.practicum.repository.CategoryRepository;
+import ru.practicum.repository.UserRepository;
+import ru.practicum.service.event.EventService;
+import ru.practicum.service.request.RequestService;
+import ru.practicum.service.statistics.StatisticsService;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * METRICS TESTS
+ * calls of services, stats-server and repositories must be timed, business events must be counted
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:metrics",
+        "spring.jpa.properties.hibernate.show_sql=false",
+        "logging.level.ru.practicum=warn",
+        "ewm.admission.queue.enabled=false",
+        "ewm-stats-server.url=http://localhost:1"})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class MetricsTest {
+    private static final String EVENT_SERVICE = "ru.practicum.service.event.EventServiceImpl";
+
+    @Autowired
+    EventService eventService;
+    @Autowired
+    RequestService requestService;
+    @Autowired
+    StatsClient statsClient;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    CategoryRepository categoryRepository;
+    @Autowired
+    MeterRegistry meterRegistry;
+    @MockBean
+    StatisticsService statisticsService;
+
+    Long initiatorId;
+    Long categoryId;
+
+    @BeforeEach
+    public void create() {
+        initiatorId = userRepository.save(User.builder().name("initiator").email("initiator@yandex.ru").build())
+                .getId();
+        categoryId = categoryRepository.save(Category.builder().name("concert").build()).getId();
+    }
+
+    /**
+     * should time calls of services and repositories, record sizes of lists and count moderation of events
+     * and resolution of requests
+     */
+    @Test
+    public void shouldTimeServiceCallsAndCountBusinessEvents() {
+        Long eventId = eventService.addEvent(initiatorId, newEvent()).getId();
+        eventService.updateEventByAdmin(eventId, UpdateEventAdminRequest.builder()
+                .stateAction(StateAction.PUBLISH_EVENT).build());
+        List<Long> requestIds = Arrays.asList(addRequest(eventId, "first"), addRequest(eventId, "second"));
+        eventService.updateRequestsStatus(initiatorId, eventId, EventRequestStatusUpdateRequest.builder()
+                .requestIds(requestIds.subList(0, 1)).status(RequestStatus.CONFIRMED).build());
+        eventService.updateRequestsStatus(initiatorId, eventId, EventRequestStatusUpdateRequest.builder()
+                .requestIds(requestIds.subList(1, 2)).status(RequestStatus.REJECTED).build());
+        eventService.getEventsByUser(initiatorId, 0, 10);
+
+        assertThat(meterRegistry.get("ewm.service").tags("class", EVENT_SERVICE, "method", "addEvent")
+                .timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("ewm.service").tags("class", EVENT_SERVICE, "method", "updateRequestsStatus")
+                .timer().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("ewm.service")
+                .tags("class", "ru.practicum.service.request.RequestServiceImpl", "method", "addParticipationRequest")
+                .timer().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("ewm.service.results").tags("class", EVENT_SERVICE, "method", "getEventsByUser")
+                .summary().totalAmount()).isEqualTo(1);
+        assertThat(meterRegistry.get("spring.data.repository.invocations").tag("repository", "EventRepository")
+                .timers()).isNotEmpty();
+        assertThat(meterRegistry.counter("ewm.events.moderated", "action", "publish_event").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("ewm.requests.resolved", "status", "confirmed").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("ewm.requests.resolved", "status", "rejected").count()).isEqualTo(1);
+    }
+
+    /**
+     * should time failed requests to stats-server
+     */
+    @Test
+    public void shouldTimeFailedStatsRequests() {
+        assertThatThrownBy(() -> statsClient.saveRequestData(EndpointHit.builder()
+                .app("ewm-main-service").uri("/events/1").ip("127.0.0.1").timestamp("2024-01-01 00:00:00").build()))
+                .isNotNull();
+
+        assertThat(meterRegistry.get("ewm.stats.client").tags("operation", "hit", "outcome", "failure")
+                .timer().count()).isEqualTo(1);
+    }
+
+    /**
+     * should add configured SLO buckets to the latency histogram of the endpoint
+     */
+    @Test
+    public void shouldAddSloBucketsOfEndpoint() {
+        Timer timer = Timer.builder("http.server.requests").tag("uri", "/events/{eventId}").register(meterRegistry);
+        timer.record(30, TimeUnit.MILLISECONDS);
+
+        assertThat(timer.takeSnapshot().histogramCounts())
+                .extracting(bucket -> bucket.bucket(TimeUnit.MILLISECONDS))
+                .contains(25.0, 50.0, 500.0);
+        assertThat(Arrays.stream(timer.takeSnapshot().histogramCounts())
+                .filter(bucket -> bucket.bucket(TimeUnit.MILLISECONDS) == 50.0)
+                .mapToDouble(CountAtBucket::count))
+                .containsExactly(1.0);
+    }
+
+    private Long addRequest(Long eventId, String name) {
+        Long requesterId = userRepository.save(User.builder().name(name).email(name + "@yandex.ru").build()).getId();
+        return requestService.addParticipationRequest(requesterId, eventId).getId();
+    }
+
+    private NewEventDto newEvent() {
+        return NewEventDto.builder()
+                .annotation("This is valid annotation")
+                .description("This is valid description")
+                .title("title")
+                .category(categoryId)
+                .location(Location.builder().lat(55.5f).lon(37.5f).build())
+                .eventDate(LocalDateTime.now().plusMonths(1))
+                .paid(false)
+                .participantLimit(10)
+                .requestModeration(true)
+                .build();
+    }
+}
@@ -0,0 +1,286 @@
+package ru.practicum.controllers;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.event.EventListener;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.web.context.request.ServletWebRequest;
+import ru.practicum.controllers.admin.CategoryAdminController;
+import ru.practicum.controllers.admin.EventAdminController;
+import ru.practicum.controllers.pub.EventPublicController;
+import ru.practicum.dto.category.CategoryDto;
+import ru.practicum.dto.event.EventShortDto;
+import ru.practicum.dto.event.UpdateEventAdminRequest;
+import ru.practicum.entity.Category;
+import ru.practicum.entity.Event;
+import ru.practicum.entity.Location;
+import ru.practicum.entity.User;
+import ru.practicum.enums.EventState;
+import ru.practicum.enums.StateAction;
+import ru.practicum.repository.CategoryRepository;
+import ru.practicum.repository.EventRepository;
+import ru.practicum.repository.LocationRepository;
+import ru.practicum.repository.UserRepository;
+import ru.practicum.service.cache.CategoryModification;
+import ru.practicum.service.cache.EventModification;
+import ru.practicum.service.cache.PublicEventsCache;
+import ru.practicum.service.cache.PublicEventsKey;
+import ru.practicum.service.statistics.StatisticsService;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static ru.practicum.utils.constants.Constants.EVENTS_PATH;
+
+/**
+ * PUBLIC EVENTS CACHE TESTS
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:public-events-cache")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class PublicEventsCacheTest {
+
+    @Autowired
+    EventPublicController eventPublicController;
+    @Autowired
+    EventAdminController eventAdminController;
+    @Autowired
+    CategoryAdminController categoryAdminController;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    CategoryRepository categoryRepository;
+    @Autowired
+    LocationRepository locationRepository;
+    @Autowired
+    EventRepository eventRepository;
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+    @Autowired
+    PublicEventsCache publicEventsCache;
+    @Autowired
+    ModificationRecorder modificationRecorder;
+    @MockBean
+    StatisticsService statisticsService;
+
+    Statistics statistics;
+    User initiator;
+    Long firstCategoryId;
+    Long secondCategoryId;
+    Long pendingEventId;
+    Long secondCategoryEventId;
+
+    @BeforeEach
+    public void create() {
+        initiator = userRepository.save(User.builder().name("initiator").email("initiator@yandex.ru").build());
+        Category first = categoryRepository.save(Category.builder().name("first").build());
+        Category second = categoryRepository.save(Category.builder().name("second").build());
+        firstCategoryId = first.getId();
+        secondCategoryId = second.getId();
+
+        saveEvent(first, EventState.PUBLISHED);
+        secondCategoryEventId = saveEvent(second, EventState.PUBLISHED).getId();
+        pendingEventId = saveEvent(first, EventState.PENDING).getId();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    /**
+     * should serve repeated listing from cache and request views only once
+     */
+    @Test
+    public void shouldServeRepeatedListingFromCache() {
+        when(statisticsService.getStats(any(), any(), anyList())).thenReturn(Map.of(secondCategoryEventId, 7L));
+        getPublicEvents(null);
+        statistics.clear();
+
+        List<EventShortDto> events = getPublicEvents(null);
+
+        assertThat(events).hasSize(2);
+        assertThat(events).filteredOn(e -> e.getId().equals(secondCategoryEventId))
+                .extracting(EventShortDto::getViews).containsExactly(7L);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(0);
+        verify(statisticsService, times(1)).getStats(any(), any(), anyList());
+    }
+
+    /**
+     * should not expose cached events to changes made by caller
+     */
+    @Test
+    public void shouldReturnCopyOfCachedListing() {
+        getPublicEvents(null).forEach(e -> e.setTitle("changed"));
+
+        assertThat(getPublicEvents(null)).extracting(EventShortDto::getTitle).doesNotContain("changed");
+    }
+
+    /**
+     * should evict only listings that could contain published event
+     */
+    @Test
+    public void shouldEvictListingsThatCouldContainPublishedEvent() {
+        getPublicEvents(null);
+        getPublicEvents(List.of(secondCategoryId));
+
+        eventAdminController.updateEventByAdmin(pendingEventId,
+                UpdateEventAdminRequest.builder().stateAction(StateAction.PUBLISH_EVENT).build());
+        statistics.clear();
+
+        assertThat(getPublicEvents(List.of(secondCategoryId))).hasSize(1);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(0);
+        assertThat(getPublicEvents(null)).hasSize(3);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    /**
+     * should evict listings that contain changed category
+     */
+    @Test
+    public void shouldEvictListingsThatContainChangedCategory() {
+        getPublicEvents(List.of(firstCategoryId));
+        getPublicEvents(List.of(secondCategoryId));
+
+        categoryAdminController.updateCategory(secondCategoryId,
+                CategoryDto.builder().id(secondCategoryId).name("renamed").build());
+        statistics.clear();
+
+        assertThat(getPublicEvents(List.of(firstCategoryId))).hasSize(1);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(0);
+        assertThat(getPublicEvents(List.of(secondCategoryId)))
+                .extracting(e -> e.getCategory().getName()).containsExactly("renamed");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    /**
+     * should not cache a listing, which was loaded while listings were evicted,
+     * since it could have been read before the change was committed
+     */
+    @Test
+    public void shouldNotCacheListingLoadedDuringEviction() {
+        PublicEventsKey key = PublicEventsKey.of(null, null, null, null, null, false, null, 0, 10);
+        AtomicInteger loads = new AtomicInteger();
+
+        publicEventsCache.get(key, () -> {
+            loads.incrementAndGet();
+            publicEventsCache.onCategoryModification(new CategoryModification(firstCategoryId));
+            return List.of();
+        });
+        publicEventsCache.get(key, () -> {
+            loads.incrementAndGet();
+            return List.of();
+        });
+        publicEventsCache.get(key, () -> {
+            loads.incrementAndGet();
+            return List.of();
+        });
+
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    /**
+     * should evict only listings of only available events, when participation requests of an event change,
+     * and keep caching the other listings loaded meanwhile
+     */
+    @Test
+    public void shouldEvictOnlyListingsOfAvailableEventsOnRequestChanges() {
+        PublicEventsKey all = PublicEventsKey.of(null, null, null, null, null, false, null, 0, 10);
+        PublicEventsKey available = PublicEventsKey.of(null, null, null, null, null, true, null, 0, 10);
+        EventModification requestsChanged = EventModification.of(eventRepository.findById(secondCategoryEventId)
+                .orElseThrow());
+        AtomicInteger loads = new AtomicInteger();
+
+        publicEventsCache.get(available, () -> {
+            loads.incrementAndGet();
+            return List.of();
+        });
+        publicEventsCache.get(all, () -> {
+            loads.incrementAndGet();
+            publicEventsCache.onEventModification(requestsChanged);
+            return List.of();
+        });
+        assertThat(publicEventsCache.size()).isEqualTo(1);
+
+        publicEventsCache.get(all, () -> {
+            loads.incrementAndGet();
+            return List.of();
+        });
+        publicEventsCache.get(available, () -> {
+            loads.incrementAndGet();
+            return List.of();
+        });
+
+        assertThat(loads.get()).isEqualTo(3);
+    }
+
+    /**
+     * should publish the footprint of the event before the change, not the footprint of the saved event
+     */
+    @Test
+    public void shouldPublishFootprintOfEventBeforeChange() {
+        eventAdminController.updateEventByAdmin(pendingEventId,
+                UpdateEventAdminRequest.builder().stateAction(StateAction.PUBLISH_EVENT).build());
+
+        assertThat(modificationRecorder.modifications.stream()
+                .filter(modification -> modification.getAfter().getId().equals(pendingEventId)))
+                .singleElement()
+                .satisfies(modification -> {
+                    assertThat(modification.getBefore().isPublished()).isFalse();
+                    assertThat(modification.getAfter().isPublished()).isTrue();
+                });
+    }
+
+    private List<EventShortDto> getPublicEvents(List<Long> categories) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", EVENTS_PATH);
+        return eventPublicController.getPublicEvents(
+                null, categories, null, null, null, false, null, 0, 10, request, new ServletWebRequest(request));
+    }
+
+    private Event saveEvent(Category category, EventState state) {
+        Location location = locationRepository.save(Location.builder().lat(55.5f).lon(37.5f).build());
+        return eventRepository.save(Event.builder()
+                .annotation("This is valid annotation")
+                .description("This is valid description")
+                .title("title")
+                .category(category)
+                .initiator(initiator)
+                .location(location)
+                .confirmedRequests(0)
+                .participantLimit(0)
+                .paid(false)
+                .requestModeration(true)
+                .createdOn(LocalDateTime.now())
+                .publishedOn(EventState.PUBLISHED.equals(state) ? LocalDateTime.now() : null)
+                .eventDate(LocalDateTime.now().plusMonths(1))
+                .state(state.name())
+                .views(0L)
+                .build());
+    }
+
+    /**
+     * records event modifications published by services
+     */
+    @TestConfiguration
+    static class ModificationRecorder {
+        private final List<EventModification> modifications = new CopyOnWriteArrayList<>();
+
+        @EventListener
+        public void record(EventModification modification) {
+            modifications.add(modification);
+        }
+    }
+}
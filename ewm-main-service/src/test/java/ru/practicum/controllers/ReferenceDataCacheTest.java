@@ -0,0 +1,129 @@
+package ru.practicum.controllers;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.dto.category.CategoryDto;
+import ru.practicum.dto.event.EventFullDto;
+import ru.practicum.dto.event.NewEventDto;
+import ru.practicum.entity.Category;
+import ru.practicum.entity.Location;
+import ru.practicum.entity.User;
+import ru.practicum.repository.CategoryRepository;
+import ru.practicum.repository.UserRepository;
+import ru.practicum.service.category.CategoryService;
+import ru.practicum.service.event.EventService;
+import ru.practicum.service.statistics.StatisticsService;
+import ru.practicum.service.user.UserService;
+import ru.practicum.utils.errors.exceptions.NotFoundException;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * REFERENCE DATA CACHE TESTS
+ * categories and users referenced by new events must be read from cache, until they are changed or deleted
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:reference-data-cache",
+        "spring.jpa.properties.hibernate.show_sql=false",
+        "logging.level.ru.practicum=warn"})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class ReferenceDataCacheTest {
+
+    @Autowired
+    EventService eventService;
+    @Autowired
+    CategoryService categoryService;
+    @Autowired
+    UserService userService;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    CategoryRepository categoryRepository;
+    @Autowired
+    MeterRegistry meterRegistry;
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+    @MockBean
+    StatisticsService statisticsService;
+
+    Statistics statistics;
+    Long initiatorId;
+    Long categoryId;
+
+    @BeforeEach
+    public void create() {
+        initiatorId = userRepository.save(User.builder().name("initiator").email("initiator@yandex.ru").build())
+                .getId();
+        categoryId = categoryRepository.save(Category.builder().name("concert").build()).getId();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    /**
+     * should not read initiator and category of a new event from repository, when they are cached
+     */
+    @Test
+    public void shouldAddEventWithoutLoadingCachedUserAndCategory() {
+        eventService.addEvent(initiatorId, newEvent());
+        statistics.clear();
+
+        EventFullDto event = eventService.addEvent(initiatorId, newEvent());
+
+        assertThat(event.getInitiator().getName()).isEqualTo("initiator");
+        assertThat(event.getCategory().getName()).isEqualTo("concert");
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(lookups("reference-users", "hit")).isEqualTo(1);
+        assertThat(lookups("reference-users", "miss")).isEqualTo(1);
+        assertThat(lookups("reference-categories", "hit")).isEqualTo(1);
+        assertThat(lookups("reference-categories", "miss")).isEqualTo(1);
+    }
+
+    /**
+     * should read renamed category and reject deleted user and category
+     */
+    @Test
+    public void shouldEvictChangedCategoryAndDeletedUser() {
+        eventService.addEvent(initiatorId, newEvent());
+        Long otherCategoryId = categoryRepository.save(Category.builder().name("exhibition").build()).getId();
+        NewEventDto otherCategoryEvent = newEvent().toBuilder().category(otherCategoryId).build();
+        eventService.addEvent(initiatorId, otherCategoryEvent);
+
+        categoryService.updateCategory(categoryId, CategoryDto.builder().id(categoryId).name("festival").build());
+        assertThat(eventService.addEvent(initiatorId, newEvent()).getCategory().getName()).isEqualTo("festival");
+
+        Long otherUserId = userRepository.save(User.builder().name("other").email("other@yandex.ru").build())
+                .getId();
+        eventService.addEvent(otherUserId, otherCategoryEvent);
+        userService.deleteUser(otherUserId);
+        assertThatThrownBy(() -> eventService.addEvent(otherUserId, otherCategoryEvent))
+                .isInstanceOf(NotFoundException.class);
+    }
+
+    private NewEventDto newEvent() {
+        return NewEventDto.builder()
+                .annotation("This is valid annotation")
+                .description("This is valid description")
+                .title("title")
+                .category(categoryId)
+                .location(Location.builder().lat(55.5f).lon(37.5f).build())
+                .eventDate(LocalDateTime.now().plusMonths(1))
+                .paid(false)
+                .participantLimit(0)
+                .requestModeration(true)
+                .build();
+    }
+
+    private double lookups(String cache, String result) {
+        return meterRegistry.get("cache.gets").tags("cache", cache, "result", result).functionCounter().count();
+    }
+}
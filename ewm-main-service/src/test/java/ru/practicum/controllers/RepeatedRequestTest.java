@@ -0,0 +1,139 @@
+package ru.practicum.controllers;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.entity.Category;
+import ru.practicum.entity.Location;
+import ru.practicum.entity.User;
+import ru.practicum.repository.CategoryRepository;
+import ru.practicum.repository.EventRepository;
+import ru.practicum.repository.LocationRepository;
+import ru.practicum.repository.RequestRepository;
+import ru.practicum.repository.UserRepository;
+import ru.practicum.service.cache.ReferenceDataCache;
+import ru.practicum.service.request.RequestService;
+import ru.practicum.service.statistics.StatisticsService;
+import ru.practicum.utils.errors.exceptions.NotAllowedException;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static ru.practicum.utils.errors.ErrorConstants.REPEATED_REQUEST;
+
+/**
+ * REPEATED REQUEST TESTS
+ * the unique constraint of requester and event must reject repeated participation requests, also concurrent ones
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:repeated-request",
+        "spring.jpa.properties.hibernate.show_sql=false",
+        "logging.level.ru.practicum=warn",
+        "ewm.admission.queue.enabled=false"})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class RepeatedRequestTest {
+    private static final int NUMBER_OF_THREADS = 8;
+
+    @Autowired
+    RequestService requestService;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    CategoryRepository categoryRepository;
+    @Autowired
+    LocationRepository locationRepository;
+    @Autowired
+    EventRepository eventRepository;
+    @Autowired
+    RequestRepository requestRepository;
+    @Autowired
+    ReferenceDataCache referenceDataCache;
+    @MockBean
+    StatisticsService statisticsService;
+
+    Long requesterId;
+    Long eventId;
+
+    @BeforeEach
+    public void create() {
+        User initiator = userRepository.save(User.builder().name("initiator").email("initiator@yandex.ru").build());
+        requesterId = userRepository.save(User.builder().name("requester").email("requester@yandex.ru").build())
+                .getId();
+        Category category = categoryRepository.save(Category.builder().name("concert").build());
+        Location location = locationRepository.save(Location.builder().lat(55.5f).lon(37.5f).build());
+        eventId = eventRepository.save(EventFixtures.publishedEvent(initiator, category, location)
+                .participantLimit(10)
+                .requestModeration(false)
+                .build()).getId();
+    }
+
+    /**
+     * should reject repeated request with 409 and keep the confirmed place taken only once
+     */
+    @Test
+    public void shouldRejectRepeatedRequest() {
+        requestService.addParticipationRequest(requesterId, eventId);
+
+        assertThatThrownBy(() -> requestService.addParticipationRequest(requesterId, eventId))
+                .isInstanceOf(NotAllowedException.class)
+                .hasMessage(REPEATED_REQUEST);
+        assertThat(requestRepository.findAllByEvent_Id(eventId)).hasSize(1);
+        assertThat(eventRepository.findById(eventId).orElseThrow().getConfirmedRequests()).isEqualTo(1);
+    }
+
+    /**
+     * should admit only one of concurrent requests of the same user and reject the rest as repeated
+     */
+    @Test
+    public void shouldAdmitOnlyOneOfConcurrentRepeatedRequests() {
+        ExecutorService executor = Executors.newFixedThreadPool(NUMBER_OF_THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        Queue<String> rejections = new ConcurrentLinkedQueue<>();
+        List<CompletableFuture<Void>> requests = IntStream.range(0, NUMBER_OF_THREADS)
+                .mapToObj(i -> CompletableFuture.runAsync(() -> {
+                    try {
+                        start.await();
+                        requestService.addParticipationRequest(requesterId, eventId);
+                    } catch (NotAllowedException e) {
+                        rejections.add(e.getMessage());
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }, executor))
+                .collect(Collectors.toList());
+        start.countDown();
+        CompletableFuture.allOf(requests.toArray(CompletableFuture[]::new)).orTimeout(1, TimeUnit.MINUTES).join();
+        executor.shutdown();
+
+        assertThat(rejections).hasSize(NUMBER_OF_THREADS - 1).containsOnly(REPEATED_REQUEST);
+        assertThat(requestRepository.findAllByEvent_Id(eventId)).hasSize(1);
+        assertThat(eventRepository.findById(eventId).orElseThrow().getConfirmedRequests()).isEqualTo(1);
+    }
+
+    /**
+     * should not take violation of another constraint for a repeated request
+     */
+    @Test
+    public void shouldRethrowViolationOfOtherConstraint() {
+        referenceDataCache.findUser(requesterId);
+        userRepository.deleteById(requesterId);
+
+        assertThatThrownBy(() -> requestService.addParticipationRequest(requesterId, eventId))
+                .isInstanceOf(DataIntegrityViolationException.class);
+        assertThat(requestRepository.findAllByEvent_Id(eventId)).isEmpty();
+    }
+}
@@ -0,0 +1,193 @@
+package ru.practicum.controllers;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.dto.event.EventFullDto;
+import ru.practicum.dto.request.EventRequestStatusUpdateRequest;
+import ru.practicum.dto.request.EventRequestStatusUpdateResult;
+import ru.practicum.dto.request.ParticipationRequestDto;
+import ru.practicum.dto.request.RequestCountsDto;
+import ru.practicum.entity.Category;
+import ru.practicum.entity.EventRequestCounters;
+import ru.practicum.entity.Location;
+import ru.practicum.entity.User;
+import ru.practicum.enums.RequestStatus;
+import ru.practicum.repository.CategoryRepository;
+import ru.practicum.repository.EventRepository;
+import ru.practicum.repository.EventRequestCountersRepository;
+import ru.practicum.repository.LocationRepository;
+import ru.practicum.repository.UserRepository;
+import ru.practicum.service.event.EventService;
+import ru.practicum.service.request.RequestCounters;
+import ru.practicum.service.request.RequestCountersReconciler;
+import ru.practicum.service.request.RequestService;
+import ru.practicum.service.statistics.StatisticsService;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * REQUEST COUNTERS TESTS
+ * counters of requests by status must follow every status transition and be repaired by reconciliation
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:request-counters",
+        "spring.jpa.properties.hibernate.show_sql=false",
+        "logging.level.ru.practicum=warn",
+        "ewm.counters.reconciliation.page-size=1"})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class RequestCountersTest {
+    private static final int NUMBER_OF_REQUESTERS = 4;
+
+    @Autowired
+    EventService eventService;
+    @Autowired
+    RequestService requestService;
+    @Autowired
+    RequestCounters requestCounters;
+    @Autowired
+    RequestCountersReconciler reconciler;
+    @Autowired
+    TransactionTemplate transactionTemplate;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    CategoryRepository categoryRepository;
+    @Autowired
+    LocationRepository locationRepository;
+    @Autowired
+    EventRepository eventRepository;
+    @Autowired
+    EventRequestCountersRepository countersRepository;
+    @MockBean
+    StatisticsService statisticsService;
+
+    Long initiatorId;
+    Long eventId;
+    List<Long> requesterIds;
+
+    @BeforeEach
+    public void create() {
+        User initiator = userRepository.save(User.builder().name("initiator").email("initiator@yandex.ru").build());
+        initiatorId = initiator.getId();
+        requesterIds = IntStream.range(0, NUMBER_OF_REQUESTERS)
+                .mapToObj(i -> userRepository.save(User.builder()
+                        .name("requester " + i).email("requester" + i + "@yandex.ru").build()).getId())
+                .collect(Collectors.toList());
+        Category category = categoryRepository.save(Category.builder().name("concert").build());
+        Location location = locationRepository.save(Location.builder().lat(55.5f).lon(37.5f).build());
+        eventId = eventRepository.save(EventFixtures.publishedEvent(initiator, category, location)
+                .participantLimit(10)
+                .requestModeration(true)
+                .build()).getId();
+    }
+
+    /**
+     * should change counters on every transition and decrease confirmed requests when a confirmed request is canceled,
+     * initiator and admin should get the counters with the event
+     */
+    @Test
+    public void shouldCountRequestsOnEveryTransition() {
+        requestCounters.create(eventId);
+        List<ParticipationRequestDto> requests = requesterIds.stream()
+                .map(requesterId -> requestService.addParticipationRequest(requesterId, eventId))
+                .collect(Collectors.toList());
+        assertCounters(NUMBER_OF_REQUESTERS, 0, 0, 0);
+
+        eventService.updateRequestsStatus(initiatorId, eventId, EventRequestStatusUpdateRequest.builder()
+                .requestIds(List.of(requests.get(0).getId(), requests.get(1).getId()))
+                .status(RequestStatus.CONFIRMED)
+                .build());
+        assertCounters(2, 2, 0, 0);
+
+        eventService.updateRequestsStatus(initiatorId, eventId, EventRequestStatusUpdateRequest.builder()
+                .requestIds(List.of(requests.get(2).getId()))
+                .status(RequestStatus.REJECTED)
+                .build());
+        assertCounters(1, 2, 1, 0);
+
+        requestService.cancelParticipationRequest(requesterIds.get(0), requests.get(0).getId());
+        requestService.cancelParticipationRequest(requesterIds.get(3), requests.get(3).getId());
+        assertCounters(0, 1, 1, 2);
+        assertThat(eventRepository.findById(eventId).orElseThrow().getConfirmedRequests()).isEqualTo(1);
+
+        RequestCountsDto expected = new RequestCountsDto(0, 1, 1, 2);
+        assertThat(eventService.getEventByUser(initiatorId, eventId).getRequestCounts()).isEqualTo(expected);
+        assertThat(eventService.getEventsByAdmin(null, null, null, null, null, 0, 10))
+                .extracting(EventFullDto::getRequestCounts)
+                .containsExactly(expected);
+    }
+
+    /**
+     * should return pending requests rejected in bulk, when confirmed requests reach the participant limit exactly
+     */
+    @Test
+    public void shouldReturnPendingRequestsRejectedAtParticipantLimit() {
+        eventRepository.save(eventRepository.findById(eventId).orElseThrow().toBuilder().participantLimit(2).build());
+        requestCounters.create(eventId);
+        List<ParticipationRequestDto> requests = requesterIds.stream()
+                .map(requesterId -> requestService.addParticipationRequest(requesterId, eventId))
+                .collect(Collectors.toList());
+
+        EventRequestStatusUpdateResult result = eventService.updateRequestsStatus(initiatorId, eventId,
+                EventRequestStatusUpdateRequest.builder()
+                        .requestIds(List.of(requests.get(0).getId(), requests.get(1).getId()))
+                        .status(RequestStatus.CONFIRMED)
+                        .build());
+
+        assertThat(result.getConfirmedRequests()).extracting(ParticipationRequestDto::getId)
+                .containsExactly(requests.get(0).getId(), requests.get(1).getId());
+        assertThat(result.getRejectedRequests())
+                .extracting(ParticipationRequestDto::getId, ParticipationRequestDto::getStatus)
+                .containsExactly(tuple(requests.get(2).getId(), RequestStatus.REJECTED),
+                        tuple(requests.get(3).getId(), RequestStatus.REJECTED));
+        assertCounters(0, 2, 2, 0);
+    }
+
+    /**
+     * should count counters from the requests at the first change, if the event has no counters yet
+     */
+    @Test
+    public void shouldCountRequestsOfEventWithoutCounters() {
+        requestService.addParticipationRequest(requesterIds.get(0), eventId);
+        requestService.addParticipationRequest(requesterIds.get(1), eventId);
+
+        assertCounters(2, 0, 0, 0);
+    }
+
+    /**
+     * should repair counters and number of confirmed requests, which differ from the requests
+     */
+    @Test
+    public void shouldRepairCountersAndConfirmedRequests() {
+        requestCounters.create(eventId);
+        ParticipationRequestDto request = requestService.addParticipationRequest(requesterIds.get(0), eventId);
+        requestService.addParticipationRequest(requesterIds.get(1), eventId);
+        eventService.updateRequestsStatus(initiatorId, eventId, EventRequestStatusUpdateRequest.builder()
+                .requestIds(List.of(request.getId()))
+                .status(RequestStatus.CONFIRMED)
+                .build());
+        countersRepository.save(EventRequestCounters.builder()
+                .eventId(eventId).pending(7).confirmed(0).rejected(3).canceled(0).build());
+        transactionTemplate.executeWithoutResult(status -> eventRepository.increaseConfirmedRequests(eventId, 5));
+
+        assertThat(reconciler.reconcile()).isEqualTo(1);
+        assertCounters(1, 1, 0, 0);
+        assertThat(eventRepository.findById(eventId).orElseThrow().getConfirmedRequests()).isEqualTo(1);
+        assertThat(reconciler.reconcile()).isZero();
+    }
+
+    private void assertCounters(int pending, int confirmed, int rejected, int canceled) {
+        assertThat(countersRepository.findById(eventId).orElseThrow())
+                .isEqualTo(new EventRequestCounters(eventId, pending, confirmed, rejected, canceled));
+    }
+}
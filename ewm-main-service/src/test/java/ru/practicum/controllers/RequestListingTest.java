@@ -0,0 +1,203 @@
+package ru.practicum.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.controllers.priv.EventPrivateController;
+import ru.practicum.controllers.priv.RequestPrivateController;
+import ru.practicum.dto.request.ParticipationRequestDto;
+import ru.practicum.dto.request.ParticipationRequestPage;
+import ru.practicum.entity.Category;
+import ru.practicum.entity.Event;
+import ru.practicum.entity.Location;
+import ru.practicum.entity.Request;
+import ru.practicum.entity.User;
+import ru.practicum.enums.EventState;
+import ru.practicum.enums.RequestStatus;
+import ru.practicum.repository.CategoryRepository;
+import ru.practicum.repository.EventRepository;
+import ru.practicum.repository.LocationRepository;
+import ru.practicum.repository.RequestRepository;
+import ru.practicum.repository.UserRepository;
+import ru.practicum.service.statistics.StatisticsService;
+import ru.practicum.utils.errors.exceptions.NotAllowedException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static ru.practicum.utils.constants.Constants.MAX_PAGE_SIZE;
+
+/**
+ * PARTICIPATION REQUEST LISTING TESTS
+ * keyset pages and NDJSON streams must return all requests ordered by ID, each exactly once
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:request-listing",
+        "spring.jpa.properties.hibernate.show_sql=false",
+        "logging.level.ru.practicum=warn"})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class RequestListingTest {
+    private static final int NUMBER_OF_REQUESTS = 25;
+    private static final int NUMBER_OF_EVENTS = 3;
+
+    @Autowired
+    EventPrivateController eventPrivateController;
+    @Autowired
+    RequestPrivateController requestPrivateController;
+    @Autowired
+    ObjectMapper objectMapper;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    CategoryRepository categoryRepository;
+    @Autowired
+    LocationRepository locationRepository;
+    @Autowired
+    EventRepository eventRepository;
+    @Autowired
+    RequestRepository requestRepository;
+    @MockBean
+    StatisticsService statisticsService;
+
+    Long initiatorId;
+    Long requesterId;
+    Long eventId;
+
+    @BeforeEach
+    public void create() {
+        User initiator = userRepository.save(User.builder().name("initiator").email("initiator@yandex.ru").build());
+        initiatorId = initiator.getId();
+        Category category = categoryRepository.save(Category.builder().name("concert").build());
+        List<Event> events = new ArrayList<>();
+        for (int i = 0; i < NUMBER_OF_EVENTS; i++) {
+            Location location = locationRepository.save(Location.builder().lat(55.5f + i).lon(37.5f + i).build());
+            events.add(eventRepository.save(Event.builder()
+                    .annotation("This is valid annotation " + i)
+                    .description("This is valid description " + i)
+                    .title("title " + i)
+                    .category(category)
+                    .initiator(initiator)
+                    .location(location)
+                    .confirmedRequests(0)
+                    .participantLimit(0)
+                    .paid(false)
+                    .requestModeration(true)
+                    .createdOn(LocalDateTime.now())
+                    .publishedOn(LocalDateTime.now())
+                    .eventDate(LocalDateTime.now().plusMonths(1))
+                    .state(EventState.PUBLISHED.name())
+                    .views(0L)
+                    .build()));
+        }
+        eventId = events.get(0).getId();
+
+        List<User> requesters = IntStream.range(0, NUMBER_OF_REQUESTS)
+                .mapToObj(i -> userRepository.save(User.builder()
+                        .name("requester " + i).email("requester" + i + "@yandex.ru").build()))
+                .collect(Collectors.toList());
+        requesterId = requesters.get(0).getId();
+        List<Request> requests = requesters.stream()
+                .map(requester -> buildRequest(requester, events.get(0)))
+                .collect(Collectors.toList());
+        events.subList(1, NUMBER_OF_EVENTS).forEach(event -> requests.add(buildRequest(requesters.get(0), event)));
+        requestRepository.saveAll(requests);
+    }
+
+    /**
+     * should return all requests to the event by pages ordered by ID, the last page should have no next page
+     */
+    @Test
+    public void shouldGetRequestsToEventByPages() {
+        List<ParticipationRequestDto> received = new ArrayList<>();
+        List<Integer> pageSizes = new ArrayList<>();
+        Long after = 0L;
+        while (after != null) {
+            ParticipationRequestPage page = eventPrivateController.getParticipationRequestsPage(
+                    initiatorId, eventId, after, 10);
+            received.addAll(page.getRequests());
+            pageSizes.add(page.getRequests().size());
+            after = page.getNext();
+        }
+
+        assertThat(pageSizes).containsExactly(10, 10, 5);
+        assertThat(received).isEqualTo(eventPrivateController.getParticipationRequests(initiatorId, eventId));
+        assertThat(received).extracting(ParticipationRequestDto::getId).isSorted().doesNotHaveDuplicates();
+    }
+
+    /**
+     * should stream all requests to the event as newline delimited JSON
+     */
+    @Test
+    public void shouldStreamRequestsToEvent() throws IOException {
+        ResponseEntity<StreamingResponseBody> response = eventPrivateController.streamParticipationRequests(
+                initiatorId, eventId);
+
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_NDJSON);
+        assertThat(readLines(response))
+                .isEqualTo(eventPrivateController.getParticipationRequests(initiatorId, eventId));
+    }
+
+    /**
+     * should return requests of the user by pages and as stream
+     */
+    @Test
+    public void shouldGetRequestsOfUserByPagesAndStream() throws IOException {
+        ParticipationRequestPage first = requestPrivateController.getUserParticipationRequestsPage(
+                requesterId, 0L, 2);
+        ParticipationRequestPage last = requestPrivateController.getUserParticipationRequestsPage(
+                requesterId, first.getNext(), 2);
+        List<ParticipationRequestDto> all = requestPrivateController.getUserParticipationRequests(requesterId);
+
+        assertThat(first.getRequests()).isEqualTo(all.subList(0, 2));
+        assertThat(last.getRequests()).isEqualTo(all.subList(2, NUMBER_OF_EVENTS));
+        assertThat(last.getNext()).isNull();
+        assertThat(requestPrivateController.getUserParticipationRequestsPage(requesterId, 0L, MAX_PAGE_SIZE)
+                .getNext()).isNull();
+        assertThat(readLines(requestPrivateController.streamUserParticipationRequests(requesterId))).isEqualTo(all);
+    }
+
+    /**
+     * should reject streaming requests to the event of another user before the response is started
+     */
+    @Test
+    public void shouldRejectStreamingRequestsToEventOfAnotherUser() {
+        assertThatThrownBy(() -> eventPrivateController.streamParticipationRequests(requesterId, eventId))
+                .isInstanceOf(NotAllowedException.class);
+    }
+
+    private List<ParticipationRequestDto> readLines(ResponseEntity<StreamingResponseBody> response)
+            throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        response.getBody().writeTo(outputStream);
+        List<ParticipationRequestDto> requests = new ArrayList<>();
+        for (String line : outputStream.toString(StandardCharsets.UTF_8).split("\n")) {
+            requests.add(objectMapper.readValue(line, ParticipationRequestDto.class));
+        }
+        return requests;
+    }
+
+    private Request buildRequest(User requester, Event event) {
+        return Request.builder()
+                .requester(requester)
+                .event(event)
+                .status(RequestStatus.PENDING)
+                .created(LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS))
+                .build();
+    }
+}
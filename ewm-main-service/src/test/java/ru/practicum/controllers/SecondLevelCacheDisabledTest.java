@@ -0,0 +1,51 @@
+package ru.practicum.controllers;
+
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import ru.practicum.entity.Category;
+import ru.practicum.repository.CategoryRepository;
+import ru.practicum.service.statistics.StatisticsService;
+
+import javax.cache.CacheManager;
+import javax.persistence.EntityManagerFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * SECOND-LEVEL CACHE OFF SWITCH TESTS
+ * with ewm.cache.second-level.enabled=false neither entities nor query results must be cached,
+ * although hibernate-jcache is on the classpath
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:second-level-cache-disabled",
+        "spring.jpa.properties.hibernate.show_sql=false",
+        "logging.level.ru.practicum=warn",
+        "ewm.cache.second-level.enabled=false"})
+public class SecondLevelCacheDisabledTest {
+
+    @Autowired
+    CategoryRepository categoryRepository;
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+    @Autowired(required = false)
+    CacheManager secondLevelCacheManager;
+    @MockBean
+    StatisticsService statisticsService;
+
+    /**
+     * should read the category from the database every time
+     */
+    @Test
+    public void shouldNotCacheEntities() {
+        Category category = categoryRepository.save(Category.builder().name("concert").build());
+        categoryRepository.findById(category.getId());
+
+        assertThat(entityManagerFactory.getCache().contains(Category.class, category.getId())).isFalse();
+        assertThat(entityManagerFactory.unwrap(SessionFactory.class).getSessionFactoryOptions()
+                .isSecondLevelCacheEnabled()).isFalse();
+        assertThat(secondLevelCacheManager).isNull();
+    }
+}
@@ -0,0 +1,216 @@
+package ru.practicum.controllers;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.dto.category.CategoryDto;
+import ru.practicum.dto.compilation.CompilationDto;
+import ru.practicum.dto.compilation.NewCompilationDto;
+import ru.practicum.dto.compilation.UpdateCompilationRequest;
+import ru.practicum.entity.Category;
+import ru.practicum.entity.Compilation;
+import ru.practicum.entity.Event;
+import ru.practicum.entity.Location;
+import ru.practicum.entity.User;
+import ru.practicum.enums.EventState;
+import ru.practicum.repository.CategoryRepository;
+import ru.practicum.repository.CompilationRepository;
+import ru.practicum.repository.EventRepository;
+import ru.practicum.repository.LocationRepository;
+import ru.practicum.repository.UserRepository;
+import ru.practicum.service.category.CategoryService;
+import ru.practicum.service.compilation.CompilationService;
+import ru.practicum.service.statistics.StatisticsService;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * SECOND-LEVEL CACHE TESTS
+ * categories and compilations must be read from the second-level cache, and results of cacheable queries
+ * from the query cache, until they are changed; events must not be cached
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:second-level-cache",
+        "spring.jpa.properties.hibernate.show_sql=false",
+        "logging.level.ru.practicum=warn"})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class SecondLevelCacheTest {
+
+    @Autowired
+    CategoryService categoryService;
+    @Autowired
+    CompilationService compilationService;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    CategoryRepository categoryRepository;
+    @Autowired
+    LocationRepository locationRepository;
+    @Autowired
+    EventRepository eventRepository;
+    @Autowired
+    CompilationRepository compilationRepository;
+    @Autowired
+    TransactionTemplate transactionTemplate;
+    @Autowired
+    MeterRegistry meterRegistry;
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+    @MockBean
+    StatisticsService statisticsService;
+
+    Statistics statistics;
+    User initiator;
+    Category category;
+
+    @BeforeEach
+    public void create() {
+        initiator = userRepository.save(User.builder().name("initiator").email("initiator@yandex.ru").build());
+        category = categoryRepository.save(Category.builder().name("concert").build());
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    /**
+     * should read the category from cache, and its new name after the admin renames it
+     */
+    @Test
+    public void shouldReadCategoryFromCacheUntilAdminUpdatesIt() {
+        categoryRepository.findById(category.getId());
+        statistics.clear();
+
+        assertThat(categoryRepository.findById(category.getId())).get()
+                .extracting(Category::getName).isEqualTo("concert");
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(meterRegistry.get("cache.gets").tags("cache", "categories", "result", "hit")
+                .functionCounter().count()).isPositive();
+
+        categoryService.updateCategory(category.getId(),
+                CategoryDto.builder().id(category.getId()).name("festival").build());
+
+        assertThat(categoryRepository.findById(category.getId())).get()
+                .extracting(Category::getName).isEqualTo("festival");
+    }
+
+    /**
+     * should read the event from the database every time, since confirmed requests of events change by bulk updates
+     */
+    @Test
+    public void shouldNotCacheEvents() {
+        Long eventId = addEvent("title", EventState.PENDING).getId();
+        loadEvent(eventId);
+        statistics.clear();
+
+        assertThat(loadEvent(eventId).getTitle()).isEqualTo("title");
+        assertThat(statistics.getPrepareStatementCount()).isPositive();
+        assertThat(entityManagerFactory.getCache().contains(Event.class, eventId)).isFalse();
+    }
+
+    /**
+     * should read the compilation from cache, and its new title and events after the admin changes them
+     */
+    @Test
+    public void shouldReadCompilationFromCacheUntilAdminUpdatesIt() {
+        List<Long> eventIds = List.of(addEvent("first", EventState.PUBLISHED).getId(),
+                addEvent("second", EventState.PUBLISHED).getId());
+        Integer compId = compilationService.addCompilation(NewCompilationDto.builder()
+                .title("compilation").pinned(false).events(eventIds).build()).getId();
+        compilationRepository.findById(compId);
+        statistics.clear();
+
+        assertThat(compilationRepository.findById(compId)).get()
+                .extracting(Compilation::getTitle).isEqualTo("compilation");
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(loadCompilationEvents(compId)).containsExactlyInAnyOrderElementsOf(eventIds);
+        assertThat(loadCompilationEvents(compId)).containsExactlyInAnyOrderElementsOf(eventIds);
+        assertThat(meterRegistry.get("cache.gets").tags("cache", "compilation-events", "result", "hit")
+                .functionCounter().count()).isPositive();
+
+        compilationService.updateCompilation(compId, UpdateCompilationRequest.builder()
+                .title("renamed").events(List.of(eventIds.get(1))).build());
+
+        assertThat(loadCompilationEvents(compId)).containsExactly(eventIds.get(1));
+        assertThat(compilationRepository.findById(compId)).get()
+                .extracting(Compilation::getTitle).isEqualTo("renamed");
+    }
+
+    /**
+     * should read results of cacheable queries from cache, until compilations are changed
+     */
+    @Test
+    public void shouldInvalidateCachedQueryResultsOnUpdates() {
+        Integer compId = compilationService.addCompilation(NewCompilationDto.builder()
+                .title("compilation").pinned(false).events(List.of()).build()).getId();
+        assertThat(compilationService.getCompilations(0, 10, true)).isEmpty();
+        statistics.clear();
+
+        assertThat(compilationService.getCompilations(0, 10, true)).isEmpty();
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+
+        compilationService.updateCompilation(compId, UpdateCompilationRequest.builder().pinned(true).build());
+
+        assertThat(compilationService.getCompilations(0, 10, true))
+                .extracting(CompilationDto::getId).containsExactly(compId);
+    }
+
+    /**
+     * should read whether the category has events from the query cache, until events are changed
+     */
+    @Test
+    public void shouldReadCategoryUsageFromQueryCacheUntilEventsChange() {
+        assertThat(eventRepository.existsByCategory_Id(category.getId())).isFalse();
+        statistics.clear();
+
+        assertThat(eventRepository.existsByCategory_Id(category.getId())).isFalse();
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+
+        addEvent("title", EventState.PENDING);
+
+        assertThat(eventRepository.existsByCategory_Id(category.getId())).isTrue();
+    }
+
+    private Event loadEvent(Long eventId) {
+        return transactionTemplate.execute(status -> eventRepository.getReferenceById(eventId).toBuilder().build());
+    }
+
+    private List<Long> loadCompilationEvents(Integer compId) {
+        return transactionTemplate.execute(status -> compilationRepository.getReferenceById(compId).getEvents()
+                .stream()
+                .map(Event::getId)
+                .collect(Collectors.toList()));
+    }
+
+    private Event addEvent(String title, EventState state) {
+        return eventRepository.save(Event.builder()
+                .annotation("This is valid annotation")
+                .description("This is valid description")
+                .title(title)
+                .category(category)
+                .initiator(initiator)
+                .location(locationRepository.save(Location.builder().lat(55.5f).lon(37.5f).build()))
+                .confirmedRequests(0)
+                .participantLimit(0)
+                .paid(false)
+                .requestModeration(true)
+                .createdOn(LocalDateTime.now())
+                .publishedOn(state == EventState.PUBLISHED ? LocalDateTime.now() : null)
+                .eventDate(LocalDateTime.now().plusMonths(1).truncatedTo(ChronoUnit.SECONDS))
+                .state(state.name())
+                .views(0L)
+                .build());
+    }
+}
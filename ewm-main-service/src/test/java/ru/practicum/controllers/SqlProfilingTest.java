@@ -0,0 +1,119 @@
+package ru.practicum.controllers;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.web.servlet.HandlerMapping;
+import ru.practicum.entity.User;
+import ru.practicum.repository.UserRepository;
+import ru.practicum.service.concurrent.FanOut;
+import ru.practicum.service.metrics.ProfilingDataSource;
+import ru.practicum.service.metrics.SqlProfilingFilter;
+import ru.practicum.service.statistics.StatisticsService;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * SQL PROFILING TESTS
+ * statements executed while an HTTP request is processed must be counted per endpoint
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:sqlprofiling",
+        "spring.jpa.properties.hibernate.show_sql=false",
+        "logging.level.ru.practicum=error",
+        "ewm.sql.slow-statement-millis=0",
+        "ewm.sql.n-plus-one.threshold=2"})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class SqlProfilingTest {
+    private static final String URI = "/admin/users";
+
+    @Autowired
+    SqlProfilingFilter filter;
+    @Autowired
+    DataSource dataSource;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    MeterRegistry meterRegistry;
+    @Autowired
+    FanOut fanOut;
+    @MockBean
+    StatisticsService statisticsService;
+
+    /**
+     * should count statements and rows of the request and flag statements repeated over the threshold
+     */
+    @Test
+    public void shouldCountStatementsOfRequestAndFlagRepeatedOnes() throws Exception {
+        assertThat(dataSource).isInstanceOf(ProfilingDataSource.class);
+        List<Long> ids = IntStream.range(0, 3)
+                .mapToObj(i -> userRepository.save(User.builder().name("user" + i).email("user" + i + "@yandex.ru")
+                        .build()).getId())
+                .collect(Collectors.toList());
+
+        filter.doFilter(request(), new MockHttpServletResponse(),
+                (request, response) -> ids.forEach(userRepository::findById));
+
+        assertThat(meterRegistry.get("ewm.sql.statements").tags("method", "GET", "uri", URI)
+                .summary().totalAmount()).isEqualTo(3);
+        assertThat(meterRegistry.get("ewm.sql.rows").tags("method", "GET", "uri", URI)
+                .summary().totalAmount()).isEqualTo(3);
+        assertThat(meterRegistry.get("ewm.sql.time").tags("method", "GET", "uri", URI)
+                .timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("ewm.sql.slow-statements").tags("method", "GET", "uri", URI)
+                .counter().count()).isEqualTo(3);
+        assertThat(meterRegistry.get("ewm.sql.n-plus-one").tags("method", "GET", "uri", URI)
+                .counter().count()).isEqualTo(1);
+    }
+
+    /**
+     * should not flag requests, which repeat no statement over the threshold
+     */
+    @Test
+    public void shouldNotFlagRequestsUnderThreshold() throws Exception {
+        filter.doFilter(request(), new MockHttpServletResponse(),
+                (request, response) -> userRepository.findAll());
+
+        assertThat(meterRegistry.get("ewm.sql.statements").tags("method", "GET", "uri", URI)
+                .summary().totalAmount()).isEqualTo(1);
+        assertThat(meterRegistry.find("ewm.sql.n-plus-one").counter()).isNull();
+    }
+
+    /**
+     * should count statements of fan-out tasks into the profile of the request, which forked them
+     */
+    @Test
+    public void shouldCountStatementsOfFanOutTasks() throws Exception {
+        Long id = userRepository.save(User.builder().name("user").email("user@yandex.ru").build()).getId();
+
+        filter.doFilter(request(), new MockHttpServletResponse(), (request, response) -> {
+            try (FanOut.Scope scope = fanOut.open()) {
+                scope.fork("FanOut.user", () -> userRepository.findById(id));
+                scope.fork("FanOut.users", () -> userRepository.findAll());
+                scope.join();
+            }
+            userRepository.findById(id);
+        });
+
+        assertThat(meterRegistry.get("ewm.sql.statements").tags("method", "GET", "uri", URI)
+                .summary().totalAmount()).isEqualTo(3);
+        assertThat(meterRegistry.get("ewm.sql.rows").tags("method", "GET", "uri", URI)
+                .summary().totalAmount()).isEqualTo(3);
+    }
+
+    private MockHttpServletRequest request() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", URI);
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, URI);
+        return request;
+    }
+}
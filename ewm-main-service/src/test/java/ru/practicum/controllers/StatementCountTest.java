@@ -0,0 +1,229 @@
+package ru.practicum.controllers;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.web.context.request.ServletWebRequest;
+import ru.practicum.controllers.admin.CompilationAdminController;
+import ru.practicum.controllers.admin.EventAdminController;
+import ru.practicum.controllers.priv.EventPrivateController;
+import ru.practicum.controllers.pub.CompilationPublicController;
+import ru.practicum.controllers.pub.EventPublicController;
+import ru.practicum.dto.compilation.CompilationDto;
+import ru.practicum.dto.compilation.NewCompilationDto;
+import ru.practicum.dto.event.EventFullDto;
+import ru.practicum.dto.event.EventShortDto;
+import ru.practicum.dto.request.EventRequestStatusUpdateRequest;
+import ru.practicum.dto.request.EventRequestStatusUpdateResult;
+import ru.practicum.entity.Category;
+import ru.practicum.entity.Event;
+import ru.practicum.entity.Location;
+import ru.practicum.entity.Request;
+import ru.practicum.entity.User;
+import ru.practicum.enums.EventState;
+import ru.practicum.enums.RequestStatus;
+import ru.practicum.repository.CategoryRepository;
+import ru.practicum.repository.EventRepository;
+import ru.practicum.repository.LocationRepository;
+import ru.practicum.repository.RequestRepository;
+import ru.practicum.repository.UserRepository;
+import ru.practicum.service.request.RequestCounters;
+import ru.practicum.service.statistics.StatisticsService;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static ru.practicum.utils.constants.Constants.EVENTS_PATH;
+import static ru.practicum.utils.constants.Constants.SLASH_PATH;
+
+/**
+ * SQL STATEMENT COUNT TESTS
+ * number of statements per endpoint must not grow with the number of returned events
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:statements")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class StatementCountTest {
+    private static final int NUMBER_OF_EVENTS = 5;
+
+    @Autowired
+    EventPrivateController eventPrivateController;
+    @Autowired
+    EventAdminController eventAdminController;
+    @Autowired
+    EventPublicController eventPublicController;
+    @Autowired
+    CompilationPublicController compilationPublicController;
+    @Autowired
+    CompilationAdminController compilationAdminController;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    CategoryRepository categoryRepository;
+    @Autowired
+    LocationRepository locationRepository;
+    @Autowired
+    EventRepository eventRepository;
+    @Autowired
+    RequestRepository requestRepository;
+    @Autowired
+    RequestCounters requestCounters;
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+    @MockBean
+    StatisticsService statisticsService;
+
+    Statistics statistics;
+    Long initiatorId;
+    Long eventId;
+
+    @BeforeEach
+    public void create() {
+        User initiator = userRepository.save(User.builder().name("initiator").email("initiator@yandex.ru").build());
+        initiatorId = initiator.getId();
+
+        List<Long> eventIds = new ArrayList<>();
+        for (int i = 0; i < NUMBER_OF_EVENTS; i++) {
+            Category category = categoryRepository.save(Category.builder().name("category " + i).build());
+            Location location = locationRepository.save(Location.builder().lat(55.5f + i).lon(37.5f + i).build());
+            eventIds.add(eventRepository.save(Event.builder()
+                    .annotation("This is valid annotation " + i)
+                    .description("This is valid description " + i)
+                    .title("title " + i)
+                    .category(category)
+                    .initiator(initiator)
+                    .location(location)
+                    .confirmedRequests(0)
+                    .participantLimit(0)
+                    .paid(false)
+                    .requestModeration(true)
+                    .createdOn(LocalDateTime.now())
+                    .publishedOn(LocalDateTime.now())
+                    .eventDate(LocalDateTime.now().plusYears(1).plusDays(i))
+                    .state(EventState.PUBLISHED.name())
+                    .views(0L)
+                    .build()).getId());
+        }
+        eventIds.forEach(requestCounters::create);
+        eventId = eventIds.get(0);
+        compilationAdminController.addCompilation(NewCompilationDto.builder()
+                .title("first").events(eventIds).build());
+        compilationAdminController.addCompilation(NewCompilationDto.builder()
+                .title("second").events(eventIds.subList(1, NUMBER_OF_EVENTS)).build());
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    /**
+     * should get events added by user with single statement
+     */
+    @Test
+    public void shouldGetEventsByUserWithSingleStatement() {
+        List<EventShortDto> events = eventPrivateController.getEventsByUser(initiatorId, 0, 10);
+
+        assertThat(events).hasSize(NUMBER_OF_EVENTS);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    /**
+     * should get events for admin with single statement
+     */
+    @Test
+    public void shouldGetEventsByAdminWithSingleStatement() {
+        List<EventFullDto> events = eventAdminController.getEventsByAdmin(
+                null, null, null, null, null, 0, 10);
+
+        assertThat(events).hasSize(NUMBER_OF_EVENTS);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    /**
+     * should get published events for public with single statement
+     */
+    @Test
+    public void shouldGetPublicEventsWithSingleStatement() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", EVENTS_PATH);
+
+        List<EventShortDto> events = eventPublicController.getPublicEvents(
+                null, null, null, null, null, false, null, 0, 10, request, new ServletWebRequest(request));
+
+        assertThat(events).hasSize(NUMBER_OF_EVENTS);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    /**
+     * should get published event by id with single statement
+     */
+    @Test
+    public void shouldGetPublicEventByIdWithSingleStatement() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", EVENTS_PATH + SLASH_PATH + eventId);
+
+        EventFullDto event = eventPublicController.getPublicEventById(eventId, request, new ServletWebRequest(request));
+
+        assertThat(event.getId()).isEqualTo(eventId);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    /**
+     * should get compilations with events from their snapshots with two statements
+     * (the version query for conditional requests and the page of snapshots)
+     */
+    @Test
+    public void shouldGetCompilationsWithTwoStatements() {
+        List<CompilationDto> compilations = compilationPublicController.getCompilations(
+                null, 0, 10, new ServletWebRequest(new MockHttpServletRequest()));
+
+        assertThat(compilations).hasSize(2);
+        assertThat(compilations.get(0).getEvents()).hasSize(NUMBER_OF_EVENTS);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    /**
+     * should update status of participation requests with a fixed number of statements,
+     * rejecting the rest of pending requests when the participation limit is reached
+     * (including the locked read of the rest of pending requests and the single update of request counters)
+     */
+    @Test
+    public void shouldUpdateRequestsStatusWithFixedNumberOfStatements() {
+        int limit = 100;
+        Event event = eventRepository.findById(eventId).orElseThrow();
+        eventRepository.save(event.toBuilder().participantLimit(limit).build());
+        List<Long> requestIds = requestRepository.saveAll(IntStream.range(0, 2 * limit)
+                        .mapToObj(i -> Request.builder()
+                                .requester(userRepository.save(User.builder()
+                                        .name("requester " + i).email("requester" + i + "@yandex.ru").build()))
+                                .event(event)
+                                .status(RequestStatus.PENDING)
+                                .created(LocalDateTime.now())
+                                .build())
+                        .collect(Collectors.toList()))
+                .stream().map(Request::getId).collect(Collectors.toList());
+        statistics.clear();
+
+        EventRequestStatusUpdateResult result = eventPrivateController.updateRequestsStatus(initiatorId, eventId,
+                EventRequestStatusUpdateRequest.builder()
+                        .requestIds(requestIds.subList(0, limit + limit / 2))
+                        .status(RequestStatus.CONFIRMED)
+                        .build());
+
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(8);
+        assertThat(result.getConfirmedRequests()).hasSize(limit);
+        assertThat(result.getRejectedRequests()).hasSize(limit / 2);
+        assertThat(requestRepository.findAllByEvent_Id(eventId))
+                .filteredOn(request -> request.getStatus().equals(RequestStatus.CONFIRMED)).hasSize(limit);
+        assertThat(requestRepository.findAllByEvent_Id(eventId))
+                .filteredOn(request -> request.getStatus().equals(RequestStatus.REJECTED)).hasSize(limit);
+        assertThat(eventRepository.findById(eventId).orElseThrow().getConfirmedRequests()).isEqualTo(limit);
+    }
+}
@@ -0,0 +1,148 @@
+package ru.practicum.controllers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpMethod;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.client.RestTemplate;
+import ru.practicum.repository.CategoryRepository;
+import ru.practicum.repository.UserRepository;
+import ru.practicum.service.event.EventService;
+import ru.practicum.service.statistics.StatisticsService;
+import ru.practicum.tracing.Span;
+import ru.practicum.tracing.TraceContext;
+import ru.practicum.tracing.Tracer;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * TRACING TESTS
+ * requests must continue the trace of the caller, with spans of repositories and mapping,
+ * and pass the trace to stats-server
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:tracing",
+        "spring.jpa.properties.hibernate.show_sql=false",
+        "logging.level.ru.practicum=warn",
+        "ewm.tracing.exporter=file",
+        "ewm.tracing.file=" + TracingTest.SPANS_FILE})
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class TracingTest {
+    static final String SPANS_FILE = "target/tracing-test/spans.jsonl";
+    private static final String TRACE_ID = "4bf92f3577b34da6a3ce929d0e0e4736";
+    private static final String PARENT_SPAN_ID = "00f067aa0ba902b7";
+
+    @Autowired
+    MockMvc mockMvc;
+    @Autowired
+    EventService eventService;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    CategoryRepository categoryRepository;
+    @Autowired
+    RestTemplateBuilder restTemplateBuilder;
+    @Autowired
+    Tracer tracer;
+    @MockBean
+    StatisticsService statisticsService;
+
+    @BeforeAll
+    public static void deleteSpans() throws IOException {
+        Files.deleteIfExists(Path.of(SPANS_FILE));
+    }
+
+    /**
+     * should continue the trace of the traceparent header, with spans of repositories and mapping of the event
+     */
+    @Test
+    public void shouldContinueTraceOfRequest() throws Exception {
+        Long eventId = EventFixtures.addPublishedEvent(userRepository, categoryRepository, eventService);
+
+        String traceparent = mockMvc.perform(get("/events/{eventId}", eventId)
+                        .header(TraceContext.TRACEPARENT_HEADER, "00-" + TRACE_ID + "-" + PARENT_SPAN_ID + "-01"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(TraceContext.TRACEPARENT_HEADER);
+
+        TraceContext server = TraceContext.parse(traceparent).orElseThrow();
+        assertThat(server.getTraceId()).isEqualTo(TRACE_ID);
+        List<JsonNode> spans = readSpans().stream()
+                .filter(span -> span.get("traceId").asText().equals(TRACE_ID))
+                .collect(Collectors.toList());
+        assertThat(spans).anySatisfy(span -> {
+            assertThat(span.get("name").asText()).isEqualTo("GET /events/{eventId}");
+            assertThat(span.get("kind").asText()).isEqualTo("SERVER");
+            assertThat(span.get("spanId").asText()).isEqualTo(server.getSpanId());
+            assertThat(span.get("parentSpanId").asText()).isEqualTo(PARENT_SPAN_ID);
+            assertThat(span.get("tags").get("http.status_code").asText()).isEqualTo("200");
+        });
+        assertThat(spans).anySatisfy(span -> {
+            assertThat(span.get("name").asText()).isEqualTo("EventRepository.findByIdAndState");
+            assertThat(span.get("parentSpanId").asText()).isEqualTo(server.getSpanId());
+        });
+        assertThat(spans).anySatisfy(span ->
+                assertThat(span.get("name").asText()).isEqualTo("EventMapper.toEventFullDto"));
+    }
+
+    /**
+     * should pass the current trace in the traceparent header of requests sent by RestTemplate
+     */
+    @Test
+    public void shouldPassTraceToServer() {
+        RestTemplate restTemplate = restTemplateBuilder.rootUri("http://localhost:9090").build();
+        MockRestServiceServer server = MockRestServiceServer.bindTo(restTemplate).build();
+
+        try (Span span = tracer.start("test")) {
+            server.expect(method(HttpMethod.GET))
+                    .andExpect(header(TraceContext.TRACEPARENT_HEADER,
+                            startsWith("00-" + span.getContext().getTraceId() + "-")))
+                    .andRespond(withSuccess());
+            restTemplate.getForEntity("/stats", String.class);
+        }
+
+        server.verify();
+        assertThat(readSpans()).anySatisfy(span -> {
+            assertThat(span.get("name").asText()).isEqualTo("GET /stats");
+            assertThat(span.get("kind").asText()).isEqualTo("CLIENT");
+        });
+    }
+
+    private List<JsonNode> readSpans() {
+        ObjectMapper mapper = new ObjectMapper();
+        try {
+            return Files.readAllLines(Path.of(SPANS_FILE)).stream()
+                    .map(line -> {
+                        try {
+                            return mapper.readTree(line);
+                        } catch (IOException e) {
+                            throw new IllegalStateException(e);
+                        }
+                    })
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
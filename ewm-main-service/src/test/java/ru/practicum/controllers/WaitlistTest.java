@@ -0,0 +1,224 @@
+package ru.practicum.controllers;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.dto.request.EventRequestStatusUpdateRequest;
+import ru.practicum.dto.request.ParticipationRequestDto;
+import ru.practicum.entity.Category;
+import ru.practicum.entity.Event;
+import ru.practicum.entity.EventRequestCounters;
+import ru.practicum.entity.Location;
+import ru.practicum.entity.User;
+import ru.practicum.enums.RequestStatus;
+import ru.practicum.repository.CategoryRepository;
+import ru.practicum.repository.EventRepository;
+import ru.practicum.repository.EventRequestCountersRepository;
+import ru.practicum.repository.LocationRepository;
+import ru.practicum.repository.RequestRepository;
+import ru.practicum.repository.UserRepository;
+import ru.practicum.service.event.EventService;
+import ru.practicum.service.request.RequestService;
+import ru.practicum.service.request.Waitlist;
+import ru.practicum.service.statistics.StatisticsService;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * WAITLIST TESTS
+ * requests to a full event must wait and be promoted in the order they were made, when places are released
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:waitlist",
+        "spring.jpa.properties.hibernate.show_sql=false",
+        "logging.level.ru.practicum=warn",
+        "ewm.admission.queue.enabled=false",
+        "ewm.waitlist.enabled=true",
+        "ewm.waitlist.batch-size=2"})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class WaitlistTest {
+    private static final int NUMBER_OF_REQUESTERS = 12;
+
+    @Autowired
+    EventService eventService;
+    @Autowired
+    RequestService requestService;
+    @Autowired
+    Waitlist waitlist;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    CategoryRepository categoryRepository;
+    @Autowired
+    LocationRepository locationRepository;
+    @Autowired
+    EventRepository eventRepository;
+    @Autowired
+    RequestRepository requestRepository;
+    @Autowired
+    EventRequestCountersRepository countersRepository;
+    @MockBean
+    StatisticsService statisticsService;
+
+    Long initiatorId;
+    List<Long> requesterIds;
+    Category category;
+
+    @BeforeEach
+    public void create() {
+        User initiator = userRepository.save(User.builder().name("initiator").email("initiator@yandex.ru").build());
+        initiatorId = initiator.getId();
+        requesterIds = IntStream.range(0, NUMBER_OF_REQUESTERS)
+                .mapToObj(i -> userRepository.save(User.builder()
+                        .name("requester " + i).email("requester" + i + "@yandex.ru").build()).getId())
+                .collect(Collectors.toList());
+        category = categoryRepository.save(Category.builder().name("concert").build());
+    }
+
+    /**
+     * should put requests to a full event on the waitlist and promote the oldest one when a place is released
+     */
+    @Test
+    public void shouldPromoteOldestWaitingRequestOnCancellation() {
+        Long eventId = createEvent(2, false);
+        List<ParticipationRequestDto> requests = addRequests(eventId, 4);
+        assertThat(requests).extracting(ParticipationRequestDto::getStatus).containsExactly(
+                RequestStatus.CONFIRMED, RequestStatus.CONFIRMED, RequestStatus.PENDING, RequestStatus.PENDING);
+
+        requestService.cancelParticipationRequest(requesterIds.get(0), requests.get(0).getId());
+
+        awaitUntil(() -> getStatus(requests.get(2)) == RequestStatus.CONFIRMED);
+        assertThat(getStatus(requests.get(3))).isEqualTo(RequestStatus.PENDING);
+        assertThat(eventRepository.findById(eventId).orElseThrow().getConfirmedRequests()).isEqualTo(2);
+        assertThat(countersRepository.findById(eventId).orElseThrow())
+                .isEqualTo(new EventRequestCounters(eventId, 1, 2, 0, 1));
+    }
+
+    /**
+     * should keep pending requests to a moderated event waiting, when the initiator's confirmations reach the limit,
+     * and leave them to the initiator instead of promoting them, when a place is released
+     */
+    @Test
+    public void shouldNotPromoteRequestsToModeratedEvent() {
+        Long eventId = createEvent(1, true);
+        List<ParticipationRequestDto> requests = addRequests(eventId, 3);
+
+        eventService.updateRequestsStatus(initiatorId, eventId, EventRequestStatusUpdateRequest.builder()
+                .requestIds(List.of(requests.get(1).getId()))
+                .status(RequestStatus.CONFIRMED)
+                .build());
+        assertThat(getStatus(requests.get(0))).isEqualTo(RequestStatus.PENDING);
+        assertThat(getStatus(requests.get(2))).isEqualTo(RequestStatus.PENDING);
+
+        requestService.cancelParticipationRequest(requesterIds.get(1), requests.get(1).getId());
+
+        assertThat(waitlist.promote(eventId)).isZero();
+        assertThat(getStatus(requests.get(0))).isEqualTo(RequestStatus.PENDING);
+        assertThat(getStatus(requests.get(2))).isEqualTo(RequestStatus.PENDING);
+        assertThat(eventRepository.findById(eventId).orElseThrow().getConfirmedRequests()).isZero();
+
+        eventService.updateRequestsStatus(initiatorId, eventId, EventRequestStatusUpdateRequest.builder()
+                .requestIds(List.of(requests.get(2).getId()))
+                .status(RequestStatus.CONFIRMED)
+                .build());
+        assertThat(getStatus(requests.get(2))).isEqualTo(RequestStatus.CONFIRMED);
+        assertThat(getStatus(requests.get(0))).isEqualTo(RequestStatus.PENDING);
+    }
+
+    /**
+     * should promote waiting requests in batches until the free places are filled
+     */
+    @Test
+    public void shouldPromoteWaitingRequestsInBatches() {
+        Long eventId = createEvent(1, false);
+        List<ParticipationRequestDto> requests = addRequests(eventId, 7);
+        Event event = eventRepository.findById(eventId).orElseThrow();
+        eventRepository.save(event.toBuilder().participantLimit(6).build());
+
+        assertThat(waitlist.promote(eventId)).isEqualTo(5);
+        assertThat(requests.subList(0, 6)).allMatch(request -> getStatus(request) == RequestStatus.CONFIRMED);
+        assertThat(getStatus(requests.get(6))).isEqualTo(RequestStatus.PENDING);
+        assertThat(eventRepository.findById(eventId).orElseThrow().getConfirmedRequests()).isEqualTo(6);
+        assertThat(waitlist.promote(eventId)).isZero();
+    }
+
+    /**
+     * should fill released places with the oldest waiting requests without exceeding the limit,
+     * when confirmed requests are canceled concurrently
+     */
+    @Test
+    public void shouldPromoteInOrderUnderConcurrentCancellations() {
+        int limit = 4;
+        Long eventId = createEvent(limit, false);
+        List<ParticipationRequestDto> requests = addRequests(eventId, NUMBER_OF_REQUESTERS);
+
+        ExecutorService executor = Executors.newFixedThreadPool(limit);
+        CountDownLatch start = new CountDownLatch(1);
+        List<CompletableFuture<Void>> cancellations = IntStream.range(0, limit)
+                .mapToObj(i -> CompletableFuture.runAsync(() -> {
+                    try {
+                        start.await();
+                        requestService.cancelParticipationRequest(requesterIds.get(i), requests.get(i).getId());
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }, executor))
+                .collect(Collectors.toList());
+        start.countDown();
+        CompletableFuture.allOf(cancellations.toArray(CompletableFuture[]::new)).orTimeout(1, TimeUnit.MINUTES).join();
+        executor.shutdown();
+
+        awaitUntil(() -> eventRepository.findById(eventId).orElseThrow().getConfirmedRequests() == limit);
+        assertThat(requests.subList(limit, 2 * limit))
+                .allMatch(request -> getStatus(request) == RequestStatus.CONFIRMED);
+        assertThat(requests.subList(2 * limit, NUMBER_OF_REQUESTERS))
+                .allMatch(request -> getStatus(request) == RequestStatus.PENDING);
+        assertThat(requestRepository.findAllByEvent_Id(eventId))
+                .filteredOn(request -> request.getStatus() == RequestStatus.CONFIRMED).hasSize(limit);
+    }
+
+    private Long createEvent(int limit, boolean moderation) {
+        Location location = locationRepository.save(Location.builder().lat(55.5f).lon(37.5f).build());
+        User initiator = userRepository.findById(initiatorId).orElseThrow();
+        return eventRepository.save(EventFixtures.publishedEvent(initiator, category, location)
+                .participantLimit(limit)
+                .requestModeration(moderation)
+                .build()).getId();
+    }
+
+    private List<ParticipationRequestDto> addRequests(Long eventId, int number) {
+        return requesterIds.subList(0, number).stream()
+                .map(requesterId -> requestService.addParticipationRequest(requesterId, eventId))
+                .collect(Collectors.toList());
+    }
+
+    private RequestStatus getStatus(ParticipationRequestDto request) {
+        return requestRepository.findById(request.getId()).orElseThrow().getStatus();
+    }
+
+    private void awaitUntil(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(30);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("waiting for promotion").isLessThan(deadline);
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -2,15 +2,18 @@ package ru.practicum.controllers.pub;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.dto.category.CategoryDto;
 import ru.practicum.service.category.CategoryService;
+import ru.practicum.utils.conditional.ContentVersion;
 import ru.practicum.utils.errors.ApiError;
 import ru.practicum.utils.errors.ErrorConstants;
 import ru.practicum.utils.errors.exceptions.NotFoundException;
@@ -25,6 +28,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static ru.practicum.utils.constants.Constants.*;
@@ -45,6 +49,14 @@ public class CategoryPublicControllerTest {
     @MockBean
     CategoryService service;
 
+    ContentVersion version = new ContentVersion(2L, LocalDateTime.of(2023, 1, 1, 10, 0));
+
+    @BeforeEach
+    public void mockVersions() {
+        when(service.getCategoriesVersion()).thenReturn(version);
+        when(service.getCategoryVersion(any())).thenReturn(version);
+    }
+
     /**
      * test get categories method
      * GET-request "/categories", no required parameters
@@ -362,4 +374,84 @@ public class CategoryPublicControllerTest {
         // verify invokes
         verify(service).getCategoryById(categoryId);
     }
+
+    /**
+     * test get categories method
+     * GET-request "/categories" with If-None-Match header equal to ETag of previous response
+     * should return status not modified without body
+     * should not invoke service getCategories method
+     */
+    @Test
+    @SneakyThrows
+    public void getCategories_WhenETagMatches_StatusIsNotModified_DoesNotInvokeService() {
+
+        //get ETag of the current version
+        String etag = mock.perform(get(CATEGORIES_PATH))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+        //perform tested request and check status and content
+        String result = mock.perform(get(CATEGORIES_PATH)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        // verify invokes
+        verify(service, times(1)).getCategories(0, 10);
+
+        //check result
+        assertEquals("", result);
+    }
+
+    /**
+     * test get categories method
+     * GET-request "/categories" with If-None-Match header and other paging parameters
+     * should return status ok
+     * should invoke service getCategories method
+     */
+    @Test
+    @SneakyThrows
+    public void getCategories_WhenETagIsForOtherPage_StatusIsOk_AndInvokeService() {
+
+        //get ETag of the first page
+        String etag = mock.perform(get(CATEGORIES_PATH))
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+        //perform tested request and check status
+        mock.perform(get(CATEGORIES_PATH)
+                        .param(FROM_PARAMETER_NAME, "10")
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+
+        // verify invokes
+        verify(service).getCategories(10, 10);
+    }
+
+    /**
+     * test get category by ID method
+     * GET-request "/categories/{catId}" with If-Modified-Since header not earlier than last modification
+     * should return status not modified
+     * should not invoke service getCategoryById method
+     */
+    @Test
+    @SneakyThrows
+    public void getCategoryById_WhenNotModifiedSince_StatusIsNotModified_DoesNotInvokeService() {
+
+        //perform tested request and check status
+        mock.perform(get(CATEGORIES_PATH + "/1")
+                        .header(HttpHeaders.IF_MODIFIED_SINCE, "Mon, 02 Jan 2023 12:00:00 GMT"))
+                .andExpect(status().isNotModified());
+
+        // verify invokes
+        verify(service, never()).getCategoryById(any());
+    }
 }
@@ -2,11 +2,13 @@ package ru.practicum.controllers.pub;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.dto.category.CategoryDto;
@@ -14,6 +16,7 @@ import ru.practicum.dto.compilation.CompilationDto;
 import ru.practicum.dto.event.EventShortDto;
 import ru.practicum.dto.user.UserShortDto;
 import ru.practicum.service.compilation.CompilationService;
+import ru.practicum.utils.conditional.ContentVersion;
 import ru.practicum.utils.errors.ApiError;
 import ru.practicum.utils.errors.exceptions.NotFoundException;
 import ru.practicum.utils.formatter.HttpStatusFormatter;
@@ -27,6 +30,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static ru.practicum.utils.constants.Constants.*;
@@ -47,6 +51,14 @@ public class CompilationPublicControllerTest {
     @MockBean
     CompilationService service;
 
+    ContentVersion version = new ContentVersion(2L, LocalDateTime.of(2023, 1, 1, 10, 0));
+
+    @BeforeEach
+    public void mockVersions() {
+        when(service.getCompilationsVersion(any())).thenReturn(version);
+        when(service.getCompilationVersion(any())).thenReturn(version);
+    }
+
 
     /**
      * test getCompilations method
@@ -693,4 +705,54 @@ public class CompilationPublicControllerTest {
 
     }
 
+    /**
+     * test get compilations method
+     * GET-request "/compilations" with If-None-Match header equal to ETag of previous response
+     * should return status not modified
+     * should not invoke service getCompilations method again
+     */
+    @Test
+    @SneakyThrows
+    public void getCompilations_WhenETagMatches_StatusIsNotModified_DoesNotInvokeService() {
+
+        //get ETag of the current version
+        String etag = mock.perform(get(COMPILATIONS_PATH)
+                        .param(PINNED_PARAMETER_NAME, "true"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+        //perform tested request and check status
+        mock.perform(get(COMPILATIONS_PATH)
+                        .param(PINNED_PARAMETER_NAME, "true")
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        // verify invokes
+        verify(service, times(1)).getCompilations(0, 10, true);
+    }
+
+    /**
+     * test get compilation by ID method
+     * GET-request "/compilations/{compId}" when compilation does not exist
+     * should not check preconditions and should invoke service getCompilationById method
+     */
+    @Test
+    @SneakyThrows
+    public void getCompilationById_WhenVersionNotFound_InvokeService() {
+
+        //mock service answer
+        when(service.getCompilationVersion(-1)).thenReturn(new ContentVersion(0L, null));
+        when(service.getCompilationById(-1)).thenThrow(new NotFoundException("not found"));
+
+        //perform tested request and check status
+        mock.perform(get(COMPILATIONS_PATH + "/-1")
+                        .header(HttpHeaders.IF_NONE_MATCH, "*"))
+                .andExpect(status().isNotFound());
+
+        // verify invokes
+        verify(service).getCompilationById(-1);
+    }
 }
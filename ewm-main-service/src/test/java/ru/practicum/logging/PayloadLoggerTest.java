@@ -0,0 +1,97 @@
+package ru.practicum.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import ru.practicum.dto.user.UserShortDto;
+import ru.practicum.entity.User;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * PAYLOAD LOGGER TESTS
+ * results must be logged only when the level is enabled, by their ids, and entities never in full
+ */
+public class PayloadLoggerTest {
+    private final Logger log = (Logger) LoggerFactory.getLogger(PayloadLoggerTest.class);
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+
+    @BeforeEach
+    public void attach() {
+        appender.start();
+        log.addAppender(appender);
+    }
+
+    @AfterEach
+    public void detach() {
+        log.detachAppender(appender);
+        log.setLevel(null);
+    }
+
+    /**
+     * should not touch results when DEBUG is disabled
+     */
+    @Test
+    public void shouldNotTouchResultsWhenDebugIsDisabled() {
+        log.setLevel(Level.INFO);
+        AtomicInteger calls = new AtomicInteger();
+
+        PayloadLogger.logResults(log, users(3), user -> calls.incrementAndGet());
+        PayloadLogger.logPayload(log, "Payload", new Object() {
+            @Override
+            public String toString() {
+                calls.incrementAndGet();
+                return "payload";
+            }
+        });
+
+        assertThat(calls).hasValue(0);
+        assertThat(appender.list).isEmpty();
+    }
+
+    /**
+     * should log number and limited ids of entities, but never the entities themselves
+     */
+    @Test
+    public void shouldLogIdsOfEntitiesOnly() {
+        log.setLevel(Level.DEBUG);
+
+        PayloadLogger.logResults(log, users(PayloadLogger.MAX_LOGGED_IDS + 5), User::getId);
+
+        assertThat(appender.list).extracting(ILoggingEvent::getFormattedMessage)
+                .containsExactly("25 results, ids: [1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19, "
+                        + "20, ... 5 more]");
+    }
+
+    /**
+     * should log full results only for a sample of calls
+     */
+    @Test
+    public void shouldSampleFullResults() {
+        log.setLevel(Level.DEBUG);
+        List<UserShortDto> users = List.of(UserShortDto.builder().id(1L).name("user").build());
+
+        for (int i = 0; i < 200; i++) {
+            PayloadLogger.logResults(log, users, UserShortDto::getId);
+        }
+
+        assertThat(appender.list).filteredOn(event -> event.getFormattedMessage().startsWith("Results: "))
+                .hasSize(2);
+    }
+
+    private List<User> users(int size) {
+        return LongStream.rangeClosed(1, size)
+                .mapToObj(id -> User.builder().id(id).name("user" + id).email("user" + id + "@yandex.ru").build())
+                .collect(Collectors.toList());
+    }
+}
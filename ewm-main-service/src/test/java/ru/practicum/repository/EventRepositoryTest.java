@@ -3,7 +3,9 @@ package ru.practicum.repository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.hibernate.Session;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Pageable;
 import org.springframework.test.annotation.DirtiesContext;
 import ru.practicum.dto.category.CategoryDto;
@@ -21,9 +23,14 @@ import ru.practicum.utils.mapper.CategoryMapper;
 import ru.practicum.utils.mapper.EventMapper;
 import ru.practicum.utils.mapper.UserMapper;
 import ru.practicum.utils.paging.Paging;
+import ru.practicum.utils.predicate.EventPredicateBuilder;
 
+import javax.persistence.EntityManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static ru.practicum.utils.constants.Constants.TEN_DEFAULT_VALUE;
@@ -34,7 +41,10 @@ import static ru.practicum.utils.constants.Constants.ZERO_DEFAULT_VALUE;
  */
 @DataJpaTest
 @DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+@Import(StatementCapture.class)
 public class EventRepositoryTest {
+    private static final Pageable PAGE = Paging.getPageable(0, 10, SortType.EVENT_DATE);
+
     @Autowired
     EventRepository eventRepository;
 
@@ -44,6 +54,10 @@ public class EventRepositoryTest {
     CategoryRepository categoryRepository;
     @Autowired
     LocationRepository locationRepository;
+    @Autowired
+    EntityManager entityManager;
+    @Autowired
+    StatementCapture statementCapture;
     User initiator;
     User participantAnna;
     User participantEgor;
@@ -205,14 +219,13 @@ public class EventRepositoryTest {
         LocalDateTime start = LocalDateTime.of(2024, 1, 1, 1, 1, 1);
         LocalDateTime end = start.plusYears(3);
         SortType sort = SortType.EVENT_DATE;
-        String state = String.valueOf(EventState.PUBLISHED);
         Pageable page = Paging.getPageable(
                 Integer.valueOf(ZERO_DEFAULT_VALUE),
                 Integer.valueOf(TEN_DEFAULT_VALUE),
                 sort);
         // get events
-        List<Event> events = eventRepository.findAllForPublic(
-                text, categories, true, start, end, state, page);
+        List<Event> events = eventRepository.findEvents(
+                EventPredicateBuilder.forPublic(text, categories, true, start, end, false), page);
 
         // check event
         assertThat(events).asList().hasSize(2)
@@ -267,15 +280,14 @@ public class EventRepositoryTest {
         LocalDateTime start = LocalDateTime.of(2024, 1, 1, 1, 1, 1);
         LocalDateTime end = start.plusMonths(1);
         SortType sort = SortType.EVENT_DATE;
-        String state = String.valueOf(EventState.PUBLISHED);
         Pageable page = Paging.getPageable(
                 Integer.valueOf(ZERO_DEFAULT_VALUE),
                 Integer.valueOf(TEN_DEFAULT_VALUE),
                 sort);
 
         // get events
-        List<Event> events = eventRepository.findAvailableForPublic(
-                text, categories, paid, start, end, state, page);
+        List<Event> events = eventRepository.findEvents(
+                EventPredicateBuilder.forPublic(text, categories, paid, start, end, true), page);
 
         // check event
         assertThat(events).asList().hasSize(1)
@@ -322,8 +334,8 @@ public class EventRepositoryTest {
                 Integer.valueOf(TEN_DEFAULT_VALUE),
                 sort);
         // get events
-        List<Event> events = eventRepository.findForAdmin(
-                users, states, categories, start, end, page);
+        List<Event> events = eventRepository.findEvents(
+                EventPredicateBuilder.forAdmin(users, states, categories, start, end), page);
 
         // check event
         assertThat(events).asList().hasSize(2)
@@ -363,4 +375,62 @@ public class EventRepositoryTest {
                 .hasFieldOrPropertyWithValue("title", title1);
 
     }
+
+    /**
+     * should use state and event date index in the query of public search
+     */
+    @Test
+    public void shouldUseStateAndEventDateIndexForPublicSearch() {
+        String plan = explain(() -> eventRepository.findEventShortDtos(
+                EventPredicateBuilder.forPublic(null, null, null, eventDate1, null, false), PAGE));
+
+        assertThat(plan).containsIgnoringCase("IDX_EVENTS_STATE_EVENT_DATE");
+    }
+
+    /**
+     * should use category and event date index in the query of search by categories
+     */
+    @Test
+    public void shouldUseCategoryAndEventDateIndexForCategorySearch() {
+        String plan = explain(() -> eventRepository.findEvents(
+                EventPredicateBuilder.forAdmin(null, null, List.of(catId1, catId2), eventDate1, null), PAGE));
+
+        assertThat(plan).containsIgnoringCase("IDX_EVENTS_CATEGORY_EVENT_DATE");
+    }
+
+    /**
+     * should look events up by an index on initiator_id in the query of search by users
+     * (H2 may choose its own foreign key index, which has the same shape as idx_events_initiator)
+     */
+    @Test
+    public void shouldUseInitiatorIndexForAdminSearch() {
+        String plan = explain(() -> eventRepository.findEvents(
+                EventPredicateBuilder.forAdmin(List.of(initiatorId), null, null, null, null), PAGE));
+
+        assertThat(plan).containsPattern("(?i)/\\* PUBLIC\\.\\w+: INITIATOR_ID (=|IN)");
+    }
+
+    /**
+     * get query plan of the events query, which Hibernate generates for the search
+     *
+     * @param search search to run
+     * @return query plan
+     */
+    private String explain(Runnable search) {
+        entityManager.clear();
+        statementCapture.clear();
+        search.run();
+        StatementCapture.Statement statement = statementCapture.find("from events");
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement explain = connection.prepareStatement("EXPLAIN " + statement.getSql())) {
+                for (Map.Entry<Integer, Object> parameter : statement.getParameters().entrySet()) {
+                    explain.setObject(parameter.getKey(), parameter.getValue());
+                }
+                try (ResultSet plan = explain.executeQuery()) {
+                    plan.next();
+                    return plan.getString(1);
+                }
+            }
+        });
+    }
 }
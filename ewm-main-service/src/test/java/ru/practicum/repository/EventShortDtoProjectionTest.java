@@ -0,0 +1,135 @@
+package ru.practicum.repository;
+
+import com.querydsl.core.types.Predicate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.dto.event.EventShortDto;
+import ru.practicum.entity.Category;
+import ru.practicum.entity.Event;
+import ru.practicum.entity.Location;
+import ru.practicum.entity.User;
+import ru.practicum.enums.EventState;
+import ru.practicum.enums.SortType;
+import ru.practicum.utils.mapper.EventMapper;
+import ru.practicum.utils.paging.Paging;
+import ru.practicum.utils.predicate.EventPredicateBuilder;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * EVENT SHORT DTO PROJECTION TESTS
+ * the short listing must be read by a direct DTO projection of the columns it needs, instead of loading entities
+ * with their descriptions and locations and mapping them
+ */
+@DataJpaTest
+@Import(StatementCapture.class)
+public class EventShortDtoProjectionTest {
+    private static final int NUMBER_OF_EVENTS = 5;
+    /**
+     * id, annotation, category id and name, confirmed requests, event date, initiator id and name, paid, title,
+     * views and publication date
+     */
+    private static final int PROJECTION_COLUMNS = 12;
+
+    @Autowired
+    EventRepository eventRepository;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    CategoryRepository categoryRepository;
+    @Autowired
+    LocationRepository locationRepository;
+    @Autowired
+    EntityManager entityManager;
+    @Autowired
+    StatementCapture statementCapture;
+
+    Predicate predicate;
+    Pageable page;
+
+    @BeforeEach
+    public void createEvents() {
+        User initiator = userRepository.save(User.builder().name("initiator").email("initiator@yandex.ru").build());
+        Category category = categoryRepository.save(Category.builder().name("concert").build());
+        String description = "d".repeat(7000);
+        for (int i = 0; i < NUMBER_OF_EVENTS; i++) {
+            Location location = locationRepository.save(Location.builder().lat(55.5f).lon(37.5f).build());
+            eventRepository.save(Event.builder()
+                    .annotation("This is valid annotation " + i)
+                    .description(description)
+                    .title("title " + i)
+                    .category(category)
+                    .initiator(initiator)
+                    .location(location)
+                    .confirmedRequests(0)
+                    .participantLimit(0)
+                    .paid(false)
+                    .requestModeration(true)
+                    .createdOn(LocalDateTime.now())
+                    .publishedOn(LocalDateTime.now())
+                    .eventDate(LocalDateTime.now().plusYears(1).plusDays(i))
+                    .state(EventState.PUBLISHED.name())
+                    .views(0L)
+                    .build());
+        }
+        entityManager.flush();
+        predicate = EventPredicateBuilder.forPublic(null, null, null, LocalDateTime.now(), null, false);
+        page = Paging.getPageable(0, NUMBER_OF_EVENTS, SortType.EVENT_DATE);
+    }
+
+    /**
+     * direct projection should return the same listing as mapping of entities,
+     * counters and publication date are filled in by the service for both
+     */
+    @Test
+    public void projectionShouldReturnSameEventsAsEntityMapping() {
+        entityManager.clear();
+        List<EventShortDto> mapped = EventMapper.toEventShortDtoList(eventRepository.findEvents(predicate, page));
+        entityManager.clear();
+
+        assertThat(eventRepository.findEventShortDtos(predicate, page))
+                .usingRecursiveFieldByFieldElementComparatorIgnoringFields("confirmedRequests", "views", "publishedOn")
+                .containsExactlyElementsOf(mapped);
+    }
+
+    /**
+     * direct projection should select only the columns of the short DTO, without the description and the location,
+     * which are loaded with entities
+     */
+    @Test
+    public void projectionShouldSelectFewerColumnsThanEntityQuery() {
+        String entitySql = capture(() -> eventRepository.findEvents(predicate, page));
+        String projectionSql = capture(() -> eventRepository.findEventShortDtos(predicate, page));
+
+        assertThat(entitySql).contains("description").contains("locations");
+        assertThat(projectionSql).doesNotContain("description").doesNotContain("locations");
+        assertThat(selectedColumns(projectionSql)).isEqualTo(PROJECTION_COLUMNS)
+                .isLessThan(selectedColumns(entitySql));
+    }
+
+    /**
+     * capture the events query of the listing
+     *
+     * @param listing listing to run
+     * @return SQL of the query in lower case
+     */
+    private String capture(Runnable listing) {
+        entityManager.clear();
+        statementCapture.clear();
+        listing.run();
+        return statementCapture.find("from events").getSql().toLowerCase();
+    }
+
+    private static int selectedColumns(String sql) {
+        String columns = sql.substring(sql.indexOf("select") + "select".length(), sql.indexOf(" from "));
+        return columns.split(",").length;
+    }
+}
@@ -0,0 +1,121 @@
+package ru.practicum.repository;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * STATEMENT CAPTURE
+ * wraps the data source of the test context to remember prepared statements with their bind parameters,
+ * so that tests can explain the SQL, which Hibernate generates, instead of hand-written SQL
+ */
+public class StatementCapture implements BeanPostProcessor {
+    private final List<Statement> statements = Collections.synchronizedList(new ArrayList<>());
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof DataSource)) {
+            return bean;
+        }
+        return new DelegatingDataSource((DataSource) bean) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                return capture(super.getConnection());
+            }
+
+            @Override
+            public Connection getConnection(String username, String password) throws SQLException {
+                return capture(super.getConnection(username, password));
+            }
+        };
+    }
+
+    /**
+     * forget captured statements
+     */
+    public void clear() {
+        statements.clear();
+    }
+
+    /**
+     * find the last captured statement containing the text
+     *
+     * @param text text of the statement, case-insensitive
+     * @return captured statement
+     */
+    public Statement find(String text) {
+        synchronized (statements) {
+            for (int i = statements.size() - 1; i >= 0; i--) {
+                if (statements.get(i).sql.toLowerCase().contains(text.toLowerCase())) {
+                    return statements.get(i);
+                }
+            }
+        }
+        throw new IllegalStateException("No statement containing '" + text + "' is captured");
+    }
+
+    private Connection capture(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+                    if (method.getName().equals("prepareStatement") && result instanceof PreparedStatement) {
+                        Statement statement = new Statement((String) args[0]);
+                        statements.add(statement);
+                        return capture((PreparedStatement) result, statement);
+                    }
+                    return result;
+                });
+    }
+
+    private PreparedStatement capture(PreparedStatement preparedStatement, Statement statement) {
+        return (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{PreparedStatement.class}, (proxy, method, args) -> {
+                    if (method.getName().startsWith("set") && args != null && args.length >= 2
+                            && args[0] instanceof Integer) {
+                        statement.parameters.put((Integer) args[0],
+                                method.getName().equals("setNull") ? null : args[1]);
+                    }
+                    return invoke(preparedStatement, method, args);
+                });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * prepared statement with its bind parameters by index
+     */
+    public static class Statement {
+        private final String sql;
+        private final Map<Integer, Object> parameters = new TreeMap<>();
+
+        private Statement(String sql) {
+            this.sql = sql;
+        }
+
+        public String getSql() {
+            return sql;
+        }
+
+        public Map<Integer, Object> getParameters() {
+            return parameters;
+        }
+    }
+}
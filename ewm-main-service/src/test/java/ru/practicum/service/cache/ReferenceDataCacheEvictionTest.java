@@ -0,0 +1,55 @@
+package ru.practicum.service.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import ru.practicum.entity.Category;
+import ru.practicum.repository.CategoryRepository;
+import ru.practicum.repository.UserRepository;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * REFERENCE DATA CACHE EVICTION TESTS
+ * a category read before its change is committed must not stay cached after the eviction on commit
+ */
+public class ReferenceDataCacheEvictionTest {
+    CategoryRepository categoryRepository = mock(CategoryRepository.class);
+    ReferenceDataCache cache = new ReferenceDataCache(categoryRepository, mock(UserRepository.class),
+            new SimpleMeterRegistry(), 300, 100);
+
+    /**
+     * should wait for the running load of the category on eviction and load the changed category afterwards
+     */
+    @Test
+    public void shouldNotCacheCategoryLoadedBeforeEviction() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch committed = new CountDownLatch(1);
+        when(categoryRepository.findById(1L))
+                .thenAnswer(invocation -> {
+                    loading.countDown();
+                    committed.await(5, TimeUnit.SECONDS);
+                    return Optional.of(Category.builder().id(1L).name("concert").build());
+                })
+                .thenReturn(Optional.of(Category.builder().id(1L).name("festival").build()));
+
+        CompletableFuture<Optional<Category>> stale = CompletableFuture.supplyAsync(() -> cache.findCategory(1L));
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<Void> eviction = CompletableFuture.runAsync(() ->
+                cache.onCategoryModification(new CategoryModification(1L)));
+        committed.countDown();
+        eviction.get(5, TimeUnit.SECONDS);
+
+        assertThat(stale.get(5, TimeUnit.SECONDS)).map(Category::getName).contains("concert");
+        assertThat(cache.findCategory(1L)).map(Category::getName).contains("festival");
+        verify(categoryRepository, times(2)).findById(1L);
+    }
+}
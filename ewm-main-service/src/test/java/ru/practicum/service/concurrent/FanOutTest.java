@@ -0,0 +1,153 @@
+package ru.practicum.service.concurrent;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.service.metrics.ProfilingDataSource;
+import ru.practicum.service.metrics.SqlProfile;
+import ru.practicum.threads.ThreadMode;
+import ru.practicum.threads.Threads;
+import ru.practicum.tracing.SpanExporter;
+import ru.practicum.tracing.Tracer;
+import ru.practicum.utils.errors.exceptions.NotFoundException;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * FAN-OUT TESTS
+ * forked tasks must run at the same time, the first failure must cancel the other tasks and reach the caller,
+ * a full pool must run tasks in the calling thread, and tasks must profile statements into the profile of the caller
+ */
+public class FanOutTest {
+    MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    FanOut fanOut;
+
+    @AfterEach
+    public void stop() {
+        fanOut.stop();
+    }
+
+    /**
+     * should run forked tasks and the caller at the same time
+     */
+    @Test
+    public void shouldRunTasksConcurrently() throws InterruptedException {
+        fanOut = fanOut(2, 0, 5_000);
+        CountDownLatch started = new CountDownLatch(3);
+
+        try (FanOut.Scope scope = fanOut.open()) {
+            FanOut.Task<String> first = scope.fork("first", () -> awaitOthers(started, "first"));
+            FanOut.Task<String> second = scope.fork("second", () -> awaitOthers(started, "second"));
+            String caller = awaitOthers(started, "caller");
+            scope.join();
+
+            assertThat(first.get()).isEqualTo("first");
+            assertThat(second.get()).isEqualTo("second");
+            assertThat(caller).isEqualTo("caller");
+        }
+    }
+
+    /**
+     * should rethrow the first failure as it is and interrupt the other tasks
+     */
+    @Test
+    public void shouldCancelOtherTasksOnFailure() throws InterruptedException {
+        fanOut = fanOut(2, 0, 5_000);
+        CountDownLatch interrupted = new CountDownLatch(1);
+
+        try (FanOut.Scope scope = fanOut.open()) {
+            FanOut.Task<String> slow = scope.fork("slow", () -> {
+                try {
+                    Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                }
+                return "slow";
+            });
+            scope.fork("failing", () -> {
+                throw new NotFoundException("Event with id=1 was not found");
+            });
+
+            assertThatThrownBy(scope::join).isInstanceOf(NotFoundException.class);
+            assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThatThrownBy(slow::get).isInstanceOf(IllegalStateException.class);
+        }
+    }
+
+    /**
+     * should run the task in the calling thread when the pool and its queue are full
+     */
+    @Test
+    public void shouldRunTaskInCallerWhenPoolIsFull() throws InterruptedException {
+        fanOut = fanOut(1, 1, 5_000);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (FanOut.Scope scope = fanOut.open()) {
+            scope.fork("busy", () -> release.await(5, TimeUnit.SECONDS));
+            scope.fork("queued", () -> true);
+            FanOut.Task<String> inline = scope.fork("inline", () -> Thread.currentThread().getName());
+            release.countDown();
+            scope.join();
+
+            assertThat(inline.get()).isEqualTo(Thread.currentThread().getName());
+            assertThat(meterRegistry.counter("ewm.fan-out.inline").count()).isEqualTo(1);
+        }
+    }
+
+    /**
+     * should cancel tasks, which are not finished in time
+     */
+    @Test
+    public void shouldFailWhenTasksAreNotFinishedInTime() {
+        fanOut = fanOut(1, 0, 50);
+
+        try (FanOut.Scope scope = fanOut.open()) {
+            FanOut.Task<Boolean> slow = scope.fork("slow", () -> new CountDownLatch(1).await(5, TimeUnit.SECONDS));
+
+            assertThatThrownBy(scope::join).isInstanceOf(IllegalStateException.class);
+            assertThatThrownBy(slow::get).isInstanceOf(IllegalStateException.class);
+        }
+    }
+
+    /**
+     * should run tasks in the SQL profile of the caller and detach it from the pool thread when the task is done
+     */
+    @Test
+    public void shouldRunTasksInProfileOfCaller() {
+        fanOut = fanOut(1, 0, 5_000);
+        SqlProfile profile = ProfilingDataSource.start();
+        try (FanOut.Scope scope = fanOut.open()) {
+            FanOut.Task<SqlProfile> forked = scope.fork("profiled", ProfilingDataSource::current);
+            scope.join();
+
+            assertThat(forked.get()).isSameAs(profile);
+        } finally {
+            ProfilingDataSource.stop();
+        }
+
+        try (FanOut.Scope scope = fanOut.open()) {
+            FanOut.Task<SqlProfile> forked = scope.fork("unprofiled", ProfilingDataSource::current);
+            scope.join();
+
+            assertThat(forked.get()).isNull();
+        }
+    }
+
+    private FanOut fanOut(int poolSize, int queueCapacity, long timeoutMillis) {
+        return new FanOut(new Tracer(SpanExporter.NONE), new Threads(ThreadMode.PLATFORM), meterRegistry,
+                poolSize, queueCapacity, timeoutMillis);
+    }
+
+    private static String awaitOthers(CountDownLatch started, String name) throws InterruptedException {
+        started.countDown();
+        if (!started.await(5, TimeUnit.SECONDS)) {
+            throw new IllegalStateException(name + " did not run at the same time as the others");
+        }
+        return name;
+    }
+}
@@ -0,0 +1,115 @@
+package ru.practicum.service.request;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.dto.request.ParticipationRequestDto;
+import ru.practicum.entity.Event;
+import ru.practicum.entity.Request;
+import ru.practicum.entity.User;
+import ru.practicum.enums.EventState;
+import ru.practicum.repository.EventRepository;
+import ru.practicum.repository.RequestRepository;
+import ru.practicum.repository.UserRepository;
+import ru.practicum.threads.ThreadMode;
+import ru.practicum.threads.Threads;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * ADMISSION QUEUE TESTS
+ * every event is hot, the caller must get the committed outcome of a batch, which has taken its request
+ * before the timeout, and must admit the request itself, if its batch fails
+ */
+public class AdmissionQueueTest {
+    EventRepository eventRepository = mock(EventRepository.class);
+    UserRepository userRepository = mock(UserRepository.class);
+    RequestRepository requestRepository = mock(RequestRepository.class);
+    TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    AdmissionQueue admissionQueue;
+    User initiator = User.builder().id(1L).name("initiator").email("initiator@yandex.ru").build();
+    User requester = User.builder().id(2L).name("requester").email("requester@yandex.ru").build();
+    Event event = Event.builder()
+            .id(1L)
+            .initiator(initiator)
+            .state(EventState.PUBLISHED.toString())
+            .participantLimit(0)
+            .requestModeration(false)
+            .confirmedRequests(0)
+            .build();
+
+    @BeforeEach
+    public void setUp() {
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        when(userRepository.findAllById(anyCollection())).thenReturn(List.of(requester));
+        when(requestRepository.findAllByEvent_IdAndRequester_IdIn(anyLong(), anyCollection())).thenReturn(List.of());
+        when(requestRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Request> requests = invocation.getArgument(0);
+            requests.forEach(request -> request.setId(1L));
+            return requests;
+        });
+        when(eventRepository.increaseConfirmedRequests(anyLong(), anyInt())).thenReturn(1);
+        admissionQueue = new AdmissionQueue(eventRepository, userRepository, requestRepository,
+                mock(ApplicationEventPublisher.class), transactionTemplate, mock(RequestCounters.class),
+                mock(Waitlist.class), mock(ParticipantPermits.class), new Threads(ThreadMode.PLATFORM),
+                true, 1, 10, 10, 1, 30, 1);
+    }
+
+    @AfterEach
+    public void stop() {
+        admissionQueue.stop();
+    }
+
+    /**
+     * should answer with the saved request, when the batch taken before the timeout is committed after it
+     */
+    @Test
+    public void shouldReturnRequestSavedAfterTimeout() {
+        when(eventRepository.findForUpdateById(1L)).thenAnswer(invocation -> {
+            TimeUnit.MILLISECONDS.sleep(1_500);
+            return Optional.of(event);
+        });
+
+        ParticipationRequestDto request = admissionQueue.admit(2L, 1L, () -> {
+            throw new IllegalStateException("Request must be admitted by the batch");
+        });
+
+        assertThat(request.getId()).isEqualTo(1L);
+        assertThat(request.getRequester()).isEqualTo(2L);
+    }
+
+    /**
+     * should admit the request in the calling thread, when its batch fails
+     */
+    @Test
+    public void shouldAdmitRequestInCallerWhenBatchFails() {
+        when(eventRepository.findForUpdateById(1L)).thenThrow(new IllegalStateException("Batch failed"));
+        String caller = Thread.currentThread().getName();
+
+        ParticipationRequestDto request = admissionQueue.admit(2L, 1L, () -> {
+            assertThat(Thread.currentThread().getName()).isEqualTo(caller);
+            return ParticipationRequestDto.builder().id(5L).event(1L).requester(2L).build();
+        });
+
+        assertThat(request.getId()).isEqualTo(5L);
+    }
+}
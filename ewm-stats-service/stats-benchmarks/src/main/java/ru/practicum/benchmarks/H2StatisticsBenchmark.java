@@ -0,0 +1,82 @@
+package ru.practicum.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.StatsServerApp;
+import ru.practicum.dto.ViewStats;
+import ru.practicum.service.StatsService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * H2 STATISTICS BENCHMARK
+ * StatsService.getStatistics of the stats server context (without web layer) over hits in in-memory H2,
+ * so that repository queries, entity loading and aggregation are measured together
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms6g", "-Xmx6g"})
+public class H2StatisticsBenchmark {
+
+    @Param({"10000", "100000", "1000000", "10000000"})
+    private int hits;
+
+    @Param({"false", "true"})
+    private boolean unique;
+
+    @Param({"false", "true"})
+    private boolean withUris;
+
+    private ConfigurableApplicationContext context;
+    private StatsService service;
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private List<String> uris;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // the test profile of the server switches the datasource to H2, arguments override application.properties
+        context = new SpringApplicationBuilder(StatsServerApp.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .run("--spring.datasource.url=jdbc:h2:mem:stats_benchmark;DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.properties.hibernate.show_sql=false");
+        context.getBean(JdbcTemplate.class).execute(HitsDataset.insertStatement(hits));
+        service = context.getBean(StatsService.class);
+        start = HitsDataset.start();
+        end = HitsDataset.end(hits);
+        uris = withUris ? HitsDataset.requestedUris() : null;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.getBean(JdbcTemplate.class).execute("DROP ALL OBJECTS");
+        context.close();
+    }
+
+    @Benchmark
+    public List<ViewStats> getStatistics() {
+        return service.getStatistics(start, end, uris, unique);
+    }
+}
@@ -0,0 +1,52 @@
+package ru.practicum.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.dto.EndpointHit;
+import ru.practicum.entities.Hit;
+import ru.practicum.utils.mapper.HitMapper;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HIT MAPPER BENCHMARK
+ * mapping of a saved hit: EndpointHit into Hit entity (parsing timestamp) and back (formatting timestamp)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HitMapperBenchmark {
+
+    private final EndpointHit endpointHit = EndpointHit.builder()
+            .app(HitsDataset.APP)
+            .uri("/events/1")
+            .ip("10.0.0.1")
+            .timestamp("2024-01-01 12:30:00")
+            .build();
+    private final Hit hit = HitMapper.toHitEntity(endpointHit).toBuilder().id(1L).build();
+
+    @Benchmark
+    public Hit toHitEntity() {
+        return HitMapper.toHitEntity(endpointHit);
+    }
+
+    @Benchmark
+    public EndpointHit toEndpointHit() {
+        return HitMapper.toEndpointHit(hit);
+    }
+
+    @Benchmark
+    public EndpointHit roundTrip() {
+        return HitMapper.toEndpointHit(HitMapper.toHitEntity(endpointHit));
+    }
+}
@@ -0,0 +1,97 @@
+package ru.practicum.benchmarks;
+
+import ru.practicum.entities.Hit;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * HITS DATASET
+ * generated hits of the main service: one hit per second, spread over a fixed number of event uris and user ips,
+ * the same dataset is built in heap and in H2, so that both benchmarks measure the same statistics
+ */
+public final class HitsDataset {
+    public static final String APP = "ewm-main-service";
+    public static final int NUMBER_OF_URIS = 100;
+    public static final int NUMBER_OF_IPS = 10_000;
+    public static final int NUMBER_OF_REQUESTED_URIS = 10;
+    public static final LocalDateTime FIRST_HIT = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    private HitsDataset() {
+    }
+
+    /**
+     * build hits in heap
+     *
+     * @param size number of hits
+     * @return list of hits
+     */
+    public static List<Hit> hits(int size) {
+        List<String> uris = IntStream.range(0, NUMBER_OF_URIS).mapToObj(HitsDataset::uri)
+                .collect(Collectors.toList());
+        List<String> ips = IntStream.range(0, NUMBER_OF_IPS).mapToObj(HitsDataset::ip)
+                .collect(Collectors.toList());
+        List<Hit> hits = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            hits.add(Hit.builder()
+                    .id((long) i)
+                    .app(APP)
+                    .uri(uris.get(i % NUMBER_OF_URIS))
+                    .ip(ips.get(i % NUMBER_OF_IPS))
+                    .timestamp(FIRST_HIT.plusSeconds(i))
+                    .build());
+        }
+        return hits;
+    }
+
+    /**
+     * statement inserting the same hits into H2
+     *
+     * @param size number of hits
+     * @return SQL statement
+     */
+    public static String insertStatement(int size) {
+        return "INSERT INTO hits (app, uri, ip, timestamp) "
+                + "SELECT '" + APP + "', "
+                + "CONCAT('/events/', MOD(X, " + NUMBER_OF_URIS + ")), "
+                + "CONCAT('10.0.', MOD(X, " + NUMBER_OF_IPS + ") / 256, '.', MOD(MOD(X, " + NUMBER_OF_IPS + "), 256)), "
+                + "DATEADD(SECOND, X, TIMESTAMP '2024-01-01 00:00:00') "
+                + "FROM SYSTEM_RANGE(1, " + size + ")";
+    }
+
+    /**
+     * uris requested by benchmarks with uris
+     *
+     * @return list of uris
+     */
+    public static List<String> requestedUris() {
+        return IntStream.range(0, NUMBER_OF_REQUESTED_URIS).mapToObj(HitsDataset::uri).collect(Collectors.toList());
+    }
+
+    /**
+     * start of the statistics range, before the first hit
+     */
+    public static LocalDateTime start() {
+        return FIRST_HIT.minusDays(1);
+    }
+
+    /**
+     * end of the statistics range, after the last hit
+     *
+     * @param size number of hits
+     */
+    public static LocalDateTime end(int size) {
+        return FIRST_HIT.plusSeconds(size).plusDays(1);
+    }
+
+    private static String uri(int i) {
+        return "/events/" + i;
+    }
+
+    private static String ip(int i) {
+        return "10.0." + (i / 256) + "." + (i % 256);
+    }
+}
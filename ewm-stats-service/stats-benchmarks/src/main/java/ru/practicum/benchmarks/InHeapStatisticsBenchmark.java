@@ -0,0 +1,105 @@
+package ru.practicum.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.dto.ViewStats;
+import ru.practicum.entities.Hit;
+import ru.practicum.repository.StatsRepository;
+import ru.practicum.service.StatsServiceImpl;
+import ru.practicum.tracing.SpanExporter;
+import ru.practicum.tracing.Tracer;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * IN-HEAP STATISTICS BENCHMARK
+ * StatsServiceImpl.getStatistics over hits held in heap, so that only the aggregation in the service is measured
+ * the repository is replaced by a proxy filtering the list the same way the repository queries do
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms6g", "-Xmx6g"})
+public class InHeapStatisticsBenchmark {
+
+    @Param({"10000", "100000", "1000000", "10000000"})
+    private int hits;
+
+    @Param({"false", "true"})
+    private boolean unique;
+
+    @Param({"false", "true"})
+    private boolean withUris;
+
+    private StatsServiceImpl service;
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private List<String> uris;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<Hit> dataset = HitsDataset.hits(hits);
+        service = new StatsServiceImpl(inHeapRepository(dataset), new Tracer(SpanExporter.NONE));
+        start = HitsDataset.start();
+        end = HitsDataset.end(hits);
+        uris = withUris ? HitsDataset.requestedUris() : null;
+    }
+
+    @Benchmark
+    public List<ViewStats> getStatistics() {
+        return service.getStatistics(start, end, uris, unique);
+    }
+
+    /**
+     * repository answering the finder methods used by the service from the list
+     *
+     * @param dataset list of hits
+     * @return stats repository
+     */
+    @SuppressWarnings("unchecked")
+    private static StatsRepository inHeapRepository(List<Hit> dataset) {
+        return (StatsRepository) Proxy.newProxyInstance(StatsRepository.class.getClassLoader(),
+                new Class<?>[]{StatsRepository.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "findAllByTimestampBetween":
+                            return findBetween(dataset, null, (LocalDateTime) args[0], (LocalDateTime) args[1]);
+                        case "findAllByUriInAndTimestampBetween":
+                            return findBetween(dataset, (List<String>) args[0],
+                                    (LocalDateTime) args[1], (LocalDateTime) args[2]);
+                        case "toString":
+                            return "InHeapStatsRepository";
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    private static List<Hit> findBetween(List<Hit> dataset, List<String> uris,
+                                         LocalDateTime start, LocalDateTime end) {
+        return dataset.stream()
+                .filter(hit -> !hit.getTimestamp().isBefore(start) && !hit.getTimestamp().isAfter(end))
+                .filter(hit -> uris == null || uris.contains(hit.getUri()))
+                .collect(Collectors.toList());
+    }
+}
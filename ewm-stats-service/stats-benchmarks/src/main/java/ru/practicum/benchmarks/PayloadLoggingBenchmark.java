@@ -0,0 +1,81 @@
+package ru.practicum.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ru.practicum.dto.ViewStats;
+import ru.practicum.entities.Hit;
+import ru.practicum.logging.PayloadLogger;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * PAYLOAD LOGGING BENCHMARK
+ * cost of logging results of a request at INFO level, as in production: joining toString() of every result
+ * (as the former ListLogger did) against lazy logging of PayloadLogger.
+ * The logger has no appenders (logback.xml), so that only the cost paid by the request thread is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PayloadLoggingBenchmark {
+    private static final Logger log = LoggerFactory.getLogger(PayloadLoggingBenchmark.class);
+
+    @Param({"10", "1000"})
+    private int size;
+
+    private List<ViewStats> stats;
+    private List<Hit> hits;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        stats = IntStream.range(0, size)
+                .mapToObj(i -> new ViewStats(HitsDataset.APP, "/events/" + i, (long) i))
+                .collect(Collectors.toList());
+        hits = HitsDataset.hits(size);
+    }
+
+    @Benchmark
+    public void joinedStats() {
+        logJoined(stats);
+    }
+
+    @Benchmark
+    public void lazyStats() {
+        PayloadLogger.logResults(log, stats, ViewStats::getUri);
+    }
+
+    @Benchmark
+    public void joinedHits() {
+        logJoined(hits);
+    }
+
+    @Benchmark
+    public void lazyHits() {
+        PayloadLogger.logResults(log, hits, Hit::getId);
+    }
+
+    private static <T> void logJoined(List<T> objects) {
+        String result = objects.stream()
+                .map(T::toString)
+                .collect(Collectors.joining(", "));
+        log.info("List on request: {}", result);
+    }
+}
@@ -1,5 +1,7 @@
 package ru.practicum.client;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.web.client.RestTemplateBuilder;
@@ -14,30 +16,38 @@ import ru.practicum.utils.PathConstructor;
 
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 
 import static ru.practicum.utils.Constants.*;
 
 /**
  * creation HTTP-requests to stats-server
+ * Metrics:
+ * ewm.stats.client{operation, outcome}. Time of the requests to stats-server by operation (hit, stats)
+ * and outcome (success: 2xx response, failure: other response or no response)
  */
 @Service
 @Slf4j
 public class StatsClient extends BaseClient {
+    private final MeterRegistry meterRegistry;
+
     @Autowired
-    public StatsClient(@Value("${ewm-stats-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public StatsClient(@Value("${ewm-stats-server.url}") String serverUrl, RestTemplateBuilder builder,
+                       MeterRegistry meterRegistry) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl))
                         .build()
         );
+        this.meterRegistry = meterRegistry;
     }
 
     /**
      * create POST-request to the "/hit" endpoint
      */
     public ResponseEntity<Object> saveRequestData(EndpointHit hit) {
-        ResponseEntity<Object> response = post(HIT_PATH, hit);
+        ResponseEntity<Object> response = timed("hit", () -> post(HIT_PATH, hit));
         if (response.getStatusCode().is2xxSuccessful()) {
             return ResponseEntity
                     .status(HttpStatus.CREATED)
@@ -57,7 +67,24 @@ public class StatsClient extends BaseClient {
         );
         log.info("We send GET-Request to StatsController with {}, {}, {}, {}:", start, end, uris, unique);
         String parameterPATH = PathConstructor.getParameterPath(start, end, uris, unique);
-        return get(STATS_PATH + parameterPATH, parameters);
+        return timed("stats", () -> get(STATS_PATH + parameterPATH, parameters));
+    }
+
+    /**
+     * record time of the request to stats-server with its outcome
+     */
+    private ResponseEntity<Object> timed(String operation, Supplier<ResponseEntity<Object>> request) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failure";
+        try {
+            ResponseEntity<Object> response = request.get();
+            if (response.getStatusCode().is2xxSuccessful()) {
+                outcome = "success";
+            }
+            return response;
+        } finally {
+            sample.stop(meterRegistry.timer("ewm.stats.client", "operation", operation, "outcome", outcome));
+        }
     }
 }
 
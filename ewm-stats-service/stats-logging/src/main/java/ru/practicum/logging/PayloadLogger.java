@@ -0,0 +1,92 @@
+package ru.practicum.logging;
+
+import org.hibernate.proxy.HibernateProxy;
+import org.slf4j.Logger;
+
+import javax.persistence.Entity;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * PAYLOAD LOGGER
+ * log results and request bodies lazily at DEBUG level of the caller's logger:
+ * nothing is built when the level is disabled, results are logged by their number and ids,
+ * and only every n-th payload is logged in full (-Dewm.logging.payload-sample-rate=n, 100 by default).
+ * Entities are never logged in full, so that logging cannot initialize their lazy associations.
+ */
+public final class PayloadLogger {
+    static final int MAX_LOGGED_IDS = 20;
+    private static final int PAYLOAD_SAMPLE_RATE = Math.max(1, Integer.getInteger("ewm.logging.payload-sample-rate",
+            100));
+    private static final AtomicLong PAYLOADS = new AtomicLong();
+
+    private PayloadLogger() {
+    }
+
+    /**
+     * log number and ids of results, and sampled results in full
+     *
+     * @param log     logger of the caller
+     * @param results list of results
+     * @param id      id of the result
+     */
+    public static <T> void logResults(Logger log, List<T> results, Function<? super T, ?> id) {
+        if (!log.isDebugEnabled()) {
+            return;
+        }
+        log.debug("{} results, ids: {}", results.size(), new Ids<>(results, id));
+        if (!results.isEmpty() && !isEntity(results.get(0)) && isSampled()) {
+            log.debug("Results: {}", results);
+        }
+    }
+
+    /**
+     * log sampled payload in full
+     *
+     * @param log         logger of the caller
+     * @param description what the payload is
+     * @param payload     request body or result
+     */
+    public static void logPayload(Logger log, String description, Object payload) {
+        if (log.isDebugEnabled() && payload != null && !isEntity(payload) && isSampled()) {
+            log.debug("{}: {}", description, payload);
+        }
+    }
+
+    private static boolean isSampled() {
+        return PAYLOADS.getAndIncrement() % PAYLOAD_SAMPLE_RATE == 0;
+    }
+
+    private static boolean isEntity(Object object) {
+        return object instanceof HibernateProxy || object.getClass().isAnnotationPresent(Entity.class);
+    }
+
+    /**
+     * ids of results, joined only when the message is formatted
+     */
+    private static final class Ids<T> {
+        private final List<T> results;
+        private final Function<? super T, ?> id;
+
+        private Ids(List<T> results, Function<? super T, ?> id) {
+            this.results = results;
+            this.id = id;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder ids = new StringBuilder("[");
+            for (int i = 0; i < Math.min(results.size(), MAX_LOGGED_IDS); i++) {
+                if (i > 0) {
+                    ids.append(", ");
+                }
+                ids.append(id.apply(results.get(i)));
+            }
+            if (results.size() > MAX_LOGGED_IDS) {
+                ids.append(", ... ").append(results.size() - MAX_LOGGED_IDS).append(" more");
+            }
+            return ids.append(']').toString();
+        }
+    }
+}
@@ -8,6 +8,7 @@ import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.dto.EndpointHit;
 import ru.practicum.dto.ViewStats;
+import ru.practicum.logging.PayloadLogger;
 import ru.practicum.service.StatsService;
 
 import javax.validation.Valid;
@@ -36,7 +37,7 @@ public class StatsController {
     @PostMapping(HIT_PATH)
     @ResponseStatus(HttpStatus.CREATED)
     public EndpointHit saveRequestData(@Valid @RequestBody EndpointHit requestData) {
-        log.info("Save information about user request: {}", requestData);
+        PayloadLogger.logPayload(log, "Save information about user request", requestData);
         return service.saveRequestData(requestData);
     }
 
@@ -7,8 +7,9 @@ import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.dto.EndpointHit;
 import ru.practicum.dto.ViewStats;
 import ru.practicum.entities.Hit;
+import ru.practicum.logging.PayloadLogger;
 import ru.practicum.repository.StatsRepository;
-import ru.practicum.utils.logger.ListLogger;
+import ru.practicum.tracing.Tracer;
 import ru.practicum.utils.mapper.HitMapper;
 
 import javax.validation.ValidationException;
@@ -33,6 +34,7 @@ import static ru.practicum.utils.constants.Constants.START_AFTER_END;
 public class StatsServiceImpl implements StatsService {
 
     private final StatsRepository repository;
+    private final Tracer tracer;
 
     /**
      * Save info about users request to the uri of a specific service.
@@ -44,7 +46,7 @@ public class StatsServiceImpl implements StatsService {
     public EndpointHit saveRequestData(EndpointHit requestData) {
         Hit hit = HitMapper.toHitEntity(requestData);
         EndpointHit savedHit = HitMapper.toEndpointHit(repository.save(hit));
-        log.info("Hit {} has been saved.", savedHit);
+        log.debug("Hit {} has been saved.", savedHit.getId());
         return savedHit;
     }
 
@@ -71,12 +73,12 @@ public class StatsServiceImpl implements StatsService {
         if (!hits.isEmpty()) {
             if (Boolean.TRUE.equals(unique)) {
                 hits = retainUniqueIpHits(hits);
-                ListLogger.logResultList(hits);
+                PayloadLogger.logResults(log, hits, Hit::getId);
             }
             stats = mapAndSortList(hits, uris);
         }
 
-        ListLogger.logResultList(stats);
+        PayloadLogger.logResults(log, stats, ViewStats::getUri);
         return stats;
     }
 
@@ -89,12 +91,9 @@ public class StatsServiceImpl implements StatsService {
      * @return list of users requests, met specified criteria
      */
     private List<Hit> findHits(LocalDateTime start, LocalDateTime end, List<String> uris) {
-
-        if (uris == null) {
-            return repository.findAllByTimestampBetween(start, end);
-        } else {
-            return repository.findAllByUriInAndTimestampBetween(uris, start, end);
-        }
+        return tracer.inSpan("StatsService.findHits", () -> uris == null
+                ? repository.findAllByTimestampBetween(start, end)
+                : repository.findAllByUriInAndTimestampBetween(uris, start, end));
     }
 
 
@@ -117,7 +116,10 @@ public class StatsServiceImpl implements StatsService {
      * @return list of ViewStats objects
      */
     private List<ViewStats> mapAndSortList(List<Hit> hits, List<String> uris) {
+        return tracer.inSpan("StatsService.mapAndSortList", () -> toSortedViewStats(hits, uris));
+    }
 
+    private List<ViewStats> toSortedViewStats(List<Hit> hits, List<String> uris) {
         Comparator<ViewStats> viewDesc = Comparator.comparing(ViewStats::getHits).reversed();
 
         if (uris != null) {
@@ -0,0 +1,38 @@
+package ru.practicum.threads;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.Locale;
+
+/**
+ * CONCURRENCY LIMITED DATA SOURCE POST PROCESSOR
+ * wrap data sources of the context into the concurrency limited data source with ewm.threads.db.permits permits.
+ * In the virtual mode permits default to the size of the connection pool, in the platform mode
+ * data sources are limited only if the permits are set.
+ */
+@Component
+public class ConcurrencyLimitedDataSourcePostProcessor implements BeanPostProcessor {
+    private final int permits;
+    private final long timeoutMillis;
+
+    public ConcurrencyLimitedDataSourcePostProcessor(
+            @Value("${ewm.threads.mode:platform}") String mode,
+            @Value("${ewm.threads.db.permits:0}") int permits,
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+            @Value("${ewm.threads.db.timeout-millis:30000}") long timeoutMillis) {
+        boolean virtual = ThreadMode.valueOf(mode.toUpperCase(Locale.ROOT)) == ThreadMode.VIRTUAL;
+        this.permits = permits > 0 ? permits : virtual ? poolSize : 0;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (permits <= 0 || !(bean instanceof DataSource) || bean instanceof ConcurrencyLimitedDataSource) {
+            return bean;
+        }
+        return new ConcurrencyLimitedDataSource((DataSource) bean, permits, timeoutMillis);
+    }
+}
@@ -0,0 +1,12 @@
+package ru.practicum.threads;
+
+/**
+ * THREAD MODE
+ * threads, which process HTTP requests and background jobs of the service:
+ * PLATFORM - pools of platform threads (default),
+ * VIRTUAL - virtual threads, a new one per task, requires JDK 21 or later
+ */
+public enum ThreadMode {
+    PLATFORM,
+    VIRTUAL
+}
@@ -0,0 +1,93 @@
+package ru.practicum.threads;
+
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * THREADS
+ * factories of threads of the configured mode for executors of the service.
+ * Virtual threads are created through reflection, so that the service is still built and run on JDK 11,
+ * where only the platform mode is available.
+ */
+public class Threads {
+    private final ThreadMode mode;
+
+    /**
+     * @param mode thread mode
+     * @throws IllegalStateException if virtual threads are requested, but not supported by the JDK
+     */
+    public Threads(ThreadMode mode) {
+        if (mode == ThreadMode.VIRTUAL && !isVirtualSupported()) {
+            throw new IllegalStateException("Virtual threads require JDK 21 or later, running on JDK "
+                    + System.getProperty("java.version"));
+        }
+        this.mode = mode;
+    }
+
+    public ThreadMode getMode() {
+        return mode;
+    }
+
+    /**
+     * @return true if virtual threads are created
+     */
+    public boolean isVirtual() {
+        return mode == ThreadMode.VIRTUAL;
+    }
+
+    /**
+     * new factory of daemon threads named by the prefix and their number
+     *
+     * @param prefix prefix of names of threads
+     * @return factory of platform or virtual threads
+     */
+    public ThreadFactory newThreadFactory(String prefix) {
+        if (isVirtual()) {
+            return newVirtualThreadFactory(prefix);
+        }
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(prefix);
+        threadFactory.setDaemon(true);
+        return threadFactory;
+    }
+
+    /**
+     * executor, which starts a new thread of the factory for every task,
+     * for virtual threads, which are cheap to create and must not be pooled
+     *
+     * @param prefix prefix of names of threads
+     * @return executor
+     */
+    public Executor newThreadPerTaskExecutor(String prefix) {
+        ThreadFactory threadFactory = newThreadFactory(prefix);
+        return task -> threadFactory.newThread(task).start();
+    }
+
+    /**
+     * @return true if the JDK creates virtual threads
+     */
+    public static boolean isVirtualSupported() {
+        try {
+            newVirtualThreadFactory("virtual-");
+            return true;
+        } catch (IllegalStateException e) {
+            return false;
+        }
+    }
+
+    private static ThreadFactory newVirtualThreadFactory(String prefix) {
+        try {
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, prefix, 1L);
+            return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+        } catch (ClassNotFoundException | NoSuchMethodException | IllegalAccessException e) {
+            throw new IllegalStateException("Virtual threads are not supported", e);
+        } catch (InvocationTargetException e) {
+            // preview API of JDK 19 and 20 without --enable-preview
+            throw new IllegalStateException("Virtual threads are not supported", e.getCause());
+        }
+    }
+}
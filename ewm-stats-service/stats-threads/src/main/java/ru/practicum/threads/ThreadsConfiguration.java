@@ -0,0 +1,41 @@
+package ru.practicum.threads;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.task.TaskSchedulerCustomizer;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Locale;
+
+/**
+ * THREADS CONFIGURATION
+ * thread mode of the service, chosen by ewm.threads.mode: platform (default) or virtual.
+ * In the virtual mode Tomcat processes every request and the scheduler runs every job in a new virtual thread,
+ * executors of the service get virtual threads from {@link Threads}, and connections of the data source
+ * are limited by {@link ConcurrencyLimitedDataSource}.
+ */
+@Configuration
+public class ThreadsConfiguration {
+
+    @Bean
+    public Threads threads(@Value("${ewm.threads.mode:platform}") String mode) {
+        return new Threads(ThreadMode.valueOf(mode.toUpperCase(Locale.ROOT)));
+    }
+
+    @Configuration
+    @ConditionalOnProperty(name = "ewm.threads.mode", havingValue = "virtual")
+    public static class Virtual {
+
+        @Bean
+        public TomcatProtocolHandlerCustomizer<?> virtualThreadsProtocolHandlerCustomizer(Threads threads) {
+            return protocolHandler -> protocolHandler.setExecutor(threads.newThreadPerTaskExecutor("http-virtual-"));
+        }
+
+        @Bean
+        public TaskSchedulerCustomizer virtualThreadsTaskSchedulerCustomizer(Threads threads) {
+            return taskScheduler -> taskScheduler.setThreadFactory(threads.newThreadFactory("scheduling-"));
+        }
+    }
+}
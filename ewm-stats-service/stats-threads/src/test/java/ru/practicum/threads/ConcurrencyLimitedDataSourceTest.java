@@ -0,0 +1,86 @@
+package ru.practicum.threads;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * CONCURRENCY LIMITED DATA SOURCE TESTS
+ * only as many connections as permits may be held at the same time, closing a connection lets the next thread in
+ */
+public class ConcurrencyLimitedDataSourceTest {
+    DataSource target;
+
+    @BeforeEach
+    public void create() throws SQLException {
+        target = mock(DataSource.class);
+        when(target.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+    }
+
+    /**
+     * should make the thread wait for a permit until a connection is closed
+     */
+    @Test
+    public void shouldWaitForClosedConnection() throws Exception {
+        ConcurrencyLimitedDataSource dataSource = new ConcurrencyLimitedDataSource(target, 1, 5_000);
+        Connection first = dataSource.getConnection();
+
+        CompletableFuture<Connection> second = CompletableFuture.supplyAsync(() -> {
+            try {
+                return dataSource.getConnection();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        while (dataSource.getWaitingThreads() == 0) {
+            Thread.onSpinWait();
+        }
+        assertThat(second).isNotDone();
+
+        first.close();
+        first.close();
+
+        second.get(5, TimeUnit.SECONDS).close();
+        assertThat(dataSource.getAvailablePermits()).isEqualTo(1);
+    }
+
+    /**
+     * should fail with transient exception if no permit is released in time
+     */
+    @Test
+    public void shouldFailWhenNoPermitInTime() throws Exception {
+        ConcurrencyLimitedDataSource dataSource = new ConcurrencyLimitedDataSource(target, 1, 50);
+        Connection connection = dataSource.getConnection();
+
+        assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+
+        connection.close();
+        verify(target).getConnection();
+        assertThat(dataSource.getAvailablePermits()).isEqualTo(1);
+    }
+
+    /**
+     * should release the permit if the target fails to give a connection
+     */
+    @Test
+    public void shouldReleasePermitWhenTargetFails() throws Exception {
+        when(target.getConnection()).thenThrow(new SQLException("pool is closed"));
+        ConcurrencyLimitedDataSource dataSource = new ConcurrencyLimitedDataSource(target, 1, 50);
+
+        assertThatThrownBy(dataSource::getConnection).hasMessage("pool is closed");
+
+        assertThat(dataSource.getAvailablePermits()).isEqualTo(1);
+    }
+}
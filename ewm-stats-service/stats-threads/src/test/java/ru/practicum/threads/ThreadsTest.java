@@ -0,0 +1,54 @@
+package ru.practicum.threads;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * THREADS TESTS
+ * threads of the configured mode must be named by the prefix, virtual threads are available only on JDK 21
+ */
+public class ThreadsTest {
+
+    /**
+     * should create named daemon platform threads
+     */
+    @Test
+    public void shouldCreatePlatformThreads() {
+        Thread thread = new Threads(ThreadMode.PLATFORM).newThreadFactory("worker-").newThread(() -> {
+        });
+
+        assertThat(thread.getName()).isEqualTo("worker-1");
+        assertThat(thread.isDaemon()).isTrue();
+    }
+
+    /**
+     * should run every task of the executor in a new virtual thread
+     */
+    @Test
+    public void shouldRunTasksInVirtualThreads() throws Exception {
+        assumeTrue(Threads.isVirtualSupported());
+        CompletableFuture<String> name = new CompletableFuture<>();
+
+        new Threads(ThreadMode.VIRTUAL).newThreadPerTaskExecutor("virtual-")
+                .execute(() -> name.complete(Thread.currentThread().getName()));
+
+        assertThat(name.get(5, TimeUnit.SECONDS)).isEqualTo("virtual-1");
+    }
+
+    /**
+     * should refuse the virtual mode on JDK without virtual threads
+     */
+    @Test
+    public void shouldRefuseVirtualModeWithoutVirtualThreads() {
+        assumeFalse(Threads.isVirtualSupported());
+
+        assertThatThrownBy(() -> new Threads(ThreadMode.VIRTUAL)).isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,54 @@
+package ru.practicum.tracing;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * FILE SPAN EXPORTER
+ * append spans to the file as JSON lines (ewm.tracing.file), for offline analysis of traces
+ */
+@Slf4j
+public class FileSpanExporter implements SpanExporter, AutoCloseable {
+    private final BufferedWriter writer;
+
+    public FileSpanExporter(Path file) {
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            this.writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open file of spans " + file, e);
+        }
+        log.info("Spans are exported to {}", file.toAbsolutePath());
+    }
+
+    @Override
+    public void export(Span span) {
+        String json = SpanFormatter.toJson(span);
+        synchronized (writer) {
+            try {
+                writer.write(json);
+                writer.newLine();
+                writer.flush();
+            } catch (IOException e) {
+                log.warn("Span {} has not been exported: {}", span.getName(), e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (writer) {
+            writer.close();
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package ru.practicum.tracing;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * LOG SPAN EXPORTER
+ * log spans as JSON at DEBUG level of the ewm.tracing logger, which is turned on with logging.level.ewm.tracing=debug
+ */
+@Slf4j(topic = "ewm.tracing")
+public class LogSpanExporter implements SpanExporter {
+
+    @Override
+    public void export(Span span) {
+        if (log.isDebugEnabled()) {
+            log.debug(SpanFormatter.toJson(span));
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package ru.practicum.tracing;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.aop.framework.AopProxyUtils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * REPOSITORY TRACING ASPECT
+ * call methods of Spring Data repositories inside spans named by the repository interface and the method,
+ * e.g. EventRepository.findById
+ */
+@Aspect
+public class RepositoryTracingAspect {
+    private final Tracer tracer;
+    private final Map<Class<?>, String> repositoryNames = new ConcurrentHashMap<>();
+
+    public RepositoryTracingAspect(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Around("this(org.springframework.data.repository.Repository)")
+    public Object trace(ProceedingJoinPoint joinPoint) throws Throwable {
+        try (Span span = tracer.start(repositoryName(joinPoint.getTarget()) + "." + joinPoint.getSignature().getName())) {
+            span.tag("component", "repository");
+            try {
+                return joinPoint.proceed();
+            } catch (Throwable e) {
+                span.error(e);
+                throw e;
+            }
+        }
+    }
+
+    private String repositoryName(Object repository) {
+        return repositoryNames.computeIfAbsent(repository.getClass(), type -> {
+            Class<?>[] interfaces = AopProxyUtils.proxiedUserInterfaces(repository);
+            return interfaces.length == 0 ? type.getSimpleName() : interfaces[0].getSimpleName();
+        });
+    }
+}
@@ -0,0 +1,84 @@
+package ru.practicum.tracing;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * SPAN
+ * timed operation of a trace with its tags, closing the span ends it and passes it to the exporter
+ */
+@Getter
+public class Span implements AutoCloseable {
+    @Getter(AccessLevel.NONE)
+    private final Tracer tracer;
+    @Getter(AccessLevel.PACKAGE)
+    private final Span parent;
+    private final TraceContext context;
+    private final String parentSpanId;
+    private final SpanKind kind;
+    private final Instant start;
+    @Getter(AccessLevel.NONE)
+    private final long startNanos;
+    private final Map<String, String> tags = new LinkedHashMap<>();
+    private String name;
+    private String error;
+    private long durationNanos = -1;
+
+    Span(Tracer tracer, Span parent, TraceContext context, String parentSpanId, SpanKind kind, String name) {
+        this.tracer = tracer;
+        this.parent = parent;
+        this.context = context;
+        this.parentSpanId = parentSpanId;
+        this.kind = kind;
+        this.name = name;
+        this.start = Instant.now();
+        this.startNanos = System.nanoTime();
+    }
+
+    /**
+     * rename the span, when its name is known only at the end, e.g. URI pattern of the request
+     */
+    public Span name(String name) {
+        this.name = name;
+        return this;
+    }
+
+    public Span tag(String key, Object value) {
+        tags.put(key, String.valueOf(value));
+        return this;
+    }
+
+    public Span error(Throwable throwable) {
+        this.error = throwable.getClass().getName() + ": " + throwable.getMessage();
+        return this;
+    }
+
+    public Map<String, String> getTags() {
+        return Collections.unmodifiableMap(tags);
+    }
+
+    public boolean isEnded() {
+        return durationNanos >= 0;
+    }
+
+    @Override
+    public void close() {
+        tracer.end(this);
+    }
+
+    /**
+     * @return true if the span has been ended now, false if it had been ended before
+     */
+    boolean end() {
+        if (isEnded()) {
+            return false;
+        }
+        durationNanos = System.nanoTime() - startNanos;
+        return true;
+    }
+}
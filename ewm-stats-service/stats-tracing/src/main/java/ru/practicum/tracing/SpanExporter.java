@@ -0,0 +1,13 @@
+package ru.practicum.tracing;
+
+/**
+ * SPAN EXPORTER
+ * receives every ended span; the exporter is chosen by ewm.tracing.exporter (log, file, none),
+ * or replaced by any other SpanExporter bean
+ */
+public interface SpanExporter {
+    SpanExporter NONE = span -> {
+    };
+
+    void export(Span span);
+}
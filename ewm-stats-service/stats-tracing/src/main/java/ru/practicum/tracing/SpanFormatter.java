@@ -0,0 +1,37 @@
+package ru.practicum.tracing;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SPAN FORMATTER
+ * span as a single line of JSON
+ */
+final class SpanFormatter {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private SpanFormatter() {
+    }
+
+    static String toJson(Span span) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("traceId", span.getContext().getTraceId());
+        json.put("spanId", span.getContext().getSpanId());
+        json.put("parentSpanId", span.getParentSpanId());
+        json.put("name", span.getName());
+        json.put("kind", span.getKind());
+        json.put("start", span.getStart().toString());
+        json.put("durationMicros", TimeUnit.NANOSECONDS.toMicros(span.getDurationNanos()));
+        json.put("tags", span.getTags());
+        json.put("error", span.getError());
+        try {
+            return MAPPER.writeValueAsString(json);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package ru.practicum.tracing;
+
+/**
+ * SPAN KIND
+ * SERVER: processing of an HTTP request, CLIENT: HTTP request to another service, INTERNAL: work inside the service
+ */
+public enum SpanKind {
+    SERVER,
+    CLIENT,
+    INTERNAL
+}
@@ -0,0 +1,77 @@
+package ru.practicum.tracing;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+/**
+ * TRACE CONTEXT
+ * IDs of the trace and of the span, propagated between services in the W3C traceparent header:
+ * traceparent: 00-{32 hex digits of trace ID}-{16 hex digits of span ID}-01
+ */
+@Getter
+@EqualsAndHashCode
+public final class TraceContext {
+    public static final String TRACEPARENT_HEADER = "traceparent";
+    private static final Pattern TRACEPARENT = Pattern.compile("00-[0-9a-f]{32}-[0-9a-f]{16}-[0-9a-f]{2}");
+    private static final String INVALID_TRACE_ID = "00000000000000000000000000000000";
+    private static final String INVALID_SPAN_ID = "0000000000000000";
+
+    private final String traceId;
+    private final String spanId;
+
+    private TraceContext(String traceId, String spanId) {
+        this.traceId = traceId;
+        this.spanId = spanId;
+    }
+
+    /**
+     * @return context of a new trace
+     */
+    static TraceContext newTrace() {
+        return new TraceContext(randomId() + randomId(), randomId());
+    }
+
+    /**
+     * @return context of a new span of the same trace
+     */
+    TraceContext newSpan() {
+        return new TraceContext(traceId, randomId());
+    }
+
+    /**
+     * parse traceparent header
+     *
+     * @param traceparent value of the header, may be null
+     * @return context of the remote span, or empty if the header is missing or invalid
+     */
+    public static Optional<TraceContext> parse(String traceparent) {
+        if (traceparent == null || !TRACEPARENT.matcher(traceparent).matches()) {
+            return Optional.empty();
+        }
+        String traceId = traceparent.substring(3, 35);
+        String spanId = traceparent.substring(36, 52);
+        if (traceId.equals(INVALID_TRACE_ID) || spanId.equals(INVALID_SPAN_ID)) {
+            return Optional.empty();
+        }
+        return Optional.of(new TraceContext(traceId, spanId));
+    }
+
+    /**
+     * @return value of the traceparent header
+     */
+    public String toTraceparent() {
+        return "00-" + traceId + "-" + spanId + "-01";
+    }
+
+    private static String randomId() {
+        long id;
+        do {
+            id = ThreadLocalRandom.current().nextLong();
+        } while (id == 0);
+        return String.format("%016x", id);
+    }
+}
@@ -0,0 +1,112 @@
+package ru.practicum.tracing;
+
+import org.slf4j.MDC;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * TRACER
+ * start spans as children of the current span of the thread, or of the remote parent received from another service,
+ * and pass ended spans to the exporter. IDs of the current span are kept in MDC (traceId, spanId).
+ */
+public class Tracer {
+    public static final String MDC_TRACE_ID = "traceId";
+    public static final String MDC_SPAN_ID = "spanId";
+
+    private final ThreadLocal<Span> current = new ThreadLocal<>();
+    private final SpanExporter exporter;
+
+    public Tracer(SpanExporter exporter) {
+        this.exporter = exporter;
+    }
+
+    /**
+     * start internal span as a child of the current span, or as a root of a new trace
+     *
+     * @param name name of the span
+     * @return started span, which must be closed
+     */
+    public Span start(String name) {
+        return start(name, SpanKind.INTERNAL, null);
+    }
+
+    /**
+     * start span as a child of the remote parent, or of the current span, or as a root of a new trace
+     *
+     * @param name         name of the span
+     * @param kind         kind of the span
+     * @param remoteParent context received from another service, may be null
+     * @return started span, which must be closed
+     */
+    public Span start(String name, SpanKind kind, TraceContext remoteParent) {
+        Span parent = current.get();
+        TraceContext parentContext = remoteParent != null ? remoteParent
+                : parent != null ? parent.getContext() : null;
+        Span span = parentContext == null
+                ? new Span(this, parent, TraceContext.newTrace(), null, kind, name)
+                : new Span(this, parent, parentContext.newSpan(), parentContext.getSpanId(), kind, name);
+        setCurrent(span);
+        return span;
+    }
+
+    /**
+     * call the action inside a new internal span
+     *
+     * @param name   name of the span
+     * @param action action
+     * @return result of the action
+     */
+    public <T> T inSpan(String name, Supplier<T> action) {
+        try (Span span = start(name)) {
+            try {
+                return action.get();
+            } catch (RuntimeException e) {
+                span.error(e);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * run the action inside a new internal span
+     *
+     * @param name   name of the span
+     * @param action action
+     */
+    public void inSpan(String name, Runnable action) {
+        inSpan(name, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * @return current span of the thread
+     */
+    public Optional<Span> current() {
+        return Optional.ofNullable(current.get());
+    }
+
+    void end(Span span) {
+        if (!span.end()) {
+            return;
+        }
+        if (current.get() == span) {
+            setCurrent(span.getParent());
+        }
+        exporter.export(span);
+    }
+
+    private void setCurrent(Span span) {
+        if (span == null) {
+            current.remove();
+            MDC.remove(MDC_TRACE_ID);
+            MDC.remove(MDC_SPAN_ID);
+        } else {
+            current.set(span);
+            MDC.put(MDC_TRACE_ID, span.getContext().getTraceId());
+            MDC.put(MDC_SPAN_ID, span.getContext().getSpanId());
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package ru.practicum.tracing;
+
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+
+/**
+ * TRACING CLIENT INTERCEPTOR
+ * send the HTTP request inside a client span and pass the span to the server in the traceparent header
+ */
+public class TracingClientInterceptor implements ClientHttpRequestInterceptor {
+    private final Tracer tracer;
+
+    public TracingClientInterceptor(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        try (Span span = tracer.start(request.getMethodValue() + " " + request.getURI().getPath(),
+                SpanKind.CLIENT, null)) {
+            span.tag("http.url", request.getURI());
+            request.getHeaders().set(TraceContext.TRACEPARENT_HEADER, span.getContext().toTraceparent());
+            try {
+                ClientHttpResponse response = execution.execute(request, body);
+                span.tag("http.status_code", response.getRawStatusCode());
+                return response;
+            } catch (IOException | RuntimeException e) {
+                span.error(e);
+                throw e;
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package ru.practicum.tracing;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.client.RestTemplateCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.nio.file.Path;
+
+/**
+ * TRACING CONFIGURATION
+ * tracer with the exporter of spans, chosen by ewm.tracing.exporter:
+ * log (default, JSON at DEBUG level of the ewm.tracing logger), file (JSON lines in ewm.tracing.file) or none.
+ * Unless ewm.tracing.enabled=false, HTTP requests are processed inside server spans, requests sent by RestTemplate
+ * inside client spans, which pass the trace to the server in the traceparent header,
+ * and calls of repositories inside internal spans.
+ */
+@Configuration
+public class TracingConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public SpanExporter spanExporter(@Value("${ewm.tracing.exporter:log}") String exporter,
+                                     @Value("${ewm.tracing.file:traces.jsonl}") String file) {
+        switch (exporter) {
+            case "log":
+                return new LogSpanExporter();
+            case "file":
+                return new FileSpanExporter(Path.of(file));
+            case "none":
+                return SpanExporter.NONE;
+            default:
+                throw new IllegalArgumentException("Unknown exporter of spans: " + exporter);
+        }
+    }
+
+    @Bean
+    public Tracer tracer(SpanExporter spanExporter) {
+        return new Tracer(spanExporter);
+    }
+
+    @Configuration
+    @ConditionalOnProperty(name = "ewm.tracing.enabled", havingValue = "true", matchIfMissing = true)
+    public static class Instrumentation {
+
+        @Bean
+        public FilterRegistrationBean<TracingFilter> tracingFilter(Tracer tracer) {
+            FilterRegistrationBean<TracingFilter> registration = new FilterRegistrationBean<>(new TracingFilter(tracer));
+            registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+            return registration;
+        }
+
+        @Bean
+        public RestTemplateCustomizer tracingRestTemplateCustomizer(Tracer tracer) {
+            return restTemplate -> restTemplate.getInterceptors().add(new TracingClientInterceptor(tracer));
+        }
+
+        @Bean
+        public RepositoryTracingAspect repositoryTracingAspect(Tracer tracer) {
+            return new RepositoryTracingAspect(tracer);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package ru.practicum.tracing;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * TRACING FILTER
+ * process the HTTP request inside a server span, continuing the trace of the traceparent header of the request,
+ * the span is named by the URI pattern of the handler and returned to the client in the traceparent header
+ */
+public class TracingFilter extends OncePerRequestFilter {
+    private final Tracer tracer;
+
+    public TracingFilter(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        TraceContext parent = TraceContext.parse(request.getHeader(TraceContext.TRACEPARENT_HEADER)).orElse(null);
+        Span span = tracer.start(request.getMethod(), SpanKind.SERVER, parent)
+                .tag("http.method", request.getMethod())
+                .tag("http.target", request.getRequestURI());
+        response.setHeader(TraceContext.TRACEPARENT_HEADER, span.getContext().toTraceparent());
+        try {
+            chain.doFilter(request, response);
+        } catch (IOException | ServletException | RuntimeException e) {
+            span.error(e);
+            throw e;
+        } finally {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            if (pattern != null) {
+                span.name(request.getMethod() + " " + pattern);
+            }
+            span.tag("http.status_code", response.getStatus());
+            span.close();
+        }
+    }
+}